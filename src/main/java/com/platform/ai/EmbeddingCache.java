@@ -0,0 +1,192 @@
+package com.platform.ai;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import io.quarkus.redis.datasource.RedisDataSource;
+import io.quarkus.redis.datasource.value.ValueCommands;
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.text.Normalizer;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * Content-addressed cache for embedding vectors.
+ *
+ * Entries are keyed by a SHA-256 of the model name and the normalized text.
+ * The first tier is an on-heap Caffeine cache; the optional second tier is
+ * Redis, storing vectors as little-endian float32 bytes. Cached arrays are
+ * shared and must not be modified by callers.
+ */
+@ApplicationScoped
+public class EmbeddingCache {
+
+    private static final Logger LOG = Logger.getLogger(EmbeddingCache.class);
+    private static final String KEY_PREFIX = "embedding:";
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    @Inject
+    RedisDataSource redisDataSource;
+
+    @Inject
+    MeterRegistry meterRegistry;
+
+    @ConfigProperty(name = "embedding.cache.enabled", defaultValue = "true")
+    boolean enabled;
+
+    @ConfigProperty(name = "embedding.cache.max-entries", defaultValue = "10000")
+    long maxEntries;
+
+    @ConfigProperty(name = "embedding.cache.redis.enabled", defaultValue = "false")
+    boolean redisEnabled;
+
+    @ConfigProperty(name = "embedding.cache.redis.ttl", defaultValue = "P7D")
+    Duration redisTtl;
+
+    private Cache<String, float[]> localCache;
+    private ValueCommands<String, byte[]> valueCommands;
+    private Counter redisHits;
+    private Counter redisMisses;
+
+    @PostConstruct
+    void init() {
+        localCache = Caffeine.newBuilder()
+                .maximumSize(maxEntries)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, localCache, "embeddings");
+
+        if (redisEnabled) {
+            valueCommands = redisDataSource.value(String.class, byte[].class);
+        }
+        redisHits = Counter.builder("embedding.cache.redis.requests")
+                .tag("result", "hit")
+                .register(meterRegistry);
+        redisMisses = Counter.builder("embedding.cache.redis.requests")
+                .tag("result", "miss")
+                .register(meterRegistry);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Look up a single vector.
+     *
+     * @return the cached vector, or null on a miss
+     */
+    public float[] get(String modelName, String text) {
+        if (!enabled) {
+            return null;
+        }
+        return getAll(modelName, List.of(text)).get(text);
+    }
+
+    /**
+     * Look up several vectors at once; the Redis tier is queried with a single
+     * MGET for everything missing from the local tier.
+     *
+     * @return the cached vectors by text; misses are absent from the map
+     */
+    public Map<String, float[]> getAll(String modelName, List<String> texts) {
+        Map<String, float[]> found = new HashMap<>();
+        if (!enabled) {
+            return found;
+        }
+
+        Map<String, String> missingKeys = new HashMap<>();
+        for (String text : texts) {
+            String key = key(modelName, text);
+            float[] vector = localCache.getIfPresent(key);
+            if (vector != null) {
+                found.put(text, vector);
+            } else {
+                missingKeys.put(key, text);
+            }
+        }
+
+        if (valueCommands != null && !missingKeys.isEmpty()) {
+            try {
+                Map<String, byte[]> stored = valueCommands.mget(missingKeys.keySet().toArray(new String[0]));
+                for (Map.Entry<String, String> entry : missingKeys.entrySet()) {
+                    byte[] bytes = stored.get(entry.getKey());
+                    if (bytes != null) {
+                        float[] vector = decode(bytes);
+                        localCache.put(entry.getKey(), vector);
+                        found.put(entry.getValue(), vector);
+                        redisHits.increment();
+                    } else {
+                        redisMisses.increment();
+                    }
+                }
+            } catch (Exception e) {
+                LOG.warnf(e, "Failed to read embeddings from Redis; continuing without second-tier cache");
+            }
+        }
+        return found;
+    }
+
+    public void put(String modelName, String text, float[] vector) {
+        if (!enabled || vector == null) {
+            return;
+        }
+        String key = key(modelName, text);
+        localCache.put(key, vector);
+
+        if (valueCommands != null) {
+            try {
+                valueCommands.setex(key, redisTtl.getSeconds(), encode(vector));
+            } catch (Exception e) {
+                LOG.warnf(e, "Failed to write embedding to Redis");
+            }
+        }
+    }
+
+    // Private helper methods
+
+    static String key(String modelName, String text) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(modelName.getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) 0);
+            digest.update(normalize(text).getBytes(StandardCharsets.UTF_8));
+            return KEY_PREFIX + HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    static String normalize(String text) {
+        String normalized = Normalizer.normalize(text, Normalizer.Form.NFC);
+        return WHITESPACE.matcher(normalized.strip()).replaceAll(" ");
+    }
+
+    static byte[] encode(float[] vector) {
+        ByteBuffer buffer = ByteBuffer.allocate(vector.length * Float.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        buffer.asFloatBuffer().put(vector);
+        return buffer.array();
+    }
+
+    static float[] decode(byte[] bytes) {
+        float[] vector = new float[bytes.length / Float.BYTES];
+        ByteBuffer.wrap(bytes).order(ByteOrder.LITTLE_ENDIAN).asFloatBuffer().get(vector);
+        return vector;
+    }
+}
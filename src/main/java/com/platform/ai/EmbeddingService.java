@@ -6,10 +6,12 @@ import dev.langchain4j.model.embedding.EmbeddingModel;
 import dev.langchain4j.model.mistralai.MistralAiEmbeddingModel;
 import jakarta.annotation.PostConstruct;
 import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
 import org.eclipse.microprofile.config.inject.ConfigProperty;
 import org.jboss.logging.Logger;
 import java.time.Duration;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 @ApplicationScoped
@@ -22,6 +24,9 @@ public class EmbeddingService {
     @ConfigProperty(name = "quarkus.langchain4j.mistralai.embedding-model.model-name", defaultValue = "mistral-embed")
     String modelName;
 
+    @Inject
+    EmbeddingCache embeddingCache;
+
     private EmbeddingModel embeddingModel;
 
     @PostConstruct
@@ -37,13 +42,15 @@ public class EmbeddingService {
     }
 
     public float[] embed(String text) {
+        float[] cached = embeddingCache.get(modelName, text);
+        if (cached != null) {
+            return cached;
+        }
+
         try {
             Embedding embedding = embeddingModel.embed(text).content();
-            List<Float> vectorList = embedding.vectorAsList();
-            float[] result = new float[vectorList.size()];
-            for (int i = 0; i < vectorList.size(); i++) {
-                result[i] = vectorList.get(i);
-            }
+            float[] result = toArray(embedding);
+            embeddingCache.put(modelName, text, result);
             return result;
         } catch (Exception e) {
             LOG.errorf(e, "Failed to generate embedding for text: %s", text);
@@ -51,26 +58,47 @@ public class EmbeddingService {
         }
     }
 
+    /**
+     * Embed several texts, sending only cache misses (deduplicated) to the model.
+     *
+     * @return vectors in the same order as {@code texts}
+     */
     public List<float[]> embedAll(List<String> texts) {
-        try {
-            List<TextSegment> segments = texts.stream()
-                    .map(TextSegment::from)
-                    .collect(Collectors.toList());
-            List<Embedding> embeddings = embeddingModel.embedAll(segments).content();
-            return embeddings.stream()
-                    .map(embedding -> {
-                        List<Float> vectorList = embedding.vectorAsList();
-                        float[] result = new float[vectorList.size()];
-                        for (int i = 0; i < vectorList.size(); i++) {
-                            result[i] = vectorList.get(i);
-                        }
-                        return result;
-                    })
-                    .collect(Collectors.toList());
-        } catch (Exception e) {
-            LOG.errorf(e, "Failed to generate embeddings for %d texts", texts.size());
-            throw new RuntimeException("Failed to generate embeddings", e);
+        Map<String, float[]> vectors = embeddingCache.getAll(modelName, texts);
+        List<String> misses = texts.stream()
+                .filter(text -> !vectors.containsKey(text))
+                .distinct()
+                .collect(Collectors.toList());
+
+        if (!misses.isEmpty()) {
+            try {
+                List<TextSegment> segments = misses.stream()
+                        .map(TextSegment::from)
+                        .collect(Collectors.toList());
+                List<Embedding> embeddings = embeddingModel.embedAll(segments).content();
+                for (int i = 0; i < misses.size(); i++) {
+                    float[] vector = toArray(embeddings.get(i));
+                    vectors.put(misses.get(i), vector);
+                    embeddingCache.put(modelName, misses.get(i), vector);
+                }
+            } catch (Exception e) {
+                LOG.errorf(e, "Failed to generate embeddings for %d texts", misses.size());
+                throw new RuntimeException("Failed to generate embeddings", e);
+            }
+        }
+
+        return texts.stream()
+                .map(vectors::get)
+                .collect(Collectors.toList());
+    }
+
+    private float[] toArray(Embedding embedding) {
+        List<Float> vectorList = embedding.vectorAsList();
+        float[] result = new float[vectorList.size()];
+        for (int i = 0; i < vectorList.size(); i++) {
+            result[i] = vectorList.get(i);
         }
+        return result;
     }
 
     public int getDimension() {
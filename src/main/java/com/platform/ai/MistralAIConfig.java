@@ -25,6 +25,23 @@ public class MistralAIConfig {
     @ConfigProperty(name = "quarkus.langchain4j.mistralai.mistral.chat-model.max-tokens", defaultValue = "2000")
     Integer maxTokens;
 
+    @ConfigProperty(name = "ai.model.context-window", defaultValue = "32000")
+    Integer contextWindow;
+
+    /**
+     * Tokens reserved for the model's completion.
+     */
+    public int getMaxTokens() {
+        return maxTokens;
+    }
+
+    /**
+     * Total tokens the model accepts per request (prompt plus completion).
+     */
+    public int getContextWindow() {
+        return contextWindow;
+    }
+
     @Produces
     @Default
     @ModelName("mistral")
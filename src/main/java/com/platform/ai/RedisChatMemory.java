@@ -1,98 +1,322 @@
 package com.platform.ai;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import io.quarkus.redis.datasource.RedisDataSource;
-import io.quarkus.redis.datasource.value.ValueCommands;
+import io.quarkus.redis.datasource.keys.KeyCommands;
+import io.quarkus.redis.datasource.list.ListCommands;
+import io.vertx.mutiny.redis.client.Response;
 import jakarta.annotation.PostConstruct;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
 import org.jboss.logging.Logger;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.time.Duration;
 import java.util.ArrayList;
+import java.util.HexFormat;
 import java.util.List;
+import java.util.UUID;
+import java.util.stream.Collectors;
 
+/**
+ * Conversation memory stored as a Redis list of JSON entries, one per message.
+ *
+ * Appends are a single RPUSH, reads fetch only the requested tail with
+ * LRANGE, and the list is capped with LTRIM. The TTL is refreshed with
+ * EXPIRE on every append, without rewriting the stored messages.
+ *
+ * Every append also bumps a per-conversation version counter, in the same
+ * script. A back-fill from the database is only written if the version is
+ * still the one read before the database query, so a message appended while
+ * the back-fill was in progress is never overwritten or dropped.
+ */
 @ApplicationScoped
 public class RedisChatMemory {
     private static final Logger LOG = Logger.getLogger(RedisChatMemory.class);
     private static final String MEMORY_KEY_PREFIX = "chat:memory:";
+    private static final String VERSION_KEY_PREFIX = "chat:memory:version:";
     private static final Duration DEFAULT_TTL = Duration.ofHours(24);
 
+    /**
+     * KEYS[1] message list, KEYS[2] version counter; ARGV[1] entry, ARGV[2]
+     * max messages, ARGV[3] TTL in seconds, ARGV[4] '1' to create the list if
+     * it does not exist. Returns the new list length (0 if not appended).
+     */
+    private static final String APPEND_SCRIPT = """
+            redis.call('INCR', KEYS[2])
+            redis.call('EXPIRE', KEYS[2], ARGV[3])
+            local length
+            if ARGV[4] == '1' then
+              length = redis.call('RPUSH', KEYS[1], ARGV[1])
+            else
+              length = redis.call('RPUSHX', KEYS[1], ARGV[1])
+            end
+            if length > 0 then
+              redis.call('LTRIM', KEYS[1], -tonumber(ARGV[2]), -1)
+              redis.call('EXPIRE', KEYS[1], ARGV[3])
+            end
+            return length
+            """;
+
+    /**
+     * KEYS[1] message list, KEYS[2] version counter; ARGV[1] expected
+     * version, ARGV[2] TTL in seconds, ARGV[3..] entries. Replaces the list
+     * only if the version is unchanged; returns 1 if replaced, 0 if not.
+     */
+    private static final String REPLACE_SCRIPT = """
+            local version = redis.call('GET', KEYS[2]) or '0'
+            if version ~= ARGV[1] then
+              return 0
+            end
+            redis.call('DEL', KEYS[1])
+            if #ARGV > 2 then
+              redis.call('RPUSH', KEYS[1], unpack(ARGV, 3))
+              redis.call('EXPIRE', KEYS[1], ARGV[2])
+            end
+            return 1
+            """;
+
+    private static final String APPEND_SCRIPT_SHA = sha1(APPEND_SCRIPT);
+    private static final String REPLACE_SCRIPT_SHA = sha1(REPLACE_SCRIPT);
+
     @Inject
     RedisDataSource redisDataSource;
 
-    private ValueCommands<String, String> valueCommands;
+    @Inject
+    ObjectMapper objectMapper;
+
+    @ConfigProperty(name = "chat.memory.max-messages", defaultValue = "200")
+    int maxMessages;
+
+    private ListCommands<String, String> listCommands;
+    private KeyCommands<String> keyCommands;
 
     @PostConstruct
     void init() {
-        this.valueCommands = redisDataSource.value(String.class, String.class);
+        this.listCommands = redisDataSource.list(String.class, String.class);
+        this.keyCommands = redisDataSource.key(String.class);
+    }
+
+    public void storeMessage(UUID conversationId, String role, String content) {
+        try {
+            append(conversationId, new MemoryEntry(role, content), true);
+            LOG.debugf("Stored %s message in conversation %s", role, conversationId);
+        } catch (Exception e) {
+            LOG.errorf(e, "Failed to store message in conversation %s", conversationId);
+        }
+    }
+
+    /**
+     * Append a message only if the conversation is already cached, so a
+     * partially populated list is never mistaken for the full window.
+     */
+    public void appendIfPresent(UUID conversationId, String role, String content) {
+        try {
+            append(conversationId, new MemoryEntry(role, content), false);
+        } catch (Exception e) {
+            LOG.errorf(e, "Failed to append message to conversation %s", conversationId);
+        }
+    }
+
+    /**
+     * Version of a conversation's cached messages, bumped by every append.
+     * Read it before loading the messages to pass to {@link #replace}.
+     *
+     * @return the version, or -1 if Redis could not be read
+     */
+    public long getVersion(UUID conversationId) {
+        try {
+            Response version = redisDataSource.execute("GET", buildVersionKey(conversationId));
+            return version != null ? version.toLong() : 0;
+        } catch (Exception e) {
+            LOG.errorf(e, "Failed to read memory version of conversation %s", conversationId);
+            return -1;
+        }
     }
 
-    public void storeMessage(Long conversationId, String role, String content) {
+    /**
+     * Replace the cached messages of a conversation, e.g. when back-filling
+     * from the database. Nothing is written if a message was appended since
+     * {@code expectedVersion} was read with {@link #getVersion}.
+     *
+     * @return whether the cache was written
+     */
+    public boolean replace(UUID conversationId, List<MemoryEntry> entries, long expectedVersion) {
+        if (expectedVersion < 0) {
+            return false;
+        }
         try {
-            String key = buildKey(conversationId);
-            String message = role + ": " + content;
-            List<String> messages = getMessages(conversationId);
-            messages.add(message);
-            String conversationData = String.join("\n", messages);
-            valueCommands.setex(key, DEFAULT_TTL.getSeconds(), conversationData);
-            LOG.debugf("Stored message in conversation %d: %s", conversationId, message);
+            String[] args = new String[entries.size() + 5];
+            args[0] = "2";
+            args[1] = buildKey(conversationId);
+            args[2] = buildVersionKey(conversationId);
+            args[3] = String.valueOf(expectedVersion);
+            args[4] = String.valueOf(DEFAULT_TTL.toSeconds());
+            for (int i = 0; i < entries.size(); i++) {
+                args[i + 5] = encode(entries.get(i));
+            }
+            boolean replaced = eval(REPLACE_SCRIPT, REPLACE_SCRIPT_SHA, args).toLong() == 1;
+            if (!replaced) {
+                LOG.debugf("Skipped back-fill of conversation %s: appended to meanwhile", conversationId);
+            }
+            return replaced;
         } catch (Exception e) {
-            LOG.errorf(e, "Failed to store message in conversation %d", conversationId);
+            LOG.errorf(e, "Failed to replace messages of conversation %s", conversationId);
+            return false;
         }
     }
 
-    public List<String> getMessages(Long conversationId) {
+    public List<String> getMessages(UUID conversationId) {
+        return getEntries(conversationId, maxMessages).stream()
+                .map(MemoryEntry::format)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Read the last {@code limit} messages, oldest first.
+     */
+    public List<MemoryEntry> getEntries(UUID conversationId, int limit) {
+        if (limit <= 0) {
+            return new ArrayList<>();
+        }
         try {
-            String key = buildKey(conversationId);
-            String conversationData = valueCommands.get(key);
-            if (conversationData == null || conversationData.isEmpty()) {
-                return new ArrayList<>();
+            List<String> values = listCommands.lrange(buildKey(conversationId), -limit, -1);
+            List<MemoryEntry> entries = new ArrayList<>(values.size());
+            for (String value : values) {
+                entries.add(decode(value));
             }
-            return List.of(conversationData.split("\n"));
+            return entries;
         } catch (Exception e) {
-            LOG.errorf(e, "Failed to retrieve messages from conversation %d", conversationId);
+            LOG.errorf(e, "Failed to retrieve messages from conversation %s", conversationId);
             return new ArrayList<>();
         }
     }
 
-    public String getConversationHistory(Long conversationId) {
+    /**
+     * Read the most recent messages that fit within a token budget, oldest
+     * first. At most {@code maxTurns} messages are fetched from Redis.
+     */
+    public List<MemoryEntry> getWindow(UUID conversationId, int maxTurns, int tokenBudget) {
+        List<MemoryEntry> recent = getEntries(conversationId, maxTurns);
+        int used = 0;
+        int start = recent.size();
+        while (start > 0) {
+            int tokens = recent.get(start - 1).tokenCount;
+            if (used + tokens > tokenBudget) {
+                break;
+            }
+            used += tokens;
+            start--;
+        }
+        return new ArrayList<>(recent.subList(start, recent.size()));
+    }
+
+    public String getConversationHistory(UUID conversationId) {
         List<String> messages = getMessages(conversationId);
         return String.join("\n", messages);
     }
 
-    public void clearMemory(Long conversationId) {
+    public void clearMemory(UUID conversationId) {
         try {
-            String key = buildKey(conversationId);
-            valueCommands.getdel(key);
-            LOG.debugf("Cleared memory for conversation %d", conversationId);
+            keyCommands.del(buildKey(conversationId));
+            LOG.debugf("Cleared memory for conversation %s", conversationId);
         } catch (Exception e) {
-            LOG.errorf(e, "Failed to clear memory for conversation %d", conversationId);
+            LOG.errorf(e, "Failed to clear memory for conversation %s", conversationId);
         }
     }
 
-    public void updateTTL(Long conversationId, Duration ttl) {
+    public void updateTTL(UUID conversationId, Duration ttl) {
         try {
-            String key = buildKey(conversationId);
-            String existingData = valueCommands.get(key);
-            if (existingData != null) {
-                valueCommands.setex(key, ttl.getSeconds(), existingData);
-                LOG.infof("Updated TTL for conversation %d", conversationId);
+            if (keyCommands.expire(buildKey(conversationId), ttl)) {
+                LOG.infof("Updated TTL for conversation %s", conversationId);
             }
         } catch (Exception e) {
-            LOG.errorf(e, "Failed to update TTL for conversation %d", conversationId);
+            LOG.errorf(e, "Failed to update TTL for conversation %s", conversationId);
         }
     }
 
-    public boolean hasMemory(Long conversationId) {
+    public boolean hasMemory(UUID conversationId) {
         try {
-            String key = buildKey(conversationId);
-            return valueCommands.get(key) != null;
+            return keyCommands.exists(buildKey(conversationId));
         } catch (Exception e) {
-            LOG.errorf(e, "Failed to check memory existence for conversation %d", conversationId);
+            LOG.errorf(e, "Failed to check memory existence for conversation %s", conversationId);
             return false;
         }
     }
 
-    private String buildKey(Long conversationId) {
+    private void append(UUID conversationId, MemoryEntry entry, boolean create) throws JsonProcessingException {
+        eval(APPEND_SCRIPT, APPEND_SCRIPT_SHA, "2", buildKey(conversationId), buildVersionKey(conversationId),
+                encode(entry), String.valueOf(maxMessages), String.valueOf(DEFAULT_TTL.toSeconds()),
+                create ? "1" : "0");
+    }
+
+    private Response eval(String script, String sha, String... args) {
+        try {
+            return redisDataSource.execute("EVALSHA", prepend(sha, args));
+        } catch (Exception e) {
+            if (e.getMessage() == null || !e.getMessage().contains("NOSCRIPT")) {
+                throw e;
+            }
+            // First use on this Redis: EVAL also caches the script for EVALSHA
+            return redisDataSource.execute("EVAL", prepend(script, args));
+        }
+    }
+
+    private static String[] prepend(String first, String[] rest) {
+        String[] args = new String[rest.length + 1];
+        args[0] = first;
+        System.arraycopy(rest, 0, args, 1, rest.length);
+        return args;
+    }
+
+    private static String sha1(String script) {
+        try {
+            return HexFormat.of().formatHex(
+                    MessageDigest.getInstance("SHA-1").digest(script.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-1 not available", e);
+        }
+    }
+
+    private String encode(MemoryEntry entry) throws JsonProcessingException {
+        return objectMapper.writeValueAsString(entry);
+    }
+
+    private MemoryEntry decode(String value) throws JsonProcessingException {
+        return objectMapper.readValue(value, MemoryEntry.class);
+    }
+
+    private String buildKey(UUID conversationId) {
         return MEMORY_KEY_PREFIX + conversationId;
     }
-}
\ No newline at end of file
+
+    private String buildVersionKey(UUID conversationId) {
+        return VERSION_KEY_PREFIX + conversationId;
+    }
+
+    /**
+     * A stored message with its estimated token count.
+     */
+    public static class MemoryEntry {
+        public String role;
+        public String content;
+        public int tokenCount;
+
+        public MemoryEntry() {
+        }
+
+        public MemoryEntry(String role, String content) {
+            this.role = role;
+            this.content = content;
+            this.tokenCount = TokenEstimator.estimate(content);
+        }
+
+        public String format() {
+            return role + ": " + content;
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package com.platform.ai;
+
+/**
+ * Fast local estimate of how many model tokens a text will use.
+ *
+ * This is not the model's tokenizer. It counts words and punctuation and
+ * assumes long words split into pieces of about five characters; ideographs
+ * count as one token each. That tracks BPE tokenizers closely enough for
+ * budgeting prompts.
+ */
+public final class TokenEstimator {
+
+    private static final int CHARS_PER_WORD_PIECE = 5;
+
+    private TokenEstimator() {
+    }
+
+    public static int estimate(String text) {
+        if (text == null || text.isEmpty()) {
+            return 0;
+        }
+
+        int tokens = 0;
+        int wordLength = 0;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (Character.isIdeographic(c)) {
+                tokens += wordTokens(wordLength) + 1;
+                wordLength = 0;
+                continue;
+            }
+            if (Character.isLetterOrDigit(c)) {
+                wordLength++;
+                continue;
+            }
+            tokens += wordTokens(wordLength);
+            wordLength = 0;
+            if (!Character.isWhitespace(c)) {
+                tokens++;
+            }
+        }
+        return tokens + wordTokens(wordLength);
+    }
+
+    private static int wordTokens(int wordLength) {
+        return (wordLength + CHARS_PER_WORD_PIECE - 1) / CHARS_PER_WORD_PIECE;
+    }
+}
@@ -9,6 +9,7 @@ import java.util.UUID;
 @Entity
 @Table(name = "api_keys", indexes = {
         @Index(name = "idx_api_keys_key_hash", columnList = "key_hash"),
+        @Index(name = "idx_api_keys_lookup_id", columnList = "lookup_id", unique = true),
         @Index(name = "idx_api_keys_user_id", columnList = "user_id"),
         @Index(name = "idx_api_keys_organization_id", columnList = "organization_id")
 })
@@ -21,6 +22,17 @@ public class ApiKey extends PanacheEntityBase {
     @Column(name = "key_hash", nullable = false, unique = true, length = 255)
     public String keyHash;
 
+    /**
+     * Public lookup part of the key ({@code aap_<lookupId>_<secret>}); null
+     * for keys issued before lookup ids.
+     */
+    @Column(name = "lookup_id", length = 32)
+    public String lookupId;
+
+    @Column(name = "hash_algorithm", nullable = false, length = 20)
+    @Enumerated(EnumType.STRING)
+    public HashAlgorithm hashAlgorithm = HashAlgorithm.BCRYPT;
+
     @Column(nullable = false, length = 255)
     public String name;
 
@@ -61,4 +73,9 @@ public class ApiKey extends PanacheEntityBase {
     public boolean isValid() {
         return active && !isExpired();
     }
+
+    public enum HashAlgorithm {
+        BCRYPT,
+        HMAC_SHA256
+    }
 }
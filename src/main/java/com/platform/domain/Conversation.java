@@ -13,7 +13,8 @@ import java.util.UUID;
 @Table(name = "conversations", indexes = {
         @Index(name = "idx_conversations_agent_id", columnList = "agent_id"),
         @Index(name = "idx_conversations_user_id", columnList = "user_id"),
-        @Index(name = "idx_conversations_status", columnList = "status")
+        @Index(name = "idx_conversations_status", columnList = "status"),
+        @Index(name = "idx_conversations_created_at", columnList = "created_at")
 })
 public class Conversation extends PanacheEntityBase {
 
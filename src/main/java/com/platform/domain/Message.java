@@ -10,7 +10,7 @@ import java.util.UUID;
 
 @Entity
 @Table(name = "messages", indexes = {
-        @Index(name = "idx_messages_conversation_id", columnList = "conversation_id"),
+        @Index(name = "idx_messages_conversation_timestamp", columnList = "conversation_id, timestamp DESC"),
         @Index(name = "idx_messages_timestamp", columnList = "timestamp")
 })
 public class Message extends PanacheEntityBase {
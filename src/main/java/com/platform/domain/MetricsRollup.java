@@ -0,0 +1,105 @@
+package com.platform.domain;
+
+import io.quarkus.hibernate.orm.panache.PanacheEntityBase;
+import jakarta.persistence.*;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.UUID;
+
+/**
+ * Interaction metrics of one agent aggregated over a minute, hour or day.
+ * Counts and totals are additive, and the latency histogram uses the same
+ * buckets in every rollup, so rollups of any agents and periods can be
+ * combined with {@link #add(MetricsRollup)}.
+ */
+@Entity
+@Table(name = "metrics_rollups", indexes = {
+        @Index(name = "idx_metrics_rollups_bucket", columnList = "granularity, bucket_start, agent_id", unique = true),
+        @Index(name = "idx_metrics_rollups_organization", columnList = "organization_id, granularity, bucket_start")
+})
+public class MetricsRollup extends PanacheEntityBase {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    public UUID id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 10)
+    public Granularity granularity;
+
+    @Column(name = "bucket_start", nullable = false)
+    public LocalDateTime bucketStart;
+
+    @Column(name = "organization_id", nullable = false)
+    public UUID organizationId;
+
+    @Column(name = "agent_id", nullable = false)
+    public UUID agentId;
+
+    @Column(nullable = false)
+    public long interactions;
+
+    @Column(nullable = false)
+    public long failures;
+
+    @Column(nullable = false)
+    public long conversations;
+
+    @Column(name = "total_response_time_ms", nullable = false)
+    public long totalResponseTimeMs;
+
+    @Column(name = "total_tokens", nullable = false)
+    public long totalTokens;
+
+    @Column(name = "total_tool_calls", nullable = false)
+    public long totalToolCalls;
+
+    /** Interactions per latency bucket; see LatencyHistogram in the service layer */
+    @JdbcTypeCode(SqlTypes.ARRAY)
+    @Column(name = "latency_histogram", nullable = false, columnDefinition = "BIGINT[]")
+    public long[] latencyHistogram;
+
+    /**
+     * Add another rollup's counts to this one.
+     */
+    public void add(MetricsRollup other) {
+        interactions += other.interactions;
+        failures += other.failures;
+        conversations += other.conversations;
+        totalResponseTimeMs += other.totalResponseTimeMs;
+        totalTokens += other.totalTokens;
+        totalToolCalls += other.totalToolCalls;
+        if (latencyHistogram == null || latencyHistogram.length < other.latencyHistogram.length) {
+            long[] grown = new long[other.latencyHistogram.length];
+            if (latencyHistogram != null) {
+                System.arraycopy(latencyHistogram, 0, grown, 0, latencyHistogram.length);
+            }
+            latencyHistogram = grown;
+        }
+        for (int i = 0; i < other.latencyHistogram.length; i++) {
+            latencyHistogram[i] += other.latencyHistogram[i];
+        }
+    }
+
+    public enum Granularity {
+        MINUTE(ChronoUnit.MINUTES),
+        HOUR(ChronoUnit.HOURS),
+        DAY(ChronoUnit.DAYS);
+
+        private final ChronoUnit unit;
+
+        Granularity(ChronoUnit unit) {
+            this.unit = unit;
+        }
+
+        /**
+         * Start of the bucket a time falls into.
+         */
+        public LocalDateTime bucketStart(LocalDateTime time) {
+            return time.truncatedTo(unit);
+        }
+    }
+}
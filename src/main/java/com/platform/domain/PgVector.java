@@ -0,0 +1,132 @@
+package com.platform.domain;
+
+import org.postgresql.util.PGBinaryObject;
+import org.postgresql.util.PGobject;
+
+import java.nio.ByteBuffer;
+import java.sql.SQLException;
+import java.util.Arrays;
+
+/**
+ * JDBC value for the pgvector {@code vector} type.
+ *
+ * Implements the pgvector binary wire format (int16 dimension, int16 unused,
+ * then big-endian float4 values) so that connections with the type registered
+ * exchange vectors without text formatting. The text form is kept for
+ * connections and statements where the driver falls back to text transfer.
+ */
+public class PgVector extends PGobject implements PGBinaryObject {
+
+    public static final String TYPE_NAME = "vector";
+
+    private float[] vector;
+
+    public PgVector() {
+        setType(TYPE_NAME);
+    }
+
+    public PgVector(float[] vector) {
+        this();
+        this.vector = vector;
+    }
+
+    public float[] toArray() {
+        return vector;
+    }
+
+    @Override
+    public void setValue(String value) throws SQLException {
+        vector = value == null ? null : parse(value);
+    }
+
+    @Override
+    public String getValue() {
+        return vector == null ? null : format(vector);
+    }
+
+    @Override
+    public void setByteValue(byte[] value, int offset) throws SQLException {
+        ByteBuffer buffer = ByteBuffer.wrap(value, offset, value.length - offset);
+        int dimension = buffer.getShort();
+        buffer.getShort(); // unused
+        float[] result = new float[dimension];
+        buffer.asFloatBuffer().get(result);
+        vector = result;
+    }
+
+    @Override
+    public int lengthInBytes() {
+        return vector == null ? 0 : 4 + vector.length * Float.BYTES;
+    }
+
+    @Override
+    public void toBytes(byte[] bytes, int offset) {
+        ByteBuffer buffer = ByteBuffer.wrap(bytes, offset, lengthInBytes());
+        buffer.putShort((short) vector.length);
+        buffer.putShort((short) 0);
+        buffer.asFloatBuffer().put(vector);
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        return obj instanceof PgVector && Arrays.equals(vector, ((PgVector) obj).vector);
+    }
+
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(vector);
+    }
+
+    @Override
+    public Object clone() throws CloneNotSupportedException {
+        PgVector copy = (PgVector) super.clone();
+        copy.vector = vector == null ? null : vector.clone();
+        return copy;
+    }
+
+    /**
+     * Format a vector in pgvector's text form: [1.0,2.0,3.0]
+     */
+    public static String format(float[] vector) {
+        StringBuilder sb = new StringBuilder(2 + vector.length * 12);
+        sb.append('[');
+        for (int i = 0; i < vector.length; i++) {
+            if (i > 0) {
+                sb.append(',');
+            }
+            sb.append(vector[i]);
+        }
+        sb.append(']');
+        return sb.toString();
+    }
+
+    /**
+     * Parse pgvector's text form without regex splitting.
+     */
+    public static float[] parse(String value) {
+        int end = value.length() - 1;
+        if (end < 1 || value.charAt(0) != '[' || value.charAt(end) != ']') {
+            throw new IllegalArgumentException("Not a pgvector value: " + value);
+        }
+        if (end == 1) {
+            return new float[0];
+        }
+
+        int dimension = 1;
+        for (int i = 1; i < end; i++) {
+            if (value.charAt(i) == ',') {
+                dimension++;
+            }
+        }
+
+        float[] result = new float[dimension];
+        int start = 1;
+        for (int i = 0; i < dimension; i++) {
+            int comma = value.indexOf(',', start);
+            int stop = comma < 0 ? end : comma;
+            result[i] = Float.parseFloat(value.substring(start, stop));
+            start = stop + 1;
+        }
+        return result;
+    }
+}
@@ -0,0 +1,31 @@
+package com.platform.domain;
+
+import io.agroal.api.AgroalPoolInterceptor;
+import jakarta.enterprise.context.ApplicationScoped;
+import org.jboss.logging.Logger;
+import org.postgresql.PGConnection;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * Registers {@link PgVector} on every new pooled connection so the driver
+ * uses binary transfer for pgvector columns and parameters.
+ */
+@ApplicationScoped
+public class PgVectorTypeRegistrar implements AgroalPoolInterceptor {
+
+    private static final Logger LOG = Logger.getLogger(PgVectorTypeRegistrar.class);
+
+    @Override
+    public void onConnectionCreate(Connection connection) {
+        try {
+            if (connection.isWrapperFor(PGConnection.class)) {
+                connection.unwrap(PGConnection.class).addDataType(PgVector.TYPE_NAME, PgVector.class);
+            }
+        } catch (SQLException e) {
+            // The vector extension may not be installed yet (e.g. before migrations run)
+            LOG.warnf("Could not register pgvector binary codec: %s", e.getMessage());
+        }
+    }
+}
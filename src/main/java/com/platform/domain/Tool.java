@@ -44,9 +44,17 @@ public class Tool extends PanacheEntityBase {
     @Column(name = "parameters")
     public String parameters;
 
+    @JdbcTypeCode(SqlTypes.JSON)
+    @Column(name = "execution_policy")
+    public String executionPolicy;
+
     @Column(name = "created_at", nullable = false)
     public LocalDateTime createdAt;
 
+    @Version
+    @Column(nullable = false)
+    public long version;
+
     @PrePersist
     public void prePersist() {
         if (createdAt == null) {
@@ -0,0 +1,47 @@
+package com.platform.domain;
+
+import io.quarkus.hibernate.orm.panache.PanacheEntityBase;
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * One audited tool execution. Parameters and result are stored as
+ * (possibly truncated) JSON text.
+ */
+@Entity
+@Table(name = "tool_execution_events")
+public class ToolExecutionEvent extends PanacheEntityBase {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    public UUID id;
+
+    @Column(name = "tool_id", nullable = false)
+    public UUID toolId;
+
+    @Column(name = "tool_name", nullable = false, length = 255)
+    public String toolName;
+
+    @Column(nullable = false)
+    public boolean success;
+
+    @Column(nullable = false)
+    public boolean cached;
+
+    @Column(name = "execution_time_ms", nullable = false)
+    public long executionTimeMs;
+
+    @Column(columnDefinition = "TEXT")
+    public String parameters;
+
+    @Column(columnDefinition = "TEXT")
+    public String result;
+
+    @Column(name = "error_message", columnDefinition = "TEXT")
+    public String errorMessage;
+
+    @Column(name = "occurred_at", nullable = false)
+    public LocalDateTime occurredAt;
+}
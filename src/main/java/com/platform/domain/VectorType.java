@@ -13,7 +13,8 @@ import java.util.Arrays;
 
 /**
  * Custom Hibernate UserType for PostgreSQL pgvector extension.
- * Handles conversion between Java float[] and PostgreSQL vector type.
+ * Handles conversion between Java float[] and PostgreSQL vector type,
+ * using the binary codec in {@link PgVector} where the connection supports it.
  */
 public class VectorType implements UserType<float[]> {
 
@@ -40,11 +41,15 @@ public class VectorType implements UserType<float[]> {
     @Override
     public float[] nullSafeGet(ResultSet rs, int position, SharedSessionContractImplementor session, Object owner)
             throws SQLException {
-        String value = rs.getString(position);
+        Object value = rs.getObject(position);
         if (value == null) {
             return null;
         }
-        return parseVector(value);
+        if (value instanceof PgVector) {
+            return ((PgVector) value).toArray();
+        }
+        String text = value instanceof PGobject ? ((PGobject) value).getValue() : value.toString();
+        return PgVector.parse(text);
     }
 
     @Override
@@ -53,10 +58,7 @@ public class VectorType implements UserType<float[]> {
         if (value == null) {
             st.setNull(index, Types.OTHER);
         } else {
-            PGobject pgObject = new PGobject();
-            pgObject.setType("vector");
-            pgObject.setValue(formatVector(value));
-            st.setObject(index, pgObject);
+            st.setObject(index, new PgVector(value));
         }
     }
 
@@ -84,36 +86,4 @@ public class VectorType implements UserType<float[]> {
     public float[] replace(float[] detached, float[] managed, Object owner) {
         return deepCopy(detached);
     }
-
-    /**
-     * Format float array as PostgreSQL vector string: [1.0,2.0,3.0]
-     */
-    private String formatVector(float[] vector) {
-        StringBuilder sb = new StringBuilder("[");
-        for (int i = 0; i < vector.length; i++) {
-            if (i > 0) {
-                sb.append(",");
-            }
-            sb.append(vector[i]);
-        }
-        sb.append("]");
-        return sb.toString();
-    }
-
-    /**
-     * Parse PostgreSQL vector string to float array
-     */
-    private float[] parseVector(String value) {
-        // Remove brackets and split by comma
-        String cleaned = value.substring(1, value.length() - 1);
-        if (cleaned.isEmpty()) {
-            return new float[0];
-        }
-        String[] parts = cleaned.split(",");
-        float[] result = new float[parts.length];
-        for (int i = 0; i < parts.length; i++) {
-            result[i] = Float.parseFloat(parts[i].trim());
-        }
-        return result;
-    }
 }
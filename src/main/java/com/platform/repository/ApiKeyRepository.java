@@ -4,6 +4,7 @@ import com.platform.domain.ApiKey;
 import io.quarkus.hibernate.orm.panache.PanacheRepositoryBase;
 import jakarta.enterprise.context.ApplicationScoped;
 
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -14,6 +15,18 @@ public class ApiKeyRepository implements PanacheRepositoryBase<ApiKey, UUID> {
         return find("keyHash", keyHash).firstResultOptional();
     }
 
+    public Optional<ApiKey> findByLookupId(String lookupId) {
+        return find("lookupId", lookupId).firstResultOptional();
+    }
+
+    /**
+     * Active keys issued before lookup ids, which can only be matched by
+     * checking their BCrypt hashes one by one.
+     */
+    public List<ApiKey> findActiveLegacy() {
+        return find("active = true and lookupId is null").list();
+    }
+
     public Optional<ApiKey> findValidByKeyHash(String keyHash) {
         return find("keyHash = ?1 and active = true", keyHash)
                 .firstResultOptional()
@@ -1,11 +1,19 @@
 package com.platform.repository;
 
 import com.platform.domain.DocumentEmbedding;
+import com.platform.domain.PgVector;
 import io.quarkus.hibernate.orm.panache.PanacheRepositoryBase;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.persistence.EntityManager;
+import jakarta.persistence.TypedQuery;
 import jakarta.inject.Inject;
+import org.hibernate.Session;
 
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.UUID;
 
@@ -15,34 +23,233 @@ public class DocumentEmbeddingRepository implements PanacheRepositoryBase<Docume
     @Inject
     EntityManager em;
 
-    public List<DocumentEmbedding> findSimilar(float[] queryEmbedding, UUID organizationId, int limit) {
-        String vectorString = arrayToVectorString(queryEmbedding);
+    /**
+     * Nearest chunks to the query vector within a cosine distance cutoff.
+     * Returns a projection with the distance computed by pgvector; the
+     * embedding column itself is never read.
+     */
+    public List<ChunkMatch> findSimilarChunks(float[] queryEmbedding, UUID organizationId, double maxDistance,
+            int limit) {
+        String sql = """
+                SELECT e.id, e.document_id, d.filename, e.chunk_index, e.content, e.embedding <=> ? AS distance
+                FROM document_embeddings e
+                JOIN documents d ON d.id = e.document_id
+                WHERE d.organization_id = ?
+                  AND e.embedding <=> ? <= ?
+                ORDER BY e.embedding <=> ?
+                LIMIT ?
+                """;
+        PgVector queryVector = new PgVector(queryEmbedding);
+
+        return em.unwrap(Session.class).doReturningWork(connection -> {
+            try (PreparedStatement statement = connection.prepareStatement(sql)) {
+                statement.setObject(1, queryVector);
+                statement.setObject(2, organizationId);
+                statement.setObject(3, queryVector);
+                statement.setDouble(4, maxDistance);
+                statement.setObject(5, queryVector);
+                statement.setInt(6, limit);
+
+                List<ChunkMatch> matches = new ArrayList<>();
+                try (ResultSet rs = statement.executeQuery()) {
+                    while (rs.next()) {
+                        matches.add(new ChunkMatch(
+                                rs.getObject(1, UUID.class),
+                                rs.getObject(2, UUID.class),
+                                rs.getString(3),
+                                rs.getInt(4),
+                                rs.getString(5),
+                                rs.getDouble(6)));
+                    }
+                }
+                return matches;
+            }
+        });
+    }
+
+    /**
+     * Chunks matching a full-text query, best first. The query uses web
+     * search syntax (quoted phrases, OR, -word). Results are ranked with
+     * ts_rank_cd normalized to [0, 1) (normalization 32: rank / (rank + 1)),
+     * returned as a distance of {@code 1 - rank} so callers can treat them
+     * like vector matches.
+     */
+    public List<ChunkMatch> findLexicalChunks(String query, UUID organizationId, int limit) {
+        String sql = """
+                SELECT e.id, e.document_id, d.filename, e.chunk_index, e.content,
+                       ts_rank_cd(e.content_tsv, q, 32) AS rank
+                FROM document_embeddings e
+                JOIN documents d ON d.id = e.document_id,
+                     websearch_to_tsquery('simple', ?) q
+                WHERE d.organization_id = ?
+                  AND e.content_tsv @@ q
+                ORDER BY rank DESC
+                LIMIT ?
+                """;
+
+        return em.unwrap(Session.class).doReturningWork(connection -> {
+            try (PreparedStatement statement = connection.prepareStatement(sql)) {
+                statement.setString(1, query);
+                statement.setObject(2, organizationId);
+                statement.setInt(3, limit);
+
+                List<ChunkMatch> matches = new ArrayList<>();
+                try (ResultSet rs = statement.executeQuery()) {
+                    while (rs.next()) {
+                        matches.add(new ChunkMatch(
+                                rs.getObject(1, UUID.class),
+                                rs.getObject(2, UUID.class),
+                                rs.getString(3),
+                                rs.getInt(4),
+                                rs.getString(5),
+                                1.0 - rs.getDouble(6)));
+                    }
+                }
+                return matches;
+            }
+        });
+    }
+
+    /**
+     * Load chunk projections by embedding id, for hits served by the in-memory
+     * vector index. The distance is left unset for the caller to fill in.
+     */
+    public List<ChunkMatch> findChunksByIds(List<UUID> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
 
         String query = """
-                SELECT e FROM DocumentEmbedding e
-                WHERE e.document.organization.id = :organizationId
-                ORDER BY e.embedding <=> CAST(:queryVector AS vector)
+                SELECT e.id, d.id, d.filename, e.chunkIndex, e.content
+                FROM DocumentEmbedding e
+                JOIN e.document d
+                WHERE e.id IN :ids
                 """;
 
-        return em.createQuery(query, DocumentEmbedding.class)
-                .setParameter("organizationId", organizationId)
-                .setParameter("queryVector", vectorString)
-                .setMaxResults(limit)
-                .getResultList();
+        List<ChunkMatch> matches = new ArrayList<>();
+        for (Object[] row : em.createQuery(query, Object[].class).setParameter("ids", ids).getResultList()) {
+            matches.add(new ChunkMatch((UUID) row[0], (UUID) row[1], (String) row[2], (Integer) row[3],
+                    (String) row[4], 0.0));
+        }
+        return matches;
+    }
+
+    /**
+     * Page through all stored vectors in id order (keyset pagination).
+     * Used to build the in-memory vector index at startup.
+     */
+    public List<IndexableVector> findIndexableVectors(UUID afterId, int limit) {
+        String query = """
+                SELECT e.id, e.document.id, e.document.organization.id, e.embedding
+                FROM DocumentEmbedding e
+                WHERE e.embedding IS NOT NULL
+                """ + (afterId != null ? "AND e.id > :afterId " : "") + "ORDER BY e.id";
+
+        TypedQuery<Object[]> typedQuery = em.createQuery(query, Object[].class)
+                .setMaxResults(limit);
+        if (afterId != null) {
+            typedQuery.setParameter("afterId", afterId);
+        }
+
+        List<IndexableVector> vectors = new ArrayList<>();
+        for (Object[] row : typedQuery.getResultList()) {
+            vectors.add(new IndexableVector((UUID) row[0], (UUID) row[1], (UUID) row[2], (float[]) row[3]));
+        }
+        return vectors;
     }
 
-    private String arrayToVectorString(float[] array) {
-        StringBuilder sb = new StringBuilder("[");
-        for (int i = 0; i < array.length; i++) {
-            if (i > 0)
-                sb.append(",");
-            sb.append(array[i]);
+    /**
+     * All stored vectors of one document, for indexing a document that was
+     * indexed on another node.
+     */
+    public List<IndexableVector> findIndexableVectorsByDocument(UUID documentId) {
+        String query = """
+                SELECT e.id, e.document.id, e.document.organization.id, e.embedding
+                FROM DocumentEmbedding e
+                WHERE e.document.id = :documentId AND e.embedding IS NOT NULL
+                """;
+
+        List<IndexableVector> vectors = new ArrayList<>();
+        for (Object[] row : em.createQuery(query, Object[].class).setParameter("documentId", documentId)
+                .getResultList()) {
+            vectors.add(new IndexableVector((UUID) row[0], (UUID) row[1], (UUID) row[2], (float[]) row[3]));
         }
-        sb.append("]");
-        return sb.toString();
+        return vectors;
+    }
+
+    /**
+     * Insert a batch of chunk embeddings for a document with a single JDBC
+     * batch statement. Must be called inside a transaction.
+     *
+     * @return the generated embedding ids, in chunk order
+     */
+    public List<UUID> insertBatch(UUID documentId, int firstChunkIndex, List<String> chunks, List<float[]> embeddings) {
+        String sql = """
+                INSERT INTO document_embeddings (id, document_id, chunk_index, content, embedding, created_at)
+                VALUES (?, ?, ?, ?, ?, ?)
+                """;
+        Timestamp createdAt = Timestamp.valueOf(LocalDateTime.now());
+
+        return em.unwrap(Session.class).doReturningWork(connection -> {
+            List<UUID> ids = new ArrayList<>(chunks.size());
+            try (PreparedStatement statement = connection.prepareStatement(sql)) {
+                for (int i = 0; i < chunks.size(); i++) {
+                    UUID id = UUID.randomUUID();
+                    statement.setObject(1, id);
+                    statement.setObject(2, documentId);
+                    statement.setInt(3, firstChunkIndex + i);
+                    statement.setString(4, chunks.get(i));
+                    statement.setObject(5, new PgVector(embeddings.get(i)));
+                    statement.setTimestamp(6, createdAt);
+                    statement.addBatch();
+                    ids.add(id);
+                }
+                statement.executeBatch();
+            }
+            return ids;
+        });
     }
 
     public long deleteByDocument(UUID documentId) {
         return delete("document.id", documentId);
     }
+
+    /**
+     * A matching chunk with the fields needed for a search result.
+     */
+    public static class ChunkMatch {
+        public UUID embeddingId;
+        public UUID documentId;
+        public String documentName;
+        public int chunkIndex;
+        public String content;
+        public double distance;
+
+        public ChunkMatch(UUID embeddingId, UUID documentId, String documentName, int chunkIndex, String content,
+                double distance) {
+            this.embeddingId = embeddingId;
+            this.documentId = documentId;
+            this.documentName = documentName;
+            this.chunkIndex = chunkIndex;
+            this.content = content;
+            this.distance = distance;
+        }
+    }
+
+    /**
+     * A stored vector with the ids needed to place it in an organization's index.
+     */
+    public static class IndexableVector {
+        public UUID embeddingId;
+        public UUID documentId;
+        public UUID organizationId;
+        public float[] embedding;
+
+        public IndexableVector(UUID embeddingId, UUID documentId, UUID organizationId, float[] embedding) {
+            this.embeddingId = embeddingId;
+            this.documentId = documentId;
+            this.organizationId = organizationId;
+            this.embedding = embedding;
+        }
+    }
 }
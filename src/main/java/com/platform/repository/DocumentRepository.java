@@ -5,6 +5,7 @@ import io.quarkus.hibernate.orm.panache.PanacheRepositoryBase;
 import jakarta.enterprise.context.ApplicationScoped;
 
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 @ApplicationScoped
@@ -21,4 +22,8 @@ public class DocumentRepository implements PanacheRepositoryBase<Document, UUID>
     public List<Document> findByContentType(UUID organizationId, String contentType) {
         return list("organization.id = ?1 and contentType = ?2", organizationId, contentType);
     }
+
+    public Optional<Document> findByIdWithOrganization(UUID id) {
+        return find("from Document d left join fetch d.organization where d.id = ?1", id).firstResultOptional();
+    }
 }
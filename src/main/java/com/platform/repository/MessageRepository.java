@@ -2,8 +2,26 @@ package com.platform.repository;
 
 import com.platform.domain.Message;
 import io.quarkus.hibernate.orm.panache.PanacheRepository;
+import io.quarkus.panache.common.Sort;
 import jakarta.enterprise.context.ApplicationScoped;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+
 @ApplicationScoped
 public class MessageRepository implements PanacheRepository<Message> {
+
+    /**
+     * The last {@code limit} messages of a conversation, oldest first.
+     * Served by the (conversation_id, timestamp) index.
+     */
+    public List<Message> findRecentByConversation(UUID conversationId, int limit) {
+        List<Message> messages = new ArrayList<>(find("conversation.id", Sort.descending("timestamp"), conversationId)
+                .page(0, limit)
+                .list());
+        Collections.reverse(messages);
+        return messages;
+    }
 }
@@ -10,6 +10,7 @@ import com.platform.service.AgentWizardService;
 import com.platform.service.AuthorizationService;
 import com.platform.service.dto.AgentConfiguration;
 import io.quarkus.security.Authenticated;
+import io.smallrye.common.annotation.Blocking;
 import io.smallrye.mutiny.Multi;
 import jakarta.inject.Inject;
 import jakarta.transaction.Transactional;
@@ -28,6 +29,10 @@ import org.eclipse.microprofile.openapi.annotations.tags.Tag;
 
 import java.util.List;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.stream.Collectors;
 
 /**
@@ -245,11 +250,16 @@ public class AgentResource {
     }
 
     /**
-     * Chat with an agent (synchronous)
+     * Chat with an agent.
+     *
+     * The agent lookup runs on a worker thread; the turn itself runs on the
+     * chat executor and the response is written when it completes, so no
+     * request thread waits on the model. When the chat executor is saturated
+     * the request fails fast with 503.
      */
     @POST
     @Path("/{id}/chat")
-    @Transactional
+    @Blocking
     @com.platform.security.RateLimited
     @Operation(summary = "Chat with agent", description = "Send a message to an agent and receive a synchronous response")
     @APIResponses({
@@ -257,17 +267,18 @@ public class AgentResource {
                 content = @Content(schema = @Schema(implementation = ChatResponse.class))),
         @APIResponse(responseCode = "404", description = "Agent not found"),
         @APIResponse(responseCode = "429", description = "Rate limit exceeded"),
-        @APIResponse(responseCode = "500", description = "Internal server error")
+        @APIResponse(responseCode = "500", description = "Internal server error"),
+        @APIResponse(responseCode = "503", description = "Too many chat requests in progress")
     })
-    public Response chat(
+    public CompletionStage<Response> chat(
             @Parameter(description = "Agent ID") @PathParam("id") UUID id,
             @Valid ChatRequest request) {
         Agent agent = agentRepository.findById(id);
 
         if (agent == null) {
-            return Response.status(Response.Status.NOT_FOUND)
+            return CompletableFuture.completedFuture(Response.status(Response.Status.NOT_FOUND)
                     .entity(new ErrorResponse("Agent not found"))
-                    .build();
+                    .build());
         }
 
         // Check organization access
@@ -276,14 +287,12 @@ public class AgentResource {
         UUID userId = authorizationService.getCurrentUserId();
 
         // Process message
-        try {
-            AgentRuntimeService.AgentResponse response = agentRuntimeService.processMessage(
-                    id,
-                    request.message,
-                    request.conversationId,
-                    userId
-            ).toCompletableFuture().get();
-
+        return agentRuntimeService.processMessage(
+                id,
+                request.message,
+                request.conversationId,
+                userId
+        ).thenApply(response -> {
             ChatResponse chatResponse = new ChatResponse();
             chatResponse.conversationId = response.conversationId;
             chatResponse.message = response.content;
@@ -292,11 +301,18 @@ public class AgentResource {
             chatResponse.citations = response.citations;
 
             return Response.ok(chatResponse).build();
-        } catch (Exception e) {
+        }).exceptionally(e -> {
+            Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+            if (cause instanceof RejectedExecutionException) {
+                return Response.status(Response.Status.SERVICE_UNAVAILABLE)
+                        .header("Retry-After", 1)
+                        .entity(new ErrorResponse("Too many chat requests in progress, try again later"))
+                        .build();
+            }
             return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
-                    .entity(new ErrorResponse("Failed to process message: " + e.getMessage()))
+                    .entity(new ErrorResponse("Failed to process message: " + cause.getMessage()))
                     .build();
-        }
+        });
     }
 
     /**
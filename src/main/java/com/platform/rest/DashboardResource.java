@@ -33,9 +33,14 @@ public class DashboardResource {
 
     public static class DashboardStats {
         public int totalAgents;
+        /** Conversations started in the last {@link DashboardService#STATS_WINDOW_DAYS} days */
         public int totalConversations;
         public int satisfactionScore;
+        /** Over the last {@link DashboardService#STATS_WINDOW_DAYS} days, as are the percentiles */
         public double avgResponseTime;
+        public long p50ResponseTime;
+        public long p95ResponseTime;
+        public long p99ResponseTime;
 
         public DashboardStats(int totalAgents, int totalConversations, int satisfactionScore, double avgResponseTime) {
             this.totalAgents = totalAgents;
@@ -43,6 +48,14 @@ public class DashboardResource {
             this.satisfactionScore = satisfactionScore;
             this.avgResponseTime = avgResponseTime;
         }
+
+        public DashboardStats(int totalAgents, int totalConversations, int satisfactionScore, double avgResponseTime,
+                long p50ResponseTime, long p95ResponseTime, long p99ResponseTime) {
+            this(totalAgents, totalConversations, satisfactionScore, avgResponseTime);
+            this.p50ResponseTime = p50ResponseTime;
+            this.p95ResponseTime = p95ResponseTime;
+            this.p99ResponseTime = p99ResponseTime;
+        }
     }
 
     public static class ActivityItem {
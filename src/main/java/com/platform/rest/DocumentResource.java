@@ -1,6 +1,7 @@
 package com.platform.rest;
 
 import com.platform.domain.Document;
+import com.platform.exception.ValidationException;
 import com.platform.repository.DocumentRepository;
 import com.platform.service.DocumentProcessingService;
 import com.platform.service.VectorStoreService;
@@ -13,6 +14,7 @@ import jakarta.ws.rs.core.Response;
 import org.jboss.resteasy.reactive.RestForm;
 
 import java.io.InputStream;
+import java.time.Duration;
 import java.util.List;
 import java.util.UUID;
 
@@ -91,10 +93,26 @@ public class DocumentResource {
     @POST
     @Path("/search")
     public Response searchDocuments(SearchRequest request) {
-        List<VectorStoreService.SearchResult> results = vectorStoreService.semanticSearch(
-                request.query,
-                securityContext.getCurrentOrganizationId(),
-                request.limit != null ? request.limit : 10);
+        if (request == null) {
+            throw new ValidationException("Search request is required");
+        }
+        request.validate();
+        UUID organizationId = securityContext.getCurrentOrganizationId();
+        int limit = request.limit != null ? request.limit : 10;
+        VectorStoreService.SearchMode mode = request.mode != null ? request.mode : VectorStoreService.SearchMode.SEMANTIC;
+
+        List<VectorStoreService.SearchResult> results = switch (mode) {
+            case LEXICAL -> vectorStoreService.lexicalSearch(request.query, organizationId, limit);
+            case HYBRID -> vectorStoreService.hybridSearch(
+                    List.of(request.query),
+                    organizationId,
+                    limit,
+                    0.0,
+                    request.lexicalWeight != null ? request.lexicalWeight : 1.0,
+                    request.vectorWeight != null ? request.vectorWeight : 1.0,
+                    Duration.ZERO);
+            case SEMANTIC -> vectorStoreService.semanticSearch(request.query, organizationId, limit);
+        };
 
         return Response.ok(results).build();
     }
@@ -118,5 +136,29 @@ public class DocumentResource {
     public static class SearchRequest {
         public String query;
         public Integer limit;
+        /** SEMANTIC (default), LEXICAL or HYBRID. */
+        public VectorStoreService.SearchMode mode;
+        /** Hybrid mode: fusion weight of the full-text ranking (default 1.0). */
+        public Double lexicalWeight;
+        /** Hybrid mode: fusion weight of the vector ranking (default 1.0). */
+        public Double vectorWeight;
+
+        /**
+         * Validate the request, as {@link com.platform.service.dto.RAGConfiguration#validate()}
+         * does for the agent's hybrid settings.
+         */
+        void validate() {
+            if (query == null || query.isBlank()) {
+                throw new ValidationException("Query is required");
+            }
+            if (limit != null && limit < 1) {
+                throw new ValidationException("Limit must be positive");
+            }
+            double lexical = lexicalWeight != null ? lexicalWeight : 1.0;
+            double vector = vectorWeight != null ? vectorWeight : 1.0;
+            if (lexical < 0.0 || vector < 0.0 || lexical + vector == 0.0) {
+                throw new ValidationException("Hybrid search weights must be non-negative and not both zero");
+            }
+        }
     }
 }
@@ -1,46 +1,55 @@
 package com.platform.security;
 
 import com.platform.exception.AuthorizationException;
-import com.platform.service.AuthorizationService;
 import jakarta.annotation.Priority;
 import jakarta.inject.Inject;
 import jakarta.interceptor.AroundInvoke;
 import jakarta.interceptor.Interceptor;
 import jakarta.interceptor.InvocationContext;
 
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
 @RequiresPermission(value = {})
 @Interceptor
 @Priority(Interceptor.Priority.APPLICATION)
 public class PermissionInterceptor {
 
+    /** Permissions required by each intercepted method as a mask, any one of which suffices; 0 for none */
+    private static final Map<Method, Long> REQUIRED_PERMISSIONS = new ConcurrentHashMap<>();
+
     @Inject
-    AuthorizationService authorizationService;
+    ResolvedPrincipal principal;
 
     @AroundInvoke
     public Object checkPermission(InvocationContext context) throws Exception {
-        RequiresPermission annotation = context.getMethod().getAnnotation(RequiresPermission.class);
-
-        if (annotation == null) {
-            annotation = context.getTarget().getClass().getAnnotation(RequiresPermission.class);
+        Method method = context.getMethod();
+        Long required = REQUIRED_PERMISSIONS.get(method);
+        if (required == null) {
+            required = requiredPermissions(method, context.getTarget().getClass());
+            REQUIRED_PERMISSIONS.put(method, required);
         }
 
-        if (annotation != null && annotation.value().length > 0) {
-            Permission[] requiredPermissions = annotation.value();
-
-            // Check if user has at least one of the required permissions
-            boolean hasPermission = false;
-            for (Permission permission : requiredPermissions) {
-                if (authorizationService.hasPermission(permission)) {
-                    hasPermission = true;
-                    break;
-                }
-            }
-
-            if (!hasPermission) {
-                throw new AuthorizationException("Insufficient permissions to access this resource");
-            }
+        // Check if user has at least one of the required permissions
+        if (required != 0 && !principal.hasAnyPermission(required)) {
+            throw new AuthorizationException("Insufficient permissions to access this resource");
         }
 
         return context.proceed();
     }
+
+    static long requiredPermissions(Method method, Class<?> targetClass) {
+        RequiresPermission annotation = method.getAnnotation(RequiresPermission.class);
+
+        if (annotation == null) {
+            annotation = method.getDeclaringClass().getAnnotation(RequiresPermission.class);
+        }
+        if (annotation == null) {
+            annotation = targetClass.getAnnotation(RequiresPermission.class);
+        }
+
+        return annotation != null ? RBACPolicy.mask(Arrays.asList(annotation.value())) : 0;
+    }
 }
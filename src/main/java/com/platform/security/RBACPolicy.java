@@ -37,12 +37,46 @@ public class RBACPolicy {
                     Permission.MONITORING_READ,
                     Permission.ORGANIZATION_READ));
 
+    /** Permissions of each role as a bitmask of {@link #bit(Permission)}, indexed by role ordinal */
+    private static final long[] ROLE_MASKS = new long[Role.values().length];
+
+    static {
+        if (Permission.values().length > Long.SIZE) {
+            throw new IllegalStateException("Permission bitmasks hold at most " + Long.SIZE + " permissions");
+        }
+        ROLE_PERMISSIONS.forEach((role, permissions) -> ROLE_MASKS[role.ordinal()] = mask(permissions));
+    }
+
+    /**
+     * The bit of a permission in permission masks
+     */
+    public static long bit(Permission permission) {
+        return 1L << permission.ordinal();
+    }
+
+    /**
+     * Combine permissions into a mask
+     */
+    public static long mask(Iterable<Permission> permissions) {
+        long mask = 0;
+        for (Permission permission : permissions) {
+            mask |= bit(permission);
+        }
+        return mask;
+    }
+
+    /**
+     * Get the permissions of a role as a mask, 0 for no role
+     */
+    public long permissionMask(Role role) {
+        return role != null ? ROLE_MASKS[role.ordinal()] : 0;
+    }
+
     /**
      * Check if a role has a specific permission
      */
     public boolean hasPermission(Role role, Permission permission) {
-        Set<Permission> permissions = ROLE_PERMISSIONS.get(role);
-        return permissions != null && permissions.contains(permission);
+        return (permissionMask(role) & bit(permission)) != 0;
     }
 
     /**
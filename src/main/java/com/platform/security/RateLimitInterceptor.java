@@ -1,5 +1,6 @@
 package com.platform.security;
 
+import com.platform.exception.AuthorizationException;
 import com.platform.service.AuthorizationService;
 import com.platform.service.RateLimitingService;
 import io.quarkus.logging.Log;
@@ -30,17 +31,20 @@ public class RateLimitInterceptor {
     @AroundInvoke
     public Object checkRateLimit(InvocationContext context) throws Exception {
         try {
-            // Get current user ID
+            // Get current user and organization
             UUID userId = authorizationService.getCurrentUserId();
+            UUID organizationId = currentOrganizationId();
 
             // Check rate limit
-            if (!rateLimitingService.isAllowed(userId)) {
-                int remaining = rateLimitingService.getRemainingRequests(userId, 100);
-                Log.warnf("Rate limit exceeded for user %s", userId);
+            RateLimitingService.Decision decision = rateLimitingService.checkRequest(userId, organizationId);
+            if (!decision.allowed) {
+                Log.debugf("Rate limit exceeded for user %s", userId);
 
                 throw new WebApplicationException(
                         Response.status(429) // Too Many Requests
-                                .entity(new RateLimitError("Rate limit exceeded. Please try again later.", remaining))
+                                .header("Retry-After", Math.max(1, (decision.retryAfterMillis + 999) / 1000))
+                                .entity(new RateLimitError("Rate limit exceeded. Please try again later.",
+                                        (int) Math.max(0, decision.remaining)))
                                 .build()
                 );
             }
@@ -57,6 +61,14 @@ public class RateLimitInterceptor {
         }
     }
 
+    private UUID currentOrganizationId() {
+        try {
+            return authorizationService.getCurrentOrganizationId();
+        } catch (AuthorizationException e) {
+            return null; // Users without an organization get the per-user limit
+        }
+    }
+
     public static class RateLimitError {
         public String error;
         public int remainingRequests;
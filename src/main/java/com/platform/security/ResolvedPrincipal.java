@@ -0,0 +1,196 @@
+package com.platform.security;
+
+import com.platform.exception.AuthorizationException;
+import io.quarkus.security.identity.SecurityIdentity;
+import jakarta.enterprise.context.RequestScoped;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.jwt.JsonWebToken;
+
+import java.util.Iterator;
+import java.util.UUID;
+
+/**
+ * The caller of the current request, resolved from the token once.
+ *
+ * The subject and organization claims are parsed into UUIDs and the role
+ * into its permission mask on first use; every later check in the same
+ * request reads fields. Malformed claims are remembered too, so each lookup
+ * fails the same way it would have when parsing the token directly.
+ */
+@RequestScoped
+public class ResolvedPrincipal {
+
+    @Inject
+    SecurityIdentity securityIdentity;
+
+    @Inject
+    JsonWebToken jwt;
+
+    @Inject
+    RBACPolicy rbacPolicy;
+
+    private boolean resolved;
+    private boolean anonymous;
+    private UUID userId;
+    private String userIdError;
+    private boolean userIdMalformed;
+    private UUID organizationId;
+    private String organizationIdError;
+    private boolean organizationIdMalformed;
+    private String roleName;
+    private Role role;
+    private long permissions;
+
+    /**
+     * Whether the request is unauthenticated
+     */
+    public boolean isAnonymous() {
+        resolve();
+        return anonymous;
+    }
+
+    /**
+     * Get the user ID from the token subject
+     *
+     * @throws AuthorizationException if unauthenticated or the subject is missing or malformed
+     */
+    public UUID getUserId() {
+        resolve();
+        if (userIdError != null) {
+            throw new AuthorizationException(userIdError);
+        }
+        return userId;
+    }
+
+    /**
+     * Get the user ID, or null if unauthenticated or the token has no subject
+     *
+     * @throws AuthorizationException if the subject is malformed
+     */
+    public UUID findUserId() {
+        resolve();
+        if (userIdMalformed) {
+            throw new AuthorizationException(userIdError);
+        }
+        return userId;
+    }
+
+    /**
+     * Get the organization ID from the token
+     *
+     * @throws AuthorizationException if unauthenticated or the claim is missing or malformed
+     */
+    public UUID getOrganizationId() {
+        resolve();
+        if (organizationIdError != null) {
+            throw new AuthorizationException(organizationIdError);
+        }
+        return organizationId;
+    }
+
+    /**
+     * Get the organization ID, or null if unauthenticated or the token has none
+     *
+     * @throws AuthorizationException if the claim is malformed
+     */
+    public UUID findOrganizationId() {
+        resolve();
+        if (organizationIdMalformed) {
+            throw new AuthorizationException(organizationIdError);
+        }
+        return organizationId;
+    }
+
+    /**
+     * Get the role name as granted, or null
+     */
+    public String getRoleName() {
+        resolve();
+        return roleName;
+    }
+
+    /**
+     * Get the role, or null if the caller has none or an unknown one
+     */
+    public Role getRole() {
+        resolve();
+        return role;
+    }
+
+    /**
+     * Check if the caller has a permission
+     */
+    public boolean hasPermission(Permission permission) {
+        resolve();
+        return (permissions & RBACPolicy.bit(permission)) != 0;
+    }
+
+    /**
+     * Check if the caller has any permission of a mask
+     */
+    public boolean hasAnyPermission(long mask) {
+        resolve();
+        return (permissions & mask) != 0;
+    }
+
+    /**
+     * Check if the caller has every permission of a mask
+     */
+    public boolean hasAllPermissions(long mask) {
+        resolve();
+        return (permissions & mask) == mask;
+    }
+
+    private void resolve() {
+        if (resolved) {
+            return;
+        }
+        resolved = true;
+
+        anonymous = securityIdentity.isAnonymous();
+        if (anonymous) {
+            userIdError = "User not authenticated";
+            organizationIdError = "User not authenticated";
+            return;
+        }
+
+        String subject = jwt.getSubject();
+        if (!hasClaim(subject)) {
+            userIdError = "User ID not found in token";
+        } else {
+            try {
+                userId = UUID.fromString(subject);
+            } catch (IllegalArgumentException e) {
+                userIdError = "Invalid user ID format in token: " + subject;
+                userIdMalformed = true;
+            }
+        }
+
+        String orgId = jwt.getClaim("organizationId");
+        if (!hasClaim(orgId)) {
+            organizationIdError = "User has no organization";
+        } else {
+            try {
+                organizationId = UUID.fromString(orgId);
+            } catch (IllegalArgumentException e) {
+                organizationIdError = "Invalid organization ID format in token: " + orgId;
+                organizationIdMalformed = true;
+            }
+        }
+
+        Iterator<String> roles = securityIdentity.getRoles().iterator();
+        roleName = roles.hasNext() ? roles.next() : null;
+        if (roleName != null) {
+            try {
+                role = Role.fromString(roleName);
+            } catch (IllegalArgumentException e) {
+                role = null;
+            }
+        }
+        permissions = rbacPolicy.permissionMask(role);
+    }
+
+    private static boolean hasClaim(String value) {
+        return value != null && !value.isBlank();
+    }
+}
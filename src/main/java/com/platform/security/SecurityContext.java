@@ -3,7 +3,6 @@ package com.platform.security;
 import io.quarkus.security.identity.SecurityIdentity;
 import jakarta.enterprise.context.RequestScoped;
 import jakarta.inject.Inject;
-import org.eclipse.microprofile.jwt.JsonWebToken;
 
 import java.util.UUID;
 
@@ -14,22 +13,14 @@ public class SecurityContext {
     SecurityIdentity securityIdentity;
 
     @Inject
-    JsonWebToken jwt;
+    ResolvedPrincipal principal;
 
     public UUID getCurrentUserId() {
-        if (securityIdentity.isAnonymous()) {
-            return null;
-        }
-        String userId = jwt.getSubject();
-        return userId != null ? UUID.fromString(userId) : null;
+        return principal.findUserId();
     }
 
     public UUID getCurrentOrganizationId() {
-        if (securityIdentity.isAnonymous()) {
-            return null;
-        }
-        String orgId = jwt.getClaim("organizationId");
-        return orgId != null ? UUID.fromString(orgId) : null;
+        return principal.findOrganizationId();
     }
 
     public String getCurrentUserEmail() {
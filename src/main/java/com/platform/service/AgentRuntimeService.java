@@ -1,8 +1,9 @@
 package com.platform.service;
 
 import com.platform.ai.AgentAIService;
+import com.platform.ai.RedisChatMemory;
+import com.platform.ai.TokenEstimator;
 import com.platform.domain.*;
-import com.platform.repository.MessageRepository;
 import io.quarkus.logging.Log;
 import io.smallrye.mutiny.Multi;
 import io.smallrye.mutiny.Uni;
@@ -10,6 +11,7 @@ import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
 import jakarta.transaction.Transactional;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
@@ -33,15 +35,21 @@ public class AgentRuntimeService {
     @Inject
     AgentAIService aiService;
 
-    @Inject
-    MessageRepository messageRepository;
-
     @Inject
     ToolExecutionOrchestrator toolOrchestrator;
 
     @Inject
     VectorStoreService vectorStoreService;
 
+    @Inject
+    ConversationWindowService conversationWindowService;
+
+    @Inject
+    ContextAssembler contextAssembler;
+
+    @Inject
+    ChatExecutor chatExecutor;
+
     private final ObjectMapper objectMapper = new ObjectMapper();
 
     /**
@@ -52,6 +60,20 @@ public class AgentRuntimeService {
      * @return RAG context with retrieved passages
      */
     public RAGContext retrieveRAGContext(Agent agent, String userMessage) {
+        return retrieveRAGContext(agent, null, userMessage);
+    }
+
+    /**
+     * Retrieve RAG context for a user message. In multi-query mode the
+     * message is expanded with preceding user turns of the conversation (if
+     * any) and a keyword variant, and the results are fused.
+     *
+     * @param agent          The agent
+     * @param conversationId The conversation, or null for none
+     * @param userMessage    The user's message
+     * @return RAG context with retrieved passages
+     */
+    public RAGContext retrieveRAGContext(Agent agent, UUID conversationId, String userMessage) {
         RAGContext ragContext = new RAGContext();
         
         try {
@@ -63,13 +85,38 @@ public class AgentRuntimeService {
                 return ragContext;
             }
             
-            // Perform semantic search
-            List<VectorStoreService.SearchResult> searchResults = vectorStoreService.semanticSearch(
-                userMessage,
-                agent.organization.id,
-                ragConfig.maxPassages,
-                ragConfig.relevanceThreshold
-            );
+            List<String> queries = ragConfig.multiQuery
+                    ? QueryExpander.expand(userMessage,
+                            previousUserTurns(conversationId, ragConfig.historyTurns), ragConfig.keywordQuery)
+                    : List.of(userMessage);
+
+            List<VectorStoreService.SearchResult> searchResults;
+            if (ragConfig.hybrid) {
+                searchResults = vectorStoreService.hybridSearch(
+                    queries,
+                    agent.organization.id,
+                    ragConfig.maxPassages,
+                    ragConfig.relevanceThreshold,
+                    ragConfig.lexicalWeight,
+                    ragConfig.vectorWeight,
+                    Duration.ofMillis(ragConfig.latencyBudgetMs)
+                );
+            } else if (ragConfig.multiQuery) {
+                searchResults = vectorStoreService.multiQuerySearch(
+                    queries,
+                    agent.organization.id,
+                    ragConfig.maxPassages,
+                    ragConfig.relevanceThreshold,
+                    Duration.ofMillis(ragConfig.latencyBudgetMs)
+                );
+            } else {
+                searchResults = vectorStoreService.semanticSearch(
+                    userMessage,
+                    agent.organization.id,
+                    ragConfig.maxPassages,
+                    ragConfig.relevanceThreshold
+                );
+            }
             
             // Convert search results to RAG context
             for (VectorStoreService.SearchResult result : searchResults) {
@@ -96,11 +143,12 @@ public class AgentRuntimeService {
 
     /**
      * Parse RAG configuration from agent configuration JSON.
+     * Package-private for testing.
      *
      * @param agent The agent
      * @return RAG configuration
      */
-    private RAGConfiguration parseRAGConfiguration(Agent agent) {
+    RAGConfiguration parseRAGConfiguration(Agent agent) {
         if (agent.configuration == null || agent.configuration.isEmpty()) {
             return new RAGConfiguration(); // Disabled by default
         }
@@ -118,6 +166,19 @@ public class AgentRuntimeService {
                 ragConfig.relevanceThreshold = ((Number) ragMap.getOrDefault("relevanceThreshold", 0.7)).doubleValue();
                 ragConfig.maxPassages = ((Number) ragMap.getOrDefault("maxPassages", 5)).intValue();
                 ragConfig.includeCitations = (Boolean) ragMap.getOrDefault("includeCitations", true);
+                if (ragMap.get("multiQuery") instanceof Map) {
+                    Map<String, Object> multiQuery = (Map<String, Object>) ragMap.get("multiQuery");
+                    ragConfig.multiQuery = (Boolean) multiQuery.getOrDefault("enabled", false);
+                    ragConfig.historyTurns = ((Number) multiQuery.getOrDefault("historyTurns", 2)).intValue();
+                    ragConfig.keywordQuery = (Boolean) multiQuery.getOrDefault("keywordQuery", true);
+                    ragConfig.latencyBudgetMs = ((Number) multiQuery.getOrDefault("latencyBudgetMs", 1500)).longValue();
+                }
+                if (ragMap.get("hybrid") instanceof Map) {
+                    Map<String, Object> hybrid = (Map<String, Object>) ragMap.get("hybrid");
+                    ragConfig.hybrid = (Boolean) hybrid.getOrDefault("enabled", false);
+                    ragConfig.lexicalWeight = ((Number) hybrid.getOrDefault("lexicalWeight", 1.0)).doubleValue();
+                    ragConfig.vectorWeight = ((Number) hybrid.getOrDefault("vectorWeight", 1.0)).doubleValue();
+                }
                 ragConfig.validate();
                 return ragConfig;
             }
@@ -129,7 +190,26 @@ public class AgentRuntimeService {
     }
 
     /**
-     * Process a message synchronously with conversation context.
+     * The last {@code turns} user messages of a conversation, oldest first.
+     */
+    private List<String> previousUserTurns(UUID conversationId, int turns) {
+        if (conversationId == null || turns <= 0) {
+            return List.of();
+        }
+        List<String> userTurns = conversationWindowService.getRecentMessages(conversationId).stream()
+                .filter(entry -> Message.MessageRole.USER.name().equals(entry.role))
+                .map(entry -> entry.content)
+                .collect(Collectors.toList());
+        return userTurns.subList(Math.max(0, userTurns.size() - turns), userTurns.size());
+    }
+
+    /**
+     * Process a message with conversation context.
+     *
+     * The turn runs on the {@link ChatExecutor}, so the caller's thread is not
+     * held during the embedding and model calls. Only the conversation lookup
+     * and the message writes run in (short) transactions; no database
+     * connection is held while waiting for the model.
      *
      * @param agentId        The agent ID
      * @param userMessage    The user's message
@@ -137,14 +217,13 @@ public class AgentRuntimeService {
      * @param userId         The user ID
      * @return AgentResponse with the AI's reply
      */
-    @Transactional
     public CompletionStage<AgentResponse> processMessage(
             UUID agentId,
             String userMessage,
             UUID conversationId,
             UUID userId) {
 
-        return Uni.createFrom().item(() -> {
+        return chatExecutor.submit(() -> {
             // Load agent configuration
             Agent agent = loadAgentConfiguration(agentId);
             if (agent == null) {
@@ -158,60 +237,30 @@ public class AgentRuntimeService {
             // Get or create conversation
             Conversation conversation = getOrCreateConversation(conversationId, agent, userId);
 
-            // Save user message
-            Message userMsg = new Message();
-            userMsg.conversation = conversation;
-            userMsg.role = Message.MessageRole.USER;
-            userMsg.content = userMessage;
-            userMsg.timestamp = LocalDateTime.now();
-            userMsg.persist();
+            // Retrieve RAG context and fit it, with history, into the token budget
+            ContextAssembler.AssembledContext assembled = contextAssembler.assemble(
+                    agent, conversation.id, userMessage, retrieveRAGContext(agent, conversation.id, userMessage));
+            String conversationHistory = assembled.history;
+            RAGContext ragContext = assembled.ragContext;
 
-            // Build conversation context
-            String conversationHistory = buildConversationContext(conversation.id);
-
-            // Retrieve RAG context
-            RAGContext ragContext = retrieveRAGContext(agent, userMessage);
+            // Save user message
+            saveUserMessage(conversation, userMessage);
 
             // Get AI response with appropriate context
+            long started = System.nanoTime();
+            int promptTokens = TokenEstimator.estimate(userMessage) + TokenEstimator.estimate(conversationHistory)
+                    + (ragContext.hasContext ? TokenEstimator.estimate(ragContext.formatForPrompt()) : 0);
             String aiResponse;
-            if (ragContext.hasContext && !conversationHistory.isEmpty()) {
-                // Both RAG and conversation history
-                aiResponse = aiService.chatWithContextAndRAG(
-                    agent.systemPrompt,
-                    conversationHistory,
-                    ragContext.formatForPrompt(),
-                    userMessage
-                );
-            } else if (ragContext.hasContext) {
-                // Only RAG context
-                aiResponse = aiService.chatWithRAG(
-                    agent.systemPrompt,
-                    ragContext.formatForPrompt(),
-                    userMessage
-                );
-            } else if (!conversationHistory.isEmpty()) {
-                // Only conversation history
-                aiResponse = aiService.chatWithContext(
-                    agent.systemPrompt,
-                    conversationHistory,
-                    userMessage
-                );
-            } else {
-                // No context
-                aiResponse = aiService.chat(agent.systemPrompt, userMessage);
+            try {
+                aiResponse = generateResponse(agent, userMessage, conversationHistory, ragContext);
+            } catch (RuntimeException e) {
+                recordInteraction(agent, conversation, started, promptTokens, false);
+                throw e;
             }
 
             // Save assistant message
-            Message assistantMsg = new Message();
-            assistantMsg.conversation = conversation;
-            assistantMsg.role = Message.MessageRole.ASSISTANT;
-            assistantMsg.content = aiResponse;
-            assistantMsg.timestamp = LocalDateTime.now();
-            assistantMsg.persist();
-
-            // Update conversation
-            conversation.messages.add(userMsg);
-            conversation.messages.add(assistantMsg);
+            Message assistantMsg = saveAssistantMessage(conversation, aiResponse);
+            recordInteraction(agent, conversation, started, promptTokens + assistantMsg.tokenCount, true);
 
             Log.infof("Processed message for agent %s, conversation %s", agentId, conversation.id);
 
@@ -228,12 +277,49 @@ public class AgentRuntimeService {
             }
             
             return response;
-        }).subscribeAsCompletionStage();
+        });
+    }
+
+    /**
+     * Get the model's reply with whichever context is available.
+     */
+    private String generateResponse(Agent agent, String userMessage, String conversationHistory,
+            RAGContext ragContext) {
+        if (ragContext.hasContext && !conversationHistory.isEmpty()) {
+            // Both RAG and conversation history
+            return aiService.chatWithContextAndRAG(
+                agent.systemPrompt,
+                conversationHistory,
+                ragContext.formatForPrompt(),
+                userMessage
+            );
+        } else if (ragContext.hasContext) {
+            // Only RAG context
+            return aiService.chatWithRAG(
+                agent.systemPrompt,
+                ragContext.formatForPrompt(),
+                userMessage
+            );
+        } else if (!conversationHistory.isEmpty()) {
+            // Only conversation history
+            return aiService.chatWithContext(
+                agent.systemPrompt,
+                conversationHistory,
+                userMessage
+            );
+        } else {
+            // No context
+            return aiService.chat(agent.systemPrompt, userMessage);
+        }
     }
 
     /**
      * Stream a response for real-time chat.
      *
+     * Agent lookup, conversation setup and RAG retrieval run on the
+     * {@link ChatExecutor}; the model stream is then passed through with backpressure left
+     * to the subscriber. The complete response is saved once the stream ends.
+     *
      * @param agentId        The agent ID
      * @param userMessage    The user's message
      * @param conversationId The conversation ID (optional)
@@ -246,65 +332,59 @@ public class AgentRuntimeService {
             UUID conversationId,
             UUID userId) {
 
-        return Multi.createFrom().emitter(emitter -> {
-            try {
-                // Load agent configuration
-                Agent agent = loadAgentConfiguration(agentId);
-                if (agent == null) {
-                    emitter.fail(new IllegalArgumentException("Agent not found: " + agentId));
-                    return;
-                }
+        return Uni.createFrom().completionStage(() -> chatExecutor.submit(
+                        () -> prepareStream(agentId, userMessage, conversationId, userId)))
+                .onItem().transformToMulti(prepared -> {
+                    // Kept for persistence; bounded by the model's max-tokens setting
+                    StringBuilder fullResponse = new StringBuilder();
+                    long started = System.nanoTime();
+                    return prepared.stream
+                            .onItem().invoke(fullResponse::append)
+                            .onCompletion().call(() -> Uni.createFrom().completionStage(() -> chatExecutor.submit(() -> {
+                                Message assistantMsg = saveAssistantMessage(prepared.conversation, fullResponse.toString());
+                                recordInteraction(prepared.agent, prepared.conversation, started,
+                                        TokenEstimator.estimate(userMessage) + assistantMsg.tokenCount, true);
+                                Log.infof("Completed streaming for agent %s, conversation %s",
+                                        agentId, prepared.conversation.id);
+                                return null;
+                            })));
+                })
+                .onFailure().invoke(failure -> Log.errorf(failure, "Error in streamResponse for agent %s", agentId));
+    }
 
-                if (agent.status != Agent.AgentStatus.ACTIVE) {
-                    emitter.fail(new IllegalStateException("Agent is not active: " + agent.status));
-                    return;
-                }
+    private PreparedStream prepareStream(UUID agentId, String userMessage, UUID conversationId, UUID userId) {
+        // Load agent configuration
+        Agent agent = loadAgentConfiguration(agentId);
+        if (agent == null) {
+            throw new IllegalArgumentException("Agent not found: " + agentId);
+        }
 
-                // Get or create conversation (in transaction)
-                Conversation conversation = getOrCreateConversation(conversationId, agent, userId);
-
-                // Save user message (in transaction)
-                saveUserMessage(conversation, userMessage);
-
-                // Retrieve RAG context
-                RAGContext ragContext = retrieveRAGContext(agent, userMessage);
-
-                // Stream AI response with RAG context if available
-                Multi<String> stream;
-                if (ragContext.hasContext) {
-                    stream = aiService.chatStreamWithRAG(
-                        agent.systemPrompt,
-                        ragContext.formatForPrompt(),
-                        userMessage
-                    );
-                } else {
-                    stream = aiService.chatStream(agent.systemPrompt, userMessage);
-                }
+        if (agent.status != Agent.AgentStatus.ACTIVE) {
+            throw new IllegalStateException("Agent is not active: " + agent.status);
+        }
 
-                StringBuilder fullResponse = new StringBuilder();
-
-                stream.subscribe().with(
-                        token -> {
-                            fullResponse.append(token);
-                            emitter.emit(token);
-                        },
-                        failure -> {
-                            Log.errorf(failure, "Error streaming response for agent %s", agentId);
-                            emitter.fail(failure);
-                        },
-                        () -> {
-                            // Save complete assistant message
-                            saveAssistantMessage(conversation, fullResponse.toString());
-                            emitter.complete();
-                            Log.infof("Completed streaming for agent %s, conversation %s",
-                                    agentId, conversation.id);
-                        });
-
-            } catch (Exception e) {
-                Log.errorf(e, "Error in streamResponse for agent %s", agentId);
-                emitter.fail(e);
-            }
-        });
+        // Get or create conversation (in transaction)
+        Conversation conversation = getOrCreateConversation(conversationId, agent, userId);
+
+        // Retrieve RAG context within the token budget (the streaming prompt carries no history)
+        RAGContext ragContext = contextAssembler.assemble(
+                agent, null, userMessage, retrieveRAGContext(agent, userMessage)).ragContext;
+
+        // Save user message (in transaction)
+        saveUserMessage(conversation, userMessage);
+
+        // Stream AI response with RAG context if available
+        Multi<String> stream;
+        if (ragContext.hasContext) {
+            stream = aiService.chatStreamWithRAG(
+                agent.systemPrompt,
+                ragContext.formatForPrompt(),
+                userMessage
+            );
+        } else {
+            stream = aiService.chatStream(agent.systemPrompt, userMessage);
+        }
+        return new PreparedStream(agent, conversation, stream);
     }
 
     /**
@@ -348,28 +428,22 @@ public class AgentRuntimeService {
     }
 
     /**
-     * Build conversation context from message history.
+     * Build conversation context from the recent message window.
      *
      * @param conversationId The conversation ID
      * @return Formatted conversation history
      */
     public String buildConversationContext(UUID conversationId) {
-        List<Message> messages = messageRepository.list(
-                "conversation.id = ?1 ORDER BY timestamp ASC",
-                conversationId);
+        List<RedisChatMemory.MemoryEntry> recentMessages = conversationWindowService.getRecentMessages(conversationId);
 
-        if (messages.isEmpty()) {
+        if (recentMessages.isEmpty()) {
             return "";
         }
 
-        // Limit to last 10 messages to avoid context overflow
-        int startIndex = Math.max(0, messages.size() - 10);
-        List<Message> recentMessages = messages.subList(startIndex, messages.size());
-
         return recentMessages.stream()
-                .map(msg -> {
-                    String roleLabel = msg.role == Message.MessageRole.USER ? "User" : "Assistant";
-                    return roleLabel + ": " + msg.content;
+                .map(entry -> {
+                    String roleLabel = Message.MessageRole.USER.name().equals(entry.role) ? "User" : "Assistant";
+                    return roleLabel + ": " + entry.content;
                 })
                 .collect(Collectors.joining("\n"));
     }
@@ -378,26 +452,54 @@ public class AgentRuntimeService {
      * Save user message in a transaction.
      */
     @Transactional
-    void saveUserMessage(Conversation conversation, String content) {
-        Message userMsg = new Message();
-        userMsg.conversation = conversation;
-        userMsg.role = Message.MessageRole.USER;
-        userMsg.content = content;
-        userMsg.timestamp = LocalDateTime.now();
-        userMsg.persist();
+    Message saveUserMessage(Conversation conversation, String content) {
+        return saveMessage(conversation, Message.MessageRole.USER, content);
     }
 
     /**
      * Save assistant message in a transaction.
      */
     @Transactional
-    void saveAssistantMessage(Conversation conversation, String content) {
-        Message assistantMsg = new Message();
-        assistantMsg.conversation = conversation;
-        assistantMsg.role = Message.MessageRole.ASSISTANT;
-        assistantMsg.content = content;
-        assistantMsg.timestamp = LocalDateTime.now();
-        assistantMsg.persist();
+    Message saveAssistantMessage(Conversation conversation, String content) {
+        return saveMessage(conversation, Message.MessageRole.ASSISTANT, content);
+    }
+
+    /**
+     * Record the metrics of one turn, from which dashboard rollups are
+     * compacted. Failing to record never fails the turn.
+     */
+    void recordInteraction(Agent agent, Conversation conversation, long startedNanos, int tokenUsage,
+            boolean success) {
+        try {
+            saveInteractionMetrics(agent, conversation,
+                    (int) Duration.ofNanos(System.nanoTime() - startedNanos).toMillis(), tokenUsage, success);
+        } catch (Exception e) {
+            Log.warnf(e, "Failed to record interaction metrics for conversation %s", conversation.id);
+        }
+    }
+
+    @Transactional
+    void saveInteractionMetrics(Agent agent, Conversation conversation, int responseTimeMs, int tokenUsage,
+            boolean success) {
+        InteractionMetrics metrics = new InteractionMetrics();
+        metrics.agent = agent;
+        metrics.conversation = conversation;
+        metrics.responseTimeMs = responseTimeMs;
+        metrics.tokenUsage = tokenUsage;
+        metrics.success = success;
+        metrics.persist();
+    }
+
+    private Message saveMessage(Conversation conversation, Message.MessageRole role, String content) {
+        Message message = new Message();
+        message.conversation = conversation;
+        message.role = role;
+        message.content = content;
+        message.timestamp = LocalDateTime.now();
+        message.tokenCount = TokenEstimator.estimate(content);
+        message.persist();
+        conversationWindowService.recordMessage(conversation.id, role, content);
+        return message;
     }
 
     /**
@@ -434,4 +536,19 @@ public class AgentRuntimeService {
             this.citations = new ArrayList<>();
         }
     }
+
+    /**
+     * Conversation and model stream prepared for a streaming response.
+     */
+    private static final class PreparedStream {
+        final Agent agent;
+        final Conversation conversation;
+        final Multi<String> stream;
+
+        PreparedStream(Agent agent, Conversation conversation, Multi<String> stream) {
+            this.agent = agent;
+            this.conversation = conversation;
+            this.stream = stream;
+        }
+    }
 }
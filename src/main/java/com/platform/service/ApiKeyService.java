@@ -5,25 +5,48 @@ import com.platform.domain.User;
 import com.platform.exception.ValidationException;
 import com.platform.repository.ApiKeyRepository;
 import com.platform.repository.UserRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.annotation.PostConstruct;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
 import jakarta.transaction.Transactional;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
 import org.mindrot.jbcrypt.BCrypt;
 
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.InvalidKeyException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.security.SecureRandom;
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.Base64;
+import java.util.HexFormat;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 /**
  * Service for managing API keys
+ *
+ * Keys have the form {@code aap_<lookupId>_<secret>}. The lookup id is
+ * stored in clear and indexed, so validation is one indexed read plus an
+ * HMAC-SHA256 of the key under a server-side secret, compared in constant
+ * time. Keys issued before lookup ids ({@code aap_<secret>}) keep their
+ * BCrypt hash and are still matched by checking legacy hashes. Validation
+ * outcomes are cached briefly, and last use is written in batches by
+ * {@link ApiKeyUsageTracker}.
  */
 @ApplicationScoped
 public class ApiKeyService {
 
     private static final int API_KEY_LENGTH = 32; // 32 bytes = 256 bits
+    private static final int LOOKUP_ID_LENGTH = 8; // 8 bytes, 16 hex chars
     private static final String API_KEY_PREFIX = "aap_"; // AI Agent Platform prefix
+    private static final String HMAC_ALGORITHM = "HmacSHA256";
 
     @Inject
     ApiKeyRepository apiKeyRepository;
@@ -31,6 +54,31 @@ public class ApiKeyService {
     @Inject
     UserRepository userRepository;
 
+    @Inject
+    ApiKeyUsageTracker usageTracker;
+
+    @ConfigProperty(name = "api-key.hmac-secret")
+    String hmacSecret;
+
+    @ConfigProperty(name = "api-key.cache.ttl", defaultValue = "PT30S")
+    Duration cacheTtl;
+
+    @ConfigProperty(name = "api-key.cache.max-entries", defaultValue = "10000")
+    long cacheMaxEntries;
+
+    private final SecureRandom random = new SecureRandom();
+
+    /** SHA-256 of a presented key to the id of the key it matched, or empty. */
+    private Cache<String, Optional<UUID>> validationCache;
+
+    @PostConstruct
+    void init() {
+        validationCache = Caffeine.newBuilder()
+                .maximumSize(cacheMaxEntries)
+                .expireAfterWrite(cacheTtl)
+                .build();
+    }
+
     /**
      * Generate a new API key for a user
      *
@@ -50,15 +98,15 @@ public class ApiKeyService {
                 .orElseThrow(() -> new ValidationException("User not found"));
 
         // Generate random API key
-        String plainKey = generateRandomKey();
-        String fullKey = API_KEY_PREFIX + plainKey;
-
-        // Hash the key for storage
-        String keyHash = BCrypt.hashpw(fullKey, BCrypt.gensalt());
+        String lookupId = HexFormat.of().formatHex(randomBytes(LOOKUP_ID_LENGTH));
+        String secret = Base64.getUrlEncoder().withoutPadding().encodeToString(randomBytes(API_KEY_LENGTH));
+        String fullKey = API_KEY_PREFIX + lookupId + "_" + secret;
 
         // Create API key entity
         ApiKey apiKey = new ApiKey();
-        apiKey.keyHash = keyHash;
+        apiKey.lookupId = lookupId;
+        apiKey.keyHash = hmac(hmacSecret, fullKey);
+        apiKey.hashAlgorithm = ApiKey.HashAlgorithm.HMAC_SHA256;
         apiKey.name = name.trim();
         apiKey.description = description != null ? description.trim() : null;
         apiKey.user = user;
@@ -75,31 +123,52 @@ public class ApiKeyService {
     /**
      * Validate an API key
      *
+     * Revocation and expiry take effect immediately: only which key a value
+     * matched is cached, and the key itself is re-read on every call.
+     *
      * @param apiKey The API key to validate
      * @return The ApiKey entity if valid, null otherwise
      */
-    @Transactional
     public ApiKey validateApiKey(String apiKey) {
         if (apiKey == null || !apiKey.startsWith(API_KEY_PREFIX)) {
             return null;
         }
 
-        // Find all active API keys and check against each hash
-        List<ApiKey> activeKeys = apiKeyRepository.find("active = true").list();
+        Optional<UUID> matched = validationCache.get(sha256(apiKey), digest -> match(apiKey));
+        if (matched.isEmpty()) {
+            return null;
+        }
 
-        for (ApiKey key : activeKeys) {
+        ApiKey key = apiKeyRepository.findById(matched.get());
+        if (key == null || !key.isValid()) {
+            return null; // Key deleted, expired or revoked
+        }
+        usageTracker.recordUse(key.id);
+        return key;
+    }
+
+    /**
+     * Find the key a presented value belongs to, whether or not it is
+     * currently valid.
+     */
+    private Optional<UUID> match(String apiKey) {
+        String lookupId = lookupId(apiKey);
+        if (lookupId != null) {
+            return apiKeyRepository.findByLookupId(lookupId)
+                    .filter(key -> key.hashAlgorithm == ApiKey.HashAlgorithm.HMAC_SHA256)
+                    .filter(key -> MessageDigest.isEqual(
+                            key.keyHash.getBytes(StandardCharsets.US_ASCII),
+                            hmac(hmacSecret, apiKey).getBytes(StandardCharsets.US_ASCII)))
+                    .map(key -> key.id);
+        }
+
+        // Legacy key without lookup id: check the remaining BCrypt hashes
+        for (ApiKey key : apiKeyRepository.findActiveLegacy()) {
             if (BCrypt.checkpw(apiKey, key.keyHash)) {
-                if (key.isValid()) {
-                    // Update last used timestamp
-                    key.lastUsedAt = LocalDateTime.now();
-                    apiKeyRepository.persist(key);
-                    return key;
-                }
-                return null; // Key found but expired or inactive
+                return Optional.of(key.id);
             }
         }
-
-        return null; // No matching key found
+        return Optional.empty();
     }
 
     /**
@@ -134,14 +203,49 @@ public class ApiKeyService {
         apiKeyRepository.persist(apiKey);
     }
 
+    private byte[] randomBytes(int length) {
+        byte[] bytes = new byte[length];
+        random.nextBytes(bytes);
+        return bytes;
+    }
+
+    // Package-private for testing
+
     /**
-     * Generate a random API key
+     * The lookup id of a key in the current format, or null for a legacy or
+     * malformed key.
      */
-    private String generateRandomKey() {
-        SecureRandom random = new SecureRandom();
-        byte[] bytes = new byte[API_KEY_LENGTH];
-        random.nextBytes(bytes);
-        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+    static String lookupId(String apiKey) {
+        int start = API_KEY_PREFIX.length();
+        int end = start + LOOKUP_ID_LENGTH * 2;
+        if (apiKey.length() <= end + 1 || apiKey.charAt(end) != '_') {
+            return null;
+        }
+        for (int i = start; i < end; i++) {
+            if (Character.digit(apiKey.charAt(i), 16) < 0 || Character.isUpperCase(apiKey.charAt(i))) {
+                return null;
+            }
+        }
+        return apiKey.substring(start, end);
+    }
+
+    static String hmac(String secret, String value) {
+        try {
+            Mac mac = Mac.getInstance(HMAC_ALGORITHM);
+            mac.init(new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), HMAC_ALGORITHM));
+            return HexFormat.of().formatHex(mac.doFinal(value.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException | InvalidKeyException e) {
+            throw new IllegalStateException("HMAC-SHA256 not available", e);
+        }
+    }
+
+    private static String sha256(String value) {
+        try {
+            return HexFormat.of().formatHex(
+                    MessageDigest.getInstance("SHA-256").digest(value.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
     }
 
     /**
@@ -0,0 +1,102 @@
+package com.platform.service;
+
+import com.platform.repository.ApiKeyRepository;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Batches {@code lastUsedAt} updates of API keys.
+ *
+ * Requests only note the latest use of a key in memory; a background
+ * thread writes the pending timestamps periodically in its own
+ * transaction, so authentication never writes to the database.
+ */
+@ApplicationScoped
+public class ApiKeyUsageTracker {
+
+    private static final Logger LOG = Logger.getLogger(ApiKeyUsageTracker.class);
+
+    @Inject
+    ApiKeyRepository apiKeyRepository;
+
+    @ConfigProperty(name = "api-key.last-used.flush-interval", defaultValue = "PT30S")
+    Duration flushInterval;
+
+    private final Map<UUID, LocalDateTime> pending = new ConcurrentHashMap<>();
+    private ScheduledExecutorService writer;
+
+    @PostConstruct
+    void init() {
+        writer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "api-key-usage-writer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        writer.scheduleWithFixedDelay(this::flush, flushInterval.toMillis(), flushInterval.toMillis(),
+                TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        writer.shutdown();
+        try {
+            if (writer.awaitTermination(5, TimeUnit.SECONDS)) {
+                flush();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Note that a key was used now.
+     */
+    public void recordUse(UUID apiKeyId) {
+        pending.merge(apiKeyId, LocalDateTime.now(), (a, b) -> a.isAfter(b) ? a : b);
+    }
+
+    /**
+     * Write pending timestamps; runs on the writer thread.
+     */
+    void flush() {
+        Map<UUID, LocalDateTime> batch = drain();
+        if (batch.isEmpty()) {
+            return;
+        }
+        try {
+            QuarkusTransaction.requiringNew().run(() -> batch.forEach((id, usedAt) -> apiKeyRepository.update(
+                    "lastUsedAt = ?1 where id = ?2 and (lastUsedAt is null or lastUsedAt < ?1)", usedAt, id)));
+        } catch (Exception e) {
+            // Not worth retrying: the next use of each key records it again
+            LOG.warnf(e, "Failed to update last use of %d API keys", batch.size());
+        }
+    }
+
+    // Package-private for testing
+
+    Map<UUID, LocalDateTime> drain() {
+        Map<UUID, LocalDateTime> batch = new HashMap<>();
+        for (UUID id : pending.keySet()) {
+            LocalDateTime usedAt = pending.remove(id);
+            if (usedAt != null) {
+                batch.put(id, usedAt);
+            }
+        }
+        return batch;
+    }
+}
@@ -7,12 +7,11 @@ import com.platform.security.JwtTokenProvider;
 import com.platform.security.PasswordHasher;
 import com.platform.security.dto.AuthenticationResponse;
 import com.platform.security.dto.LoginRequest;
-import io.quarkus.redis.datasource.RedisDataSource;
-import io.quarkus.redis.datasource.value.ValueCommands;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
 import jakarta.transaction.Transactional;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.UUID;
 
@@ -20,6 +19,7 @@ import java.util.UUID;
 public class AuthenticationService {
 
     private static final long SESSION_EXPIRATION_SECONDS = 86400L; // 24 hours
+    private static final Duration SESSION_EXPIRATION = Duration.ofSeconds(SESSION_EXPIRATION_SECONDS);
 
     @Inject
     UserRepository userRepository;
@@ -31,15 +31,7 @@ public class AuthenticationService {
     JwtTokenProvider jwtTokenProvider;
 
     @Inject
-    RedisDataSource redisDataSource;
-
-    private ValueCommands<String, String> sessionCommands;
-
-    @jakarta.annotation.PostConstruct
-    @SuppressWarnings("unused") // Called by CDI container
-    void init() {
-        sessionCommands = redisDataSource.value(String.class);
-    }
+    SessionCache sessionCache;
 
     @Transactional
     public AuthenticationResponse authenticate(LoginRequest request) {
@@ -63,8 +55,7 @@ public class AuthenticationService {
         String accessToken = jwtTokenProvider.generateAccessToken(user);
         String refreshToken = jwtTokenProvider.generateRefreshToken(user);
 
-        String sessionKey = "session:" + user.id.toString();
-        sessionCommands.setex(sessionKey, SESSION_EXPIRATION_SECONDS, accessToken);
+        sessionCache.store(user.id, accessToken, SESSION_EXPIRATION);
 
         AuthenticationResponse.UserInfo userInfo = new AuthenticationResponse.UserInfo(
                 user.id,
@@ -80,13 +71,15 @@ public class AuthenticationService {
     }
 
     public void invalidateSession(UUID userId) {
-        String sessionKey = "session:" + userId.toString();
-        sessionCommands.getdel(sessionKey);
+        sessionCache.invalidate(userId);
     }
 
     public boolean isSessionValid(UUID userId) {
-        String sessionKey = "session:" + userId.toString();
-        return sessionCommands.get(sessionKey) != null;
+        return sessionCache.isValid(userId);
+    }
+
+    public boolean isSessionValid(UUID userId, String accessToken) {
+        return sessionCache.isValid(userId, accessToken);
     }
 
     @Transactional
@@ -108,8 +101,7 @@ public class AuthenticationService {
         String accessToken = jwtTokenProvider.generateAccessToken(user);
         String refreshToken = jwtTokenProvider.generateRefreshToken(user);
 
-        String sessionKey = "session:" + user.id.toString();
-        sessionCommands.setex(sessionKey, SESSION_EXPIRATION_SECONDS, accessToken);
+        sessionCache.store(user.id, accessToken, SESSION_EXPIRATION);
 
         AuthenticationResponse.UserInfo userInfo = new AuthenticationResponse.UserInfo(
                 user.id,
@@ -3,40 +3,31 @@ package com.platform.service;
 import com.platform.exception.AuthorizationException;
 import com.platform.security.Permission;
 import com.platform.security.RBACPolicy;
+import com.platform.security.ResolvedPrincipal;
 import com.platform.security.Role;
-import io.quarkus.security.identity.SecurityIdentity;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
-import org.eclipse.microprofile.jwt.JsonWebToken;
 
+import java.util.EnumSet;
 import java.util.UUID;
 
+/**
+ * Authorization checks for the current caller, answered from the
+ * {@link ResolvedPrincipal} of the request.
+ */
 @ApplicationScoped
 public class AuthorizationService {
 
-    @Inject
-    RBACPolicy rbacPolicy;
-
-    @Inject
-    SecurityIdentity securityIdentity;
+    private static final long ADMIN_PERMISSIONS = RBACPolicy.mask(EnumSet.of(Permission.USER_CREATE, Permission.USER_DELETE));
 
     @Inject
-    JsonWebToken jwt;
+    ResolvedPrincipal principal;
 
     /**
      * Check if the current user has a specific permission
      */
     public boolean hasPermission(Permission permission) {
-        if (securityIdentity.isAnonymous()) {
-            return false;
-        }
-
-        String role = securityIdentity.getRoles().stream().findFirst().orElse(null);
-        if (role == null) {
-            return false;
-        }
-
-        return rbacPolicy.hasPermission(role, permission);
+        return principal.hasPermission(permission);
     }
 
     /**
@@ -52,40 +43,14 @@ public class AuthorizationService {
      * Get the current user's ID from the security context
      */
     public UUID getCurrentUserId() {
-        if (securityIdentity.isAnonymous()) {
-            throw new AuthorizationException("User not authenticated");
-        }
-
-        String userId = jwt.getSubject();
-        if (userId == null || userId.isBlank()) {
-            throw new AuthorizationException("User ID not found in token");
-        }
-
-        try {
-            return UUID.fromString(userId);
-        } catch (IllegalArgumentException e) {
-            throw new AuthorizationException("Invalid user ID format in token: " + userId);
-        }
+        return principal.getUserId();
     }
 
     /**
      * Get the current user's organization ID
      */
     public UUID getCurrentOrganizationId() {
-        if (securityIdentity.isAnonymous()) {
-            throw new AuthorizationException("User not authenticated");
-        }
-
-        String orgId = jwt.getClaim("organizationId");
-        if (orgId == null || orgId.isBlank()) {
-            throw new AuthorizationException("User has no organization");
-        }
-
-        try {
-            return UUID.fromString(orgId);
-        } catch (IllegalArgumentException e) {
-            throw new AuthorizationException("Invalid organization ID format in token: " + orgId);
-        }
+        return principal.getOrganizationId();
     }
 
     /**
@@ -113,22 +78,22 @@ public class AuthorizationService {
      * Check if the current user is an admin
      */
     public boolean isAdmin() {
-        return hasPermission(Permission.USER_CREATE) && hasPermission(Permission.USER_DELETE);
+        return principal.hasAllPermissions(ADMIN_PERMISSIONS);
     }
 
     /**
      * Get the current user's role
      */
     public Role getCurrentRole() {
-        if (securityIdentity.isAnonymous()) {
+        if (principal.isAnonymous()) {
             throw new AuthorizationException("User not authenticated");
         }
 
-        String role = securityIdentity.getRoles().stream().findFirst().orElse(null);
+        String role = principal.getRoleName();
         if (role == null) {
             throw new AuthorizationException("User has no role");
         }
 
-        return Role.fromString(role);
+        return principal.getRole() != null ? principal.getRole() : Role.fromString(role);
     }
 }
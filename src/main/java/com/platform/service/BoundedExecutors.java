@@ -0,0 +1,65 @@
+package com.platform.service;
+
+import org.jboss.logging.Logger;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Factory for the bounded thread pools used for blocking I/O (chat turns,
+ * tool calls, sub-query searches).
+ *
+ * Pools have a fixed number of daemon platform threads, whose idle threads
+ * time out, and a bounded queue. What happens to a task that finds the queue
+ * full is up to the caller: {@link ThreadPoolExecutor.AbortPolicy} sheds it
+ * with a {@link RejectedExecutionException}, {@link #callerRuns()} slows the
+ * submitter down by running it on the submitting thread.
+ */
+final class BoundedExecutors {
+
+    private static final Logger LOG = Logger.getLogger(BoundedExecutors.class);
+
+    private BoundedExecutors() {
+    }
+
+    /**
+     * Create a bounded pool.
+     *
+     * @param name          Thread name prefix
+     * @param maxThreads    Number of threads
+     * @param queueCapacity Tasks that may wait for a thread
+     * @param rejection     Policy for tasks beyond {@code queueCapacity}
+     */
+    static ThreadPoolExecutor create(String name, int maxThreads, int queueCapacity,
+            RejectedExecutionHandler rejection) {
+        LOG.debugf("%s execution uses up to %d threads and queues up to %d tasks", name, maxThreads, queueCapacity);
+        AtomicInteger counter = new AtomicInteger();
+        ThreadPoolExecutor pool = new ThreadPoolExecutor(maxThreads, maxThreads, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+                    Thread thread = new Thread(runnable, name + "-" + counter.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }, rejection);
+        pool.allowCoreThreadTimeOut(true);
+        return pool;
+    }
+
+    /**
+     * Run a rejected task on the submitting thread, unless the pool has been
+     * shut down. Unlike {@link ThreadPoolExecutor.CallerRunsPolicy}, which
+     * silently discards tasks after shutdown, this rejects them, so futures
+     * waiting on them fail instead of never completing.
+     */
+    static RejectedExecutionHandler callerRuns() {
+        return (task, pool) -> {
+            if (pool.isShutdown()) {
+                throw new RejectedExecutionException("Executor has been shut down");
+            }
+            task.run();
+        };
+    }
+}
@@ -0,0 +1,90 @@
+package com.platform.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.quarkus.arc.Arc;
+import io.quarkus.arc.ManagedContext;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Executor for chat turns, which spend most of their time waiting on the
+ * embedding and model HTTP calls.
+ *
+ * Turns run on a dedicated bounded pool of platform threads, sized
+ * independently of the shared worker pool, so a waiting turn holds neither
+ * an event-loop nor a worker thread. The pool is deliberately much larger
+ * than the datasource pool ({@code quarkus.datasource.jdbc.max-size}): a turn
+ * only holds a connection for its short transactions, never while waiting on
+ * the model, so at most that many turns touch the database at once while the
+ * rest wait on HTTP. Turns beyond the pool size wait in a bounded queue
+ * ({@code chat.execution.queue-capacity}); once it is full, new turns are
+ * rejected rather than queued without limit. Tasks run with an activated
+ * request context; database access inside them must use short transactions.
+ */
+@ApplicationScoped
+public class ChatExecutor {
+
+    @Inject
+    MeterRegistry meterRegistry;
+
+    @ConfigProperty(name = "chat.execution.max-threads", defaultValue = "256")
+    int maxThreads;
+
+    @ConfigProperty(name = "chat.execution.queue-capacity", defaultValue = "1024")
+    int queueCapacity;
+
+    private final AtomicInteger active = new AtomicInteger();
+    private ExecutorService executor;
+    private Counter rejected;
+
+    @PostConstruct
+    void init() {
+        executor = BoundedExecutors.create("chat", maxThreads, queueCapacity, new ThreadPoolExecutor.AbortPolicy());
+        meterRegistry.gauge("chat.execution.active", active);
+        rejected = meterRegistry.counter("chat.execution.rejected");
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdown();
+    }
+
+    /**
+     * Run a chat task off the calling thread.
+     *
+     * @param task The task
+     * @return Stage completed with the task's result or failure; failed with
+     *         a {@link RejectedExecutionException} if every thread is busy and
+     *         the queue is full
+     */
+    public <T> CompletionStage<T> submit(Supplier<T> task) {
+        try {
+            return CompletableFuture.supplyAsync(() -> {
+                active.incrementAndGet();
+                ManagedContext requestContext = Arc.container().requestContext();
+                requestContext.activate();
+                try {
+                    return task.get();
+                } finally {
+                    requestContext.terminate();
+                    active.decrementAndGet();
+                }
+            }, executor);
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+}
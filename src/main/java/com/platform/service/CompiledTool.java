@@ -0,0 +1,179 @@
+package com.platform.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.platform.domain.Tool;
+import com.platform.service.dto.ToolRegistrationRequest;
+import org.jboss.logging.Logger;
+
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * A tool definition prepared for execution: endpoint URI, authentication
+ * headers, parameter schema and execution policy are parsed once from the
+ * {@link Tool} entity.
+ * Instances are immutable and stamped with the entity version they were
+ * built from.
+ */
+public final class CompiledTool {
+
+    private static final Logger LOG = Logger.getLogger(CompiledTool.class);
+
+    public final UUID id;
+    public final long version;
+    public final String name;
+    public final Tool.ToolType type;
+    public final String endpoint;
+    public final URI uri;
+    public final Map<String, String> headers;
+    public final Map<String, ToolRegistrationRequest.ParameterDefinition> parameters;
+    public final ToolRegistrationRequest.ExecutionPolicy executionPolicy;
+    /** Field selection applied to JSON responses, or null to keep the whole body. */
+    public final JsonProjection projection;
+
+    private CompiledTool(Tool tool, URI uri, Map<String, String> headers,
+            Map<String, ToolRegistrationRequest.ParameterDefinition> parameters,
+            ToolRegistrationRequest.ExecutionPolicy executionPolicy, JsonProjection projection) {
+        this.id = tool.id;
+        this.version = tool.version;
+        this.name = tool.name;
+        this.type = tool.type;
+        this.endpoint = tool.endpoint;
+        this.uri = uri;
+        this.headers = headers;
+        this.parameters = parameters;
+        this.executionPolicy = executionPolicy;
+        this.projection = projection;
+    }
+
+    /**
+     * HTTP method for a call: parameters are sent as a JSON POST body,
+     * calls without parameters are a GET.
+     */
+    public String methodFor(Map<String, Object> params) {
+        return params != null && !params.isEmpty() ? "POST" : "GET";
+    }
+
+    /**
+     * Whether successful responses of this tool may be cached.
+     */
+    public boolean isCacheable() {
+        return executionPolicy.idempotent && executionPolicy.cache != null && executionPolicy.cache.enabled;
+    }
+
+    /**
+     * Whether slow calls to this tool may be hedged with a second request.
+     */
+    public boolean isHedged() {
+        return executionPolicy.idempotent && executionPolicy.hedge != null && executionPolicy.hedge.enabled;
+    }
+
+    /**
+     * Parse a tool entity. Malformed auth, parameter or policy JSON is logged
+     * and treated as absent, as before caching.
+     *
+     * @throws IllegalArgumentException if the endpoint is not a valid URI
+     */
+    public static CompiledTool compile(Tool tool, ObjectMapper objectMapper) {
+        ToolRegistrationRequest.ExecutionPolicy policy = executionPolicy(tool, objectMapper);
+        return new CompiledTool(tool, URI.create(tool.endpoint),
+                Collections.unmodifiableMap(authenticationHeaders(tool, objectMapper)),
+                Collections.unmodifiableMap(parameterSchema(tool, objectMapper)),
+                policy, projection(tool, policy));
+    }
+
+    private static Map<String, String> authenticationHeaders(Tool tool, ObjectMapper objectMapper) {
+        Map<String, String> headers = new LinkedHashMap<>();
+        if (tool.authConfig == null || tool.authConfig.isEmpty()) {
+            return headers;
+        }
+
+        try {
+            ToolRegistrationRequest.AuthenticationConfig authConfig = objectMapper.readValue(tool.authConfig,
+                    ToolRegistrationRequest.AuthenticationConfig.class);
+            if (authConfig.type == null) {
+                return headers;
+            }
+
+            switch (authConfig.type) {
+                case API_KEY:
+                    if (authConfig.apiKey != null) {
+                        // Support both Bearer and custom header formats
+                        headers.put("Authorization", "Bearer " + authConfig.apiKey);
+                        headers.put("X-API-Key", authConfig.apiKey);
+                    }
+                    break;
+                case BASIC_AUTH:
+                    if (authConfig.username != null && authConfig.password != null) {
+                        String credentials = authConfig.username + ":" + authConfig.password;
+                        headers.put("Authorization", "Basic " + Base64.getEncoder()
+                                .encodeToString(credentials.getBytes(StandardCharsets.UTF_8)));
+                    }
+                    break;
+                case OAUTH2:
+                    // Token refresh is not implemented; the stored token is used as is
+                    if (authConfig.apiKey != null) {
+                        headers.put("Authorization", "Bearer " + authConfig.apiKey);
+                    }
+                    LOG.warnf("OAuth2 token refresh not implemented for tool %s - using stored token", tool.id);
+                    break;
+                case NONE:
+                default:
+                    // No authentication
+                    break;
+            }
+        } catch (JsonProcessingException e) {
+            LOG.errorf(e, "Failed to parse auth config for tool: %s", tool.id);
+        }
+        return headers;
+    }
+
+    private static Map<String, ToolRegistrationRequest.ParameterDefinition> parameterSchema(Tool tool,
+            ObjectMapper objectMapper) {
+        if (tool.parameters == null || tool.parameters.isEmpty()) {
+            return new LinkedHashMap<>();
+        }
+
+        try {
+            return objectMapper.readValue(tool.parameters,
+                    new TypeReference<LinkedHashMap<String, ToolRegistrationRequest.ParameterDefinition>>() {
+                    });
+        } catch (JsonProcessingException e) {
+            LOG.warnf("Failed to parse parameter schema for tool %s", tool.id);
+            return new LinkedHashMap<>();
+        }
+    }
+
+    private static ToolRegistrationRequest.ExecutionPolicy executionPolicy(Tool tool, ObjectMapper objectMapper) {
+        if (tool.executionPolicy == null || tool.executionPolicy.isEmpty()) {
+            return new ToolRegistrationRequest.ExecutionPolicy();
+        }
+
+        try {
+            return objectMapper.readValue(tool.executionPolicy, ToolRegistrationRequest.ExecutionPolicy.class);
+        } catch (JsonProcessingException e) {
+            LOG.warnf("Failed to parse execution policy for tool %s", tool.id);
+            return new ToolRegistrationRequest.ExecutionPolicy();
+        }
+    }
+
+    private static JsonProjection projection(Tool tool, ToolRegistrationRequest.ExecutionPolicy policy) {
+        if (policy.response == null || policy.response.fields == null || policy.response.fields.isEmpty()) {
+            return null;
+        }
+
+        try {
+            return JsonProjection.compile(policy.response.fields);
+        } catch (IllegalArgumentException e) {
+            LOG.warnf("Invalid response field selector for tool %s: %s", tool.id, e.getMessage());
+            return null;
+        }
+    }
+}
@@ -0,0 +1,155 @@
+package com.platform.service;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.platform.ai.MistralAIConfig;
+import com.platform.ai.RedisChatMemory;
+import com.platform.ai.TokenEstimator;
+import com.platform.domain.Agent;
+import com.platform.domain.Message;
+import com.platform.service.dto.ContextConfiguration;
+import com.platform.service.dto.RAGContext;
+import io.quarkus.logging.Log;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * Assembles conversation history and RAG passages for a prompt within the
+ * model's token budget.
+ *
+ * The budget is the context window minus the completion reserve, the system
+ * prompt, the user message and a fixed allowance for the prompt template.
+ * It is split between history and passages per the agent's
+ * {@link ContextConfiguration}; history is filled newest first, and any part
+ * of its share left unused goes to passages, which are added in relevance order.
+ */
+@ApplicationScoped
+public class ContextAssembler {
+
+    static final int TEMPLATE_OVERHEAD_TOKENS = 64;
+
+    @Inject
+    MistralAIConfig modelConfig;
+
+    @Inject
+    ConversationWindowService conversationWindowService;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    /**
+     * Assemble prompt context for a turn.
+     *
+     * @param agent          The agent
+     * @param conversationId The conversation ID, or null to skip history
+     * @param userMessage    The current user message (not yet saved)
+     * @param ragContext     Retrieved passages, most relevant first
+     * @return History and passages that fit the budget
+     */
+    public AssembledContext assemble(Agent agent, UUID conversationId, String userMessage, RAGContext ragContext) {
+        ContextConfiguration config = parseContextConfiguration(agent);
+
+        List<RedisChatMemory.MemoryEntry> history = conversationId != null && config.maxHistoryMessages > 0
+                ? conversationWindowService.getRecentMessages(conversationId, config.maxHistoryMessages)
+                : List.of();
+
+        int available = availableTokens(modelConfig.getContextWindow(), modelConfig.getMaxTokens(),
+                agent.systemPrompt, userMessage);
+        AssembledContext context = select(available, config, history, ragContext);
+
+        Log.debugf("Assembled context for agent %s: %d/%d history tokens, %d passage tokens of %d available",
+                agent.id, context.historyTokens, (int) (available * config.historyShare),
+                context.ragTokens, available);
+        return context;
+    }
+
+    static int availableTokens(int contextWindow, int completionTokens, String systemPrompt, String userMessage) {
+        int used = completionTokens + TEMPLATE_OVERHEAD_TOKENS
+                + TokenEstimator.estimate(systemPrompt) + TokenEstimator.estimate(userMessage);
+        return Math.max(0, contextWindow - used);
+    }
+
+    static AssembledContext select(int available, ContextConfiguration config,
+            List<RedisChatMemory.MemoryEntry> history, RAGContext ragContext) {
+        AssembledContext context = new AssembledContext();
+
+        int historyBudget = (int) (available * config.historyShare);
+        int start = history.size();
+        while (start > 0) {
+            int tokens = history.get(start - 1).tokenCount;
+            if (context.historyTokens + tokens > historyBudget) {
+                break;
+            }
+            context.historyTokens += tokens;
+            start--;
+        }
+        List<RedisChatMemory.MemoryEntry> selectedHistory = history.subList(start, history.size());
+        context.history = selectedHistory.stream()
+                .map(entry -> {
+                    String roleLabel = Message.MessageRole.USER.name().equals(entry.role) ? "User" : "Assistant";
+                    return roleLabel + ": " + entry.content;
+                })
+                .collect(Collectors.joining("\n"));
+
+        int ragBudget = (int) (available * config.ragShare) + (historyBudget - context.historyTokens);
+        context.ragContext = new RAGContext();
+        if (ragContext != null) {
+            for (RAGContext.RetrievedPassage passage : ragContext.passages) {
+                int tokens = TokenEstimator.estimate(passage.content) + TokenEstimator.estimate(passage.documentName) + 8;
+                if (context.ragTokens + tokens > ragBudget) {
+                    // A shorter, less relevant passage may still fit
+                    continue;
+                }
+                context.ragTokens += tokens;
+                context.ragContext.addPassage(passage);
+            }
+        }
+        context.budgetTokens = available;
+        return context;
+    }
+
+    /**
+     * Parse context budget configuration from agent configuration JSON.
+     */
+    private ContextConfiguration parseContextConfiguration(Agent agent) {
+        if (agent.configuration == null || agent.configuration.isEmpty()) {
+            return new ContextConfiguration();
+        }
+
+        try {
+            Map<String, Object> config = objectMapper.readValue(
+                agent.configuration,
+                new TypeReference<Map<String, Object>>() {}
+            );
+
+            if (config.containsKey("context")) {
+                Map<String, Object> contextMap = (Map<String, Object>) config.get("context");
+                ContextConfiguration contextConfig = new ContextConfiguration();
+                contextConfig.historyShare = ((Number) contextMap.getOrDefault("historyShare", 0.4)).doubleValue();
+                contextConfig.ragShare = ((Number) contextMap.getOrDefault("ragShare", 0.6)).doubleValue();
+                contextConfig.maxHistoryMessages = ((Number) contextMap.getOrDefault("maxHistoryMessages", 10)).intValue();
+                contextConfig.validate();
+                return contextConfig;
+            }
+        } catch (Exception e) {
+            Log.warnf(e, "Failed to parse context configuration for agent %s, using defaults", agent.id);
+        }
+
+        return new ContextConfiguration();
+    }
+
+    /**
+     * Prompt context selected within the token budget.
+     */
+    public static class AssembledContext {
+        public String history = "";
+        public RAGContext ragContext = new RAGContext();
+        public int historyTokens;
+        public int ragTokens;
+        public int budgetTokens;
+    }
+}
@@ -0,0 +1,124 @@
+package com.platform.service;
+
+import com.platform.ai.RedisChatMemory;
+import com.platform.domain.Message;
+import com.platform.repository.MessageRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.transaction.Status;
+import jakarta.transaction.Synchronization;
+import jakarta.transaction.TransactionSynchronizationRegistry;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * Hot window of recent messages per conversation.
+ *
+ * The window is cached in Redis through {@link RedisChatMemory}. Saved
+ * messages are appended once their transaction commits, but only to
+ * conversations that are already cached; a miss back-fills the cache from a
+ * LIMIT-ed query on the (conversation_id, timestamp) index, unless a message
+ * was appended while the query ran.
+ */
+@ApplicationScoped
+public class ConversationWindowService {
+
+    @Inject
+    RedisChatMemory chatMemory;
+
+    @Inject
+    MessageRepository messageRepository;
+
+    @Inject
+    TransactionSynchronizationRegistry transactionRegistry;
+
+    @Inject
+    MeterRegistry meterRegistry;
+
+    @ConfigProperty(name = "conversation.window.size", defaultValue = "20")
+    int windowSize;
+
+    private Counter hits;
+    private Counter misses;
+
+    @PostConstruct
+    void init() {
+        hits = Counter.builder("conversation.window.requests")
+                .tag("result", "hit")
+                .register(meterRegistry);
+        misses = Counter.builder("conversation.window.requests")
+                .tag("result", "miss")
+                .register(meterRegistry);
+    }
+
+    public int getWindowSize() {
+        return windowSize;
+    }
+
+    /**
+     * The last {@code limit} messages of a conversation, oldest first.
+     * Requests beyond the configured window size go to the database.
+     */
+    public List<RedisChatMemory.MemoryEntry> getRecentMessages(UUID conversationId, int limit) {
+        if (limit <= windowSize) {
+            List<RedisChatMemory.MemoryEntry> cached = chatMemory.getEntries(conversationId, limit);
+            if (!cached.isEmpty()) {
+                hits.increment();
+                return cached;
+            }
+        }
+        misses.increment();
+
+        // Read first: a message appended after this makes the back-fill stale
+        long version = chatMemory.getVersion(conversationId);
+        List<RedisChatMemory.MemoryEntry> recent = messageRepository
+                .findRecentByConversation(conversationId, Math.max(limit, windowSize))
+                .stream()
+                .map(this::toEntry)
+                .collect(Collectors.toList());
+        chatMemory.replace(conversationId, recent, version);
+        return recent.subList(Math.max(0, recent.size() - limit), recent.size());
+    }
+
+    public List<RedisChatMemory.MemoryEntry> getRecentMessages(UUID conversationId) {
+        return getRecentMessages(conversationId, windowSize);
+    }
+
+    /**
+     * Add a saved message to the cached window once the current transaction
+     * commits (immediately if there is none).
+     */
+    public void recordMessage(UUID conversationId, Message.MessageRole role, String content) {
+        Runnable append = () -> chatMemory.appendIfPresent(conversationId, role.name(), content);
+        if (transactionRegistry.getTransactionKey() == null) {
+            append.run();
+            return;
+        }
+        transactionRegistry.registerInterposedSynchronization(new Synchronization() {
+            @Override
+            public void beforeCompletion() {
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                if (status == Status.STATUS_COMMITTED) {
+                    append.run();
+                }
+            }
+        });
+    }
+
+    private RedisChatMemory.MemoryEntry toEntry(Message message) {
+        RedisChatMemory.MemoryEntry entry = new RedisChatMemory.MemoryEntry(message.role.name(), message.content);
+        if (message.tokenCount != null) {
+            entry.tokenCount = message.tokenCount;
+        }
+        return entry;
+    }
+}
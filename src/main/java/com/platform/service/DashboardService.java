@@ -1,7 +1,7 @@
 package com.platform.service;
 
 import com.platform.domain.Conversation;
-import com.platform.domain.InteractionMetrics;
+import com.platform.domain.MetricsRollup;
 import com.platform.repository.AgentRepository;
 import com.platform.repository.ConversationRepository;
 import com.platform.rest.DashboardResource.ActivityItem;
@@ -21,6 +21,9 @@ import java.util.stream.Collectors;
 @ApplicationScoped
 public class DashboardService {
 
+    /** Days of day rollups behind the conversation and response time figures */
+    public static final int STATS_WINDOW_DAYS = 30;
+
     @Inject
     SecurityContext securityContext;
 
@@ -41,23 +44,35 @@ public class DashboardService {
         // Count total agents for this organization
         long totalAgents = agentRepository.count("organization.id", organizationId);
 
-        // Count total conversations for this organization's agents
-        long totalConversations = conversationRepository.count(
-                "agent.organization.id", organizationId);
-
-        // Calculate average response time from interaction metrics
-        Double avgResponseTime = InteractionMetrics.find(
-                "SELECT AVG(im.responseTimeMs) FROM InteractionMetrics im WHERE im.agent.organization.id = ?1",
-                organizationId).project(Double.class).firstResult();
+        // Conversations and response times come from the day rollups of the
+        // last STATS_WINDOW_DAYS days (today included), so the cost stays
+        // bounded as history grows (they trail live data by about the
+        // compaction interval)
+        LocalDateTime since = MetricsRollup.Granularity.DAY.bucketStart(
+                LocalDateTime.now().minusDays(STATS_WINDOW_DAYS - 1));
+        List<MetricsRollup> rollups = MetricsRollup.list(
+                "organizationId = ?1 and granularity = ?2 and bucketStart >= ?3",
+                organizationId, MetricsRollup.Granularity.DAY, since);
+        MetricsRollup total = new MetricsRollup();
+        total.latencyHistogram = LatencyHistogram.empty();
+        for (MetricsRollup rollup : rollups) {
+            total.add(rollup);
+        }
+        double avgResponseTime = total.interactions > 0
+                ? (double) total.totalResponseTimeMs / total.interactions
+                : 0.0;
 
         // For now, satisfaction score is placeholder (would need user feedback feature)
         int satisfactionScore = 0;
 
         return new DashboardStats(
                 (int) totalAgents,
-                (int) totalConversations,
+                (int) total.conversations,
                 satisfactionScore,
-                avgResponseTime != null ? avgResponseTime : 0.0);
+                avgResponseTime,
+                LatencyHistogram.percentile(total.latencyHistogram, 50),
+                LatencyHistogram.percentile(total.latencyHistogram, 95),
+                LatencyHistogram.percentile(total.latencyHistogram, 99));
     }
 
     @Transactional
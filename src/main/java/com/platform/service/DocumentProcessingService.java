@@ -4,6 +4,7 @@ import com.platform.domain.Document;
 import com.platform.domain.Organization;
 import com.platform.repository.DocumentRepository;
 import com.platform.repository.OrganizationRepository;
+import io.quarkus.narayana.jta.QuarkusTransaction;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
 import jakarta.transaction.Transactional;
@@ -98,9 +99,13 @@ public class DocumentProcessingService {
         });
     }
 
-    @Transactional
+    /**
+     * Index a document. The document is loaded in a short transaction; the
+     * embedding pipeline manages its own transactions per batch.
+     */
     public void processDocument(UUID documentId) {
-        Document document = documentRepository.findById(documentId);
+        Document document = QuarkusTransaction.requiringNew()
+                .call(() -> documentRepository.findByIdWithOrganization(documentId).orElse(null));
         if (document != null && document.content != null) {
             LOG.infof("Processing document: %s", document.filename);
             vectorStoreService.indexDocument(document, document.content);
@@ -120,7 +125,7 @@ public class DocumentProcessingService {
         progress.status = document.status.name();
 
         if (document.status == Document.DocumentStatus.PENDING) {
-            progress.percentComplete = 50;
+            progress.percentComplete = vectorStoreService.getIndexingProgress(documentId).orElse(0);
         } else if (document.status == Document.DocumentStatus.INDEXED) {
             progress.percentComplete = 100;
         } else if (document.status == Document.DocumentStatus.FAILED) {
@@ -134,7 +139,9 @@ public class DocumentProcessingService {
     public void deleteDocument(UUID documentId) {
         Document document = documentRepository.findById(documentId);
         if (document != null) {
+            UUID organizationId = document.organization != null ? document.organization.id : null;
             documentRepository.delete(document);
+            vectorStoreService.removeFromIndex(organizationId, documentId);
             LOG.infof("Document deleted: %s", documentId);
         }
     }
@@ -0,0 +1,439 @@
+package com.platform.service;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory Hierarchical Navigable Small World graph for approximate
+ * nearest-neighbour search over cosine distance.
+ *
+ * Vectors are normalized on insert so distance is computed as
+ * {@code 1 - dot(a, b)}, matching pgvector's {@code <=>} operator.
+ * Removals are tombstones; callers rebuild the graph once
+ * {@link #needsCompaction()} reports too many of them.
+ */
+public class HnswIndex {
+
+    private final int m;
+    private final int maxM0;
+    private final int efConstruction;
+    private final double levelMultiplier;
+    private final Random random;
+
+    private final List<Node> nodes = new ArrayList<>();
+    private final Map<UUID, Integer> nodeById = new HashMap<>();
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private int entryPoint = -1;
+    private int maxLevel = -1;
+    private int deletedCount = 0;
+
+    public HnswIndex(int m, int efConstruction) {
+        this(m, efConstruction, new Random());
+    }
+
+    HnswIndex(int m, int efConstruction, Random random) {
+        if (m < 2) {
+            throw new IllegalArgumentException("HNSW M must be at least 2");
+        }
+        this.m = m;
+        this.maxM0 = m * 2;
+        this.efConstruction = Math.max(efConstruction, m);
+        this.levelMultiplier = 1.0 / Math.log(m);
+        this.random = random;
+    }
+
+    /**
+     * Insert a vector. Re-inserting a live id is a no-op; a removed id is
+     * inserted again as a new node.
+     */
+    public void add(UUID id, float[] vector) {
+        float[] normalized = normalize(vector);
+
+        lock.writeLock().lock();
+        try {
+            if (nodeById.containsKey(id)) {
+                return;
+            }
+
+            int level = randomLevel();
+            int nodeIndex = nodes.size();
+            Node node = new Node(id, normalized, level, m, maxM0);
+            nodes.add(node);
+            nodeById.put(id, nodeIndex);
+
+            if (entryPoint < 0) {
+                entryPoint = nodeIndex;
+                maxLevel = level;
+                return;
+            }
+
+            int current = entryPoint;
+            for (int layer = maxLevel; layer > level; layer--) {
+                current = greedyClosest(normalized, current, layer);
+            }
+
+            for (int layer = Math.min(level, maxLevel); layer >= 0; layer--) {
+                List<Candidate> candidates = searchLayer(normalized, current, efConstruction, layer);
+                int maxConnections = layer == 0 ? maxM0 : m;
+                List<Candidate> selected = selectNeighbors(candidates, m);
+
+                for (Candidate neighbor : selected) {
+                    node.addNeighbor(layer, neighbor.node);
+                    connect(neighbor.node, nodeIndex, layer, maxConnections);
+                }
+                current = candidates.get(0).node;
+            }
+
+            if (level > maxLevel) {
+                maxLevel = level;
+                entryPoint = nodeIndex;
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Mark a vector as removed. It stays in the graph for navigation but is
+     * never returned from {@link #search}.
+     */
+    public boolean remove(UUID id) {
+        lock.writeLock().lock();
+        try {
+            Integer index = nodeById.remove(id);
+            if (index == null) {
+                return false;
+            }
+            Node node = nodes.get(index);
+            if (!node.deleted) {
+                node.deleted = true;
+                deletedCount++;
+            }
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Find the {@code k} nearest live vectors to the query.
+     *
+     * @param query    the query vector
+     * @param k        number of results
+     * @param efSearch size of the dynamic candidate list (recall/latency knob)
+     * @return neighbours ordered by ascending cosine distance
+     */
+    public List<Neighbor> search(float[] query, int k, int efSearch) {
+        float[] normalized = normalize(query);
+
+        lock.readLock().lock();
+        try {
+            if (entryPoint < 0 || k <= 0) {
+                return List.of();
+            }
+
+            int current = entryPoint;
+            for (int layer = maxLevel; layer > 0; layer--) {
+                current = greedyClosest(normalized, current, layer);
+            }
+
+            // Widen the beam by the tombstone ratio so deleted nodes do not starve k
+            int ef = Math.max(efSearch, k);
+            if (deletedCount > 0) {
+                ef += (int) Math.ceil(ef * ((double) deletedCount / nodes.size()));
+            }
+
+            List<Candidate> candidates = searchLayer(normalized, current, ef, 0);
+            List<Neighbor> results = new ArrayList<>(k);
+            for (Candidate candidate : candidates) {
+                Node node = nodes.get(candidate.node);
+                if (node.deleted) {
+                    continue;
+                }
+                results.add(new Neighbor(node.id, candidate.distance));
+                if (results.size() >= k) {
+                    break;
+                }
+            }
+            return results;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public boolean contains(UUID id) {
+        lock.readLock().lock();
+        try {
+            return nodeById.containsKey(id);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Number of live (non-removed) vectors.
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return nodes.size() - deletedCount;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Whether tombstones make up enough of the graph that it should be rebuilt.
+     */
+    public boolean needsCompaction() {
+        lock.readLock().lock();
+        try {
+            return deletedCount > 64 && deletedCount * 4 > nodes.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Build a fresh graph containing only the live vectors of this one.
+     */
+    public HnswIndex compact() {
+        HnswIndex rebuilt = new HnswIndex(m, efConstruction, random);
+        lock.readLock().lock();
+        try {
+            for (Node node : nodes) {
+                if (!node.deleted) {
+                    rebuilt.add(node.id, node.vector);
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return rebuilt;
+    }
+
+    // Private helper methods
+
+    private int randomLevel() {
+        double uniform = 1.0 - random.nextDouble();
+        return (int) Math.floor(-Math.log(uniform) * levelMultiplier);
+    }
+
+    private int greedyClosest(float[] query, int start, int layer) {
+        int current = start;
+        float currentDistance = distance(query, nodes.get(current).vector);
+        boolean improved = true;
+        while (improved) {
+            improved = false;
+            Node node = nodes.get(current);
+            int count = node.neighborCount(layer);
+            int[] neighbors = node.neighbors[layer];
+            for (int i = 0; i < count; i++) {
+                float d = distance(query, nodes.get(neighbors[i]).vector);
+                if (d < currentDistance) {
+                    currentDistance = d;
+                    current = neighbors[i];
+                    improved = true;
+                }
+            }
+        }
+        return current;
+    }
+
+    /**
+     * Beam search within a single layer; returns up to {@code ef} candidates
+     * ordered by ascending distance.
+     */
+    private List<Candidate> searchLayer(float[] query, int start, int ef, int layer) {
+        BitSet visited = new BitSet(nodes.size());
+        PriorityQueue<Candidate> toVisit = new PriorityQueue<>(Comparator.comparingDouble(c -> c.distance));
+        PriorityQueue<Candidate> found = new PriorityQueue<>(
+                Comparator.comparingDouble((Candidate c) -> c.distance).reversed());
+
+        Candidate first = new Candidate(start, distance(query, nodes.get(start).vector));
+        visited.set(start);
+        toVisit.add(first);
+        found.add(first);
+
+        while (!toVisit.isEmpty()) {
+            Candidate closest = toVisit.poll();
+            if (closest.distance > found.peek().distance && found.size() >= ef) {
+                break;
+            }
+
+            Node node = nodes.get(closest.node);
+            if (layer > node.level) {
+                continue;
+            }
+            int count = node.neighborCount(layer);
+            int[] neighbors = node.neighbors[layer];
+            for (int i = 0; i < count; i++) {
+                int neighbor = neighbors[i];
+                if (visited.get(neighbor)) {
+                    continue;
+                }
+                visited.set(neighbor);
+
+                float d = distance(query, nodes.get(neighbor).vector);
+                if (found.size() < ef || d < found.peek().distance) {
+                    Candidate candidate = new Candidate(neighbor, d);
+                    toVisit.add(candidate);
+                    found.add(candidate);
+                    if (found.size() > ef) {
+                        found.poll();
+                    }
+                }
+            }
+        }
+
+        List<Candidate> ordered = new ArrayList<>(found);
+        ordered.sort(Comparator.comparingDouble(c -> c.distance));
+        return ordered;
+    }
+
+    /**
+     * Neighbour selection heuristic from the HNSW paper: prefer candidates that
+     * are closer to the base element than to any already selected neighbour,
+     * then back-fill with the closest pruned ones.
+     */
+    private List<Candidate> selectNeighbors(List<Candidate> candidates, int limit) {
+        List<Candidate> selected = new ArrayList<>(limit);
+        List<Candidate> pruned = new ArrayList<>();
+
+        for (Candidate candidate : candidates) {
+            if (selected.size() >= limit) {
+                break;
+            }
+            float[] vector = nodes.get(candidate.node).vector;
+            boolean diverse = true;
+            for (Candidate chosen : selected) {
+                if (distance(vector, nodes.get(chosen.node).vector) < candidate.distance) {
+                    diverse = false;
+                    break;
+                }
+            }
+            if (diverse) {
+                selected.add(candidate);
+            } else {
+                pruned.add(candidate);
+            }
+        }
+
+        for (int i = 0; i < pruned.size() && selected.size() < limit; i++) {
+            selected.add(pruned.get(i));
+        }
+        return selected;
+    }
+
+    private void connect(int from, int to, int layer, int maxConnections) {
+        Node node = nodes.get(from);
+        if (node.neighborCount(layer) < maxConnections) {
+            node.addNeighbor(layer, to);
+            return;
+        }
+
+        // Neighbour list is full: re-select among existing neighbours plus the new one
+        List<Candidate> candidates = new ArrayList<>(maxConnections + 1);
+        int count = node.neighborCount(layer);
+        int[] neighbors = node.neighbors[layer];
+        for (int i = 0; i < count; i++) {
+            candidates.add(new Candidate(neighbors[i], distance(node.vector, nodes.get(neighbors[i]).vector)));
+        }
+        candidates.add(new Candidate(to, distance(node.vector, nodes.get(to).vector)));
+        candidates.sort(Comparator.comparingDouble(c -> c.distance));
+
+        List<Candidate> selected = selectNeighbors(candidates, maxConnections);
+        node.clearNeighbors(layer);
+        for (Candidate candidate : selected) {
+            node.addNeighbor(layer, candidate.node);
+        }
+    }
+
+    static float distance(float[] a, float[] b) {
+        float dot = 0.0f;
+        for (int i = 0; i < a.length; i++) {
+            dot += a[i] * b[i];
+        }
+        return 1.0f - dot;
+    }
+
+    static float[] normalize(float[] vector) {
+        double norm = 0.0;
+        for (float v : vector) {
+            norm += v * v;
+        }
+        float[] normalized = new float[vector.length];
+        if (norm == 0.0) {
+            return normalized;
+        }
+        float scale = (float) (1.0 / Math.sqrt(norm));
+        for (int i = 0; i < vector.length; i++) {
+            normalized[i] = vector[i] * scale;
+        }
+        return normalized;
+    }
+
+    private static final class Node {
+        final UUID id;
+        final float[] vector;
+        final int level;
+        final int[][] neighbors;
+        final int[] neighborCounts;
+        volatile boolean deleted;
+
+        Node(UUID id, float[] vector, int level, int m, int maxM0) {
+            this.id = id;
+            this.vector = vector;
+            this.level = level;
+            this.neighbors = new int[level + 1][];
+            this.neighborCounts = new int[level + 1];
+            for (int layer = 0; layer <= level; layer++) {
+                neighbors[layer] = new int[layer == 0 ? maxM0 : m];
+            }
+        }
+
+        int neighborCount(int layer) {
+            return layer <= level ? neighborCounts[layer] : 0;
+        }
+
+        void addNeighbor(int layer, int neighbor) {
+            neighbors[layer][neighborCounts[layer]++] = neighbor;
+        }
+
+        void clearNeighbors(int layer) {
+            neighborCounts[layer] = 0;
+        }
+    }
+
+    private static final class Candidate {
+        final int node;
+        final float distance;
+
+        Candidate(int node, float distance) {
+            this.node = node;
+            this.distance = distance;
+        }
+    }
+
+    /**
+     * A search hit with its cosine distance to the query.
+     */
+    public static class Neighbor {
+        public final UUID id;
+        public final double distance;
+
+        public Neighbor(UUID id, double distance) {
+            this.id = id;
+            this.distance = distance;
+        }
+    }
+}
@@ -0,0 +1,237 @@
+package com.platform.service;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Predicate;
+
+/**
+ * Field selection over a streamed JSON document.
+ *
+ * Selectors use a JSONPath subset: {@code $.field}, {@code $.a.b},
+ * {@code $.items[0]}, {@code $.items[*].name} and {@code $.*}. The document
+ * is read token by token; subtrees no selector can reach are skipped without
+ * being materialized, so memory is bounded by the selected values.
+ *
+ * The result maps each selector to its value. Selectors with a wildcard map
+ * to the list of all matches; other selectors that match nothing are absent.
+ */
+public final class JsonProjection {
+
+    private final List<String> selectors;
+    private final List<List<Segment>> paths;
+
+    private JsonProjection(List<String> selectors, List<List<Segment>> paths) {
+        this.selectors = selectors;
+        this.paths = paths;
+    }
+
+    /**
+     * Compile selectors.
+     *
+     * @throws IllegalArgumentException if a selector is malformed
+     */
+    public static JsonProjection compile(List<String> selectors) {
+        List<List<Segment>> paths = new ArrayList<>();
+        for (String selector : selectors) {
+            paths.add(parse(selector));
+        }
+        return new JsonProjection(List.copyOf(selectors), paths);
+    }
+
+    /**
+     * Project the document the parser is positioned before.
+     */
+    public Map<String, Object> project(JsonParser parser, ObjectMapper objectMapper) throws IOException {
+        List<List<JsonNode>> matches = new ArrayList<>();
+        List<int[]> active = new ArrayList<>();
+        for (int i = 0; i < paths.size(); i++) {
+            matches.add(new ArrayList<>());
+            active.add(new int[] { i, 0 });
+        }
+
+        if (parser.currentToken() == null && parser.nextToken() == null) {
+            return new LinkedHashMap<>();
+        }
+        visit(parser, objectMapper, active, matches);
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        for (int i = 0; i < selectors.size(); i++) {
+            List<JsonNode> found = matches.get(i);
+            if (hasWildcard(paths.get(i))) {
+                List<Object> values = new ArrayList<>(found.size());
+                for (JsonNode node : found) {
+                    values.add(objectMapper.treeToValue(node, Object.class));
+                }
+                result.put(selectors.get(i), values);
+            } else if (!found.isEmpty()) {
+                result.put(selectors.get(i), objectMapper.treeToValue(found.get(0), Object.class));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Visit the value at the parser's current token. Each active entry is a
+     * selector index and how many of its segments the current path matches.
+     */
+    private void visit(JsonParser parser, ObjectMapper objectMapper, List<int[]> active,
+            List<List<JsonNode>> matches) throws IOException {
+        boolean complete = active.stream().anyMatch(state -> state[1] == paths.get(state[0]).size());
+        if (complete) {
+            // Some selector ends here: materialize this subtree once and resolve
+            // every active selector against it
+            JsonNode node = objectMapper.readTree(parser);
+            for (int[] state : active) {
+                collect(node, paths.get(state[0]), state[1], matches.get(state[0]));
+            }
+            return;
+        }
+
+        JsonToken token = parser.currentToken();
+        if (token == JsonToken.START_OBJECT) {
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                parser.nextToken();
+                List<int[]> next = advance(active, segment -> segment.matchesField(field));
+                if (next.isEmpty()) {
+                    parser.skipChildren();
+                } else {
+                    visit(parser, objectMapper, next, matches);
+                }
+            }
+        } else if (token == JsonToken.START_ARRAY) {
+            int index = 0;
+            while (parser.nextToken() != JsonToken.END_ARRAY) {
+                int current = index++;
+                List<int[]> next = advance(active, segment -> segment.matchesIndex(current));
+                if (next.isEmpty()) {
+                    parser.skipChildren();
+                } else {
+                    visit(parser, objectMapper, next, matches);
+                }
+            }
+        }
+        // Scalars no selector ends on are dropped
+    }
+
+    private List<int[]> advance(List<int[]> active, Predicate<Segment> matches) {
+        List<int[]> next = new ArrayList<>();
+        for (int[] state : active) {
+            List<Segment> path = paths.get(state[0]);
+            if (state[1] < path.size() && matches.test(path.get(state[1]))) {
+                next.add(new int[] { state[0], state[1] + 1 });
+            }
+        }
+        return next;
+    }
+
+    private static void collect(JsonNode node, List<Segment> path, int position, List<JsonNode> found) {
+        if (node == null || node.isMissingNode()) {
+            return;
+        }
+        if (position == path.size()) {
+            found.add(node);
+            return;
+        }
+        Segment segment = path.get(position);
+        if (node.isObject()) {
+            node.fields().forEachRemaining(entry -> {
+                if (segment.matchesField(entry.getKey())) {
+                    collect(entry.getValue(), path, position + 1, found);
+                }
+            });
+        } else if (node.isArray()) {
+            for (int i = 0; i < node.size(); i++) {
+                if (segment.matchesIndex(i)) {
+                    collect(node.get(i), path, position + 1, found);
+                }
+            }
+        }
+    }
+
+    private static boolean hasWildcard(List<Segment> path) {
+        return path.stream().anyMatch(segment -> segment.wildcard);
+    }
+
+    private static List<Segment> parse(String selector) {
+        if (selector == null || !selector.startsWith("$")) {
+            throw new IllegalArgumentException("Selector must start with '$': " + selector);
+        }
+        List<Segment> segments = new ArrayList<>();
+        int i = 1;
+        while (i < selector.length()) {
+            char c = selector.charAt(i);
+            if (c == '.') {
+                int end = i + 1;
+                while (end < selector.length() && selector.charAt(end) != '.' && selector.charAt(end) != '[') {
+                    end++;
+                }
+                String name = selector.substring(i + 1, end);
+                if (name.isEmpty()) {
+                    throw new IllegalArgumentException("Empty field name in selector: " + selector);
+                }
+                segments.add(name.equals("*") ? Segment.wildcard() : Segment.field(name));
+                i = end;
+            } else if (c == '[') {
+                int end = selector.indexOf(']', i);
+                if (end < 0) {
+                    throw new IllegalArgumentException("Unclosed '[' in selector: " + selector);
+                }
+                String index = selector.substring(i + 1, end).trim();
+                if (index.equals("*")) {
+                    segments.add(Segment.wildcard());
+                } else {
+                    try {
+                        segments.add(Segment.index(Integer.parseInt(index)));
+                    } catch (NumberFormatException e) {
+                        throw new IllegalArgumentException("Invalid array index in selector: " + selector, e);
+                    }
+                }
+                i = end + 1;
+            } else {
+                throw new IllegalArgumentException("Unexpected '" + c + "' in selector: " + selector);
+            }
+        }
+        return segments;
+    }
+
+    private static final class Segment {
+        final String field;
+        final int index;
+        final boolean wildcard;
+
+        private Segment(String field, int index, boolean wildcard) {
+            this.field = field;
+            this.index = index;
+            this.wildcard = wildcard;
+        }
+
+        static Segment field(String name) {
+            return new Segment(name, -1, false);
+        }
+
+        static Segment index(int index) {
+            return new Segment(null, index, false);
+        }
+
+        static Segment wildcard() {
+            return new Segment(null, -1, true);
+        }
+
+        boolean matchesField(String name) {
+            return wildcard || name.equals(field);
+        }
+
+        boolean matchesIndex(int i) {
+            return wildcard || (field == null && index == i);
+        }
+    }
+}
@@ -26,7 +26,7 @@ import java.util.regex.Pattern;
  * - Define @Tool annotated methods for LangChain4j agent integration
  * - Extract and parse tool parameters from LLM responses
  * - Format tool execution results for LLM consumption
- * - Log all tool executions for audit and debugging
+ * - Record all tool executions in the {@link ToolAuditLog}
  * 
  * Requirements: 3.4, 3.5
  */
@@ -42,9 +42,15 @@ public class LangChainToolProvider {
     @Inject
     ToolRepository toolRepository;
 
+    @Inject
+    ToolDefinitionCache toolDefinitionCache;
+
     @Inject
     ObjectMapper objectMapper;
 
+    @Inject
+    ToolAuditLog auditLog;
+
     /**
      * Execute a registered tool by ID.
      * This method is exposed to LangChain4j as a tool that agents can call.
@@ -64,32 +70,29 @@ public class LangChainToolProvider {
             @P("JSON string containing the parameters for the tool, e.g., {\"param1\": \"value1\", \"param2\": \"value2\"}") String parameters) {
 
         LocalDateTime startTime = LocalDateTime.now();
-        LOG.infof("[TOOL EXECUTION START] Tool ID: %s, Parameters: %s, Timestamp: %s",
-                toolId, parameters, startTime.format(TIMESTAMP_FORMATTER));
+        LOG.debugf("[TOOL EXECUTION START] Tool ID: %s", toolId);
 
         try {
             // Parse tool ID
             UUID uuid = parseToolId(toolId);
 
-            // Find the tool
-            Tool tool = toolRepository.findByIdOptional(uuid)
+            // Find the tool (compiled definitions are cached across calls)
+            CompiledTool tool = toolDefinitionCache.get(uuid)
                     .orElseThrow(() -> new IllegalArgumentException("Tool not found: " + toolId));
 
-            LOG.infof("[TOOL FOUND] Name: %s, Type: %s, Endpoint: %s", tool.name, tool.type, tool.endpoint);
 
             // Parse and validate parameters
             Map<String, Object> params = parseParameters(parameters);
-            LOG.infof("[PARAMETERS EXTRACTED] Parsed %d parameters from LLM response", params.size());
 
             // Execute the tool
             ToolExecutionResult result = toolExecutor.execute(tool, params);
 
-            // Log execution result
-            logToolExecution(tool, params, result, startTime);
+            // Audit asynchronously; parameters and results are not logged inline
+            auditLog.record(tool, params, result);
 
             // Format result for LLM consumption
             String formattedResult = formatResultForLLM(tool, result, startTime);
-            LOG.infof("[TOOL EXECUTION END] Tool: %s, Success: %s, Duration: %dms",
+            LOG.debugf("[TOOL EXECUTION END] Tool: %s, Success: %s, Duration: %dms",
                     tool.name, result.success, result.executionTimeMs);
 
             return formattedResult;
@@ -273,7 +276,7 @@ public class LangChainToolProvider {
         }
 
         // If all else fails, treat as a single "input" parameter
-        LOG.infof("Treating parameters as plain text input: %s", cleaned);
+        LOG.debug("Treating parameters as plain text input");
         Map<String, Object> result = new HashMap<>();
         result.put("input", cleaned);
         return result;
@@ -293,7 +296,7 @@ public class LangChainToolProvider {
      * @param startTime execution start time
      * @return formatted JSON string
      */
-    private String formatResultForLLM(Tool tool, ToolExecutionResult result, LocalDateTime startTime) {
+    private String formatResultForLLM(CompiledTool tool, ToolExecutionResult result, LocalDateTime startTime) {
         try {
             Map<String, Object> response = new LinkedHashMap<>();
             response.put("success", result.success);
@@ -350,45 +353,4 @@ public class LangChainToolProvider {
             return String.format("{\"success\": false, \"error\": \"%s: %s\"}", errorType, errorMessage);
         }
     }
-
-    // ==================== Logging Methods ====================
-
-    /**
-     * Log tool execution for audit and debugging purposes.
-     * 
-     * Implements Requirement 3.5: Tool execution logging
-     *
-     * @param tool      the executed tool
-     * @param params    the parameters used
-     * @param result    the execution result
-     * @param startTime execution start time
-     */
-    private void logToolExecution(Tool tool, Map<String, Object> params, ToolExecutionResult result,
-            LocalDateTime startTime) {
-        LocalDateTime endTime = LocalDateTime.now();
-
-        Map<String, Object> logEntry = new LinkedHashMap<>();
-        logEntry.put("timestamp", startTime.format(TIMESTAMP_FORMATTER));
-        logEntry.put("toolId", tool.id.toString());
-        logEntry.put("toolName", tool.name);
-        logEntry.put("toolType", tool.type.toString());
-        logEntry.put("endpoint", tool.endpoint);
-        logEntry.put("parameterCount", params.size());
-        logEntry.put("success", result.success);
-        logEntry.put("executionTimeMs", result.executionTimeMs);
-        logEntry.put("endTime", endTime.format(TIMESTAMP_FORMATTER));
-
-        if (!result.success && result.errorMessage != null) {
-            logEntry.put("errorMessage", result.errorMessage);
-        }
-
-        try {
-            String logJson = objectMapper.writeValueAsString(logEntry);
-            LOG.infof("[TOOL EXECUTION LOG] %s", logJson);
-        } catch (JsonProcessingException e) {
-            LOG.warnf("Failed to serialize tool execution log: %s", e.getMessage());
-            LOG.infof("[TOOL EXECUTION LOG] Tool: %s, Success: %s, Duration: %dms",
-                    tool.name, result.success, result.executionTimeMs);
-        }
-    }
 }
@@ -0,0 +1,84 @@
+package com.platform.service;
+
+/**
+ * Fixed log-scale latency buckets shared by all metrics rollups.
+ *
+ * Bucket {@code i} counts latencies up to {@code 1.2^i} ms, rounded up;
+ * the last bucket is open-ended (about 30 minutes and beyond). Because every
+ * histogram uses the same buckets, merging is adding counts, and a
+ * percentile read from a merged histogram is within one bucket (20%) of the
+ * exact value.
+ */
+public final class LatencyHistogram {
+
+    public static final int BUCKETS = 80;
+
+    private static final double GROWTH = 1.2;
+    private static final long[] UPPER_BOUNDS = new long[BUCKETS];
+
+    static {
+        for (int i = 0; i < BUCKETS; i++) {
+            UPPER_BOUNDS[i] = (long) Math.ceil(Math.pow(GROWTH, i));
+        }
+    }
+
+    private LatencyHistogram() {
+    }
+
+    /**
+     * A histogram with no samples.
+     */
+    public static long[] empty() {
+        return new long[BUCKETS];
+    }
+
+    /**
+     * Count one latency.
+     */
+    public static void record(long[] counts, long latencyMs) {
+        counts[bucket(latencyMs)]++;
+    }
+
+    /**
+     * The bucket a latency falls into.
+     */
+    public static int bucket(long latencyMs) {
+        int low = 0;
+        int high = BUCKETS - 1;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (UPPER_BOUNDS[mid] < latencyMs) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Estimate a percentile as the upper bound of the bucket holding it.
+     *
+     * @param counts     samples per bucket
+     * @param percentile percentile between 0 and 100
+     * @return the latency in ms, or 0 without samples
+     */
+    public static long percentile(long[] counts, double percentile) {
+        long total = 0;
+        for (long count : counts) {
+            total += count;
+        }
+        if (total == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(percentile / 100.0 * total));
+        long seen = 0;
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                return UPPER_BOUNDS[Math.min(i, BUCKETS - 1)];
+            }
+        }
+        return UPPER_BOUNDS[BUCKETS - 1];
+    }
+}
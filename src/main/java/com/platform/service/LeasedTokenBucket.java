@@ -0,0 +1,150 @@
+package com.platform.service;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * This node's share of a rate limit whose bucket lives in Redis.
+ *
+ * Tokens are leased from the shared bucket in chunks and handed out without
+ * a round trip. A lease expires after a short time, so an idle node does not
+ * sit on quota the other nodes could use; tokens left in an expired lease are
+ * given back to the shared bucket with the next lease, so a caller sending
+ * fewer requests than a lease holds per lease period still gets the full
+ * limit. Once the shared bucket is empty, requests are rejected locally until
+ * Redis reported a token would be available again.
+ */
+final class LeasedTokenBucket {
+
+    private final long leaseTtlNanos;
+    private final LongSupplier clock;
+
+    private long tokens;
+    private long leaseExpiresAt;
+    private boolean blocked;
+    private long blockedUntil;
+    private long sharedRemaining = -1;
+    private boolean leasing;
+    private int waiting;
+
+    LeasedTokenBucket(long leaseTtlNanos, LongSupplier clock) {
+        this.leaseTtlNanos = leaseTtlNanos;
+        this.clock = clock;
+    }
+
+    /**
+     * Take one token, leasing up to {@code chunk} more from the shared bucket
+     * when the local ones are used up or expired. Tokens left in an expired
+     * lease are returned in the same round trip.
+     *
+     * The lease runs outside the monitor, one at a time: requests arriving
+     * while it is in progress wait for its outcome instead of leasing
+     * themselves, and the lease asks for one more token for each of them.
+     */
+    RateLimitingService.Decision acquire(long chunk, Leaser leaser) {
+        long requested;
+        long returned;
+        synchronized (this) {
+            while (true) {
+                long now = clock.getAsLong();
+                if (tokens > 0 && now - leaseExpiresAt < 0) {
+                    tokens--;
+                    return RateLimitingService.Decision.allowed(remaining(), false);
+                }
+                if (blocked && now - blockedUntil < 0) {
+                    return RateLimitingService.Decision.rejected(
+                            TimeUnit.NANOSECONDS.toMillis(blockedUntil - now), false);
+                }
+                if (!leasing) {
+                    break;
+                }
+                awaitLease();
+            }
+            blocked = false;
+            leasing = true;
+            requested = Math.max(1, chunk) + waiting;
+            returned = tokens;
+            tokens = 0;
+        }
+
+        Grant grant;
+        try {
+            grant = leaser.lease(requested, returned);
+        } catch (RuntimeException e) {
+            synchronized (this) {
+                // Still unused: give them back with the next lease
+                tokens += returned;
+                leaseDone();
+            }
+            throw e;
+        }
+
+        synchronized (this) {
+            leaseDone();
+            long now = clock.getAsLong();
+            sharedRemaining = grant.remaining;
+            if (grant.granted <= 0) {
+                blocked = true;
+                blockedUntil = now + TimeUnit.MILLISECONDS.toNanos(Math.max(1, grant.retryAfterMillis));
+                return RateLimitingService.Decision.rejected(grant.retryAfterMillis, true);
+            }
+            tokens = grant.granted - 1;
+            leaseExpiresAt = now + leaseTtlNanos;
+            return RateLimitingService.Decision.allowed(remaining(), true);
+        }
+    }
+
+    private void awaitLease() {
+        waiting++;
+        try {
+            wait();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted waiting for a rate limit lease", e);
+        } finally {
+            waiting--;
+        }
+    }
+
+    private void leaseDone() {
+        leasing = false;
+        notifyAll();
+    }
+
+    /**
+     * Requests still allowed as far as this node knows, or -1 before the
+     * first lease.
+     */
+    synchronized long remaining() {
+        if (sharedRemaining < 0) {
+            return -1;
+        }
+        long local = clock.getAsLong() - leaseExpiresAt < 0 ? tokens : 0;
+        return sharedRemaining + local;
+    }
+
+    /**
+     * Leases tokens from the shared bucket, after giving back the unused
+     * tokens of an expired lease.
+     */
+    @FunctionalInterface
+    interface Leaser {
+        Grant lease(long requested, long returned);
+    }
+
+    /**
+     * Outcome of a lease: tokens granted, tokens left in the shared bucket,
+     * and when nothing was granted, how long until the next token.
+     */
+    static final class Grant {
+        final long granted;
+        final long remaining;
+        final long retryAfterMillis;
+
+        Grant(long granted, long remaining, long retryAfterMillis) {
+            this.granted = granted;
+            this.remaining = remaining;
+            this.retryAfterMillis = retryAfterMillis;
+        }
+    }
+}
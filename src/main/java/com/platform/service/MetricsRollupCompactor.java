@@ -0,0 +1,260 @@
+package com.platform.service;
+
+import com.platform.domain.MetricsRollup;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.persistence.EntityManager;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Rolls interaction metrics and new conversations up into per-agent
+ * minute, hour and day {@link MetricsRollup}s.
+ *
+ * A background thread periodically aggregates everything between the
+ * watermark in {@code metrics_rollup_watermark} and a little before now,
+ * merges it into the existing rollups and advances the watermark, all in one
+ * transaction. The watermark row is locked while doing so, so with several
+ * nodes only one compacts at a time and nothing is counted twice. Recent
+ * rows are left for the next run so that interactions still being written
+ * when the compactor runs are not missed. Old minute and hour rollups are
+ * pruned; day rollups are kept.
+ */
+@ApplicationScoped
+public class MetricsRollupCompactor {
+
+    private static final Logger LOG = Logger.getLogger(MetricsRollupCompactor.class);
+
+    @ConfigProperty(name = "metrics.rollup.enabled", defaultValue = "true")
+    boolean enabled;
+
+    @ConfigProperty(name = "metrics.rollup.interval", defaultValue = "PT1M")
+    Duration interval;
+
+    /** How far behind now compaction stops, for interactions still being written */
+    @ConfigProperty(name = "metrics.rollup.lateness", defaultValue = "PT1M")
+    Duration lateness;
+
+    /** Longest period compacted in one transaction, when catching up */
+    @ConfigProperty(name = "metrics.rollup.max-slice", defaultValue = "PT1H")
+    Duration maxSlice;
+
+    @ConfigProperty(name = "metrics.rollup.minute-retention", defaultValue = "P2D")
+    Duration minuteRetention;
+
+    @ConfigProperty(name = "metrics.rollup.hour-retention", defaultValue = "P90D")
+    Duration hourRetention;
+
+    private ScheduledExecutorService compactor;
+
+    @PostConstruct
+    void init() {
+        if (enabled) {
+            compactor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "metrics-rollup-compactor");
+                thread.setDaemon(true);
+                return thread;
+            });
+            compactor.scheduleWithFixedDelay(this::compact, interval.toMillis(), interval.toMillis(),
+                    TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        if (compactor != null) {
+            compactor.shutdownNow();
+        }
+    }
+
+    /**
+     * Compact up to shortly before now; runs on the compactor thread.
+     */
+    void compact() {
+        LocalDateTime until = LocalDateTime.now().minus(lateness);
+        try {
+            boolean more = true;
+            while (more && !Thread.currentThread().isInterrupted()) {
+                more = QuarkusTransaction.requiringNew().call(() -> compactSlice(until));
+            }
+        } catch (Exception e) {
+            // The watermark did not move, so the same period is retried next time
+            LOG.warnf(e, "Failed to compact metrics rollups");
+        }
+    }
+
+    /**
+     * Compact one slice after the watermark.
+     *
+     * @return whether there is more to compact before {@code until}
+     */
+    private boolean compactSlice(LocalDateTime until) {
+        EntityManager em = MetricsRollup.getEntityManager();
+        LocalDateTime from = toLocalDateTime(em.createNativeQuery(
+                "SELECT compacted_until FROM metrics_rollup_watermark WHERE id = 1 FOR UPDATE")
+                .getSingleResult());
+        if (!from.isBefore(until)) {
+            return false;
+        }
+        LocalDateTime to = from.plus(maxSlice).isBefore(until) ? from.plus(maxSlice) : until;
+
+        Aggregation aggregation = new Aggregation();
+        List<Object[]> interactions = em.createQuery(
+                "SELECT m.agent.id, m.agent.organization.id, m.timestamp, m.responseTimeMs, m.tokenUsage, "
+                        + "m.toolCalls, m.success FROM InteractionMetrics m "
+                        + "WHERE m.timestamp >= ?1 AND m.timestamp < ?2", Object[].class)
+                .setParameter(1, from)
+                .setParameter(2, to)
+                .getResultList();
+        for (Object[] row : interactions) {
+            aggregation.addInteraction((UUID) row[0], (UUID) row[1], (LocalDateTime) row[2],
+                    (Integer) row[3], (Integer) row[4], (Integer) row[5], (Boolean) row[6]);
+        }
+        List<Object[]> conversations = em.createQuery(
+                "SELECT c.agent.id, c.agent.organization.id, c.createdAt FROM Conversation c "
+                        + "WHERE c.createdAt >= ?1 AND c.createdAt < ?2", Object[].class)
+                .setParameter(1, from)
+                .setParameter(2, to)
+                .getResultList();
+        for (Object[] row : conversations) {
+            aggregation.addConversation((UUID) row[0], (UUID) row[1], (LocalDateTime) row[2]);
+        }
+
+        merge(aggregation.rollups(), from, to);
+
+        em.createNativeQuery("UPDATE metrics_rollup_watermark SET compacted_until = ?1 WHERE id = 1")
+                .setParameter(1, to)
+                .executeUpdate();
+        MetricsRollup.delete("granularity = ?1 and bucketStart < ?2",
+                MetricsRollup.Granularity.MINUTE, to.minus(minuteRetention));
+        MetricsRollup.delete("granularity = ?1 and bucketStart < ?2",
+                MetricsRollup.Granularity.HOUR, to.minus(hourRetention));
+
+        LOG.debugf("Compacted %d interactions and %d conversations up to %s",
+                interactions.size(), conversations.size(), to);
+        return to.isBefore(until);
+    }
+
+    /**
+     * Add new rollups to the stored ones covering the same buckets.
+     */
+    private void merge(Collection<MetricsRollup> rollups, LocalDateTime from, LocalDateTime to) {
+        if (rollups.isEmpty()) {
+            return;
+        }
+        Map<Key, MetricsRollup> existing = new HashMap<>();
+        for (MetricsRollup.Granularity granularity : MetricsRollup.Granularity.values()) {
+            List<MetricsRollup> stored = MetricsRollup.list(
+                    "granularity = ?1 and bucketStart >= ?2 and bucketStart < ?3",
+                    granularity, granularity.bucketStart(from), to);
+            for (MetricsRollup rollup : stored) {
+                existing.put(Key.of(rollup), rollup);
+            }
+        }
+        for (MetricsRollup rollup : rollups) {
+            MetricsRollup stored = existing.get(Key.of(rollup));
+            if (stored != null) {
+                stored.add(rollup);
+            } else {
+                rollup.persist();
+            }
+        }
+    }
+
+    private static LocalDateTime toLocalDateTime(Object value) {
+        return value instanceof Timestamp ? ((Timestamp) value).toLocalDateTime() : (LocalDateTime) value;
+    }
+
+    /**
+     * Rollups of one slice of raw data, at every granularity.
+     */
+    static final class Aggregation {
+        private final Map<Key, MetricsRollup> rollups = new HashMap<>();
+
+        void addInteraction(UUID agentId, UUID organizationId, LocalDateTime timestamp, Integer responseTimeMs,
+                Integer tokenUsage, Integer toolCalls, Boolean success) {
+            for (MetricsRollup.Granularity granularity : MetricsRollup.Granularity.values()) {
+                MetricsRollup rollup = rollup(granularity, agentId, organizationId, timestamp);
+                rollup.interactions++;
+                if (!Boolean.TRUE.equals(success)) {
+                    rollup.failures++;
+                }
+                long latency = responseTimeMs != null ? responseTimeMs : 0;
+                rollup.totalResponseTimeMs += latency;
+                rollup.totalTokens += tokenUsage != null ? tokenUsage : 0;
+                rollup.totalToolCalls += toolCalls != null ? toolCalls : 0;
+                LatencyHistogram.record(rollup.latencyHistogram, latency);
+            }
+        }
+
+        void addConversation(UUID agentId, UUID organizationId, LocalDateTime createdAt) {
+            for (MetricsRollup.Granularity granularity : MetricsRollup.Granularity.values()) {
+                rollup(granularity, agentId, organizationId, createdAt).conversations++;
+            }
+        }
+
+        Collection<MetricsRollup> rollups() {
+            return rollups.values();
+        }
+
+        private MetricsRollup rollup(MetricsRollup.Granularity granularity, UUID agentId, UUID organizationId,
+                LocalDateTime time) {
+            LocalDateTime bucketStart = granularity.bucketStart(time);
+            return rollups.computeIfAbsent(new Key(granularity, bucketStart, agentId), key -> {
+                MetricsRollup rollup = new MetricsRollup();
+                rollup.granularity = granularity;
+                rollup.bucketStart = bucketStart;
+                rollup.agentId = agentId;
+                rollup.organizationId = organizationId;
+                rollup.latencyHistogram = LatencyHistogram.empty();
+                return rollup;
+            });
+        }
+    }
+
+    private static final class Key {
+        final MetricsRollup.Granularity granularity;
+        final LocalDateTime bucketStart;
+        final UUID agentId;
+
+        Key(MetricsRollup.Granularity granularity, LocalDateTime bucketStart, UUID agentId) {
+            this.granularity = granularity;
+            this.bucketStart = bucketStart;
+            this.agentId = agentId;
+        }
+
+        static Key of(MetricsRollup rollup) {
+            return new Key(rollup.granularity, rollup.bucketStart, rollup.agentId);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key other = (Key) o;
+            return granularity == other.granularity && bucketStart.equals(other.bucketStart)
+                    && agentId.equals(other.agentId);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(granularity, bucketStart, agentId);
+        }
+    }
+}
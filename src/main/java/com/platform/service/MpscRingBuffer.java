@@ -0,0 +1,82 @@
+package com.platform.service;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Bounded lock-free queue for many producers and a single consumer.
+ *
+ * Producers claim a sequence number with a CAS on the tail and publish into
+ * the slot; a full buffer rejects the offer instead of blocking. The consumer
+ * treats an empty slot at the head as "nothing more yet", so an element whose
+ * producer has claimed but not yet published its slot is picked up by the
+ * next drain.
+ */
+final class MpscRingBuffer<T> {
+
+    private final AtomicReferenceArray<T> slots;
+    private final int mask;
+    private final AtomicLong tail = new AtomicLong();
+    private volatile long head;
+
+    /**
+     * @param capacity rounded up to a power of two
+     */
+    MpscRingBuffer(int capacity) {
+        int size = Integer.highestOneBit(Math.max(2, capacity) - 1) << 1;
+        this.slots = new AtomicReferenceArray<>(size);
+        this.mask = size - 1;
+    }
+
+    /**
+     * Add an element; safe from any thread.
+     *
+     * @return false if the buffer is full
+     */
+    boolean offer(T element) {
+        long sequence;
+        do {
+            sequence = tail.get();
+            if (sequence - head >= slots.length()) {
+                return false;
+            }
+        } while (!tail.compareAndSet(sequence, sequence + 1));
+        slots.lazySet((int) sequence & mask, element);
+        return true;
+    }
+
+    /**
+     * Move up to {@code max} elements into {@code sink}; consumer thread only.
+     *
+     * @return the number of elements drained
+     */
+    int drain(List<? super T> sink, int max) {
+        long current = head;
+        int drained = 0;
+        while (drained < max) {
+            int index = (int) current & mask;
+            T element = slots.get(index);
+            if (element == null) {
+                break;
+            }
+            slots.lazySet(index, null);
+            sink.add(element);
+            current++;
+            drained++;
+        }
+        head = current;
+        return drained;
+    }
+
+    /**
+     * Approximate number of buffered elements.
+     */
+    int size() {
+        return (int) Math.max(0, tail.get() - head);
+    }
+
+    int capacity() {
+        return slots.length();
+    }
+}
@@ -0,0 +1,82 @@
+package com.platform.service;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Expands a user message into retrieval sub-queries for multi-query RAG.
+ *
+ * The message itself always comes first. Optional variants are the message
+ * prefixed with the preceding user turns, which resolves follow-ups such as
+ * "and its price?", and a keyword-only form without stop words.
+ */
+public final class QueryExpander {
+
+    private static final Pattern EDGE_PUNCTUATION = Pattern.compile("^[^\\p{L}\\p{N}]+|[^\\p{L}\\p{N}]+$");
+
+    private static final Set<String> STOP_WORDS = Set.of(
+            "a", "an", "and", "are", "as", "at", "be", "but", "by", "can", "could", "do", "does", "for", "from",
+            "how", "i", "if", "in", "is", "it", "its", "me", "my", "of", "on", "or", "please", "should", "so",
+            "tell", "that", "the", "their", "there", "these", "this", "to", "was", "we", "what", "when", "where",
+            "which", "who", "why", "will", "with", "would", "you", "your");
+
+    private QueryExpander() {
+    }
+
+    /**
+     * @param message          the user message
+     * @param previousUserTurns earlier user messages, oldest first
+     * @param keywordQuery     whether to add a keyword-only variant
+     * @return distinct sub-queries, the message first
+     */
+    public static List<String> expand(String message, List<String> previousUserTurns, boolean keywordQuery) {
+        Set<String> queries = new LinkedHashSet<>();
+        queries.add(message);
+
+        if (previousUserTurns != null && !previousUserTurns.isEmpty()) {
+            queries.add(String.join("\n", previousUserTurns) + "\n" + message);
+        }
+        if (keywordQuery) {
+            String keywords = keywords(message);
+            if (!keywords.isEmpty()) {
+                queries.add(keywords);
+            }
+        }
+        return new ArrayList<>(queries);
+    }
+
+    /**
+     * A full-text query (Postgres web search syntax) matching any content
+     * word of a text. Tokens keep inner punctuation, so identifiers such as
+     * {@code ERR-1042} or {@code SKU/778} are searched as written.
+     *
+     * @return the query, or an empty string if the text has no content words
+     */
+    public static String lexicalQuery(String text) {
+        Set<String> terms = new LinkedHashSet<>();
+        for (String token : text.toLowerCase(Locale.ROOT).split("\\s+")) {
+            String term = EDGE_PUNCTUATION.matcher(token).replaceAll("");
+            if (!term.isEmpty() && !STOP_WORDS.contains(term)) {
+                terms.add(term);
+            }
+        }
+        return String.join(" OR ", terms);
+    }
+
+    /**
+     * Lower-cased content words of a text, in order and without duplicates.
+     */
+    static String keywords(String text) {
+        Set<String> words = new LinkedHashSet<>();
+        for (String token : text.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{N}]+")) {
+            if (token.length() > 1 && !STOP_WORDS.contains(token)) {
+                words.add(token);
+            }
+        }
+        return String.join(" ", words);
+    }
+}
@@ -1,60 +1,170 @@
 package com.platform.service;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.platform.domain.Organization;
+import com.platform.domain.dto.UsageLimit;
+import com.platform.repository.OrganizationRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
 import io.quarkus.redis.datasource.RedisDataSource;
-import io.quarkus.redis.datasource.value.ValueCommands;
+import io.vertx.mutiny.redis.client.Response;
+import jakarta.annotation.PostConstruct;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
 
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.time.Duration;
+import java.util.HexFormat;
 import java.util.UUID;
 
 /**
  * Rate limiting service using Redis for distributed rate limiting
+ *
+ * Each limited subject has a token bucket in Redis holding up to the limit,
+ * refilled evenly over the window. A Lua script refills and takes tokens in
+ * one atomic round trip, so concurrent requests on any number of nodes cannot
+ * overshoot the limit. Nodes lease tokens in small chunks into a
+ * {@link LeasedTokenBucket}, so most requests are decided without touching
+ * Redis at all.
+ *
+ * Organizations whose {@link UsageLimit#maxApiCalls} is set share that many
+ * calls per window across their users; other users get the default limit
+ * each.
  */
 @ApplicationScoped
 public class RateLimitingService {
 
-    private static final int DEFAULT_RATE_LIMIT = 100; // requests per minute
-    private static final Duration WINDOW_DURATION = Duration.ofMinutes(1);
+    private static final Logger LOG = Logger.getLogger(RateLimitingService.class);
+
+    private static final String KEY_PREFIX = "rate_limit:";
+
+    /**
+     * KEYS[1] bucket hash; ARGV[1] capacity, ARGV[2] window in ms, ARGV[3]
+     * tokens requested, ARGV[4] unused tokens of an expired lease given back.
+     * Returns {granted, remaining, retry after ms}. Uses the Redis clock so
+     * nodes need not agree on the time.
+     */
+    private static final String LEASE_SCRIPT = """
+            local capacity = tonumber(ARGV[1])
+            local window = tonumber(ARGV[2])
+            local requested = tonumber(ARGV[3])
+            local returned = tonumber(ARGV[4])
+            local time = redis.call('TIME')
+            local now = time[1] * 1000 + math.floor(time[2] / 1000)
+            local state = redis.call('HMGET', KEYS[1], 'tokens', 'ts')
+            local tokens = tonumber(state[1])
+            local ts = tonumber(state[2])
+            if tokens == nil or ts == nil then
+              tokens = capacity
+              ts = now
+            end
+            local rate = capacity / window
+            tokens = math.min(capacity, tokens + math.max(0, now - ts) * rate + returned)
+            local granted = math.min(requested, math.floor(tokens))
+            tokens = tokens - granted
+            redis.call('HSET', KEYS[1], 'tokens', tostring(tokens), 'ts', tostring(now))
+            redis.call('PEXPIRE', KEYS[1], window)
+            local retry = 0
+            if granted == 0 then
+              retry = math.ceil((1 - tokens) / rate)
+            end
+            return {granted, math.floor(tokens), retry}
+            """;
+
+    private static final String LEASE_SCRIPT_SHA = sha1(LEASE_SCRIPT);
 
     @Inject
     RedisDataSource redisDataSource;
 
-    private ValueCommands<String, String> valueCommands;
+    @Inject
+    OrganizationRepository organizationRepository;
+
+    @Inject
+    ObjectMapper objectMapper;
+
+    @Inject
+    MeterRegistry meterRegistry;
+
+    /** Requests per window for users whose organization sets no limit */
+    @ConfigProperty(name = "rate-limit.default-limit", defaultValue = "100")
+    int defaultLimit;
+
+    @ConfigProperty(name = "rate-limit.window", defaultValue = "PT1M")
+    Duration window;
+
+    /** Share of a limit leased by a node at a time */
+    @ConfigProperty(name = "rate-limit.lease.fraction", defaultValue = "0.05")
+    double leaseFraction;
+
+    @ConfigProperty(name = "rate-limit.lease.max-tokens", defaultValue = "50")
+    long leaseMaxTokens;
+
+    @ConfigProperty(name = "rate-limit.lease.ttl", defaultValue = "PT1S")
+    Duration leaseTtl;
 
-    @jakarta.annotation.PostConstruct
+    @ConfigProperty(name = "rate-limit.buckets.max-entries", defaultValue = "100000")
+    long maxBuckets;
+
+    @ConfigProperty(name = "rate-limit.organization-limits.ttl", defaultValue = "PT1M")
+    Duration organizationLimitTtl;
+
+    private Cache<String, LeasedTokenBucket> buckets;
+    private Cache<UUID, Long> organizationLimits;
+    private Counter localDecisions;
+    private Counter redisDecisions;
+    private Counter rejected;
+
+    @PostConstruct
     void init() {
-        valueCommands = redisDataSource.value(String.class);
+        buckets = Caffeine.newBuilder()
+                .maximumSize(maxBuckets)
+                .expireAfterAccess(window.multipliedBy(2))
+                .build();
+        organizationLimits = Caffeine.newBuilder()
+                .maximumSize(maxBuckets)
+                .expireAfterWrite(organizationLimitTtl)
+                .build();
+        localDecisions = Counter.builder("rate-limit.decisions")
+                .tag("source", "local")
+                .register(meterRegistry);
+        redisDecisions = Counter.builder("rate-limit.decisions")
+                .tag("source", "redis")
+                .register(meterRegistry);
+        rejected = Counter.builder("rate-limit.rejected")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Check a request against the limit of the caller's organization, or the
+     * caller's own default limit if the organization sets none.
+     *
+     * @param userId         The user ID
+     * @param organizationId The user's organization, or null
+     * @return the decision
+     */
+    public Decision checkRequest(UUID userId, UUID organizationId) {
+        long organizationLimit = organizationId != null ? organizationLimit(organizationId) : 0;
+        if (organizationLimit > 0) {
+            return acquire("org:" + organizationId, organizationLimit);
+        }
+        return acquire("user:" + userId, defaultLimit);
     }
 
     /**
      * Check if a request is allowed under rate limiting
      *
      * @param userId The user ID
-     * @param limit  The rate limit (requests per minute)
+     * @param limit  The rate limit (requests per window)
      * @return true if request is allowed, false if rate limit exceeded
      */
     public boolean isAllowed(UUID userId, int limit) {
-        String key = "rate_limit:" + userId.toString();
-
-        // Get current count
-        String countStr = valueCommands.get(key);
-        int currentCount = countStr != null ? Integer.parseInt(countStr) : 0;
-
-        if (currentCount >= limit) {
-            return false;
-        }
-
-        // Increment counter
-        if (countStr == null) {
-            // First request in window - set with expiration
-            valueCommands.setex(key, WINDOW_DURATION.getSeconds(), "1");
-        } else {
-            // Increment existing counter
-            valueCommands.incr(key);
-        }
-
-        return true;
+        return acquire("user:" + userId, limit).allowed;
     }
 
     /**
@@ -64,21 +174,20 @@ public class RateLimitingService {
      * @return true if request is allowed, false if rate limit exceeded
      */
     public boolean isAllowed(UUID userId) {
-        return isAllowed(userId, DEFAULT_RATE_LIMIT);
+        return isAllowed(userId, defaultLimit);
     }
 
     /**
-     * Get remaining requests for a user
+     * Get remaining requests for a user, as last seen by this node
      *
      * @param userId The user ID
      * @param limit  The rate limit
      * @return Number of remaining requests
      */
     public int getRemainingRequests(UUID userId, int limit) {
-        String key = "rate_limit:" + userId.toString();
-        String countStr = valueCommands.get(key);
-        int currentCount = countStr != null ? Integer.parseInt(countStr) : 0;
-        return Math.max(0, limit - currentCount);
+        LeasedTokenBucket bucket = buckets.getIfPresent("user:" + userId);
+        long remaining = bucket != null ? bucket.remaining() : -1;
+        return (int) Math.min(limit, remaining < 0 ? limit : remaining);
     }
 
     /**
@@ -87,7 +196,106 @@ public class RateLimitingService {
      * @param userId The user ID
      */
     public void reset(UUID userId) {
-        String key = "rate_limit:" + userId.toString();
-        valueCommands.getdel(key);
+        String subject = "user:" + userId;
+        buckets.invalidate(subject);
+        redisDataSource.key().del(KEY_PREFIX + subject);
+    }
+
+    /**
+     * Take one request from a subject's limit.
+     */
+    Decision acquire(String subject, long limit) {
+        LeasedTokenBucket bucket = buckets.get(subject,
+                s -> new LeasedTokenBucket(leaseTtl.toNanos(), System::nanoTime));
+        Decision decision = bucket.acquire(leaseSize(limit),
+                (requested, returned) -> lease(subject, limit, requested, returned));
+        (decision.fromRedis ? redisDecisions : localDecisions).increment();
+        if (!decision.allowed) {
+            rejected.increment();
+        }
+        return decision;
+    }
+
+    private LeasedTokenBucket.Grant lease(String subject, long limit, long requested, long returned) {
+        String[] args = {"1", KEY_PREFIX + subject, String.valueOf(limit),
+                String.valueOf(window.toMillis()), String.valueOf(requested), String.valueOf(returned)};
+        Response response;
+        try {
+            response = redisDataSource.execute("EVALSHA", prepend(LEASE_SCRIPT_SHA, args));
+        } catch (Exception e) {
+            if (e.getMessage() == null || !e.getMessage().contains("NOSCRIPT")) {
+                throw e;
+            }
+            // First use on this Redis: EVAL also caches the script for EVALSHA
+            response = redisDataSource.execute("EVAL", prepend(LEASE_SCRIPT, args));
+        }
+        return new LeasedTokenBucket.Grant(response.get(0).toLong(), response.get(1).toLong(),
+                response.get(2).toLong());
+    }
+
+    private long organizationLimit(UUID organizationId) {
+        return organizationLimits.get(organizationId, id -> {
+            Organization organization = organizationRepository.findById(id);
+            if (organization == null || organization.usageLimit == null) {
+                return 0L;
+            }
+            try {
+                UsageLimit usageLimit = objectMapper.readValue(organization.usageLimit, UsageLimit.class);
+                return usageLimit.maxApiCalls != null ? usageLimit.maxApiCalls : 0L;
+            } catch (Exception e) {
+                LOG.warnf("Invalid usage limit for organization %s: %s", id, e.getMessage());
+                return 0L;
+            }
+        });
+    }
+
+    // Package-private for testing
+
+    long leaseSize(long limit) {
+        return Math.max(1, Math.min(leaseMaxTokens, (long) (limit * leaseFraction)));
+    }
+
+    private static String[] prepend(String first, String[] rest) {
+        String[] args = new String[rest.length + 1];
+        args[0] = first;
+        System.arraycopy(rest, 0, args, 1, rest.length);
+        return args;
+    }
+
+    private static String sha1(String script) {
+        try {
+            return HexFormat.of().formatHex(
+                    MessageDigest.getInstance("SHA-1").digest(script.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-1 not available", e);
+        }
+    }
+
+    /**
+     * Outcome of a rate limit check.
+     */
+    public static class Decision {
+        public final boolean allowed;
+        /** Requests left in the window as far as this node knows, or -1 if unknown */
+        public final long remaining;
+        /** When rejected, how long until a request may be allowed again */
+        public final long retryAfterMillis;
+        /** Whether deciding took a round trip to Redis */
+        public final boolean fromRedis;
+
+        private Decision(boolean allowed, long remaining, long retryAfterMillis, boolean fromRedis) {
+            this.allowed = allowed;
+            this.remaining = remaining;
+            this.retryAfterMillis = retryAfterMillis;
+            this.fromRedis = fromRedis;
+        }
+
+        static Decision allowed(long remaining, boolean fromRedis) {
+            return new Decision(true, remaining, 0, fromRedis);
+        }
+
+        static Decision rejected(long retryAfterMillis, boolean fromRedis) {
+            return new Decision(false, 0, retryAfterMillis, fromRedis);
+        }
     }
 }
@@ -0,0 +1,73 @@
+package com.platform.service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reciprocal rank fusion (RRF) of several ranked result lists.
+ *
+ * Each item scores {@code sum(1 / (k + rank))} over the lists it appears in,
+ * with ranks starting at 1. Only ranks are used, so lists scored on
+ * different scales can be merged.
+ */
+public final class ReciprocalRankFusion {
+
+    /** The constant from the original RRF paper; dampens the weight of top ranks. */
+    public static final int DEFAULT_K = 60;
+
+    private ReciprocalRankFusion() {
+    }
+
+    /**
+     * Fuse ranked lists of item keys.
+     *
+     * @param rankings lists of keys, best first; duplicates within a list
+     *                 count at their first rank only
+     * @param k        rank constant
+     * @param limit    maximum number of keys returned
+     * @return keys by descending fused score; ties keep first-seen order
+     */
+    public static <T> List<T> fuse(Collection<? extends List<T>> rankings, int k, int limit) {
+        return fuse(new ArrayList<>(rankings), Collections.nCopies(rankings.size(), 1.0), k, limit);
+    }
+
+    /**
+     * Weighted fusion: each list's contributions are multiplied by its
+     * weight, so {@code sum(weight / (k + rank))}.
+     *
+     * @param weights one weight per ranking
+     */
+    public static <T> List<T> fuse(List<? extends List<T>> rankings, List<Double> weights, int k, int limit) {
+        if (rankings.size() != weights.size()) {
+            throw new IllegalArgumentException("Expected one weight per ranking");
+        }
+        Map<T, Double> scores = new LinkedHashMap<>();
+        for (int r = 0; r < rankings.size(); r++) {
+            List<T> ranking = rankings.get(r);
+            double weight = weights.get(r);
+            Map<T, Boolean> seen = new LinkedHashMap<>();
+            int rank = 0;
+            for (T key : ranking) {
+                if (seen.putIfAbsent(key, Boolean.TRUE) != null) {
+                    continue;
+                }
+                rank++;
+                scores.merge(key, weight / (k + rank), Double::sum);
+            }
+        }
+
+        List<Map.Entry<T, Double>> entries = new ArrayList<>(scores.entrySet());
+        // Stable sort: equal scores keep first-seen order
+        entries.sort((a, b) -> Double.compare(b.getValue(), a.getValue()));
+
+        List<T> fused = new ArrayList<>(Math.min(limit, entries.size()));
+        for (int i = 0; i < entries.size() && i < limit; i++) {
+            fused.add(entries.get(i).getKey());
+        }
+        return fused;
+    }
+}
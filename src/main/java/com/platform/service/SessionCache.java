@@ -0,0 +1,171 @@
+package com.platform.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import io.quarkus.redis.datasource.RedisDataSource;
+import io.quarkus.redis.datasource.pubsub.PubSubCommands;
+import io.quarkus.redis.datasource.value.ValueCommands;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * User sessions in Redis with a per-node cache in front.
+ *
+ * Redis holds a short fingerprint of each user's current access token under
+ * {@code session:<userId>}, never the token itself. Lookups are cached on
+ * each node for a short time; whenever a session is created or invalidated
+ * the change is published over Redis pub/sub and every node drops its cached
+ * entry, so revocation takes effect without waiting for the cache to expire.
+ * The expiry only bounds staleness if a notification is lost.
+ */
+@ApplicationScoped
+public class SessionCache {
+
+    private static final Logger LOG = Logger.getLogger(SessionCache.class);
+    private static final String KEY_PREFIX = "session:";
+    private static final String CHANGES_CHANNEL = "session:changes";
+    private static final int FINGERPRINT_BYTES = 16;
+
+    @Inject
+    RedisDataSource redisDataSource;
+
+    @Inject
+    MeterRegistry meterRegistry;
+
+    @ConfigProperty(name = "session.cache.ttl", defaultValue = "PT30S")
+    Duration ttl;
+
+    @ConfigProperty(name = "session.cache.max-entries", defaultValue = "100000")
+    long maxEntries;
+
+    /** Fingerprint of each user's current token, or empty without a session */
+    private Cache<UUID, Optional<String>> cache;
+    private ValueCommands<String, String> sessionCommands;
+    private PubSubCommands<String> pubSub;
+    private PubSubCommands.RedisSubscriber subscriber;
+    private Timer propagationLag;
+
+    @PostConstruct
+    void init() {
+        cache = Caffeine.newBuilder()
+                .maximumSize(maxEntries)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "sessions");
+        propagationLag = Timer.builder("session.revocation.lag")
+                .description("Time from a session change on one node until another node dropped it")
+                .register(meterRegistry);
+
+        sessionCommands = redisDataSource.value(String.class);
+        try {
+            pubSub = redisDataSource.pubsub(String.class);
+            subscriber = pubSub.subscribe(CHANGES_CHANNEL, this::onChange);
+        } catch (Exception e) {
+            LOG.warnf(e, "Failed to subscribe to %s, cached sessions only expire after %s", CHANGES_CHANNEL, ttl);
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        if (subscriber != null) {
+            subscriber.unsubscribe();
+        }
+    }
+
+    /**
+     * Start a session for a user with a new access token, replacing any
+     * previous one.
+     */
+    public void store(UUID userId, String accessToken, Duration expiration) {
+        sessionCommands.setex(KEY_PREFIX + userId, expiration.toSeconds(), fingerprint(accessToken));
+        changed(userId);
+    }
+
+    /**
+     * End a user's session on every node.
+     */
+    public void invalidate(UUID userId) {
+        sessionCommands.getdel(KEY_PREFIX + userId);
+        changed(userId);
+    }
+
+    /**
+     * Check whether a user has a session.
+     */
+    public boolean isValid(UUID userId) {
+        return lookup(userId).isPresent();
+    }
+
+    /**
+     * Check whether a token is the current one of a user's session.
+     */
+    public boolean isValid(UUID userId, String accessToken) {
+        return lookup(userId)
+                .map(current -> MessageDigest.isEqual(
+                        current.getBytes(StandardCharsets.US_ASCII),
+                        fingerprint(accessToken).getBytes(StandardCharsets.US_ASCII)))
+                .orElse(false);
+    }
+
+    private Optional<String> lookup(UUID userId) {
+        return cache.get(userId, id -> Optional.ofNullable(sessionCommands.get(KEY_PREFIX + id)));
+    }
+
+    private void changed(UUID userId) {
+        cache.invalidate(userId);
+        if (pubSub == null) {
+            return;
+        }
+        try {
+            pubSub.publish(CHANGES_CHANNEL, userId + ":" + System.currentTimeMillis());
+        } catch (Exception e) {
+            LOG.errorf(e, "Failed to publish session change of user %s", userId);
+        }
+    }
+
+    // Package-private for testing
+
+    void onChange(String message) {
+        int separator = message.lastIndexOf(':');
+        try {
+            cache.invalidate(UUID.fromString(separator < 0 ? message : message.substring(0, separator)));
+            if (separator >= 0) {
+                // Wall clocks of different nodes, so only as accurate as their sync
+                long lag = System.currentTimeMillis() - Long.parseLong(message.substring(separator + 1));
+                propagationLag.record(Math.max(0, lag), TimeUnit.MILLISECONDS);
+            }
+        } catch (IllegalArgumentException e) {
+            LOG.warnf("Ignoring malformed session change message: %s", message);
+        }
+    }
+
+    /**
+     * Truncated SHA-256 of a token, base64url encoded (22 characters).
+     */
+    static String fingerprint(String token) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(Arrays.copyOf(digest, FINGERPRINT_BYTES));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
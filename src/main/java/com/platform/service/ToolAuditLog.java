@@ -0,0 +1,205 @@
+package com.platform.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.platform.domain.ToolExecutionEvent;
+import com.platform.service.dto.ToolExecutionResult;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Asynchronous audit trail of tool executions.
+ *
+ * Callers only append an event to a lock-free ring buffer; a single
+ * background writer drains it and inserts events into
+ * {@code tool_execution_events} in batches. Successful executions are
+ * sampled, failures are always kept, and parameters and results are
+ * truncated. When the buffer is full, events are dropped and counted rather
+ * than slowing the tool call down.
+ */
+@ApplicationScoped
+public class ToolAuditLog {
+
+    private static final Logger LOG = Logger.getLogger(ToolAuditLog.class);
+
+    @Inject
+    ObjectMapper objectMapper;
+
+    @Inject
+    MeterRegistry meterRegistry;
+
+    @ConfigProperty(name = "tool.audit.enabled", defaultValue = "true")
+    boolean enabled;
+
+    @ConfigProperty(name = "tool.audit.sample-rate", defaultValue = "1.0")
+    double sampleRate;
+
+    @ConfigProperty(name = "tool.audit.max-payload-chars", defaultValue = "2048")
+    int maxPayloadChars;
+
+    @ConfigProperty(name = "tool.audit.buffer-size", defaultValue = "8192")
+    int bufferSize;
+
+    @ConfigProperty(name = "tool.audit.batch-size", defaultValue = "256")
+    int batchSize;
+
+    @ConfigProperty(name = "tool.audit.flush-interval", defaultValue = "PT1S")
+    Duration flushInterval;
+
+    private MpscRingBuffer<Event> buffer;
+    private ScheduledExecutorService writer;
+    private Counter sampledOut;
+    private Counter dropped;
+    private Counter written;
+    private Counter writeFailures;
+
+    @PostConstruct
+    void init() {
+        buffer = new MpscRingBuffer<>(bufferSize);
+        sampledOut = counter("sampled-out");
+        dropped = counter("dropped");
+        written = counter("written");
+        writeFailures = counter("write-failed");
+        Gauge.builder("tool.audit.buffered", buffer, MpscRingBuffer::size)
+                .register(meterRegistry);
+
+        if (enabled) {
+            writer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "tool-audit-writer");
+                thread.setDaemon(true);
+                return thread;
+            });
+            writer.scheduleWithFixedDelay(this::flush, flushInterval.toMillis(), flushInterval.toMillis(),
+                    TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        if (writer != null) {
+            writer.shutdown();
+            try {
+                if (writer.awaitTermination(5, TimeUnit.SECONDS)) {
+                    // Write what is left after the last scheduled flush
+                    flush();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    /**
+     * Record a tool execution. Never blocks and never throws.
+     */
+    public void record(CompiledTool tool, Map<String, Object> params, ToolExecutionResult result) {
+        if (!enabled) {
+            return;
+        }
+        if (result.success && sampleRate < 1.0 && ThreadLocalRandom.current().nextDouble() >= sampleRate) {
+            sampledOut.increment();
+            return;
+        }
+
+        // Payloads are serialized by the writer, off the calling thread
+        Event event = new Event(tool, params, result, LocalDateTime.now());
+        if (!buffer.offer(event)) {
+            dropped.increment();
+        }
+    }
+
+    /**
+     * Drain the buffer into the database; runs on the writer thread.
+     */
+    void flush() {
+        List<Event> batch = new ArrayList<>(batchSize);
+        while (buffer.drain(batch, batchSize) > 0) {
+            try {
+                List<ToolExecutionEvent> entities = new ArrayList<>(batch.size());
+                for (Event event : batch) {
+                    entities.add(toEntity(event));
+                }
+                QuarkusTransaction.requiringNew().run(() -> ToolExecutionEvent.persist(entities));
+                written.increment(entities.size());
+            } catch (Exception e) {
+                // The failed batch is lost; later batches are still attempted
+                writeFailures.increment(batch.size());
+                LOG.warnf(e, "Failed to write %d tool execution events", batch.size());
+            }
+            batch.clear();
+        }
+    }
+
+    private ToolExecutionEvent toEntity(Event event) {
+        ToolExecutionEvent entity = new ToolExecutionEvent();
+        entity.toolId = event.tool.id;
+        entity.toolName = event.tool.name;
+        entity.success = event.result.success;
+        entity.cached = event.result.metadata != null && Boolean.TRUE.equals(event.result.metadata.get("cached"));
+        entity.executionTimeMs = event.result.executionTimeMs;
+        entity.parameters = truncate(toJson(event.params));
+        entity.result = event.result.success ? truncate(toJson(event.result.result)) : null;
+        entity.errorMessage = truncate(event.result.errorMessage);
+        entity.occurredAt = event.occurredAt;
+        return entity;
+    }
+
+    private String toJson(Object value) {
+        if (value == null) {
+            return null;
+        }
+        try {
+            return objectMapper.writeValueAsString(value);
+        } catch (JsonProcessingException e) {
+            return String.valueOf(value);
+        }
+    }
+
+    private Counter counter(String result) {
+        return Counter.builder("tool.audit.events")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    // Package-private for testing
+
+    String truncate(String value) {
+        if (value == null || value.length() <= maxPayloadChars) {
+            return value;
+        }
+        return value.substring(0, maxPayloadChars) + "...[truncated " + (value.length() - maxPayloadChars)
+                + " chars]";
+    }
+
+    private static final class Event {
+        final CompiledTool tool;
+        final Map<String, Object> params;
+        final ToolExecutionResult result;
+        final LocalDateTime occurredAt;
+
+        Event(CompiledTool tool, Map<String, Object> params, ToolExecutionResult result, LocalDateTime occurredAt) {
+            this.tool = tool;
+            this.params = params;
+            this.result = result;
+            this.occurredAt = occurredAt;
+        }
+    }
+}
@@ -0,0 +1,205 @@
+package com.platform.service;
+
+import java.time.Duration;
+
+/**
+ * Concurrency limit and circuit breaker for a single tool.
+ *
+ * The limit adapts AIMD-style to observed outcomes: a fast success while the
+ * tool is at least half busy raises it by 1/limit, a failure or a call slower
+ * than the latency threshold multiplies it by the backoff ratio. The breaker
+ * opens when the failure ratio over the last {@code windowSize} calls reaches
+ * the threshold, and lets a single trial call through after the open delay;
+ * only the trial's outcome closes or re-opens it. Calls admitted before the
+ * breaker last opened still adjust the limit when they finish, but their
+ * outcomes count toward no breaker decision.
+ *
+ * Times are passed in as {@link System#nanoTime()} values.
+ */
+public final class ToolBulkhead {
+
+    public enum Rejection {
+        LIMIT,
+        CIRCUIT_OPEN
+    }
+
+    private enum State {
+        CLOSED,
+        OPEN,
+        HALF_OPEN
+    }
+
+    private final Settings settings;
+    private final boolean[] outcomes;
+
+    private double limit;
+    private int inFlight;
+    private State state = State.CLOSED;
+    private long openedAtNanos;
+    /** Incremented whenever the breaker opens */
+    private long generation;
+    private boolean trialInFlight;
+    private int outcomeIndex;
+    private int outcomeCount;
+    private int failureCount;
+
+    public ToolBulkhead(Settings settings) {
+        this.settings = settings;
+        this.outcomes = new boolean[settings.windowSize];
+        this.limit = settings.initialLimit;
+    }
+
+    /**
+     * Try to start a call.
+     *
+     * @return the permit to pass to {@link #release}, or a rejected one
+     *         saying why the call may not proceed
+     */
+    public synchronized Permit tryAcquire(long nowNanos) {
+        if (state == State.OPEN) {
+            if (nowNanos - openedAtNanos < settings.openDelay.toNanos()) {
+                return Permit.CIRCUIT_OPEN;
+            }
+            state = State.HALF_OPEN;
+        }
+        boolean trial = false;
+        if (state == State.HALF_OPEN) {
+            if (trialInFlight) {
+                return Permit.CIRCUIT_OPEN;
+            }
+            trialInFlight = true;
+            trial = true;
+        } else if (inFlight >= getLimit()) {
+            return Permit.LIMIT;
+        }
+        inFlight++;
+        return new Permit(this, null, trial, generation);
+    }
+
+    /**
+     * Finish a call admitted by {@link #tryAcquire(long)}.
+     *
+     * @param permit       the call's permit
+     * @param failed       whether the call failed (error, timeout or server error)
+     * @param latencyNanos how long the call took
+     */
+    public synchronized void release(Permit permit, boolean failed, long latencyNanos, long nowNanos) {
+        if (!permit.isAdmitted()) {
+            return;
+        }
+        boolean wasBusy = inFlight * 2 >= limit;
+        inFlight--;
+
+        boolean slow = latencyNanos > settings.latencyThreshold.toNanos();
+        if (failed || slow) {
+            limit = Math.max(settings.minLimit, limit * settings.backoffRatio);
+        } else if (wasBusy) {
+            limit = Math.min(settings.maxLimit, limit + 1.0 / limit);
+        }
+
+        if (permit.trial) {
+            trialInFlight = false;
+            if (failed) {
+                open(nowNanos);
+            } else {
+                state = State.CLOSED;
+            }
+            return;
+        }
+        if (state == State.CLOSED && permit.generation == generation) {
+            record(failed);
+            if (outcomeCount == outcomes.length
+                    && failureCount >= settings.failureRatio * outcomeCount) {
+                open(nowNanos);
+            }
+        }
+    }
+
+    public synchronized int getLimit() {
+        return (int) limit;
+    }
+
+    public synchronized int getInFlight() {
+        return inFlight;
+    }
+
+    public synchronized boolean isOpen() {
+        return state != State.CLOSED;
+    }
+
+    private void record(boolean failed) {
+        if (outcomeCount == outcomes.length) {
+            if (outcomes[outcomeIndex]) {
+                failureCount--;
+            }
+        } else {
+            outcomeCount++;
+        }
+        outcomes[outcomeIndex] = failed;
+        if (failed) {
+            failureCount++;
+        }
+        outcomeIndex = (outcomeIndex + 1) % outcomes.length;
+    }
+
+    private void open(long nowNanos) {
+        state = State.OPEN;
+        openedAtNanos = nowNanos;
+        generation++;
+        outcomeIndex = 0;
+        outcomeCount = 0;
+        failureCount = 0;
+    }
+
+    /**
+     * Admission of one call, handed back to {@link #release} when it ends.
+     */
+    public static final class Permit {
+        static final Permit LIMIT = new Permit(null, Rejection.LIMIT, false, 0);
+        static final Permit CIRCUIT_OPEN = new Permit(null, Rejection.CIRCUIT_OPEN, false, 0);
+
+        private final ToolBulkhead bulkhead;
+        private final Rejection rejection;
+        private final boolean trial;
+        private final long generation;
+
+        private Permit(ToolBulkhead bulkhead, Rejection rejection, boolean trial, long generation) {
+            this.bulkhead = bulkhead;
+            this.rejection = rejection;
+            this.trial = trial;
+            this.generation = generation;
+        }
+
+        public boolean isAdmitted() {
+            return rejection == null;
+        }
+
+        /**
+         * Why the call was rejected, or null if it was admitted.
+         */
+        public Rejection rejection() {
+            return rejection;
+        }
+
+        /**
+         * The bulkhead that admitted the call, or null if it was rejected.
+         */
+        ToolBulkhead bulkhead() {
+            return bulkhead;
+        }
+    }
+
+    /**
+     * Limit and breaker settings, shared by all tools.
+     */
+    public static class Settings {
+        public int initialLimit = 10;
+        public int minLimit = 1;
+        public int maxLimit = 100;
+        public double backoffRatio = 0.9;
+        public Duration latencyThreshold = Duration.ofSeconds(2);
+        public int windowSize = 10;
+        public double failureRatio = 0.5;
+        public Duration openDelay = Duration.ofSeconds(30);
+    }
+}
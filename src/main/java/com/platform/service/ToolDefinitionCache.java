@@ -0,0 +1,192 @@
+package com.platform.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.platform.domain.Tool;
+import com.platform.repository.ToolRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import io.quarkus.redis.datasource.RedisDataSource;
+import io.quarkus.redis.datasource.pubsub.PubSubCommands;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.transaction.Status;
+import jakarta.transaction.Synchronization;
+import jakarta.transaction.TransactionSynchronizationRegistry;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * In-memory cache of {@link CompiledTool} definitions by tool id.
+ *
+ * Entries carry the entity version they were compiled from; only an entity
+ * with a newer version replaces the cached entry. Updates and deletes invalidate
+ * the entry once their transaction commits, locally and on other nodes via a
+ * Redis pub/sub channel; deletes also drop the tool's bulkhead and hedging
+ * state.
+ */
+@ApplicationScoped
+public class ToolDefinitionCache {
+
+    private static final Logger LOG = Logger.getLogger(ToolDefinitionCache.class);
+    static final String INVALIDATION_CHANNEL = "tool-definitions:invalidate";
+    private static final String DELETED_PREFIX = "deleted:";
+
+    @Inject
+    ToolRepository toolRepository;
+
+    @Inject
+    ObjectMapper objectMapper;
+
+    @Inject
+    RedisDataSource redisDataSource;
+
+    @Inject
+    TransactionSynchronizationRegistry transactionRegistry;
+
+    @Inject
+    ToolExecutionLimits executionLimits;
+
+    @Inject
+    ToolHedging hedging;
+
+    @Inject
+    MeterRegistry meterRegistry;
+
+    @ConfigProperty(name = "tool.cache.max-entries", defaultValue = "1000")
+    long maxEntries;
+
+    private Cache<UUID, CompiledTool> cache;
+    private PubSubCommands<String> pubSub;
+    private PubSubCommands.RedisSubscriber subscriber;
+
+    @PostConstruct
+    void init() {
+        cache = Caffeine.newBuilder()
+                .maximumSize(maxEntries)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "tool-definitions");
+
+        try {
+            pubSub = redisDataSource.pubsub(String.class);
+            subscriber = pubSub.subscribe(INVALIDATION_CHANNEL, this::onInvalidation);
+        } catch (Exception e) {
+            LOG.warnf(e, "Failed to subscribe to %s, tool definitions are only invalidated locally",
+                    INVALIDATION_CHANNEL);
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        if (subscriber != null) {
+            subscriber.unsubscribe();
+        }
+    }
+
+    /**
+     * Get a compiled tool, loading it from the database on a miss.
+     *
+     * The load runs inside the cache, so an invalidation issued meanwhile
+     * waits for it instead of being overtaken by a stale insert.
+     *
+     * @param toolId the tool ID
+     * @return the compiled tool, or empty if it does not exist
+     */
+    public Optional<CompiledTool> get(UUID toolId) {
+        return Optional.ofNullable(cache.get(toolId, id -> toolRepository.findByIdOptional(id)
+                .map(tool -> CompiledTool.compile(tool, objectMapper))
+                .orElse(null)));
+    }
+
+    /**
+     * Get the compiled form of an already loaded tool entity.
+     *
+     * Only a newer entity replaces the cached entry; a caller holding a stale
+     * entity gets the cached, newer definition instead.
+     */
+    public CompiledTool compile(Tool tool) {
+        return cache.asMap().compute(tool.id, (id, cached) ->
+                cached != null && cached.version >= tool.version
+                        ? cached
+                        : CompiledTool.compile(tool, objectMapper));
+    }
+
+    /**
+     * Drop a tool from this and every other node's cache once the current
+     * transaction commits (immediately if there is none).
+     */
+    public void invalidate(UUID toolId) {
+        afterCommit(() -> {
+            cache.invalidate(toolId);
+            publish(toolId.toString());
+        });
+    }
+
+    /**
+     * Drop a deleted tool from this and every other node once the current
+     * transaction commits (immediately if there is none), along with its
+     * per-tool execution state.
+     */
+    public void remove(UUID toolId) {
+        afterCommit(() -> {
+            forget(toolId);
+            publish(DELETED_PREFIX + toolId);
+        });
+    }
+
+    private void forget(UUID toolId) {
+        cache.invalidate(toolId);
+        executionLimits.remove(toolId);
+        hedging.remove(toolId);
+    }
+
+    private void afterCommit(Runnable invalidation) {
+        if (transactionRegistry.getTransactionKey() == null) {
+            invalidation.run();
+            return;
+        }
+        transactionRegistry.registerInterposedSynchronization(new Synchronization() {
+            @Override
+            public void beforeCompletion() {
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                if (status == Status.STATUS_COMMITTED) {
+                    invalidation.run();
+                }
+            }
+        });
+    }
+
+    private void publish(String message) {
+        if (pubSub == null) {
+            return;
+        }
+        try {
+            pubSub.publish(INVALIDATION_CHANNEL, message);
+        } catch (Exception e) {
+            LOG.errorf(e, "Failed to publish invalidation of tool %s", message);
+        }
+    }
+
+    private void onInvalidation(String message) {
+        try {
+            if (message.startsWith(DELETED_PREFIX)) {
+                forget(UUID.fromString(message.substring(DELETED_PREFIX.length())));
+            } else {
+                cache.invalidate(UUID.fromString(message));
+            }
+            LOG.debugf("Invalidated cached definition of tool %s", message);
+        } catch (IllegalArgumentException e) {
+            LOG.warnf("Ignoring malformed tool invalidation message: %s", message);
+        }
+    }
+}
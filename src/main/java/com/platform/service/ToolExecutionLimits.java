@@ -0,0 +1,168 @@
+package com.platform.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+
+/**
+ * Per-tool bulkheads for tool execution.
+ *
+ * Each tool gets its own {@link ToolBulkhead}, so a slow or failing endpoint
+ * only sheds its own calls. Live limits, in-flight calls and breaker state are
+ * published as gauges tagged with the tool id, and dropped with the bulkhead
+ * when the tool is deleted. Asynchronous tool calls run on a dedicated
+ * bounded thread pool instead of the common ForkJoinPool.
+ */
+@ApplicationScoped
+public class ToolExecutionLimits {
+
+    @Inject
+    MeterRegistry meterRegistry;
+
+    @ConfigProperty(name = "tool.execution.max-threads", defaultValue = "64")
+    int maxThreads;
+
+    @ConfigProperty(name = "tool.execution.queue-capacity", defaultValue = "256")
+    int queueCapacity;
+
+    @ConfigProperty(name = "tool.execution.limit.initial", defaultValue = "10")
+    int initialLimit;
+
+    @ConfigProperty(name = "tool.execution.limit.min", defaultValue = "1")
+    int minLimit;
+
+    @ConfigProperty(name = "tool.execution.limit.max", defaultValue = "100")
+    int maxLimit;
+
+    @ConfigProperty(name = "tool.execution.limit.backoff-ratio", defaultValue = "0.9")
+    double backoffRatio;
+
+    @ConfigProperty(name = "tool.execution.limit.latency-threshold", defaultValue = "PT2S")
+    Duration latencyThreshold;
+
+    @ConfigProperty(name = "tool.execution.circuit-breaker.window", defaultValue = "10")
+    int breakerWindow;
+
+    @ConfigProperty(name = "tool.execution.circuit-breaker.failure-ratio", defaultValue = "0.5")
+    double breakerFailureRatio;
+
+    @ConfigProperty(name = "tool.execution.circuit-breaker.delay", defaultValue = "PT30S")
+    Duration breakerDelay;
+
+    private final Map<UUID, Limited> bulkheads = new ConcurrentHashMap<>();
+    private ToolBulkhead.Settings settings;
+    private ExecutorService executor;
+    private Counter limitRejections;
+    private Counter circuitRejections;
+
+    @PostConstruct
+    void init() {
+        settings = new ToolBulkhead.Settings();
+        settings.initialLimit = initialLimit;
+        settings.minLimit = minLimit;
+        settings.maxLimit = maxLimit;
+        settings.backoffRatio = backoffRatio;
+        settings.latencyThreshold = latencyThreshold;
+        settings.windowSize = breakerWindow;
+        settings.failureRatio = breakerFailureRatio;
+        settings.openDelay = breakerDelay;
+
+        // A full queue runs the call on the submitting thread, slowing the plan down
+        executor = BoundedExecutors.create("tool", maxThreads, queueCapacity,
+                BoundedExecutors.callerRuns());
+        limitRejections = Counter.builder("tool.execution.rejected")
+                .tag("reason", "limit")
+                .register(meterRegistry);
+        circuitRejections = Counter.builder("tool.execution.rejected")
+                .tag("reason", "circuit-open")
+                .register(meterRegistry);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdown();
+    }
+
+    public ExecutorService executor() {
+        return executor;
+    }
+
+    /**
+     * Try to start a call to a tool.
+     *
+     * @return the permit to pass to {@link #release}; check
+     *         {@link ToolBulkhead.Permit#isAdmitted()} before calling
+     */
+    public ToolBulkhead.Permit tryAcquire(UUID toolId) {
+        ToolBulkhead.Permit permit = bulkhead(toolId).tryAcquire(System.nanoTime());
+        if (permit.rejection() == ToolBulkhead.Rejection.LIMIT) {
+            limitRejections.increment();
+        } else if (permit.rejection() == ToolBulkhead.Rejection.CIRCUIT_OPEN) {
+            circuitRejections.increment();
+        }
+        return permit;
+    }
+
+    /**
+     * Record the outcome of a call started with {@link #tryAcquire(UUID)}.
+     *
+     * The outcome goes to the bulkhead that admitted the call, so a call that
+     * outlives its tool's deletion neither recreates the bulkhead nor
+     * re-registers its gauges.
+     */
+    public void release(ToolBulkhead.Permit permit, boolean failed, long latencyNanos) {
+        if (permit.isAdmitted()) {
+            permit.bulkhead().release(permit, failed, latencyNanos, System.nanoTime());
+        }
+    }
+
+    /**
+     * Drop a deleted tool's bulkhead and gauges.
+     */
+    public void remove(UUID toolId) {
+        Limited limited = bulkheads.remove(toolId);
+        if (limited != null) {
+            limited.gauges.forEach(meterRegistry::remove);
+        }
+    }
+
+    private ToolBulkhead bulkhead(UUID toolId) {
+        return bulkheads.computeIfAbsent(toolId, id -> {
+            ToolBulkhead bulkhead = new ToolBulkhead(settings);
+            String tool = id.toString();
+            return new Limited(bulkhead, List.of(
+                    Gauge.builder("tool.execution.limit", bulkhead, ToolBulkhead::getLimit)
+                            .tag("tool", tool)
+                            .register(meterRegistry),
+                    Gauge.builder("tool.execution.in-flight", bulkhead, ToolBulkhead::getInFlight)
+                            .tag("tool", tool)
+                            .register(meterRegistry),
+                    Gauge.builder("tool.execution.circuit.open", bulkhead, b -> b.isOpen() ? 1 : 0)
+                            .tag("tool", tool)
+                            .register(meterRegistry)));
+        }).bulkhead;
+    }
+
+    private static final class Limited {
+        final ToolBulkhead bulkhead;
+        final List<Meter> gauges;
+
+        Limited(ToolBulkhead bulkhead, List<Meter> gauges) {
+            this.bulkhead = bulkhead;
+            this.gauges = gauges;
+        }
+    }
+}
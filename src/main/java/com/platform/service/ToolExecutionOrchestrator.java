@@ -2,10 +2,14 @@ package com.platform.service;
 
 import com.platform.domain.Agent;
 import com.platform.domain.Tool;
+import com.platform.exception.ValidationException;
 import com.platform.service.dto.ToolExecutionResult;
+import com.platform.service.dto.ToolPlan;
 import io.quarkus.logging.Log;
+import io.smallrye.mutiny.Multi;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
 
 import java.util.ArrayList;
 import java.util.HashMap;
@@ -21,6 +25,12 @@ public class ToolExecutionOrchestrator {
     @Inject
     ToolExecutor toolExecutor;
 
+    @Inject
+    ToolExecutionLimits executionLimits;
+
+    @ConfigProperty(name = "tool.plan.max-parallelism", defaultValue = "8")
+    int maxParallelism;
+
     public CompletionStage<ToolChainResult> executeToolChain(Agent agent, List<String> toolIds, Map<String, Object> context) {
         Log.infof("Executing tool chain for agent %s with %d tools", agent.id, toolIds.size());
         List<CompletableFuture<ToolExecutionResult>> futures = new ArrayList<>();
@@ -46,11 +56,44 @@ public class ToolExecutionOrchestrator {
                 });
     }
 
+    /**
+     * Execute a tool plan as a dependency graph.
+     *
+     * Independent steps run concurrently and the critical path is started
+     * first; each step's result is emitted as soon as it completes. Steps
+     * whose upstream failed are emitted as skipped. The plan is validated
+     * (unknown tools or steps, cycles) before anything runs.
+     *
+     * @param agent   The agent whose tools the plan uses
+     * @param plan    The plan
+     * @param context Parameters passed to every step, overridden by step parameters
+     * @return Step results in completion order
+     */
+    public Multi<ToolStepResult> executePlan(Agent agent, ToolPlan plan, Map<String, Object> context) {
+        Log.infof("Executing tool plan for agent %s with %d steps", agent.id, plan.steps.size());
+        Map<String, Tool> tools = new HashMap<>();
+        for (ToolPlan.ToolStep step : plan.steps) {
+            Tool tool = findToolById(agent, step.toolId);
+            if (tool == null) {
+                throw new ValidationException("Tool " + step.toolId + " not found for agent " + agent.id);
+            }
+            tools.put(step.toolId, tool);
+        }
+        // Validate eagerly so a bad plan fails before subscription
+        new ToolPlanRun(plan, context, maxParallelism, (step, params) -> null);
+
+        return Multi.createFrom().emitter(emitter -> {
+            ToolPlanRun run = new ToolPlanRun(plan, context, maxParallelism,
+                    (step, params) -> executeToolWithRetry(tools.get(step.toolId), params));
+            run.start(emitter::emit, emitter::complete);
+        });
+    }
+
     public CompletionStage<ToolExecutionResult> executeToolWithRetry(Tool tool, Map<String, Object> context) {
         return CompletableFuture.supplyAsync(() -> {
             Log.infof("Executing tool with retry: %s (%s)", tool.name, tool.type);
             return toolExecutor.execute(tool, context);
-        });
+        }, executionLimits.executor());
     }
 
     private Tool findToolById(Agent agent, String toolId) {
@@ -75,6 +118,29 @@ public class ToolExecutionOrchestrator {
         return new ToolChainResult(allSuccessful, summary, aggregatedData);
     }
 
+    public enum StepStatus {
+        SUCCEEDED,
+        FAILED,
+        SKIPPED
+    }
+
+    /**
+     * Result of one step of a tool plan.
+     */
+    public static class ToolStepResult {
+        public String stepId;
+        public String toolId;
+        public StepStatus status;
+        public ToolExecutionResult result;
+
+        public ToolStepResult(String stepId, String toolId, StepStatus status, ToolExecutionResult result) {
+            this.stepId = stepId;
+            this.toolId = toolId;
+            this.status = status;
+            this.result = result;
+        }
+    }
+
     public static class ToolChainResult {
         public boolean success;
         public String summary;
@@ -1,63 +1,91 @@
 package com.platform.service;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.platform.domain.Tool;
 import com.platform.service.dto.ToolExecutionResult;
-import com.platform.service.dto.ToolRegistrationRequest;
-import io.smallrye.faulttolerance.api.CircuitBreakerName;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
-import org.eclipse.microprofile.faulttolerance.CircuitBreaker;
-import org.eclipse.microprofile.faulttolerance.Retry;
-import org.eclipse.microprofile.faulttolerance.Timeout;
 import org.jboss.logging.Logger;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.net.URI;
-import java.net.http.HttpClient;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
 import java.time.Duration;
-import java.time.temporal.ChronoUnit;
-import java.util.Base64;
 import java.util.Map;
+import java.util.UUID;
+import java.util.function.Supplier;
 
 /**
  * Service for executing tools with REST client.
- * Handles HTTP requests with authentication, timeout, retry, and circuit
- * breaker patterns.
+ * Handles HTTP requests with authentication and timeouts over the shared
+ * {@link ToolHttpClients}; every call goes through the tool's own bulkhead
+ * (adaptive concurrency limit and circuit breaker) in
+ * {@link ToolExecutionLimits}.
  */
 @ApplicationScoped
 public class ToolExecutor {
 
     private static final Logger LOG = Logger.getLogger(ToolExecutor.class);
+    private static final int MAX_ERROR_BODY_BYTES = 4096;
 
     @Inject
     ObjectMapper objectMapper;
 
-    private final HttpClient httpClient;
+    @Inject
+    ToolDefinitionCache toolDefinitionCache;
 
-    public ToolExecutor() {
-        this.httpClient = HttpClient.newBuilder()
-                .connectTimeout(Duration.ofSeconds(5))
-                .build();
-    }
+    @Inject
+    ToolExecutionLimits executionLimits;
+
+    @Inject
+    ToolResponseCache responseCache;
+
+    @Inject
+    ToolResponseReader responseReader;
+
+    @Inject
+    ToolHttpClients httpClients;
+
+    @Inject
+    ToolHedging hedging;
 
     /**
      * Execute a tool with given parameters.
-     * Includes timeout, retry, and circuit breaker fault tolerance.
      *
      * @param tool   the tool to execute
      * @param params the execution parameters
      * @return execution result
      */
-    @Timeout(value = 10, unit = ChronoUnit.SECONDS)
-    @Retry(maxRetries = 3, delay = 1000, jitter = 500)
-    @CircuitBreaker(requestVolumeThreshold = 10, failureRatio = 0.5, delay = 30000)
-    @CircuitBreakerName("tool-execution")
     public ToolExecutionResult execute(Tool tool, Map<String, Object> params) {
+        return execute(toolDefinitionCache.compile(tool), params);
+    }
+
+    /**
+     * Execute a compiled tool with given parameters.
+     * Calls rejected by the tool's bulkhead fail immediately. Idempotent
+     * tools with a cache policy are served from the {@link ToolResponseCache};
+     * those with a hedge policy are hedged by {@link ToolHedging}.
+     *
+     * @param tool   the tool to execute
+     * @param params the execution parameters
+     * @return execution result
+     */
+    public ToolExecutionResult execute(CompiledTool tool, Map<String, Object> params) {
         LOG.infof("Executing tool: %s (%s) with params: %s", tool.name, tool.id, params);
 
+        Supplier<ToolExecutionResult> call = tool.isHedged()
+                ? () -> hedging.execute(tool, () -> call(tool, params))
+                : () -> call(tool, params);
+        if (tool.isCacheable()) {
+            return responseCache.execute(tool, params, call);
+        }
+        return call.get();
+    }
+
+    private ToolExecutionResult call(CompiledTool tool, Map<String, Object> params) {
+
         long startTime = System.currentTimeMillis();
 
         try {
@@ -65,27 +93,35 @@ public class ToolExecutor {
             HttpRequest request = buildHttpRequest(tool, params);
 
             // Execute request
-            HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+            ToolResponse response = send(tool, request);
             long executionTime = System.currentTimeMillis() - startTime;
 
             // Process response
-            if (response.statusCode() >= 200 && response.statusCode() < 300) {
-                Object result = parseResponse(response.body());
+            if (response.statusCode >= 200 && response.statusCode < 300) {
+                Object result = response.body;
                 LOG.infof("Tool executed successfully: %s in %dms", tool.name, executionTime);
 
                 ToolExecutionResult executionResult = ToolExecutionResult.success(result, executionTime);
                 executionResult.metadata = Map.of(
-                        "statusCode", response.statusCode(),
+                        "statusCode", response.statusCode,
                         "toolId", tool.id.toString(),
                         "toolName", tool.name);
                 return executionResult;
             } else {
-                LOG.warnf("Tool execution failed with status: %d for tool: %s", response.statusCode(), tool.name);
+                LOG.warnf("Tool execution failed with status: %d for tool: %s", response.statusCode, tool.name);
                 return ToolExecutionResult.failure(
-                        "Tool execution failed with status: " + response.statusCode() + " - " + response.body(),
+                        "Tool execution failed with status: " + response.statusCode + " - " + response.error,
                         executionTime);
             }
 
+        } catch (ToolRejectedException e) {
+            LOG.warnf("Tool call rejected: %s (%s)", tool.name, e.getMessage());
+            return ToolExecutionResult.failure(e.getMessage(), System.currentTimeMillis() - startTime);
+        } catch (InterruptedException e) {
+            // Cancelled, e.g. a losing hedge; nobody waits for this result
+            Thread.currentThread().interrupt();
+            LOG.debugf("Tool call cancelled: %s", tool.name);
+            return ToolExecutionResult.failure("Tool call cancelled", System.currentTimeMillis() - startTime);
         } catch (Exception e) {
             long executionTime = System.currentTimeMillis() - startTime;
             LOG.errorf(e, "Failed to execute tool: %s", tool.name);
@@ -102,10 +138,6 @@ public class ToolExecutor {
      * @param queryParams query parameters
      * @return execution result
      */
-    @Timeout(value = 10, unit = ChronoUnit.SECONDS)
-    @Retry(maxRetries = 3, delay = 1000, jitter = 500)
-    @CircuitBreaker(requestVolumeThreshold = 10, failureRatio = 0.5, delay = 30000)
-    @CircuitBreakerName("tool-execution-get")
     public ToolExecutionResult executeGet(Tool tool, Map<String, String> queryParams) {
         LOG.infof("Executing GET request for tool: %s", tool.name);
 
@@ -119,21 +151,23 @@ public class ToolExecutor {
                     .timeout(Duration.ofSeconds(10))
                     .GET();
 
-            addAuthenticationHeaders(requestBuilder, tool);
+            toolDefinitionCache.compile(tool).headers.forEach(requestBuilder::header);
 
             HttpRequest request = requestBuilder.build();
-            HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+            ToolResponse response = send(toolDefinitionCache.compile(tool), request);
             long executionTime = System.currentTimeMillis() - startTime;
 
-            if (response.statusCode() >= 200 && response.statusCode() < 300) {
-                Object result = parseResponse(response.body());
-                return ToolExecutionResult.success(result, executionTime);
+            if (response.statusCode >= 200 && response.statusCode < 300) {
+                return ToolExecutionResult.success(response.body, executionTime);
             } else {
                 return ToolExecutionResult.failure(
-                        "GET request failed with status: " + response.statusCode(),
+                        "GET request failed with status: " + response.statusCode,
                         executionTime);
             }
 
+        } catch (ToolRejectedException e) {
+            LOG.warnf("Tool call rejected: %s (%s)", tool.name, e.getMessage());
+            return ToolExecutionResult.failure(e.getMessage(), System.currentTimeMillis() - startTime);
         } catch (Exception e) {
             long executionTime = System.currentTimeMillis() - startTime;
             LOG.errorf(e, "Failed to execute GET request for tool: %s", tool.name);
@@ -150,39 +184,38 @@ public class ToolExecutor {
      * @param body request body
      * @return execution result
      */
-    @Timeout(value = 10, unit = ChronoUnit.SECONDS)
-    @Retry(maxRetries = 3, delay = 1000, jitter = 500)
-    @CircuitBreaker(requestVolumeThreshold = 10, failureRatio = 0.5, delay = 30000)
-    @CircuitBreakerName("tool-execution-post")
     public ToolExecutionResult executePost(Tool tool, Map<String, Object> body) {
         LOG.infof("Executing POST request for tool: %s", tool.name);
 
         long startTime = System.currentTimeMillis();
 
         try {
+            CompiledTool compiled = toolDefinitionCache.compile(tool);
             String jsonBody = objectMapper.writeValueAsString(body);
 
             HttpRequest.Builder requestBuilder = HttpRequest.newBuilder()
-                    .uri(URI.create(tool.endpoint))
+                    .uri(compiled.uri)
                     .timeout(Duration.ofSeconds(10))
                     .header("Content-Type", "application/json")
                     .POST(HttpRequest.BodyPublishers.ofString(jsonBody));
 
-            addAuthenticationHeaders(requestBuilder, tool);
+            compiled.headers.forEach(requestBuilder::header);
 
             HttpRequest request = requestBuilder.build();
-            HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+            ToolResponse response = send(compiled, request);
             long executionTime = System.currentTimeMillis() - startTime;
 
-            if (response.statusCode() >= 200 && response.statusCode() < 300) {
-                Object result = parseResponse(response.body());
-                return ToolExecutionResult.success(result, executionTime);
+            if (response.statusCode >= 200 && response.statusCode < 300) {
+                return ToolExecutionResult.success(response.body, executionTime);
             } else {
                 return ToolExecutionResult.failure(
-                        "POST request failed with status: " + response.statusCode(),
+                        "POST request failed with status: " + response.statusCode,
                         executionTime);
             }
 
+        } catch (ToolRejectedException e) {
+            LOG.warnf("Tool call rejected: %s (%s)", tool.name, e.getMessage());
+            return ToolExecutionResult.failure(e.getMessage(), System.currentTimeMillis() - startTime);
         } catch (Exception e) {
             long executionTime = System.currentTimeMillis() - startTime;
             LOG.errorf(e, "Failed to execute POST request for tool: %s", tool.name);
@@ -194,73 +227,64 @@ public class ToolExecutor {
 
     // Private helper methods
 
-    private HttpRequest buildHttpRequest(Tool tool, Map<String, Object> params) throws Exception {
+    /**
+     * Send a request through the tool's bulkhead and read the body, capped
+     * and projected per the tool's response policy, before releasing it.
+     */
+    private ToolResponse send(CompiledTool tool, HttpRequest request)
+            throws ToolRejectedException, IOException, InterruptedException {
+        UUID toolId = tool.id;
+        ToolBulkhead.Permit permit = executionLimits.tryAcquire(toolId);
+        if (permit.rejection() == ToolBulkhead.Rejection.LIMIT) {
+            throw new ToolRejectedException("Tool is at its concurrency limit, try again later");
+        } else if (permit.rejection() == ToolBulkhead.Rejection.CIRCUIT_OPEN) {
+            throw new ToolRejectedException("Tool is temporarily unavailable after repeated failures");
+        }
+
+        long start = System.nanoTime();
+        boolean failed = true;
+        try {
+            ToolResponse response = httpClients.send(request, HttpResponse.BodyHandlers.ofInputStream(), r -> {
+                int statusCode = r.statusCode();
+                if (statusCode >= 200 && statusCode < 300) {
+                    return new ToolResponse(statusCode, responseReader.read(tool, r), null);
+                }
+                return new ToolResponse(statusCode, null, responseReader.readError(r, MAX_ERROR_BODY_BYTES));
+            });
+            // Client errors say nothing about the endpoint's health
+            failed = response.statusCode >= 500 || response.statusCode == 429;
+            return response;
+        } catch (InterruptedException e) {
+            // Cancelled, e.g. a losing hedge: not the endpoint's fault
+            failed = false;
+            throw e;
+        } finally {
+            executionLimits.release(permit, failed, System.nanoTime() - start);
+        }
+    }
+
+    private HttpRequest buildHttpRequest(CompiledTool tool, Map<String, Object> params) throws Exception {
         HttpRequest.Builder requestBuilder = HttpRequest.newBuilder()
+                .uri(tool.uri)
                 .timeout(Duration.ofSeconds(10));
 
         // Add authentication headers
-        addAuthenticationHeaders(requestBuilder, tool);
+        tool.headers.forEach(requestBuilder::header);
 
-        // Determine HTTP method based on tool type and parameters
-        if (params != null && !params.isEmpty()) {
+        if ("POST".equals(tool.methodFor(params))) {
             // POST request with JSON body
             String jsonBody = objectMapper.writeValueAsString(params);
             requestBuilder
-                    .uri(URI.create(tool.endpoint))
                     .header("Content-Type", "application/json")
                     .POST(HttpRequest.BodyPublishers.ofString(jsonBody));
         } else {
             // GET request
-            requestBuilder
-                    .uri(URI.create(tool.endpoint))
-                    .GET();
+            requestBuilder.GET();
         }
 
         return requestBuilder.build();
     }
 
-    private void addAuthenticationHeaders(HttpRequest.Builder requestBuilder, Tool tool) {
-        if (tool.authConfig == null || tool.authConfig.isEmpty()) {
-            return;
-        }
-
-        try {
-            ToolRegistrationRequest.AuthenticationConfig authConfig = objectMapper.readValue(tool.authConfig,
-                    ToolRegistrationRequest.AuthenticationConfig.class);
-
-            switch (authConfig.type) {
-                case API_KEY:
-                    if (authConfig.apiKey != null) {
-                        // Support both Bearer and custom header formats
-                        requestBuilder.header("Authorization", "Bearer " + authConfig.apiKey);
-                        requestBuilder.header("X-API-Key", authConfig.apiKey);
-                    }
-                    break;
-                case BASIC_AUTH:
-                    if (authConfig.username != null && authConfig.password != null) {
-                        String credentials = authConfig.username + ":" + authConfig.password;
-                        String encodedCredentials = Base64.getEncoder().encodeToString(credentials.getBytes());
-                        requestBuilder.header("Authorization", "Basic " + encodedCredentials);
-                    }
-                    break;
-                case OAUTH2:
-                    // For OAuth2, we would need to implement token refresh logic
-                    // For now, assume the token is stored in apiKey field
-                    if (authConfig.apiKey != null) {
-                        requestBuilder.header("Authorization", "Bearer " + authConfig.apiKey);
-                    }
-                    LOG.warn("OAuth2 token refresh not implemented - using stored token");
-                    break;
-                case NONE:
-                default:
-                    // No authentication
-                    break;
-            }
-        } catch (JsonProcessingException e) {
-            LOG.errorf(e, "Failed to parse auth config for tool: %s", tool.id);
-        }
-    }
-
     private String buildUrlWithQueryParams(String baseUrl, Map<String, String> queryParams) {
         if (queryParams == null || queryParams.isEmpty()) {
             return baseUrl;
@@ -282,17 +306,27 @@ public class ToolExecutor {
         return result.endsWith("&") ? result.substring(0, result.length() - 1) : result;
     }
 
-    private Object parseResponse(String responseBody) {
-        if (responseBody == null || responseBody.isEmpty()) {
-            return null;
+    /**
+     * Status and body of a tool response read within the bulkhead.
+     */
+    private static final class ToolResponse {
+        final int statusCode;
+        final Object body;
+        final String error;
+
+        ToolResponse(int statusCode, Object body, String error) {
+            this.statusCode = statusCode;
+            this.body = body;
+            this.error = error;
         }
+    }
 
-        try {
-            // Try to parse as JSON
-            return objectMapper.readValue(responseBody, Object.class);
-        } catch (JsonProcessingException e) {
-            // Return as plain text if not JSON
-            return responseBody;
+    /**
+     * A call refused by the tool's bulkhead before it was sent.
+     */
+    private static class ToolRejectedException extends Exception {
+        ToolRejectedException(String message) {
+            super(message);
         }
     }
 }
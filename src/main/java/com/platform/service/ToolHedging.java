@@ -0,0 +1,247 @@
+package com.platform.service;
+
+import com.platform.service.dto.ToolExecutionResult;
+import com.platform.service.dto.ToolRegistrationRequest;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Hedged requests for idempotent tools that opt in through their execution
+ * policy.
+ *
+ * A call that has not completed by the configured percentile of the tool's
+ * recent latency is duplicated; whichever attempt succeeds first wins and the
+ * other is cancelled. Hedges draw from a global budget that earns a fraction
+ * of a hedge per call, so extra load stays proportional to traffic.
+ */
+@ApplicationScoped
+public class ToolHedging {
+
+    private static final Logger LOG = Logger.getLogger(ToolHedging.class);
+
+    @Inject
+    MeterRegistry meterRegistry;
+
+    @ConfigProperty(name = "tool.hedge.budget-ratio", defaultValue = "0.1")
+    double budgetRatio;
+
+    @ConfigProperty(name = "tool.hedge.budget-burst", defaultValue = "10")
+    int budgetBurst;
+
+    @ConfigProperty(name = "tool.hedge.window", defaultValue = "100")
+    int windowSize;
+
+    @ConfigProperty(name = "tool.hedge.min-samples", defaultValue = "20")
+    int minSamples;
+
+    @ConfigProperty(name = "tool.hedge.min-delay", defaultValue = "PT0.05S")
+    Duration minDelay;
+
+    @ConfigProperty(name = "tool.hedge.max-threads", defaultValue = "64")
+    int maxThreads;
+
+    @ConfigProperty(name = "tool.hedge.queue-capacity", defaultValue = "256")
+    int queueCapacity;
+
+    private final Map<UUID, LatencyWindow> latencies = new ConcurrentHashMap<>();
+    private HedgeBudget budget;
+    private ExecutorService executor;
+    private Counter unhedged;
+    private Counter primaryWins;
+    private Counter hedgeWins;
+    private Counter budgetExhausted;
+
+    @PostConstruct
+    void init() {
+        budget = new HedgeBudget(budgetRatio, budgetBurst);
+        executor = BoundedExecutors.create("tool-hedge", maxThreads, queueCapacity,
+                new ThreadPoolExecutor.AbortPolicy());
+        unhedged = counter("not-needed");
+        primaryWins = counter("primary-won");
+        hedgeWins = counter("hedge-won");
+        budgetExhausted = counter("budget-exhausted");
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Drop a deleted tool's latency history.
+     */
+    public void remove(UUID toolId) {
+        latencies.remove(toolId);
+    }
+
+    /**
+     * Run a call, hedging it once if it is slow.
+     *
+     * @param tool a tool whose policy enables hedging
+     * @param call performs one upstream request
+     * @return the first successful result, or the last failure
+     */
+    public ToolExecutionResult execute(CompiledTool tool, Supplier<ToolExecutionResult> call) {
+        budget.earn();
+        LatencyWindow window = latencies.computeIfAbsent(tool.id, id -> new LatencyWindow(windowSize));
+        ToolRegistrationRequest.HedgePolicy policy = tool.executionPolicy.hedge;
+        long delayNanos = window.percentile(policy.percentile, minSamples);
+        if (delayNanos < 0) {
+            // Not enough history for a meaningful threshold yet
+            return timed(window, call);
+        }
+        delayNanos = Math.max(delayNanos, minDelay.toNanos());
+
+        ExecutorCompletionService<ToolExecutionResult> attempts = new ExecutorCompletionService<>(executor);
+        Future<ToolExecutionResult> primary;
+        try {
+            primary = attempts.submit(() -> timed(window, call));
+        } catch (RejectedExecutionException e) {
+            // Hedging pool saturated: call unhedged on this thread
+            return timed(window, call);
+        }
+        Future<ToolExecutionResult> hedge = null;
+        try {
+            Future<ToolExecutionResult> done = attempts.poll(delayNanos, TimeUnit.NANOSECONDS);
+            if (done != null) {
+                unhedged.increment();
+                return done.get();
+            }
+            if (!budget.trySpend()) {
+                budgetExhausted.increment();
+                return primary.get();
+            }
+
+            LOG.debugf("Hedging call to tool %s after %dms", tool.name, TimeUnit.NANOSECONDS.toMillis(delayNanos));
+            try {
+                hedge = attempts.submit(() -> timed(window, call));
+            } catch (RejectedExecutionException e) {
+                // Hedging pool saturated: wait for the primary alone
+                return primary.get();
+            }
+            Future<ToolExecutionResult> first = attempts.take();
+            ToolExecutionResult result = first.get();
+            if (result.success) {
+                (first == primary ? primaryWins : hedgeWins).increment();
+                return result;
+            }
+
+            // The first attempt failed: the other one may still succeed
+            Future<ToolExecutionResult> second = attempts.take();
+            result = second.get();
+            if (result.success) {
+                (second == primary ? primaryWins : hedgeWins).increment();
+            }
+            return result;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return ToolExecutionResult.failure("Tool execution interrupted", 0);
+        } catch (ExecutionException e) {
+            throw e.getCause() instanceof RuntimeException ? (RuntimeException) e.getCause()
+                    : new IllegalStateException(e.getCause());
+        } finally {
+            primary.cancel(true);
+            if (hedge != null) {
+                hedge.cancel(true);
+            }
+        }
+    }
+
+    private ToolExecutionResult timed(LatencyWindow window, Supplier<ToolExecutionResult> call) {
+        long start = System.nanoTime();
+        ToolExecutionResult result = call.get();
+        if (result.success) {
+            window.record(System.nanoTime() - start);
+        }
+        return result;
+    }
+
+    private Counter counter(String outcome) {
+        return Counter.builder("tool.hedge.calls")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Latencies of a tool's most recent successful calls.
+     */
+    static final class LatencyWindow {
+        private final long[] samples;
+        private int next;
+        private int size;
+
+        LatencyWindow(int capacity) {
+            this.samples = new long[capacity];
+        }
+
+        synchronized void record(long nanos) {
+            samples[next] = nanos;
+            next = (next + 1) % samples.length;
+            size = Math.min(size + 1, samples.length);
+        }
+
+        /**
+         * @return the latency at the given percentile (0-100), or -1 with
+         *         fewer than {@code minSamples} samples
+         */
+        long percentile(double percentile, int minSamples) {
+            long[] sorted;
+            synchronized (this) {
+                if (size < Math.max(1, minSamples)) {
+                    return -1;
+                }
+                sorted = Arrays.copyOf(samples, size);
+            }
+            Arrays.sort(sorted);
+            int index = (int) Math.ceil(percentile / 100.0 * sorted.length) - 1;
+            return sorted[Math.max(0, Math.min(index, sorted.length - 1))];
+        }
+    }
+
+    /**
+     * Global hedge allowance: every call earns {@code ratio} of a hedge, up
+     * to {@code burst} saved hedges.
+     */
+    static final class HedgeBudget {
+        private final double ratio;
+        private final double burst;
+        private double tokens;
+
+        HedgeBudget(double ratio, int burst) {
+            this.ratio = ratio;
+            this.burst = burst;
+        }
+
+        synchronized void earn() {
+            tokens = Math.min(burst, tokens + ratio);
+        }
+
+        synchronized boolean trySpend() {
+            if (tokens < 1) {
+                return false;
+            }
+            tokens -= 1;
+            return true;
+        }
+    }
+}
@@ -0,0 +1,232 @@
+package com.platform.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Outbound HTTP for tool calls and tool connection checks.
+ *
+ * All tool hosts share one {@link HttpClient} on a dedicated executor; the
+ * JDK client already pools connections per host. It prefers HTTP/2,
+ * multiplexing calls over a single connection where the host supports it and
+ * falling back to HTTP/1.1 otherwise. Concurrent requests per host (scheme
+ * and authority) are bounded; callers beyond the bound wait in a queue, and
+ * time spent waiting is recorded per host alongside in-flight requests and
+ * the negotiated protocol.
+ *
+ * Tool endpoints are set by tenants, so per-host state is kept for a bounded
+ * number of hosts and dropped, with its meters, once a host goes idle.
+ * Connection keep-alive and DNS caching are JVM-wide settings read once at
+ * startup; set them at launch ({@code -Djdk.httpclient.keepalive.timeout},
+ * {@code networkaddress.cache.ttl} in {@code java.security}).
+ */
+@ApplicationScoped
+public class ToolHttpClients {
+
+    private static final Logger LOG = Logger.getLogger(ToolHttpClients.class);
+
+    @Inject
+    MeterRegistry meterRegistry;
+
+    @ConfigProperty(name = "tool.http.version", defaultValue = "HTTP_2")
+    HttpClient.Version version;
+
+    @ConfigProperty(name = "tool.http.http1-hosts")
+    Optional<List<String>> http1Hosts;
+
+    @ConfigProperty(name = "tool.http.connect-timeout", defaultValue = "PT5S")
+    Duration connectTimeout;
+
+    @ConfigProperty(name = "tool.http.max-requests-per-host", defaultValue = "32")
+    int maxRequestsPerHost;
+
+    @ConfigProperty(name = "tool.http.queue-timeout", defaultValue = "PT5S")
+    Duration queueTimeout;
+
+    @ConfigProperty(name = "tool.http.max-threads", defaultValue = "32")
+    int maxThreads;
+
+    @ConfigProperty(name = "tool.http.queue-capacity", defaultValue = "1024")
+    int queueCapacity;
+
+    /** Hosts whose request limit and meters are kept at once */
+    @ConfigProperty(name = "tool.http.max-hosts", defaultValue = "1000")
+    long maxHosts;
+
+    @ConfigProperty(name = "tool.http.host-idle-timeout", defaultValue = "PT10M")
+    Duration hostIdleTimeout;
+
+    // Package-private for testing
+    Cache<String, Host> hosts;
+    private ExecutorService executor;
+    private HttpClient client;
+
+    @PostConstruct
+    void init() {
+        hosts = Caffeine.newBuilder()
+                .maximumSize(maxHosts)
+                .expireAfterAccess(hostIdleTimeout)
+                .evictionListener((String name, Host host, RemovalCause cause) -> {
+                    if (host != null) {
+                        host.removeMeters();
+                    }
+                })
+                .build();
+        // The client runs tasks its executor rejects on its own fallback pool
+        executor = BoundedExecutors.create("tool-http", maxThreads, queueCapacity,
+                new ThreadPoolExecutor.AbortPolicy());
+        client = HttpClient.newBuilder()
+                .version(version)
+                .connectTimeout(connectTimeout)
+                .executor(executor)
+                .build();
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdown();
+    }
+
+    /**
+     * Send a request and return the response.
+     *
+     * The host's request slot is held until the response headers arrive, so
+     * use {@link #send(HttpRequest, HttpResponse.BodyHandler, ResponseHandler)}
+     * for streamed bodies.
+     */
+    public <B> HttpResponse<B> send(HttpRequest request, HttpResponse.BodyHandler<B> bodyHandler)
+            throws IOException, InterruptedException {
+        return send(request, bodyHandler, response -> response);
+    }
+
+    /**
+     * Send a request and handle the response while holding one of the host's
+     * request slots.
+     *
+     * @throws IOException if no slot frees up within the queue timeout, or
+     *                     the exchange fails
+     */
+    public <B, T> T send(HttpRequest request, HttpResponse.BodyHandler<B> bodyHandler,
+            ResponseHandler<B, T> responseHandler) throws IOException, InterruptedException {
+        Host host = host(request.uri());
+
+        long queued = System.nanoTime();
+        if (!host.slots.tryAcquire(queueTimeout.toNanos(), TimeUnit.NANOSECONDS)) {
+            host.queueWait.record(System.nanoTime() - queued, TimeUnit.NANOSECONDS);
+            throw new IOException("Timed out waiting for a connection to " + host.name);
+        }
+        host.queueWait.record(System.nanoTime() - queued, TimeUnit.NANOSECONDS);
+
+        host.inFlight.incrementAndGet();
+        try {
+            HttpResponse<B> response = client.send(host.http1 ? http1(request) : request, bodyHandler);
+            host.requests(response.version()).increment();
+            return responseHandler.handle(response);
+        } finally {
+            host.inFlight.decrementAndGet();
+            host.slots.release();
+        }
+    }
+
+    private Host host(URI uri) {
+        String name = uri.getScheme() + "://" + uri.getAuthority();
+        return hosts.get(name, this::createHost);
+    }
+
+    private Host createHost(String name) {
+        boolean http1 = version != HttpClient.Version.HTTP_1_1 && http1Hosts.map(list -> list.stream()
+                .anyMatch(host -> name.endsWith("://" + host) || name.equals(host)))
+                .orElse(false);
+        LOG.debugf("Tracking tool host %s%s", name, http1 ? " (HTTP/1.1 only)" : "");
+        return new Host(name, http1, maxRequestsPerHost, meterRegistry);
+    }
+
+    /**
+     * The same request, pinned to HTTP/1.1.
+     */
+    private static HttpRequest http1(HttpRequest request) {
+        return HttpRequest.newBuilder(request, (header, value) -> true)
+                .version(HttpClient.Version.HTTP_1_1)
+                .build();
+    }
+
+    /**
+     * Handles a response while the host's request slot is held.
+     */
+    @FunctionalInterface
+    public interface ResponseHandler<B, T> {
+        T handle(HttpResponse<B> response) throws IOException;
+    }
+
+    /**
+     * Request limit and meters of one host.
+     */
+    static final class Host {
+        final String name;
+        final boolean http1;
+        final Semaphore slots;
+        final AtomicInteger inFlight = new AtomicInteger();
+        final Timer queueWait;
+        final MeterRegistry meterRegistry;
+        final List<Meter> meters = new ArrayList<>();
+        final Map<HttpClient.Version, Counter> requests = new ConcurrentHashMap<>();
+
+        Host(String name, boolean http1, int maxRequests, MeterRegistry meterRegistry) {
+            this.name = name;
+            this.http1 = http1;
+            this.slots = new Semaphore(maxRequests, true);
+            this.meterRegistry = meterRegistry;
+            meters.add(Gauge.builder("tool.http.in-flight", inFlight, AtomicInteger::get)
+                    .tag("host", name)
+                    .register(meterRegistry));
+            meters.add(Gauge.builder("tool.http.queued", slots, Semaphore::getQueueLength)
+                    .tag("host", name)
+                    .register(meterRegistry));
+            queueWait = Timer.builder("tool.http.queue.wait")
+                    .tag("host", name)
+                    .register(meterRegistry);
+            meters.add(queueWait);
+        }
+
+        Counter requests(HttpClient.Version version) {
+            return requests.computeIfAbsent(version, v -> Counter.builder("tool.http.requests")
+                    .tag("host", name)
+                    .tag("version", v.name())
+                    .register(meterRegistry));
+        }
+
+        void removeMeters() {
+            meters.forEach(meterRegistry::remove);
+            requests.values().forEach(meterRegistry::remove);
+        }
+    }
+}
@@ -0,0 +1,233 @@
+package com.platform.service;
+
+import com.platform.exception.ValidationException;
+import com.platform.service.dto.ToolExecutionResult;
+import com.platform.service.dto.ToolPlan;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.function.Consumer;
+
+/**
+ * A single execution of a {@link ToolPlan}.
+ *
+ * Steps start as soon as their dependencies have succeeded, up to
+ * {@code maxParallelism} at a time. When more steps are ready than slots are
+ * free, the one with the longest remaining path to the end of the plan goes
+ * first, so the critical path is never queued behind short branches.
+ * Dependents of a failed step are skipped. Every step's result is reported
+ * as it completes.
+ */
+final class ToolPlanRun {
+
+    /**
+     * Executes one step with its resolved parameters.
+     */
+    interface StepInvoker {
+        CompletionStage<ToolExecutionResult> invoke(ToolPlan.ToolStep step, Map<String, Object> params);
+    }
+
+    private final Map<String, ToolPlan.ToolStep> steps = new LinkedHashMap<>();
+    private final Map<String, Set<String>> dependencies = new HashMap<>();
+    private final Map<String, List<String>> dependents = new HashMap<>();
+    private final Map<String, Long> ranks = new HashMap<>();
+    private final Map<String, Integer> pending = new HashMap<>();
+    private final Map<String, Object> outputs = new HashMap<>();
+    private final Set<String> failed = new HashSet<>();
+    private final PriorityQueue<ToolPlan.ToolStep> ready;
+    private final Map<String, Object> context;
+    private final int maxParallelism;
+    private final StepInvoker invoker;
+
+    private Consumer<ToolExecutionOrchestrator.ToolStepResult> onResult;
+    private Runnable onComplete;
+    private int running;
+    private int finished;
+
+    ToolPlanRun(ToolPlan plan, Map<String, Object> context, int maxParallelism, StepInvoker invoker) {
+        this.context = context != null ? context : Map.of();
+        this.maxParallelism = Math.max(1, maxParallelism);
+        this.invoker = invoker;
+
+        for (ToolPlan.ToolStep step : plan.steps) {
+            if (step.id == null || step.id.isBlank()) {
+                throw new ValidationException("Every plan step needs an id");
+            }
+            if (steps.put(step.id, step) != null) {
+                throw new ValidationException("Duplicate plan step id: " + step.id);
+            }
+        }
+        for (ToolPlan.ToolStep step : plan.steps) {
+            Set<String> upstream = new LinkedHashSet<>(step.dependsOn);
+            step.inputs.values().forEach(reference -> upstream.add(referencedStep(reference)));
+            for (String id : upstream) {
+                if (!steps.containsKey(id)) {
+                    throw new ValidationException("Step " + step.id + " depends on unknown step: " + id);
+                }
+                dependents.computeIfAbsent(id, k -> new ArrayList<>()).add(step.id);
+            }
+            dependencies.put(step.id, upstream);
+            pending.put(step.id, upstream.size());
+        }
+        computeRanks();
+
+        this.ready = new PriorityQueue<>(Comparator.comparingLong((ToolPlan.ToolStep step) -> ranks.get(step.id))
+                .reversed());
+    }
+
+    /**
+     * Start the run.
+     *
+     * @param onResult   called with each step's result as it completes
+     * @param onComplete called once every step has completed or been skipped
+     */
+    synchronized void start(Consumer<ToolExecutionOrchestrator.ToolStepResult> onResult, Runnable onComplete) {
+        this.onResult = onResult;
+        this.onComplete = onComplete;
+        if (steps.isEmpty()) {
+            onComplete.run();
+            return;
+        }
+        for (ToolPlan.ToolStep step : steps.values()) {
+            if (pending.get(step.id) == 0) {
+                ready.add(step);
+            }
+        }
+        dispatch();
+    }
+
+    /**
+     * Length of the longest path from a step to the end of the plan.
+     */
+    long rank(String stepId) {
+        return ranks.get(stepId);
+    }
+
+    private void dispatch() {
+        while (running < maxParallelism && !ready.isEmpty()) {
+            ToolPlan.ToolStep step = ready.poll();
+            running++;
+            CompletionStage<ToolExecutionResult> stage;
+            try {
+                stage = invoker.invoke(step, resolveParameters(step));
+            } catch (RuntimeException e) {
+                stage = CompletableFuture.failedFuture(e);
+            }
+            stage.whenComplete((result, error) -> complete(step, result, error));
+        }
+    }
+
+    private synchronized void complete(ToolPlan.ToolStep step, ToolExecutionResult result, Throwable error) {
+        running--;
+        if (error != null) {
+            result = ToolExecutionResult.failure("Tool execution error: " + error.getMessage(), 0);
+        }
+        boolean succeeded = result != null && result.success;
+        if (succeeded) {
+            outputs.put(step.id, result.result);
+        } else {
+            failed.add(step.id);
+        }
+        finish(new ToolExecutionOrchestrator.ToolStepResult(step.id, step.toolId,
+                succeeded ? ToolExecutionOrchestrator.StepStatus.SUCCEEDED : ToolExecutionOrchestrator.StepStatus.FAILED,
+                result));
+
+        if (finished == steps.size()) {
+            onComplete.run();
+        } else {
+            dispatch();
+        }
+    }
+
+    private void finish(ToolExecutionOrchestrator.ToolStepResult stepResult) {
+        finished++;
+        onResult.accept(stepResult);
+
+        for (String dependentId : dependents.getOrDefault(stepResult.stepId, List.of())) {
+            int remaining = pending.merge(dependentId, -1, Integer::sum);
+            if (remaining > 0) {
+                continue;
+            }
+            ToolPlan.ToolStep dependent = steps.get(dependentId);
+            Set<String> upstream = dependencies.get(dependentId);
+            if (upstream.stream().anyMatch(failed::contains)) {
+                failed.add(dependentId);
+                finish(new ToolExecutionOrchestrator.ToolStepResult(dependentId, dependent.toolId,
+                        ToolExecutionOrchestrator.StepStatus.SKIPPED,
+                        ToolExecutionResult.failure("Skipped because an upstream step failed", 0)));
+            } else {
+                ready.add(dependent);
+            }
+        }
+    }
+
+    private Map<String, Object> resolveParameters(ToolPlan.ToolStep step) {
+        Map<String, Object> params = new HashMap<>(context);
+        params.putAll(step.params);
+        step.inputs.forEach((name, reference) -> params.put(name, resolve(reference)));
+        return params;
+    }
+
+    private Object resolve(String reference) {
+        String[] path = reference.split("\\.");
+        Object value = outputs.get(path[0]);
+        for (int i = 1; i < path.length && value != null; i++) {
+            value = value instanceof Map ? ((Map<?, ?>) value).get(path[i]) : null;
+        }
+        return value;
+    }
+
+    private static String referencedStep(String reference) {
+        int dot = reference.indexOf('.');
+        return dot < 0 ? reference : reference.substring(0, dot);
+    }
+
+    /**
+     * Compute ranks in reverse topological order (Kahn's algorithm), rejecting cycles.
+     */
+    private void computeRanks() {
+        Map<String, Integer> inDegree = new HashMap<>(pending);
+        Deque<String> queue = new ArrayDeque<>();
+        inDegree.forEach((id, degree) -> {
+            if (degree == 0) {
+                queue.add(id);
+            }
+        });
+        List<String> order = new ArrayList<>();
+        while (!queue.isEmpty()) {
+            String id = queue.poll();
+            order.add(id);
+            for (String dependentId : dependents.getOrDefault(id, List.of())) {
+                if (inDegree.merge(dependentId, -1, Integer::sum) == 0) {
+                    queue.add(dependentId);
+                }
+            }
+        }
+        if (order.size() != steps.size()) {
+            throw new ValidationException("Tool plan contains a dependency cycle");
+        }
+
+        for (int i = order.size() - 1; i >= 0; i--) {
+            String id = order.get(i);
+            ToolPlan.ToolStep step = steps.get(id);
+            long weight = step.expectedLatencyMs != null ? Math.max(1, step.expectedLatencyMs) : 1;
+            long downstream = 0;
+            for (String dependentId : dependents.getOrDefault(id, List.of())) {
+                downstream = Math.max(downstream, ranks.get(dependentId));
+            }
+            ranks.put(id, weight + downstream);
+        }
+    }
+}
@@ -18,7 +18,6 @@ import org.eclipse.microprofile.faulttolerance.Timeout;
 import org.jboss.logging.Logger;
 
 import java.net.URI;
-import java.net.http.HttpClient;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
 import java.time.Duration;
@@ -43,13 +42,11 @@ public class ToolRegistryService {
     @Inject
     ToolExecutor toolExecutor;
 
-    private final HttpClient httpClient;
+    @Inject
+    ToolDefinitionCache toolDefinitionCache;
 
-    public ToolRegistryService() {
-        this.httpClient = HttpClient.newBuilder()
-                .connectTimeout(Duration.ofSeconds(5))
-                .build();
-    }
+    @Inject
+    ToolHttpClients httpClients;
 
     /**
      * Register a new tool.
@@ -88,6 +85,9 @@ public class ToolRegistryService {
             if (request.parameters != null) {
                 tool.parameters = objectMapper.writeValueAsString(request.parameters);
             }
+            if (request.executionPolicy != null) {
+                tool.executionPolicy = objectMapper.writeValueAsString(request.executionPolicy);
+            }
         } catch (JsonProcessingException e) {
             throw new ValidationException("Failed to serialize tool configuration: " + e.getMessage());
         }
@@ -129,7 +129,7 @@ public class ToolRegistryService {
             HttpRequest request = requestBuilder.GET().build();
 
             // Execute request
-            HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+            HttpResponse<Void> response = httpClients.send(request, HttpResponse.BodyHandlers.discarding());
             long responseTime = System.currentTimeMillis() - startTime;
 
             // Check response status
@@ -239,11 +239,15 @@ public class ToolRegistryService {
             if (request.parameters != null) {
                 tool.parameters = objectMapper.writeValueAsString(request.parameters);
             }
+            if (request.executionPolicy != null) {
+                tool.executionPolicy = objectMapper.writeValueAsString(request.executionPolicy);
+            }
         } catch (JsonProcessingException e) {
             throw new ValidationException("Failed to serialize tool configuration: " + e.getMessage());
         }
 
         toolRepository.persist(tool);
+        toolDefinitionCache.invalidate(toolId);
         LOG.infof("Tool updated successfully: %s", toolId);
 
         return tool;
@@ -274,6 +278,7 @@ public class ToolRegistryService {
         }
 
         toolRepository.delete(tool);
+        toolDefinitionCache.remove(toolId);
         LOG.infof("Tool deleted successfully: %s", toolId);
     }
 
@@ -287,13 +292,12 @@ public class ToolRegistryService {
     public ToolExecutionResult executeTool(UUID toolId, Map<String, Object> params) {
         LOG.infof("Executing tool: %s with params: %s", toolId, params);
 
-        Optional<Tool> toolOpt = toolRepository.findByIdOptional(toolId);
-        if (toolOpt.isEmpty()) {
+        Optional<CompiledTool> tool = toolDefinitionCache.get(toolId);
+        if (tool.isEmpty()) {
             return ToolExecutionResult.failure("Tool not found", 0);
         }
 
-        Tool tool = toolOpt.get();
-        return toolExecutor.execute(tool, params);
+        return toolExecutor.execute(tool.get(), params);
     }
 
     // Private helper methods
@@ -315,6 +319,36 @@ public class ToolRegistryService {
         } catch (IllegalArgumentException e) {
             throw new ValidationException("Invalid endpoint URL format");
         }
+
+        ToolRegistrationRequest.ExecutionPolicy policy = request.executionPolicy;
+        if (policy != null && policy.cache != null && policy.cache.enabled) {
+            if (!policy.idempotent) {
+                throw new ValidationException("Response caching requires an idempotent tool");
+            }
+            if (policy.cache.ttlSeconds <= 0 || policy.cache.maxEntryBytes <= 0) {
+                throw new ValidationException("Cache TTL and max entry size must be positive");
+            }
+        }
+        if (policy != null && policy.hedge != null && policy.hedge.enabled) {
+            if (!policy.idempotent) {
+                throw new ValidationException("Hedged requests require an idempotent tool");
+            }
+            if (policy.hedge.percentile <= 0 || policy.hedge.percentile >= 100) {
+                throw new ValidationException("Hedge percentile must be between 0 and 100");
+            }
+        }
+        if (policy != null && policy.response != null) {
+            if (policy.response.maxBytes != null && policy.response.maxBytes <= 0) {
+                throw new ValidationException("Response max bytes must be positive");
+            }
+            if (policy.response.fields != null && !policy.response.fields.isEmpty()) {
+                try {
+                    JsonProjection.compile(policy.response.fields);
+                } catch (IllegalArgumentException e) {
+                    throw new ValidationException("Invalid response field selector: " + e.getMessage());
+                }
+            }
+        }
     }
 
     private void addAuthenticationHeaders(HttpRequest.Builder requestBuilder, Tool tool) {
@@ -0,0 +1,251 @@
+package com.platform.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.MapperFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.platform.service.dto.ToolExecutionResult;
+import com.platform.service.dto.ToolRegistrationRequest;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import io.quarkus.redis.datasource.RedisDataSource;
+import io.quarkus.redis.datasource.value.ValueCommands;
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Response cache for idempotent tools that opt in through their execution
+ * policy.
+ *
+ * Keys are derived from the tool id, its definition version and a SHA-256 of
+ * the parameters serialized as canonical JSON (keys sorted at every level).
+ * Successful results are stored as JSON, up to the tool's max entry size, in
+ * a byte-bounded Caffeine cache with per-tool TTL and, optionally, in Redis.
+ * Concurrent identical calls are coalesced into one upstream request.
+ */
+@ApplicationScoped
+public class ToolResponseCache {
+
+    private static final Logger LOG = Logger.getLogger(ToolResponseCache.class);
+    private static final String KEY_PREFIX = "tool-response:";
+    private static final ObjectMapper CANONICAL_MAPPER = JsonMapper.builder()
+            .enable(MapperFeature.SORT_PROPERTIES_ALPHABETICALLY)
+            .enable(SerializationFeature.ORDER_MAP_ENTRIES_BY_KEYS)
+            .build();
+
+    @Inject
+    ObjectMapper objectMapper;
+
+    @Inject
+    RedisDataSource redisDataSource;
+
+    @Inject
+    MeterRegistry meterRegistry;
+
+    @ConfigProperty(name = "tool.response-cache.max-bytes", defaultValue = "67108864")
+    long maxBytes;
+
+    @ConfigProperty(name = "tool.response-cache.redis.enabled", defaultValue = "false")
+    boolean redisEnabled;
+
+    private final Map<String, CompletableFuture<ToolExecutionResult>> inFlight = new ConcurrentHashMap<>();
+    private Cache<String, CachedResponse> localCache;
+    private ValueCommands<String, String> valueCommands;
+    private Counter hits;
+    private Counter redisHits;
+    private Counter misses;
+    private Counter coalesced;
+
+    @PostConstruct
+    void init() {
+        localCache = Caffeine.newBuilder()
+                .maximumWeight(maxBytes)
+                .weigher((String key, CachedResponse response) -> response.json.length())
+                .expireAfter(new Expiry<String, CachedResponse>() {
+                    @Override
+                    public long expireAfterCreate(String key, CachedResponse response, long currentTime) {
+                        return response.ttlNanos;
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String key, CachedResponse response, long currentTime,
+                            long currentDuration) {
+                        return response.ttlNanos;
+                    }
+
+                    @Override
+                    public long expireAfterRead(String key, CachedResponse response, long currentTime,
+                            long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, localCache, "tool-responses");
+
+        if (redisEnabled) {
+            valueCommands = redisDataSource.value(String.class);
+        }
+        hits = counter("hit");
+        redisHits = counter("redis-hit");
+        misses = counter("miss");
+        coalesced = counter("coalesced");
+    }
+
+    /**
+     * Serve a call from the cache, or make it (at most once across concurrent
+     * identical calls) and cache a successful result.
+     *
+     * @param tool   a cacheable tool
+     * @param params the call parameters
+     * @param call   performs the upstream request
+     * @return the cached or fresh result
+     */
+    public ToolExecutionResult execute(CompiledTool tool, Map<String, Object> params,
+            Supplier<ToolExecutionResult> call) {
+        String key = key(tool, params);
+
+        CachedResponse cached = localCache.getIfPresent(key);
+        if (cached != null) {
+            hits.increment();
+            return fromCache(tool, cached);
+        }
+        cached = readRedis(key, tool);
+        if (cached != null) {
+            redisHits.increment();
+            localCache.put(key, cached);
+            return fromCache(tool, cached);
+        }
+
+        CompletableFuture<ToolExecutionResult> pending = new CompletableFuture<>();
+        CompletableFuture<ToolExecutionResult> leader = inFlight.putIfAbsent(key, pending);
+        if (leader != null) {
+            coalesced.increment();
+            try {
+                return leader.join();
+            } catch (CompletionException e) {
+                throw e.getCause() instanceof RuntimeException ? (RuntimeException) e.getCause() : e;
+            }
+        }
+
+        misses.increment();
+        try {
+            ToolExecutionResult result = call.get();
+            if (result.success) {
+                store(key, tool, result);
+            }
+            pending.complete(result);
+            return result;
+        } catch (RuntimeException e) {
+            pending.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, pending);
+        }
+    }
+
+    private void store(String key, CompiledTool tool, ToolExecutionResult result) {
+        ToolRegistrationRequest.CachePolicy policy = tool.executionPolicy.cache;
+        String json;
+        try {
+            json = objectMapper.writeValueAsString(result.result);
+        } catch (JsonProcessingException e) {
+            LOG.debugf("Not caching unserializable response of tool %s", tool.id);
+            return;
+        }
+        if (json.getBytes(StandardCharsets.UTF_8).length > policy.maxEntryBytes) {
+            LOG.debugf("Not caching response of tool %s: larger than %d bytes", tool.id, policy.maxEntryBytes);
+            return;
+        }
+
+        localCache.put(key, new CachedResponse(json, TimeUnit.SECONDS.toNanos(policy.ttlSeconds)));
+        if (valueCommands != null) {
+            try {
+                valueCommands.setex(key, policy.ttlSeconds, json);
+            } catch (Exception e) {
+                LOG.warnf(e, "Failed to write tool response to Redis");
+            }
+        }
+    }
+
+    private CachedResponse readRedis(String key, CompiledTool tool) {
+        if (valueCommands == null) {
+            return null;
+        }
+        try {
+            String json = valueCommands.get(key);
+            // The remaining Redis TTL is not fetched; the local copy lives for the full TTL at most
+            return json != null
+                    ? new CachedResponse(json, TimeUnit.SECONDS.toNanos(tool.executionPolicy.cache.ttlSeconds))
+                    : null;
+        } catch (Exception e) {
+            LOG.warnf(e, "Failed to read tool response from Redis; continuing without second-tier cache");
+            return null;
+        }
+    }
+
+    private ToolExecutionResult fromCache(CompiledTool tool, CachedResponse cached) {
+        Object value;
+        try {
+            value = objectMapper.readValue(cached.json, Object.class);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cached tool response is not valid JSON", e);
+        }
+        ToolExecutionResult result = ToolExecutionResult.success(value, 0);
+        result.metadata = Map.of(
+                "cached", true,
+                "toolId", tool.id.toString(),
+                "toolName", tool.name);
+        return result;
+    }
+
+    private Counter counter(String result) {
+        return Counter.builder("tool.response-cache.requests")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    // Package-private for testing
+
+    static String key(CompiledTool tool, Map<String, Object> params) {
+        try {
+            String canonical = CANONICAL_MAPPER.writeValueAsString(params != null ? params : Map.of());
+            byte[] digest = MessageDigest.getInstance("SHA-256")
+                    .digest(canonical.getBytes(StandardCharsets.UTF_8));
+            return KEY_PREFIX + tool.id + ":" + tool.version + ":" + HexFormat.of().formatHex(digest);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Tool parameters are not serializable", e);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private static final class CachedResponse {
+        final String json;
+        final long ttlNanos;
+
+        CachedResponse(String json, long ttlNanos) {
+            this.json = json;
+            this.ttlNanos = ttlNanos;
+        }
+    }
+}
@@ -0,0 +1,138 @@
+package com.platform.service;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.platform.service.dto.ToolRegistrationRequest;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Reads tool response bodies from a stream with a byte cap.
+ *
+ * Reading stops with a {@link ResponseTooLargeException} as soon as the cap
+ * is passed, before the rest of the body is downloaded. JSON responses of
+ * tools that declare field selectors are projected while streaming (see
+ * {@link JsonProjection}); other JSON is parsed into a generic tree and
+ * non-JSON bodies are returned as text.
+ */
+@ApplicationScoped
+public class ToolResponseReader {
+
+    @Inject
+    ObjectMapper objectMapper;
+
+    @ConfigProperty(name = "tool.response.max-bytes", defaultValue = "10485760")
+    long defaultMaxBytes;
+
+    /**
+     * Read a successful response body. Responses whose Content-Length is
+     * already over the tool's cap are rejected without reading the body.
+     *
+     * @param tool     the tool that produced the response
+     * @param response the response, whose body is closed by this method
+     * @return the (projected) JSON value, text, or null for an empty body
+     * @throws ResponseTooLargeException if the body is larger than the cap
+     */
+    public Object read(CompiledTool tool, HttpResponse<InputStream> response) throws IOException {
+        return read(tool, response.body(),
+                response.headers().firstValue("Content-Type").orElse(null),
+                response.headers().firstValueAsLong("Content-Length").orElse(-1));
+    }
+
+    /**
+     * Read at most {@code maxChars} bytes of an error response body as text.
+     */
+    public String readError(HttpResponse<InputStream> response, int maxChars) throws IOException {
+        try (InputStream in = response.body()) {
+            return new String(in.readNBytes(maxChars), StandardCharsets.UTF_8);
+        }
+    }
+
+    // Package-private for testing
+
+    Object read(CompiledTool tool, InputStream body, String contentType, long contentLength) throws IOException {
+        ToolRegistrationRequest.ResponsePolicy policy = tool.executionPolicy.response;
+        long maxBytes = policy != null && policy.maxBytes != null ? policy.maxBytes : defaultMaxBytes;
+        if (contentLength > maxBytes) {
+            body.close();
+            throw new ResponseTooLargeException(maxBytes);
+        }
+
+        try (InputStream in = new LimitedInputStream(body, maxBytes)) {
+            boolean json = contentType != null && contentType.toLowerCase().contains("json");
+            if (tool.projection != null && json) {
+                try (JsonParser parser = objectMapper.getFactory().createParser(in)) {
+                    return tool.projection.project(parser, objectMapper);
+                }
+            }
+            if (json) {
+                try (JsonParser parser = objectMapper.getFactory().createParser(in)) {
+                    return parser.nextToken() == null ? null : objectMapper.readValue(parser, Object.class);
+                }
+            }
+
+            // Unknown content type: keep the old behaviour of trying JSON, then text
+            String text = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+            if (text.isEmpty()) {
+                return null;
+            }
+            try {
+                return objectMapper.readValue(text, Object.class);
+            } catch (JsonProcessingException e) {
+                return text;
+            }
+        }
+    }
+
+    /**
+     * Thrown when a response body is larger than its tool's byte cap.
+     */
+    public static class ResponseTooLargeException extends IOException {
+        public ResponseTooLargeException(long maxBytes) {
+            super("Tool response exceeded " + maxBytes + " bytes");
+        }
+    }
+
+    static final class LimitedInputStream extends FilterInputStream {
+        private final long maxBytes;
+        private long count;
+
+        LimitedInputStream(InputStream in, long maxBytes) {
+            super(in);
+            this.maxBytes = maxBytes;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b >= 0) {
+                count(1);
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            int read = super.read(buffer, offset, length);
+            if (read > 0) {
+                count(read);
+            }
+            return read;
+        }
+
+        private void count(int read) throws ResponseTooLargeException {
+            count += read;
+            if (count > maxBytes) {
+                throw new ResponseTooLargeException(maxBytes);
+            }
+        }
+    }
+}
@@ -0,0 +1,334 @@
+package com.platform.service;
+
+import com.platform.repository.DocumentEmbeddingRepository;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.redis.datasource.RedisDataSource;
+import io.quarkus.redis.datasource.pubsub.PubSubCommands;
+import io.quarkus.runtime.StartupEvent;
+import jakarta.annotation.PreDestroy;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+import jakarta.transaction.Status;
+import jakarta.transaction.Synchronization;
+import jakarta.transaction.TransactionSynchronizationRegistry;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Per-organization in-memory HNSW indexes over document embeddings.
+ *
+ * The indexes are built from {@code document_embeddings} at startup and kept
+ * current by {@link VectorStoreService} on indexing and deletion. Indexed and
+ * removed documents are announced over a Redis pub/sub channel so every node
+ * applies them: other nodes load an indexed document's vectors from the
+ * database and drop a removed one. Removals inside a transaction only apply
+ * once it commits. Until the initial build completes, {@link #search} reports
+ * no result so callers fall back to pgvector; documents removed while it runs
+ * are removed again once it has loaded their vectors.
+ */
+@ApplicationScoped
+public class VectorIndexService {
+
+    private static final Logger LOG = Logger.getLogger(VectorIndexService.class);
+    private static final int LOAD_BATCH_SIZE = 500;
+    private static final String CHANGES_CHANNEL = "vector-index:changes";
+    private static final String NODE_ID = UUID.randomUUID().toString();
+
+    @Inject
+    DocumentEmbeddingRepository embeddingRepository;
+
+    @Inject
+    RedisDataSource redisDataSource;
+
+    @Inject
+    TransactionSynchronizationRegistry transactionRegistry;
+
+    @ConfigProperty(name = "vector.index.hnsw.enabled", defaultValue = "false")
+    boolean enabled;
+
+    @ConfigProperty(name = "vector.index.hnsw.m", defaultValue = "16")
+    int m;
+
+    @ConfigProperty(name = "vector.index.hnsw.ef-construction", defaultValue = "100")
+    int efConstruction;
+
+    @ConfigProperty(name = "vector.index.hnsw.ef-search", defaultValue = "64")
+    int efSearch;
+
+    private final Map<UUID, OrganizationIndex> indexes = new ConcurrentHashMap<>();
+    private volatile boolean ready = false;
+    private volatile boolean loading = false;
+    /** Documents removed during {@link #loadAll}, by ID, with their organization */
+    private final Map<UUID, UUID> removedDuringLoad = new ConcurrentHashMap<>();
+    private PubSubCommands<String> pubSub;
+    private PubSubCommands.RedisSubscriber subscriber;
+    /** Applies changes from other nodes off the subscriber thread, in order */
+    private ExecutorService changeExecutor;
+
+    void onStart(@Observes StartupEvent event) {
+        if (!enabled) {
+            return;
+        }
+        changeExecutor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "vector-index-changes");
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            pubSub = redisDataSource.pubsub(String.class);
+            subscriber = pubSub.subscribe(CHANGES_CHANNEL, this::onChange);
+        } catch (Exception e) {
+            LOG.warnf(e, "Failed to subscribe to %s, index changes of other nodes are not applied",
+                    CHANGES_CHANNEL);
+        }
+        CompletableFuture.runAsync(() -> {
+            try {
+                loadAll();
+            } catch (Exception e) {
+                LOG.errorf(e, "Failed to build HNSW indexes; semantic search stays on pgvector");
+            }
+        });
+    }
+
+    @PreDestroy
+    void shutdown() {
+        if (subscriber != null) {
+            subscriber.unsubscribe();
+        }
+        if (changeExecutor != null) {
+            changeExecutor.shutdownNow();
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public boolean isReady() {
+        return enabled && ready;
+    }
+
+    /**
+     * Search the organization's index.
+     *
+     * @return nearest neighbours, or empty if the index cannot serve the query
+     *         and the caller should fall back to pgvector
+     */
+    public Optional<List<HnswIndex.Neighbor>> search(UUID organizationId, float[] queryEmbedding, int limit) {
+        if (!isReady()) {
+            return Optional.empty();
+        }
+        OrganizationIndex index = indexes.get(organizationId);
+        if (index == null) {
+            return Optional.of(List.of());
+        }
+        return Optional.of(index.graph.search(queryEmbedding, limit, efSearch));
+    }
+
+    public void add(UUID organizationId, UUID documentId, UUID embeddingId, float[] embedding) {
+        if (!enabled || organizationId == null || embedding == null) {
+            return;
+        }
+        if (loading) {
+            // Indexed again after its removal: the new vectors stay
+            removedDuringLoad.remove(documentId);
+        }
+        addLocally(organizationId, documentId, embeddingId, embedding);
+    }
+
+    private void addLocally(UUID organizationId, UUID documentId, UUID embeddingId, float[] embedding) {
+        indexes.computeIfAbsent(organizationId, id -> new OrganizationIndex(newGraph()))
+                .add(documentId, embeddingId, embedding);
+    }
+
+    /**
+     * Announce a document whose vectors were all added, so other nodes index
+     * it too.
+     */
+    public void documentIndexed(UUID organizationId, UUID documentId) {
+        if (enabled && organizationId != null) {
+            publish(Change.INDEXED, organizationId, documentId);
+        }
+    }
+
+    /**
+     * Remove a document from this and every other node's index once the
+     * current transaction commits (immediately if there is none).
+     */
+    public void removeDocument(UUID organizationId, UUID documentId) {
+        if (!enabled || organizationId == null) {
+            return;
+        }
+        Runnable removal = () -> {
+            removeLocally(organizationId, documentId);
+            publish(Change.REMOVED, organizationId, documentId);
+        };
+        if (transactionRegistry.getTransactionKey() == null) {
+            removal.run();
+            return;
+        }
+        transactionRegistry.registerInterposedSynchronization(new Synchronization() {
+            @Override
+            public void beforeCompletion() {
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                if (status == Status.STATUS_COMMITTED) {
+                    removal.run();
+                }
+            }
+        });
+    }
+
+    private void removeLocally(UUID organizationId, UUID documentId) {
+        if (loading) {
+            // Recorded first: loadAll may still add vectors it read before the removal
+            removedDuringLoad.put(documentId, organizationId);
+        }
+        removeFromIndex(organizationId, documentId);
+    }
+
+    private void removeFromIndex(UUID organizationId, UUID documentId) {
+        OrganizationIndex index = indexes.get(organizationId);
+        if (index != null) {
+            index.removeDocument(documentId);
+        }
+    }
+
+    private void publish(Change change, UUID organizationId, UUID documentId) {
+        if (pubSub == null) {
+            return;
+        }
+        try {
+            pubSub.publish(CHANGES_CHANNEL, NODE_ID + ":" + change + ":" + organizationId + ":" + documentId);
+        } catch (Exception e) {
+            LOG.errorf(e, "Failed to publish index change of document %s", documentId);
+        }
+    }
+
+    private void onChange(String message) {
+        String[] parts = message.split(":");
+        if (parts.length != 4 || parts[0].equals(NODE_ID)) {
+            return;
+        }
+        try {
+            Change change = Change.valueOf(parts[1]);
+            UUID organizationId = UUID.fromString(parts[2]);
+            UUID documentId = UUID.fromString(parts[3]);
+            changeExecutor.execute(() -> apply(change, organizationId, documentId));
+        } catch (IllegalArgumentException e) {
+            LOG.warnf("Ignoring malformed index change message: %s", message);
+        }
+    }
+
+    private void apply(Change change, UUID organizationId, UUID documentId) {
+        try {
+            if (change == Change.REMOVED) {
+                removeLocally(organizationId, documentId);
+                return;
+            }
+            List<DocumentEmbeddingRepository.IndexableVector> vectors = QuarkusTransaction.requiringNew()
+                    .call(() -> embeddingRepository.findIndexableVectorsByDocument(documentId));
+            for (DocumentEmbeddingRepository.IndexableVector vector : vectors) {
+                add(vector.organizationId, vector.documentId, vector.embeddingId, vector.embedding);
+            }
+            LOG.debugf("Indexed %d vectors of document %s from another node", vectors.size(), documentId);
+        } catch (Exception e) {
+            LOG.warnf(e, "Failed to apply index change %s of document %s", change, documentId);
+        }
+    }
+
+    /**
+     * Rebuild every organization index from the database.
+     *
+     * Documents removed while the load runs are skipped, and removed again
+     * at the end: a batch read before the removal committed may still hold
+     * their vectors.
+     */
+    public void loadAll() {
+        long start = System.currentTimeMillis();
+        int loaded = 0;
+        UUID lastId = null;
+
+        // Removals before this point are committed and not in the database
+        removedDuringLoad.clear();
+        loading = true;
+        try {
+            while (true) {
+                UUID afterId = lastId;
+                List<DocumentEmbeddingRepository.IndexableVector> batch = QuarkusTransaction.requiringNew()
+                        .call(() -> embeddingRepository.findIndexableVectors(afterId, LOAD_BATCH_SIZE));
+                if (batch.isEmpty()) {
+                    break;
+                }
+                for (DocumentEmbeddingRepository.IndexableVector vector : batch) {
+                    if (!removedDuringLoad.containsKey(vector.documentId)) {
+                        addLocally(vector.organizationId, vector.documentId, vector.embeddingId, vector.embedding);
+                    }
+                }
+                loaded += batch.size();
+                lastId = batch.get(batch.size() - 1).embeddingId;
+            }
+            removedDuringLoad.forEach((documentId, organizationId) -> removeFromIndex(organizationId, documentId));
+        } finally {
+            // Removals from here on find their vectors already loaded
+            loading = false;
+            removedDuringLoad.clear();
+        }
+
+        ready = true;
+        LOG.infof("Built HNSW indexes for %d organizations (%d vectors) in %dms",
+                indexes.size(), loaded, System.currentTimeMillis() - start);
+    }
+
+    private enum Change {
+        INDEXED, REMOVED
+    }
+
+    private HnswIndex newGraph() {
+        return new HnswIndex(m, efConstruction);
+    }
+
+    private static final class OrganizationIndex {
+        volatile HnswIndex graph;
+        final Map<UUID, List<UUID>> embeddingsByDocument = new HashMap<>();
+
+        OrganizationIndex(HnswIndex graph) {
+            this.graph = graph;
+        }
+
+        synchronized void add(UUID documentId, UUID embeddingId, float[] embedding) {
+            if (graph.contains(embeddingId)) {
+                return;
+            }
+            graph.add(embeddingId, embedding);
+            embeddingsByDocument.computeIfAbsent(documentId, id -> new ArrayList<>()).add(embeddingId);
+        }
+
+        synchronized void removeDocument(UUID documentId) {
+            List<UUID> embeddingIds = embeddingsByDocument.remove(documentId);
+            if (embeddingIds == null) {
+                return;
+            }
+            for (UUID embeddingId : embeddingIds) {
+                graph.remove(embeddingId);
+            }
+            if (graph.needsCompaction()) {
+                graph = graph.compact();
+            }
+        }
+    }
+}
@@ -1,18 +1,39 @@
 package com.platform.service;
 
 import com.platform.domain.Document;
-import com.platform.domain.DocumentEmbedding;
 import com.platform.repository.DocumentRepository;
 import com.platform.repository.DocumentEmbeddingRepository;
 import com.platform.ai.EmbeddingService;
+import io.quarkus.arc.Arc;
+import io.quarkus.arc.ManagedContext;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
-import jakarta.transaction.Transactional;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
 import org.jboss.logging.Logger;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
-import java.util.ArrayList;import java.util.List;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.OptionalInt;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
 
 @ApplicationScoped
 public class VectorStoreService {
@@ -30,43 +51,146 @@ public class VectorStoreService {
     @Inject
     EmbeddingService embeddingService;
 
-    @Transactional
+    @Inject
+    VectorIndexService vectorIndexService;
+
+    @ConfigProperty(name = "vector.indexing.batch-size", defaultValue = "16")
+    int batchSize;
+
+    @ConfigProperty(name = "vector.indexing.concurrency", defaultValue = "4")
+    int concurrency;
+
+    @ConfigProperty(name = "vector.search.max-threads", defaultValue = "16")
+    int searchThreads;
+
+    @ConfigProperty(name = "vector.search.queue-capacity", defaultValue = "256")
+    int searchQueueCapacity;
+
+    private final Map<UUID, IndexingProgress> indexingProgress = new ConcurrentHashMap<>();
+    private ExecutorService indexingExecutor;
+    private ExecutorService searchExecutor;
+
+    @PostConstruct
+    void init() {
+        AtomicInteger threadCount = new AtomicInteger();
+        indexingExecutor = Executors.newFixedThreadPool(concurrency, runnable -> {
+            Thread thread = new Thread(runnable, "document-indexer-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        // A full queue runs the search on the calling thread
+        searchExecutor = BoundedExecutors.create("vector-search", searchThreads, searchQueueCapacity,
+                BoundedExecutors.callerRuns());
+    }
+
+    @PreDestroy
+    void shutdown() {
+        indexingExecutor.shutdownNow();
+        searchExecutor.shutdownNow();
+    }
+
+    /**
+     * Chunk, embed and store a document.
+     *
+     * Chunks are embedded in batches through {@link EmbeddingService#embedAll},
+     * with at most {@code vector.indexing.concurrency} batches in flight across
+     * the node. Each batch is written with a JDBC batch insert in its own short
+     * transaction, so no connection is held while embedding calls are pending.
+     * Once a batch fails, batches that have not started yet are skipped.
+     * Runs outside any caller transaction.
+     */
     public void indexDocument(Document document, String content) {
         LOG.infof("Starting indexing for document: %s", document.filename);
-        
+
+        UUID documentId = document.id;
+        UUID organizationId = document.organization != null ? document.organization.id : null;
+
         try {
-            document.status = Document.DocumentStatus.PENDING;
-            documentRepository.persist(document);
+            updateStatus(documentId, Document.DocumentStatus.PENDING, null);
 
             List<String> chunks = chunkDocument(content);
-            LOG.infof("Document chunked into %d pieces", chunks.size());
-
-            for (int i = 0; i < chunks.size(); i++) {
-                String chunk = chunks.get(i);
-                float[] embedding = embeddingService.embed(chunk);
-
-                DocumentEmbedding docEmbedding = new DocumentEmbedding();
-                docEmbedding.document = document;
-                docEmbedding.chunkIndex = i;
-                docEmbedding.content = chunk;
-                docEmbedding.embedding = embedding;
-                
-                embeddingRepository.persist(docEmbedding);
+            int batchCount = (chunks.size() + batchSize - 1) / batchSize;
+            LOG.infof("Document chunked into %d pieces (%d batches)", chunks.size(), batchCount);
+
+            IndexingProgress progress = new IndexingProgress(batchCount);
+            indexingProgress.put(documentId, progress);
+
+            List<CompletableFuture<Void>> batches = new ArrayList<>(batchCount);
+            for (int start = 0; start < chunks.size(); start += batchSize) {
+                int firstChunkIndex = start;
+                List<String> batch = chunks.subList(start, Math.min(start + batchSize, chunks.size()));
+                batches.add(CompletableFuture.runAsync(
+                        () -> indexBatch(documentId, organizationId, firstChunkIndex, batch, progress),
+                        indexingExecutor));
             }
 
-            document.status = Document.DocumentStatus.INDEXED;
-            document.indexedAt = LocalDateTime.now();
-            documentRepository.persist(document);
+            CompletableFuture.allOf(batches.toArray(new CompletableFuture[0])).join();
 
+            updateStatus(documentId, Document.DocumentStatus.INDEXED, LocalDateTime.now());
+            vectorIndexService.documentIndexed(organizationId, documentId);
             LOG.infof("Document indexed successfully: %s", document.filename);
         } catch (Exception e) {
             LOG.errorf(e, "Failed to index document: %s", document.filename);
-            document.status = Document.DocumentStatus.FAILED;
-            documentRepository.persist(document);
+            discardPartialIndex(documentId, organizationId);
+            updateStatus(documentId, Document.DocumentStatus.FAILED, null);
             throw new RuntimeException("Document indexing failed", e);
+        } finally {
+            indexingProgress.remove(documentId);
+        }
+    }
+
+    /**
+     * Percentage of embedding batches completed for a document that is being
+     * indexed on this node, or empty if no indexing run is in progress.
+     */
+    public OptionalInt getIndexingProgress(UUID documentId) {
+        IndexingProgress progress = indexingProgress.get(documentId);
+        return progress != null ? OptionalInt.of(progress.percentComplete()) : OptionalInt.empty();
+    }
+
+    private void indexBatch(UUID documentId, UUID organizationId, int firstChunkIndex, List<String> chunks,
+            IndexingProgress progress) {
+        // The run is already failing and its rows will be discarded
+        if (progress.isFailed()) {
+            return;
+        }
+        try {
+            List<float[]> embeddings = embeddingService.embedAll(chunks);
+            if (embeddings.size() != chunks.size()) {
+                throw new IllegalStateException(
+                        "Expected " + chunks.size() + " embeddings but got " + embeddings.size());
+            }
+            if (progress.isFailed()) {
+                return;
+            }
+
+            List<UUID> ids = QuarkusTransaction.requiringNew().call(
+                    () -> embeddingRepository.insertBatch(documentId, firstChunkIndex, chunks, embeddings));
+
+            for (int i = 0; i < ids.size(); i++) {
+                vectorIndexService.add(organizationId, documentId, ids.get(i), embeddings.get(i));
+            }
+            progress.batchCompleted();
+        } catch (RuntimeException e) {
+            progress.batchFailed();
+            throw e;
+        }
+    }
+
+    private void discardPartialIndex(UUID documentId, UUID organizationId) {
+        try {
+            QuarkusTransaction.requiringNew().run(() -> embeddingRepository.deleteByDocument(documentId));
+            vectorIndexService.removeDocument(organizationId, documentId);
+        } catch (Exception e) {
+            LOG.warnf(e, "Failed to clean up partial embeddings for document: %s", documentId);
         }
     }
 
+    private void updateStatus(UUID documentId, Document.DocumentStatus status, LocalDateTime indexedAt) {
+        QuarkusTransaction.requiringNew().run(() -> documentRepository.update(
+                "status = ?1, indexedAt = ?2 where id = ?3", status, indexedAt, documentId));
+    }
+
     public List<String> chunkDocument(String content) {
         List<String> chunks = new ArrayList<>();
         
@@ -106,52 +230,327 @@ public class VectorStoreService {
         LOG.infof("Performing semantic search for query: %s with threshold: %.2f", query, relevanceThreshold);
         
         float[] queryEmbedding = embeddingService.embed(query);
-        
-        // Retrieve more results than needed to account for filtering
-        int retrievalLimit = Math.min(limit * 3, 50);
-        List<DocumentEmbedding> results = embeddingRepository.findSimilar(
-            queryEmbedding, 
-            organizationId, 
-            retrievalLimit
-        );
-
-        List<SearchResult> searchResults = new ArrayList<>();
-        for (DocumentEmbedding embedding : results) {
-            double relevanceScore = calculateRelevance(queryEmbedding, embedding.embedding);
-            
-            // Apply relevance threshold filtering
-            if (relevanceScore >= relevanceThreshold) {
-                SearchResult result = new SearchResult();
-                result.documentId = embedding.document.id;
-                result.documentName = embedding.document.filename;
-                result.chunkText = embedding.content;
-                result.chunkIndex = embedding.chunkIndex;
-                result.relevanceScore = relevanceScore;
-                searchResults.add(result);
-                
-                // Stop once we have enough results
-                if (searchResults.size() >= limit) {
-                    break;
+
+        List<SearchResult> searchResults = search(queryEmbedding, organizationId, limit, relevanceThreshold);
+
+        LOG.infof("Found %d results above threshold %.2f", searchResults.size(), relevanceThreshold);
+        return searchResults;
+    }
+
+    /**
+     * Search with several queries and merge the results by reciprocal rank
+     * fusion.
+     *
+     * All queries are embedded in one {@link EmbeddingService#embedAll} call
+     * and searched concurrently. The first query is the primary one and is
+     * always awaited; the others only count if they finish within the
+     * latency budget, measured from the start of the call.
+     *
+     * @param queries            The queries, primary first
+     * @param organizationId     The organization ID for filtering
+     * @param limit              Maximum number of results, also per query
+     * @param relevanceThreshold Minimum relevance score (0.0 to 1.0)
+     * @param latencyBudget      Time allowed for the secondary queries
+     * @return Fused results; each carries its best relevance score
+     */
+    public List<SearchResult> multiQuerySearch(List<String> queries, UUID organizationId, int limit,
+            double relevanceThreshold, Duration latencyBudget) {
+        if (queries.size() == 1) {
+            return semanticSearch(queries.get(0), organizationId, limit, relevanceThreshold);
+        }
+        LOG.infof("Performing multi-query search with %d queries and threshold: %.2f", queries.size(),
+                relevanceThreshold);
+        return fusedSearch(queries, organizationId, limit, relevanceThreshold, 0.0, 1.0, latencyBudget);
+    }
+
+    /**
+     * Hybrid lexical and vector search, merged by weighted reciprocal rank
+     * fusion.
+     *
+     * A full-text query for the content words of the primary query runs
+     * concurrently with the vector searches, so exact identifiers that
+     * embed poorly are still found. The relevance threshold applies to
+     * vector matches only; lexical matches carry their normalized text rank
+     * as relevance. Secondary queries follow the rules of
+     * {@link #multiQuerySearch}.
+     *
+     * @param queries            The queries, primary first
+     * @param organizationId     The organization ID for filtering
+     * @param limit              Maximum number of results, also per query
+     * @param relevanceThreshold Minimum relevance score of vector matches
+     * @param lexicalWeight      Fusion weight of the lexical ranking
+     * @param vectorWeight       Fusion weight of each vector ranking
+     * @param latencyBudget      Time allowed for the secondary queries
+     * @return Fused results
+     */
+    public List<SearchResult> hybridSearch(List<String> queries, UUID organizationId, int limit,
+            double relevanceThreshold, double lexicalWeight, double vectorWeight, Duration latencyBudget) {
+        LOG.infof("Performing hybrid search with %d queries (lexical weight %.2f, vector weight %.2f)",
+                queries.size(), lexicalWeight, vectorWeight);
+        return fusedSearch(queries, organizationId, limit, relevanceThreshold, lexicalWeight, vectorWeight,
+                latencyBudget);
+    }
+
+    /**
+     * Full-text search only; no embedding call is made.
+     *
+     * @param query          The search query; any content word may match
+     * @param organizationId The organization ID for filtering
+     * @param limit          Maximum number of results
+     * @return Matches by descending text rank
+     */
+    public List<SearchResult> lexicalSearch(String query, UUID organizationId, int limit) {
+        String lexicalQuery = QueryExpander.lexicalQuery(query);
+        if (lexicalQuery.isEmpty()) {
+            return List.of();
+        }
+        return embeddingRepository.findLexicalChunks(lexicalQuery, organizationId, limit)
+                .stream()
+                .map(this::toSearchResult)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Run the lexical search (if weighted) and one vector search per query
+     * concurrently and fuse the rankings. The lexical and primary vector
+     * searches are always awaited.
+     */
+    private List<SearchResult> fusedSearch(List<String> queries, UUID organizationId, int limit,
+            double relevanceThreshold, double lexicalWeight, double vectorWeight, Duration latencyBudget) {
+        long deadline = System.nanoTime() + latencyBudget.toNanos();
+
+        // Started first: it needs no embedding
+        CompletableFuture<List<SearchResult>> lexical = lexicalWeight > 0
+                ? searchAsync(() -> lexicalSearch(queries.get(0), organizationId, limit))
+                : null;
+
+        List<float[]> embeddings = embeddingService.embedAll(queries);
+        List<CompletableFuture<List<SearchResult>>> searches = new ArrayList<>(embeddings.size());
+        for (float[] embedding : embeddings) {
+            searches.add(searchAsync(() -> search(embedding, organizationId, limit, relevanceThreshold)));
+        }
+
+        List<List<String>> rankings = new ArrayList<>();
+        List<Double> weights = new ArrayList<>();
+        Map<String, SearchResult> best = new HashMap<>();
+        for (List<SearchResult> results : awaitSearches(searches, deadline)) {
+            rankings.add(rank(results, best));
+            weights.add(vectorWeight);
+        }
+        if (lexical != null) {
+            List<SearchResult> results = awaitSearch(lexical, Long.MAX_VALUE);
+            rankings.add(rank(results, best));
+            weights.add(lexicalWeight);
+        }
+
+        List<SearchResult> fused = ReciprocalRankFusion.fuse(rankings, weights, ReciprocalRankFusion.DEFAULT_K,
+                        limit)
+                .stream()
+                .map(best::get)
+                .collect(Collectors.toList());
+        LOG.infof("Fused %d results from %d rankings", fused.size(), rankings.size());
+        return fused;
+    }
+
+    /**
+     * Keys of a result list in rank order, remembering the best-scored
+     * result per chunk.
+     */
+    private static List<String> rank(List<SearchResult> results, Map<String, SearchResult> best) {
+        List<String> ranking = new ArrayList<>(results.size());
+        for (SearchResult result : results) {
+            String key = result.documentId + ":" + result.chunkIndex;
+            ranking.add(key);
+            best.merge(key, result, (a, b) -> a.relevanceScore >= b.relevanceScore ? a : b);
+        }
+        return ranking;
+    }
+
+    /**
+     * Results of the vector searches, primary first. The primary search is
+     * always awaited and its failure rethrown; a secondary one is awaited
+     * until the deadline (a {@link System#nanoTime()} value) and left out if
+     * it is late or failed. Package-private for testing.
+     */
+    static List<List<SearchResult>> awaitSearches(List<CompletableFuture<List<SearchResult>>> searches,
+            long deadline) {
+        List<List<SearchResult>> completed = new ArrayList<>(searches.size());
+        for (int i = 0; i < searches.size(); i++) {
+            List<SearchResult> results = awaitSearch(searches.get(i), i == 0 ? Long.MAX_VALUE : deadline);
+            if (results == null) {
+                LOG.debugf("Dropping sub-query %d: late or failed", i);
+                continue;
+            }
+            completed.add(results);
+        }
+        return completed;
+    }
+
+    /**
+     * Wait for a search until the deadline (a {@link System#nanoTime()}
+     * value). Returns null if it timed out or failed, except for a primary
+     * search (no deadline), whose failure is rethrown.
+     */
+    private static List<SearchResult> awaitSearch(CompletableFuture<List<SearchResult>> search, long deadline) {
+        try {
+            if (deadline == Long.MAX_VALUE) {
+                return search.join();
+            }
+            return search.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            search.cancel(true);
+            return null;
+        } catch (ExecutionException e) {
+            LOG.warnf(e.getCause(), "Sub-query search failed");
+            return null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        }
+    }
+
+    private List<SearchResult> search(float[] queryEmbedding, UUID organizationId, int limit,
+            double relevanceThreshold) {
+        return searchIndex(queryEmbedding, organizationId, limit, relevanceThreshold)
+                .orElseGet(() -> searchPgvector(queryEmbedding, organizationId, limit, relevanceThreshold));
+    }
+
+    /**
+     * Run a search on the search pool, in a request context of its own.
+     * When the pool is saturated the search runs on the calling thread,
+     * inside the caller's request context, which is left untouched.
+     * Package-private for testing.
+     */
+    <T> CompletableFuture<T> searchAsync(Supplier<T> search) {
+        return CompletableFuture.supplyAsync(() -> inRequestContext(search), searchExecutor);
+    }
+
+    private static <T> T inRequestContext(Supplier<T> task) {
+        ManagedContext requestContext = Arc.container().requestContext();
+        if (requestContext.isActive()) {
+            // Run inline by the caller: activating would replace its context state
+            return task.get();
+        }
+        requestContext.activate();
+        try {
+            return task.get();
+        } finally {
+            requestContext.terminate();
+        }
+    }
+
+    /**
+     * Remove a deleted document's chunks from the in-memory index of every
+     * node, once the current transaction commits.
+     */
+    public void removeFromIndex(UUID organizationId, UUID documentId) {
+        vectorIndexService.removeDocument(organizationId, documentId);
+    }
+
+    /**
+     * Serve a search from the in-memory HNSW index.
+     * Returns empty when the index is disabled, still building or fails, so the
+     * caller falls back to pgvector.
+     */
+    private Optional<List<SearchResult>> searchIndex(float[] queryEmbedding, UUID organizationId, int limit,
+            double relevanceThreshold) {
+        if (!vectorIndexService.isReady()) {
+            return Optional.empty();
+        }
+
+        try {
+            Optional<List<HnswIndex.Neighbor>> neighbors = vectorIndexService.search(
+                    organizationId, queryEmbedding, limit);
+            if (neighbors.isEmpty()) {
+                return Optional.empty();
+            }
+
+            List<UUID> ids = neighbors.get().stream()
+                    .filter(neighbor -> 1.0 - neighbor.distance >= relevanceThreshold)
+                    .map(neighbor -> neighbor.id)
+                    .collect(Collectors.toList());
+            Map<UUID, DocumentEmbeddingRepository.ChunkMatch> chunks = embeddingRepository.findChunksByIds(ids)
+                    .stream()
+                    .collect(Collectors.toMap(chunk -> chunk.embeddingId, Function.identity()));
+
+            List<SearchResult> searchResults = new ArrayList<>();
+            for (HnswIndex.Neighbor neighbor : neighbors.get()) {
+                DocumentEmbeddingRepository.ChunkMatch chunk = chunks.get(neighbor.id);
+                // Skip entries whose rows were rolled back or deleted on another node
+                if (chunk == null) {
+                    continue;
                 }
+                chunk.distance = neighbor.distance;
+                searchResults.add(toSearchResult(chunk));
             }
+            return Optional.of(searchResults);
+        } catch (Exception e) {
+            LOG.warnf(e, "HNSW search failed for organization %s, falling back to pgvector", organizationId);
+            return Optional.empty();
         }
+    }
 
-        LOG.infof("Found %d results above threshold %.2f", searchResults.size(), relevanceThreshold);
-        return searchResults;
+    /**
+     * Exact search in pgvector. The relevance threshold is applied in SQL as a
+     * cosine distance cutoff (relevance = 1 - distance).
+     */
+    private List<SearchResult> searchPgvector(float[] queryEmbedding, UUID organizationId, int limit,
+            double relevanceThreshold) {
+        return embeddingRepository.findSimilarChunks(queryEmbedding, organizationId, 1.0 - relevanceThreshold, limit)
+                .stream()
+                .map(this::toSearchResult)
+                .collect(Collectors.toList());
+    }
+
+    private SearchResult toSearchResult(DocumentEmbeddingRepository.ChunkMatch chunk) {
+        SearchResult result = new SearchResult();
+        result.documentId = chunk.documentId;
+        result.documentName = chunk.documentName;
+        result.chunkText = chunk.content;
+        result.chunkIndex = chunk.chunkIndex;
+        result.relevanceScore = 1.0 - chunk.distance;
+        return result;
     }
 
-    private double calculateRelevance(float[] embedding1, float[] embedding2) {
-        double dotProduct = 0.0;
-        double norm1 = 0.0;
-        double norm2 = 0.0;
+    private static final class IndexingProgress {
+        private final int totalBatches;
+        private final AtomicInteger completedBatches = new AtomicInteger();
+        private volatile boolean failed;
+
+        IndexingProgress(int totalBatches) {
+            this.totalBatches = totalBatches;
+        }
+
+        void batchCompleted() {
+            completedBatches.incrementAndGet();
+        }
 
-        for (int i = 0; i < embedding1.length; i++) {
-            dotProduct += embedding1[i] * embedding2[i];
-            norm1 += embedding1[i] * embedding1[i];
-            norm2 += embedding2[i] * embedding2[i];
+        void batchFailed() {
+            failed = true;
         }
 
-        return dotProduct / (Math.sqrt(norm1) * Math.sqrt(norm2));
+        boolean isFailed() {
+            return failed;
+        }
+
+        int percentComplete() {
+            if (totalBatches == 0) {
+                return 100;
+            }
+            return completedBatches.get() * 100 / totalBatches;
+        }
+    }
+
+    /**
+     * Retrieval strategy for document search.
+     */
+    public enum SearchMode {
+        /** Vector similarity only. */
+        SEMANTIC,
+        /** Full-text match only; no embedding call. */
+        LEXICAL,
+        /** Both, fused by weighted reciprocal rank fusion. */
+        HYBRID
     }
 
     public static class SearchResult {
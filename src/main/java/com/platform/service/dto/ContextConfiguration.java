@@ -0,0 +1,46 @@
+package com.platform.service.dto;
+
+/**
+ * How an agent's prompt token budget is split between conversation history
+ * and retrieved document passages. Read from the {@code context} block of
+ * the agent configuration JSON.
+ */
+public class ContextConfiguration {
+
+    /**
+     * Share of the available budget reserved for conversation history (0.0 to 1.0).
+     * Whatever history does not use is given to RAG passages.
+     */
+    public double historyShare = 0.4;
+
+    /**
+     * Share of the available budget reserved for RAG passages (0.0 to 1.0).
+     */
+    public double ragShare = 0.6;
+
+    /**
+     * Maximum number of history messages considered, before token budgeting.
+     */
+    public int maxHistoryMessages = 10;
+
+    public ContextConfiguration() {
+    }
+
+    public ContextConfiguration(double historyShare, double ragShare, int maxHistoryMessages) {
+        this.historyShare = historyShare;
+        this.ragShare = ragShare;
+        this.maxHistoryMessages = maxHistoryMessages;
+    }
+
+    /**
+     * Validate the configuration.
+     */
+    public void validate() {
+        if (historyShare < 0.0 || ragShare < 0.0 || historyShare + ragShare > 1.0) {
+            throw new IllegalArgumentException("History and RAG shares must be non-negative and sum to at most 1.0");
+        }
+        if (maxHistoryMessages < 0 || maxHistoryMessages > 200) {
+            throw new IllegalArgumentException("Max history messages must be between 0 and 200");
+        }
+    }
+}
@@ -25,6 +25,43 @@ public class RAGConfiguration {
      * Whether to include citations in responses.
      */
     public boolean includeCitations = true;
+
+    /**
+     * Whether to retrieve with several sub-queries merged by rank fusion.
+     */
+    public boolean multiQuery = false;
+
+    /**
+     * Number of preceding user turns prepended to the message as a
+     * sub-query (multi-query mode, 0 to disable).
+     */
+    public int historyTurns = 2;
+
+    /**
+     * Whether to add a keyword-only sub-query (multi-query mode).
+     */
+    public boolean keywordQuery = true;
+
+    /**
+     * Latency budget in milliseconds for multi-query retrieval; sub-queries
+     * still running after it are dropped.
+     */
+    public long latencyBudgetMs = 1500;
+
+    /**
+     * Whether to fuse a full-text search with the vector search(es).
+     */
+    public boolean hybrid = false;
+
+    /**
+     * Fusion weight of the full-text ranking (hybrid mode).
+     */
+    public double lexicalWeight = 1.0;
+
+    /**
+     * Fusion weight of each vector ranking (hybrid mode).
+     */
+    public double vectorWeight = 1.0;
     
     public RAGConfiguration() {
     }
@@ -53,5 +90,14 @@ public class RAGConfiguration {
         if (maxPassages < 1 || maxPassages > 20) {
             throw new IllegalArgumentException("Max passages must be between 1 and 20");
         }
+        if (historyTurns < 0 || historyTurns > 10) {
+            throw new IllegalArgumentException("History turns must be between 0 and 10");
+        }
+        if (latencyBudgetMs < 1) {
+            throw new IllegalArgumentException("Latency budget must be positive");
+        }
+        if (lexicalWeight < 0.0 || vectorWeight < 0.0 || (hybrid && lexicalWeight + vectorWeight == 0.0)) {
+            throw new IllegalArgumentException("Hybrid search weights must be non-negative and not both zero");
+        }
     }
 }
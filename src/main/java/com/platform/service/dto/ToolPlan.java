@@ -0,0 +1,67 @@
+package com.platform.service.dto;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A multi-step tool plan executed as a dependency graph.
+ *
+ * Steps that do not depend on each other run concurrently. A step depends on
+ * every step named in {@code dependsOn} and on every step its inputs refer to.
+ */
+public class ToolPlan {
+
+    public List<ToolStep> steps = new ArrayList<>();
+
+    public ToolPlan() {
+    }
+
+    public ToolPlan(List<ToolStep> steps) {
+        this.steps = steps;
+    }
+
+    public static class ToolStep {
+        /**
+         * Step identifier, unique within the plan.
+         */
+        public String id;
+
+        /**
+         * ID of the tool to execute.
+         */
+        public String toolId;
+
+        /**
+         * Fixed parameters for the call.
+         */
+        public Map<String, Object> params = new HashMap<>();
+
+        /**
+         * Parameters taken from upstream results: parameter name to
+         * {@code "<stepId>"} for a step's whole result, or
+         * {@code "<stepId>.<field>.<field>"} for a field of a JSON object result.
+         */
+        public Map<String, String> inputs = new HashMap<>();
+
+        /**
+         * Steps that must complete first without passing any output.
+         */
+        public List<String> dependsOn = new ArrayList<>();
+
+        /**
+         * Expected duration, used to find the critical path (steps without an
+         * estimate count as 1ms).
+         */
+        public Long expectedLatencyMs;
+
+        public ToolStep() {
+        }
+
+        public ToolStep(String id, String toolId) {
+            this.id = id;
+            this.toolId = toolId;
+        }
+    }
+}
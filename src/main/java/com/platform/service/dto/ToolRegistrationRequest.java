@@ -2,6 +2,7 @@ package com.platform.service.dto;
 
 import com.platform.domain.Tool;
 
+import java.util.List;
 import java.util.Map;
 
 /**
@@ -15,6 +16,7 @@ public class ToolRegistrationRequest {
     public String endpoint;
     public AuthenticationConfig authConfig;
     public Map<String, ParameterDefinition> parameters;
+    public ExecutionPolicy executionPolicy;
 
     public static class AuthenticationConfig {
         public AuthType type;
@@ -40,4 +42,49 @@ public class ToolRegistrationRequest {
         public boolean required;
         public Object defaultValue;
     }
+
+    public static class ExecutionPolicy {
+        /**
+         * Whether repeating a call with the same parameters is safe and
+         * returns the same result (e.g. read-only lookups).
+         */
+        public boolean idempotent;
+        public CachePolicy cache;
+        public ResponsePolicy response;
+        public HedgePolicy hedge;
+    }
+
+    /**
+     * Response caching for idempotent tools.
+     */
+    public static class CachePolicy {
+        public boolean enabled;
+        public long ttlSeconds = 60;
+        public int maxEntryBytes = 64 * 1024;
+    }
+
+    /**
+     * How much of a tool response is read and kept.
+     */
+    public static class ResponsePolicy {
+        /**
+         * Maximum response size in bytes; unset uses the platform default.
+         */
+        public Long maxBytes;
+
+        /**
+         * JSONPath selectors (e.g. {@code $.items[*].name}); when set, only the
+         * selected values are kept from a JSON response.
+         */
+        public List<String> fields;
+    }
+
+    /**
+     * Hedged requests for idempotent tools: a second request is sent when the
+     * first is slower than the given percentile of recent calls.
+     */
+    public static class HedgePolicy {
+        public boolean enabled;
+        public double percentile = 95;
+    }
 }
@@ -25,6 +25,9 @@ public class AgentChatWebSocket {
     @Inject
     AgentRuntimeService runtimeService;
 
+    @Inject
+    ResponseStreamer responseStreamer;
+
     // Store conversation IDs per connection
     private static final ConcurrentHashMap<String, UUID> conversationMap = new ConcurrentHashMap<>();
 
@@ -43,10 +46,11 @@ public class AgentChatWebSocket {
 
     /**
      * Handle incoming text messages from client.
-     * Processes the message and streams the AI response back.
+     * Processes the message and streams the AI response back through the
+     * connection's bounded frame buffer.
      */
     @OnTextMessage
-    public Multi<String> onMessage(String message, WebSocketConnection connection) {
+    public Uni<Void> onMessage(String message, WebSocketConnection connection) {
         String connectionId = connection.id();
         String agentIdParam = connection.pathParam("agentId");
 
@@ -69,23 +73,18 @@ public class AgentChatWebSocket {
             Log.infof("Processing message for agent %s, conversation %s", agentId, conversationId);
 
             // Stream response from agent runtime service
-            return runtimeService.streamResponse(agentId, chatMessage.message, conversationId, userId)
-                    .onItem().invoke(token -> {
-                        // Log progress (optional)
-                        if (Log.isDebugEnabled()) {
-                            Log.debugf("Streaming token: %s", token);
-                        }
-                    })
+            Multi<String> tokens = runtimeService.streamResponse(agentId, chatMessage.message, conversationId, userId);
+            return responseStreamer.stream(connection, tokens)
                     .onFailure().invoke(failure -> {
                         Log.errorf(failure, "Error streaming response for agent %s", agentId);
                     });
 
         } catch (IllegalArgumentException e) {
             Log.errorf(e, "Invalid agent ID or message format: %s", agentIdParam);
-            return Multi.createFrom().item("Error: Invalid request format");
+            return connection.sendText("Error: Invalid request format");
         } catch (Exception e) {
             Log.errorf(e, "Error processing message for connection %s", connectionId);
-            return Multi.createFrom().item("Error: " + e.getMessage());
+            return connection.sendText("Error: " + e.getMessage());
         }
     }
 
@@ -96,6 +95,7 @@ public class AgentChatWebSocket {
     public Uni<Void> onClose(WebSocketConnection connection) {
         String connectionId = connection.id();
         UUID conversationId = conversationMap.remove(connectionId);
+        responseStreamer.close(connectionId);
 
         Log.infof("WebSocket connection closed: %s, conversation: %s", connectionId, conversationId);
 
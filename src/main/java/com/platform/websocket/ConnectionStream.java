@@ -0,0 +1,275 @@
+package com.platform.websocket;
+
+import io.micrometer.core.instrument.Counter;
+import io.smallrye.mutiny.Multi;
+import io.smallrye.mutiny.Uni;
+import io.smallrye.mutiny.subscription.MultiSubscriber;
+import org.jboss.logging.Logger;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Flow;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Outbound frame buffer for a single WebSocket connection.
+ *
+ * Tokens are coalesced into frames of up to {@code maxFrameChars} characters,
+ * or whatever has arrived after {@code maxFrameDelayMillis}. Frames wait in a
+ * buffer of at most {@code maxBufferedFrames}, and at most
+ * {@code maxInFlight} sends are outstanding at once. When the buffer is full
+ * the {@link OverflowPolicy} decides what happens to the next frame.
+ * Responses on the same connection are streamed one after another.
+ */
+public class ConnectionStream {
+
+    private static final Logger LOG = Logger.getLogger(ConnectionStream.class);
+
+    public enum OverflowPolicy {
+        /** Stop requesting tokens from the model stream until the buffer drains. */
+        PAUSE,
+        /** Discard the new frame. */
+        DROP,
+        /** Append the new frame to the last buffered one. */
+        COALESCE
+    }
+
+    private final String connectionId;
+    private final Function<String, Uni<Void>> sender;
+    private final ScheduledExecutorService scheduler;
+    private final int maxFrameChars;
+    private final long maxFrameDelayMillis;
+    private final int maxBufferedFrames;
+    private final int maxInFlight;
+    private final OverflowPolicy policy;
+    private final Counter droppedFrames;
+    private final Counter coalescedFrames;
+
+    private final Deque<String> pending = new ArrayDeque<>();
+    private final StringBuilder frame = new StringBuilder();
+    private ScheduledFuture<?> flushTimer;
+    private int inFlight;
+    private ResponseSubscriber current;
+    private CompletableFuture<Void> tail = CompletableFuture.completedFuture(null);
+    private boolean closed;
+
+    public ConnectionStream(String connectionId, Function<String, Uni<Void>> sender,
+            ScheduledExecutorService scheduler, int maxFrameChars, long maxFrameDelayMillis,
+            int maxBufferedFrames, int maxInFlight, OverflowPolicy policy,
+            Counter droppedFrames, Counter coalescedFrames) {
+        this.connectionId = connectionId;
+        this.sender = sender;
+        this.scheduler = scheduler;
+        this.maxFrameChars = maxFrameChars;
+        this.maxFrameDelayMillis = maxFrameDelayMillis;
+        this.maxBufferedFrames = maxBufferedFrames;
+        this.maxInFlight = maxInFlight;
+        this.policy = policy;
+        this.droppedFrames = droppedFrames;
+        this.coalescedFrames = coalescedFrames;
+    }
+
+    /**
+     * Stream a response to the connection.
+     *
+     * @return completes once every frame of the response has been sent
+     */
+    public Uni<Void> stream(Multi<String> tokens) {
+        return Uni.createFrom().completionStage(() -> {
+            synchronized (this) {
+                CompletableFuture<Void> done = tail
+                        .handle((ignored, failure) -> null)
+                        .thenCompose(ignored -> start(tokens));
+                tail = done;
+                return done;
+            }
+        });
+    }
+
+    /**
+     * Stop streaming and discard buffered frames, e.g. when the connection closes.
+     */
+    public synchronized void close() {
+        closed = true;
+        cancelFlushTimer();
+        pending.clear();
+        frame.setLength(0);
+        if (current != null) {
+            current.cancel();
+        }
+    }
+
+    // Private helper methods
+
+    private synchronized CompletableFuture<Void> start(Multi<String> tokens) {
+        ResponseSubscriber subscriber = new ResponseSubscriber();
+        if (closed) {
+            subscriber.completion.complete(null);
+            return subscriber.completion;
+        }
+        current = subscriber;
+        tokens.subscribe().withSubscriber(subscriber);
+        return subscriber.completion;
+    }
+
+    private void flushFrame() {
+        cancelFlushTimer();
+        if (frame.length() == 0) {
+            return;
+        }
+        String next = frame.toString();
+        frame.setLength(0);
+
+        if (pending.size() < maxBufferedFrames || policy == OverflowPolicy.PAUSE) {
+            // Under PAUSE the buffer overshoots by at most one frame: tokens are requested one at a time
+            pending.addLast(next);
+        } else if (policy == OverflowPolicy.COALESCE) {
+            pending.addLast(pending.pollLast() + next);
+            coalescedFrames.increment();
+        } else {
+            droppedFrames.increment();
+            LOG.debugf("Dropped frame of %d chars for slow connection %s", next.length(), connectionId);
+        }
+    }
+
+    private void scheduleFlush() {
+        if (flushTimer == null && frame.length() > 0) {
+            flushTimer = scheduler.schedule(this::onFlushTimer, maxFrameDelayMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private synchronized void onFlushTimer() {
+        flushTimer = null;
+        flushFrame();
+        afterBufferChange();
+    }
+
+    private void cancelFlushTimer() {
+        if (flushTimer != null) {
+            flushTimer.cancel(false);
+            flushTimer = null;
+        }
+    }
+
+    private void drain() {
+        while (!closed && inFlight < maxInFlight && !pending.isEmpty()) {
+            String next = pending.pollFirst();
+            inFlight++;
+            sender.apply(next).subscribe().with(ignored -> onSent(), this::onSendFailure);
+        }
+    }
+
+    private synchronized void onSent() {
+        inFlight--;
+        afterBufferChange();
+    }
+
+    private synchronized void onSendFailure(Throwable failure) {
+        inFlight--;
+        LOG.warnf("Failed to send frame to connection %s: %s", connectionId, failure.getMessage());
+        pending.clear();
+        ResponseSubscriber subscriber = current;
+        if (subscriber != null) {
+            subscriber.completion.completeExceptionally(failure);
+            subscriber.cancel();
+        }
+    }
+
+    private void afterBufferChange() {
+        drain();
+        if (current == null) {
+            return;
+        }
+        if (current.paused && pending.size() < maxBufferedFrames) {
+            current.paused = false;
+            current.subscription.request(1);
+        }
+        current.completeIfDrained();
+    }
+
+    /**
+     * Subscriber for one response's token stream.
+     */
+    private final class ResponseSubscriber implements MultiSubscriber<String> {
+        final CompletableFuture<Void> completion = new CompletableFuture<>();
+        Flow.Subscription subscription;
+        boolean paused;
+        boolean upstreamDone;
+        Throwable upstreamFailure;
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            synchronized (ConnectionStream.this) {
+                this.subscription = subscription;
+            }
+            subscription.request(policy == OverflowPolicy.PAUSE ? 1 : Long.MAX_VALUE);
+        }
+
+        @Override
+        public void onItem(String token) {
+            synchronized (ConnectionStream.this) {
+                if (closed) {
+                    return;
+                }
+                frame.append(token);
+                if (frame.length() >= maxFrameChars) {
+                    flushFrame();
+                } else {
+                    scheduleFlush();
+                }
+                drain();
+
+                if (policy == OverflowPolicy.PAUSE) {
+                    if (pending.size() < maxBufferedFrames) {
+                        subscription.request(1);
+                    } else {
+                        paused = true;
+                    }
+                }
+            }
+        }
+
+        @Override
+        public void onFailure(Throwable failure) {
+            synchronized (ConnectionStream.this) {
+                upstreamDone = true;
+                upstreamFailure = failure;
+                flushFrame();
+                afterBufferChange();
+            }
+        }
+
+        @Override
+        public void onCompletion() {
+            synchronized (ConnectionStream.this) {
+                upstreamDone = true;
+                flushFrame();
+                afterBufferChange();
+            }
+        }
+
+        void cancel() {
+            if (subscription != null) {
+                subscription.cancel();
+            }
+            completion.complete(null);
+            current = null;
+        }
+
+        void completeIfDrained() {
+            if (!upstreamDone || inFlight > 0 || !pending.isEmpty() || frame.length() > 0) {
+                return;
+            }
+            current = null;
+            if (upstreamFailure != null) {
+                completion.completeExceptionally(upstreamFailure);
+            } else {
+                completion.complete(null);
+            }
+        }
+    }
+}
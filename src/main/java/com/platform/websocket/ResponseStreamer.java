@@ -0,0 +1,106 @@
+package com.platform.websocket;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.quarkus.websockets.next.WebSocketConnection;
+import io.smallrye.mutiny.Multi;
+import io.smallrye.mutiny.Uni;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+
+/**
+ * Sends streamed agent responses to WebSocket clients through a bounded
+ * per-connection {@link ConnectionStream}.
+ */
+@ApplicationScoped
+public class ResponseStreamer {
+
+    @Inject
+    MeterRegistry meterRegistry;
+
+    @ConfigProperty(name = "websocket.streaming.frame.max-chars", defaultValue = "256")
+    int maxFrameChars;
+
+    @ConfigProperty(name = "websocket.streaming.frame.max-delay", defaultValue = "PT0.05S")
+    Duration maxFrameDelay;
+
+    @ConfigProperty(name = "websocket.streaming.buffer.max-frames", defaultValue = "64")
+    int maxBufferedFrames;
+
+    @ConfigProperty(name = "websocket.streaming.max-in-flight", defaultValue = "4")
+    int maxInFlight;
+
+    @ConfigProperty(name = "websocket.streaming.overflow-policy", defaultValue = "PAUSE")
+    ConnectionStream.OverflowPolicy overflowPolicy;
+
+    private final Map<String, ConnectionStream> streams = new ConcurrentHashMap<>();
+    private ScheduledExecutorService scheduler;
+    private Counter droppedFrames;
+    private Counter coalescedFrames;
+
+    @PostConstruct
+    void init() {
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "websocket-frame-flusher");
+            thread.setDaemon(true);
+            return thread;
+        });
+        droppedFrames = Counter.builder("websocket.stream.frames.overflow")
+                .tag("action", "dropped")
+                .register(meterRegistry);
+        coalescedFrames = Counter.builder("websocket.stream.frames.overflow")
+                .tag("action", "coalesced")
+                .register(meterRegistry);
+        meterRegistry.gaugeMapSize("websocket.stream.connections", Tags.empty(), streams);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        streams.values().forEach(ConnectionStream::close);
+        scheduler.shutdownNow();
+    }
+
+    /**
+     * Stream a response's tokens to the connection.
+     * Nothing is sent once the connection has closed.
+     *
+     * @return completes once the whole response has been sent
+     */
+    public Uni<Void> stream(WebSocketConnection connection, Multi<String> tokens) {
+        String connectionId = connection.id();
+        // No stream for a closed connection: close() has already removed its
+        // entry, so a new one would never be removed
+        ConnectionStream stream = streams.computeIfAbsent(connectionId, id -> connection.isClosed()
+                ? null
+                : new ConnectionStream(id, connection::sendText, scheduler, maxFrameChars, maxFrameDelay.toMillis(),
+                        maxBufferedFrames, maxInFlight, overflowPolicy, droppedFrames, coalescedFrames));
+        if (stream == null) {
+            return Uni.createFrom().voidItem();
+        }
+        if (connection.isClosed()) {
+            // Closed while the stream was being created; close() may have missed it
+            close(connectionId);
+        }
+        return stream.stream(tokens);
+    }
+
+    /**
+     * Release the connection's buffer and cancel any response in progress.
+     */
+    public void close(String connectionId) {
+        ConnectionStream stream = streams.remove(connectionId);
+        if (stream != null) {
+            stream.close();
+        }
+    }
+}
@@ -0,0 +1,2 @@
+-- Optimistic-lock version, also used to stamp cached compiled tool definitions
+ALTER TABLE tools ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
@@ -0,0 +1,2 @@
+-- Per-tool execution policy (idempotency, response caching)
+ALTER TABLE tools ADD COLUMN execution_policy JSONB;
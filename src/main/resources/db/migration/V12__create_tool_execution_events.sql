@@ -0,0 +1,17 @@
+-- Audit trail of tool executions, written in batches by a background writer.
+-- tool_id is not a foreign key so events outlive deleted tools.
+CREATE TABLE tool_execution_events (
+    id UUID PRIMARY KEY,
+    tool_id UUID NOT NULL,
+    tool_name VARCHAR(255) NOT NULL,
+    success BOOLEAN NOT NULL,
+    cached BOOLEAN NOT NULL DEFAULT FALSE,
+    execution_time_ms BIGINT NOT NULL,
+    parameters TEXT,
+    result TEXT,
+    error_message TEXT,
+    occurred_at TIMESTAMP NOT NULL
+);
+
+CREATE INDEX idx_tool_execution_events_tool_occurred ON tool_execution_events(tool_id, occurred_at DESC);
+CREATE INDEX idx_tool_execution_events_occurred ON tool_execution_events(occurred_at);
@@ -0,0 +1,7 @@
+-- Lexical search over chunk text for exact identifiers (SKUs, error codes,
+-- policy numbers). The 'simple' configuration lower-cases tokens without
+-- stemming or stop words, so identifiers are indexed as written.
+ALTER TABLE document_embeddings
+    ADD COLUMN content_tsv tsvector GENERATED ALWAYS AS (to_tsvector('simple', content)) STORED;
+
+CREATE INDEX idx_document_embeddings_content_tsv ON document_embeddings USING GIN (content_tsv);
@@ -0,0 +1,10 @@
+-- Keys of the form aap_<lookup_id>_<secret> are found by their lookup id and
+-- verified with HMAC-SHA256. Existing keys have no lookup id and keep their
+-- BCrypt hash.
+ALTER TABLE api_keys ADD COLUMN lookup_id VARCHAR(32);
+ALTER TABLE api_keys ADD COLUMN hash_algorithm VARCHAR(20) NOT NULL DEFAULT 'BCRYPT';
+
+CREATE UNIQUE INDEX idx_api_keys_lookup_id ON api_keys(lookup_id);
+
+-- Legacy keys are still matched by scanning, but only among themselves
+CREATE INDEX idx_api_keys_legacy_active ON api_keys(active) WHERE lookup_id IS NULL;
@@ -0,0 +1,35 @@
+-- Pre-aggregated interaction metrics per agent, maintained by a background
+-- compactor. latency_histogram holds counts per fixed log-scale latency
+-- bucket so rollups can be merged and percentiles estimated.
+-- agent_id and organization_id are not foreign keys so history outlives deleted agents.
+CREATE TABLE metrics_rollups (
+    id UUID PRIMARY KEY,
+    granularity VARCHAR(10) NOT NULL,
+    bucket_start TIMESTAMP NOT NULL,
+    organization_id UUID NOT NULL,
+    agent_id UUID NOT NULL,
+    interactions BIGINT NOT NULL DEFAULT 0,
+    failures BIGINT NOT NULL DEFAULT 0,
+    conversations BIGINT NOT NULL DEFAULT 0,
+    total_response_time_ms BIGINT NOT NULL DEFAULT 0,
+    total_tokens BIGINT NOT NULL DEFAULT 0,
+    total_tool_calls BIGINT NOT NULL DEFAULT 0,
+    latency_histogram BIGINT[] NOT NULL
+);
+
+CREATE UNIQUE INDEX idx_metrics_rollups_bucket ON metrics_rollups(granularity, bucket_start, agent_id);
+CREATE INDEX idx_metrics_rollups_organization ON metrics_rollups(organization_id, granularity, bucket_start);
+
+-- Everything before compacted_until has been rolled up. A single row, locked
+-- by the compactor so only one node compacts at a time.
+CREATE TABLE metrics_rollup_watermark (
+    id INTEGER PRIMARY KEY,
+    compacted_until TIMESTAMP NOT NULL
+);
+
+INSERT INTO metrics_rollup_watermark (id, compacted_until)
+VALUES (1, date_trunc('day', COALESCE(
+        LEAST((SELECT MIN(timestamp) FROM interaction_metrics), (SELECT MIN(created_at) FROM conversations)),
+        now())));
+
+CREATE INDEX IF NOT EXISTS idx_conversations_created_at ON conversations(created_at);
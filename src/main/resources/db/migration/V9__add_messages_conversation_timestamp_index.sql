@@ -0,0 +1,6 @@
+-- Composite index for reading the most recent messages of a conversation
+-- (WHERE conversation_id = ? ORDER BY timestamp DESC LIMIT n)
+CREATE INDEX idx_messages_conversation_timestamp ON messages(conversation_id, timestamp DESC);
+
+-- Covered by the composite index above
+DROP INDEX IF EXISTS idx_messages_conversation_id;
@@ -7,6 +7,7 @@ import org.junit.jupiter.api.Test;
 
 import java.time.Duration;
 import java.util.List;
+import java.util.UUID;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -19,7 +20,7 @@ class ChatMemoryProviderTest {
     @Inject
     RedisChatMemory chatMemoryProvider;
 
-    private static final Long TEST_CONVERSATION_ID = 999L;
+    private static final UUID TEST_CONVERSATION_ID = UUID.fromString("00000000-0000-0000-0000-000000000999");
 
     @AfterEach
     void cleanup() {
@@ -131,4 +132,34 @@ class ChatMemoryProviderTest {
         assertNotNull(history);
         assertTrue(history.isEmpty());
     }
+
+    @Test
+    void testMultiLineMessageIsStoredIntact() {
+        // Given
+        String content = "First line\nSecond line\n\nFourth line";
+
+        // When
+        chatMemoryProvider.storeMessage(TEST_CONVERSATION_ID, "assistant", content);
+        List<RedisChatMemory.MemoryEntry> entries = chatMemoryProvider.getEntries(TEST_CONVERSATION_ID, 10);
+
+        // Then
+        assertEquals(1, entries.size());
+        assertEquals(content, entries.get(0).content);
+    }
+
+    @Test
+    void testWindowRespectsTokenBudget() {
+        // Given
+        chatMemoryProvider.storeMessage(TEST_CONVERSATION_ID, "user", "one two three four five six seven eight");
+        chatMemoryProvider.storeMessage(TEST_CONVERSATION_ID, "assistant", "short");
+        chatMemoryProvider.storeMessage(TEST_CONVERSATION_ID, "user", "tiny");
+
+        // When
+        List<RedisChatMemory.MemoryEntry> window = chatMemoryProvider.getWindow(TEST_CONVERSATION_ID, 10, 3);
+
+        // Then - only the two most recent messages fit, oldest first
+        assertEquals(2, window.size());
+        assertEquals("short", window.get(0).content);
+        assertEquals("tiny", window.get(1).content);
+    }
 }
@@ -0,0 +1,35 @@
+package com.platform.ai;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for embedding cache keys and vector encoding.
+ */
+class EmbeddingCacheTest {
+
+    @Test
+    void testKeyIgnoresWhitespaceDifferences() {
+        assertEquals(
+                EmbeddingCache.key("mistral-embed", "What is  the\nrefund policy?"),
+                EmbeddingCache.key("mistral-embed", "  What is the refund policy? "));
+    }
+
+    @Test
+    void testKeyDependsOnModel() {
+        assertNotEquals(
+                EmbeddingCache.key("mistral-embed", "hello"),
+                EmbeddingCache.key("other-model", "hello"));
+    }
+
+    @Test
+    void testEncodeDecodeRoundTrip() {
+        float[] vector = { 0.5f, -1.25f, 3.0e-7f, Float.MAX_VALUE };
+
+        byte[] bytes = EmbeddingCache.encode(vector);
+
+        assertEquals(vector.length * Float.BYTES, bytes.length);
+        assertArrayEquals(vector, EmbeddingCache.decode(bytes));
+    }
+}
@@ -0,0 +1,29 @@
+package com.platform.ai;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the local token estimate.
+ */
+class TokenEstimatorTest {
+
+    @Test
+    void testEmptyText() {
+        assertEquals(0, TokenEstimator.estimate(null));
+        assertEquals(0, TokenEstimator.estimate(""));
+        assertEquals(0, TokenEstimator.estimate("   \n"));
+    }
+
+    @Test
+    void testWordsAndPunctuation() {
+        assertEquals(4, TokenEstimator.estimate("Hello, world!"));
+        assertEquals(4, TokenEstimator.estimate("internationalization"));
+    }
+
+    @Test
+    void testIdeographsCountIndividually() {
+        assertEquals(4, TokenEstimator.estimate("人工智能"));
+    }
+}
@@ -0,0 +1,46 @@
+package com.platform.domain;
+
+import org.junit.jupiter.api.Test;
+
+import java.sql.SQLException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the pgvector text and binary codecs.
+ */
+class PgVectorTest {
+
+    @Test
+    void testTextRoundTrip() {
+        float[] vector = { 0.1f, -2.5f, 3.0e-8f, 0.0f };
+
+        assertArrayEquals(vector, PgVector.parse(PgVector.format(vector)));
+    }
+
+    @Test
+    void testParseToleratesWhitespace() {
+        assertArrayEquals(new float[] { 1.0f, 2.0f, 3.0f }, PgVector.parse("[1, 2 ,3]"));
+        assertArrayEquals(new float[0], PgVector.parse("[]"));
+    }
+
+    @Test
+    void testParseRejectsMalformedInput() {
+        assertThrows(IllegalArgumentException.class, () -> PgVector.parse("1,2,3"));
+    }
+
+    @Test
+    void testBinaryRoundTrip() throws SQLException {
+        float[] vector = { 0.25f, -1.0f, 7.5f };
+        PgVector encoded = new PgVector(vector);
+        byte[] bytes = new byte[encoded.lengthInBytes() + 2];
+
+        encoded.toBytes(bytes, 2);
+        PgVector decoded = new PgVector();
+        decoded.setByteValue(bytes, 2);
+
+        assertEquals(4 + 3 * Float.BYTES, encoded.lengthInBytes());
+        assertEquals(3, ((bytes[2] & 0xff) << 8) | (bytes[3] & 0xff));
+        assertArrayEquals(vector, decoded.toArray());
+    }
+}
@@ -0,0 +1,98 @@
+package com.platform.domain;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.sql.SQLException;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH benchmark comparing the original split/parseFloat text path for
+ * pgvector values with the {@link PgVector} text and binary codecs.
+ *
+ * Run with:
+ * mvn test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=com.platform.domain.VectorCodecBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class VectorCodecBenchmark {
+
+    @Param({ "1024" })
+    int dimension;
+
+    private float[] vector;
+    private String text;
+    private byte[] binary;
+
+    @Setup
+    public void setup() {
+        Random random = new Random(42);
+        vector = new float[dimension];
+        for (int i = 0; i < dimension; i++) {
+            vector[i] = (float) random.nextGaussian();
+        }
+        text = PgVector.format(vector);
+        PgVector pgVector = new PgVector(vector);
+        binary = new byte[pgVector.lengthInBytes()];
+        pgVector.toBytes(binary, 0);
+    }
+
+    @Benchmark
+    public float[] decodeTextSplit() {
+        String cleaned = text.substring(1, text.length() - 1);
+        String[] parts = cleaned.split(",");
+        float[] result = new float[parts.length];
+        for (int i = 0; i < parts.length; i++) {
+            result[i] = Float.parseFloat(parts[i].trim());
+        }
+        return result;
+    }
+
+    @Benchmark
+    public float[] decodeText() {
+        return PgVector.parse(text);
+    }
+
+    @Benchmark
+    public float[] decodeBinary() throws SQLException {
+        PgVector pgVector = new PgVector();
+        pgVector.setByteValue(binary, 0);
+        return pgVector.toArray();
+    }
+
+    @Benchmark
+    public String encodeText() {
+        return PgVector.format(vector);
+    }
+
+    @Benchmark
+    public byte[] encodeBinary() {
+        PgVector pgVector = new PgVector(vector);
+        byte[] bytes = new byte[pgVector.lengthInBytes()];
+        pgVector.toBytes(bytes, 0);
+        return bytes;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(VectorCodecBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
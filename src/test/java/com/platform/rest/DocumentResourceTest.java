@@ -0,0 +1,135 @@
+package com.platform.rest;
+
+import com.platform.ai.EmbeddingService;
+import com.platform.domain.Organization;
+import com.platform.domain.User;
+import com.platform.repository.DocumentEmbeddingRepository;
+import com.platform.security.JwtTokenProvider;
+import com.platform.service.SearchTestData;
+import com.platform.service.StubEmbeddingService;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.test.junit.QuarkusMock;
+import io.quarkus.test.junit.QuarkusTest;
+import io.restassured.http.ContentType;
+import io.restassured.response.ValidatableResponse;
+import jakarta.inject.Inject;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.UUID;
+
+import static com.platform.service.StubEmbeddingService.axis;
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+
+/**
+ * Tests for the search modes and request validation of
+ * {@code POST /api/documents/search}.
+ */
+@QuarkusTest
+class DocumentResourceTest {
+
+    private static final String QUERY = "What does ERR-1042 mean?";
+    private static final String REFUND = "Refunds for annual plans are prorated to the day.";
+    private static final String ERROR = "Error ERR-1042 is raised when the payment gateway times out.";
+
+    @Inject
+    DocumentEmbeddingRepository embeddingRepository;
+
+    @Inject
+    JwtTokenProvider tokenProvider;
+
+    private String token;
+
+    @BeforeEach
+    void setUp() {
+        StubEmbeddingService embeddings = new StubEmbeddingService().with(QUERY, axis(0));
+        QuarkusMock.installMockForType(embeddings, EmbeddingService.class);
+
+        UUID organizationId = SearchTestData.organization("Document search");
+        // The refund chunk is the query's vector, the ERR-1042 chunk its opposite
+        float[] opposite = axis(0);
+        opposite[0] = -1.0f;
+        UUID manual = SearchTestData.document(organizationId, "manual.txt");
+        SearchTestData.chunks(embeddingRepository, manual, List.of(REFUND, ERROR), List.of(axis(0), opposite));
+
+        token = QuarkusTransaction.requiringNew().call(() -> {
+            User user = new User();
+            user.email = "search-" + UUID.randomUUID() + "@example.com";
+            user.passwordHash = "unused";
+            user.role = "USER";
+            user.organization = Organization.findById(organizationId);
+            user.persist();
+            return tokenProvider.generateAccessToken(user);
+        });
+    }
+
+    private ValidatableResponse search(String body) {
+        return given()
+                .auth().oauth2(token)
+                .contentType(ContentType.JSON)
+                .body(body)
+                .when()
+                .post("/api/documents/search")
+                .then();
+    }
+
+    @Test
+    void testSemanticSearchIsTheDefault() {
+        search("{\"query\": \"" + QUERY + "\"}")
+                .statusCode(200)
+                .body("chunkText", contains(REFUND));
+    }
+
+    @Test
+    void testLexicalSearchMatchesIdentifier() {
+        search("{\"query\": \"" + QUERY + "\", \"mode\": \"LEXICAL\"}")
+                .statusCode(200)
+                .body("chunkText", contains(ERROR));
+    }
+
+    @Test
+    void testHybridSearchAppliesWeights() {
+        search("{\"query\": \"" + QUERY + "\", \"mode\": \"HYBRID\", \"lexicalWeight\": 2.0}")
+                .statusCode(200)
+                .body("chunkText", contains(ERROR, REFUND));
+
+        search("{\"query\": \"" + QUERY + "\", \"mode\": \"HYBRID\", \"vectorWeight\": 2.0}")
+                .statusCode(200)
+                .body("chunkText", contains(REFUND, ERROR));
+
+        search("{\"query\": \"" + QUERY + "\", \"mode\": \"HYBRID\", \"lexicalWeight\": 0.0}")
+                .statusCode(200)
+                .body("chunkText", contains(REFUND));
+    }
+
+    @Test
+    void testLexicalSearchWithoutMatchesIsEmpty() {
+        search("{\"query\": \"what is it?\", \"mode\": \"LEXICAL\"}")
+                .statusCode(200)
+                .body("$", empty());
+    }
+
+    @Test
+    void testInvalidRequestsAreRejected() {
+        search("{}").statusCode(400);
+        search("{\"query\": \"  \"}").statusCode(400);
+        search("{\"query\": \"refunds\", \"limit\": 0}").statusCode(400);
+        search("{\"query\": \"refunds\", \"mode\": \"HYBRID\", \"lexicalWeight\": -1.0}").statusCode(400);
+        search("{\"query\": \"refunds\", \"mode\": \"HYBRID\", \"lexicalWeight\": 0.0, \"vectorWeight\": 0.0}")
+                .statusCode(400);
+    }
+
+    @Test
+    void testSearchRequiresAuthentication() {
+        given()
+                .contentType(ContentType.JSON)
+                .body("{\"query\": \"refunds\"}")
+                .when()
+                .post("/api/documents/search")
+                .then()
+                .statusCode(401);
+    }
+}
@@ -0,0 +1,141 @@
+package com.platform.security;
+
+import com.platform.exception.AuthorizationException;
+import io.quarkus.security.identity.SecurityIdentity;
+import jakarta.interceptor.InvocationContext;
+import org.eclipse.microprofile.jwt.JsonWebToken;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH benchmark of one authorized request: the permission interceptor
+ * followed by the user and organization lookups a resource method makes.
+ * Compares parsing the token and looking up annotations on every call with
+ * the {@link ResolvedPrincipal} and cached permission masks.
+ *
+ * Run with:
+ * mvn test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=com.platform.security.PermissionCheckBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PermissionCheckBenchmark {
+
+    private SecurityIdentity identity;
+    private JsonWebToken jwt;
+    private RBACPolicy rbacPolicy;
+    private InvocationContext context;
+
+    @Setup
+    public void setup() throws Exception {
+        String subject = UUID.randomUUID().toString();
+        String organizationId = UUID.randomUUID().toString();
+        identity = (SecurityIdentity) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[] { SecurityIdentity.class }, (proxy, method, args) -> switch (method.getName()) {
+                    case "isAnonymous" -> false;
+                    case "getRoles" -> Set.of("user");
+                    default -> throw new UnsupportedOperationException(method.getName());
+                });
+        jwt = (JsonWebToken) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[] { JsonWebToken.class }, (proxy, method, args) -> switch (method.getName()) {
+                    case "getSubject" -> subject;
+                    case "getClaim" -> organizationId;
+                    default -> throw new UnsupportedOperationException(method.getName());
+                });
+        rbacPolicy = new RBACPolicy();
+
+        Method method = Endpoint.class.getDeclaredMethod("update");
+        Endpoint target = new Endpoint();
+        context = (InvocationContext) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[] { InvocationContext.class }, (proxy, m, args) -> switch (m.getName()) {
+                    case "getMethod" -> method;
+                    case "getTarget" -> target;
+                    case "proceed" -> null;
+                    default -> throw new UnsupportedOperationException(m.getName());
+                });
+    }
+
+    @Benchmark
+    public void parsePerCall(Blackhole blackhole) throws Exception {
+        blackhole.consume(checkPermissionPerCall(context));
+        blackhole.consume(UUID.fromString(jwt.getSubject()));
+        blackhole.consume(UUID.fromString((String) jwt.getClaim("organizationId")));
+        blackhole.consume(UUID.fromString((String) jwt.getClaim("organizationId")));
+    }
+
+    @Benchmark
+    public void resolvedPrincipal(Blackhole blackhole) throws Exception {
+        // A fresh principal per request, as with the request scope
+        ResolvedPrincipal principal = new ResolvedPrincipal();
+        principal.securityIdentity = identity;
+        principal.jwt = jwt;
+        principal.rbacPolicy = rbacPolicy;
+        PermissionInterceptor interceptor = new PermissionInterceptor();
+        interceptor.principal = principal;
+
+        blackhole.consume(interceptor.checkPermission(context));
+        blackhole.consume(principal.getUserId());
+        blackhole.consume(principal.getOrganizationId());
+        blackhole.consume(principal.getOrganizationId());
+    }
+
+    /**
+     * The interceptor as it was: annotation lookup, role parsing and set
+     * lookups on every invocation.
+     */
+    private Object checkPermissionPerCall(InvocationContext context) throws Exception {
+        RequiresPermission annotation = context.getMethod().getAnnotation(RequiresPermission.class);
+        if (annotation == null) {
+            annotation = context.getTarget().getClass().getAnnotation(RequiresPermission.class);
+        }
+        if (annotation != null && annotation.value().length > 0) {
+            boolean hasPermission = false;
+            for (Permission permission : annotation.value()) {
+                if (!identity.isAnonymous()) {
+                    String role = identity.getRoles().stream().findFirst().orElse(null);
+                    if (role != null && rbacPolicy.getPermissions(Role.fromString(role)).contains(permission)) {
+                        hasPermission = true;
+                        break;
+                    }
+                }
+            }
+            if (!hasPermission) {
+                throw new AuthorizationException("Insufficient permissions to access this resource");
+            }
+        }
+        return context.proceed();
+    }
+
+    public static class Endpoint {
+        @RequiresPermission({ Permission.AGENT_CREATE, Permission.AGENT_UPDATE })
+        public void update() {
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(PermissionCheckBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,129 @@
+package com.platform.security;
+
+import com.platform.exception.AuthorizationException;
+import io.quarkus.security.identity.SecurityIdentity;
+import org.eclipse.microprofile.jwt.JsonWebToken;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for resolving the caller once per request and for permission
+ * masks.
+ */
+class ResolvedPrincipalTest {
+
+    private final AtomicInteger claimReads = new AtomicInteger();
+
+    private ResolvedPrincipal principal(boolean anonymous, String role, Map<String, String> claims) {
+        ResolvedPrincipal principal = new ResolvedPrincipal();
+        principal.rbacPolicy = new RBACPolicy();
+        principal.securityIdentity = (SecurityIdentity) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[] { SecurityIdentity.class }, (proxy, method, args) -> switch (method.getName()) {
+                    case "isAnonymous" -> anonymous;
+                    case "getRoles" -> role != null ? Set.of(role) : Set.of();
+                    default -> throw new UnsupportedOperationException(method.getName());
+                });
+        principal.jwt = (JsonWebToken) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[] { JsonWebToken.class }, (proxy, method, args) -> {
+                    claimReads.incrementAndGet();
+                    return switch (method.getName()) {
+                        case "getSubject" -> claims.get("sub");
+                        case "getClaim" -> claims.get((String) args[0]);
+                        default -> throw new UnsupportedOperationException(method.getName());
+                    };
+                });
+        return principal;
+    }
+
+    @Test
+    void testResolvesClaimsOnce() {
+        UUID userId = UUID.randomUUID();
+        UUID organizationId = UUID.randomUUID();
+        ResolvedPrincipal principal = principal(false, "user",
+                Map.of("sub", userId.toString(), "organizationId", organizationId.toString()));
+
+        for (int i = 0; i < 3; i++) {
+            assertEquals(userId, principal.getUserId());
+            assertEquals(organizationId, principal.getOrganizationId());
+            assertTrue(principal.hasPermission(Permission.AGENT_READ));
+        }
+
+        assertEquals(2, claimReads.get());
+        assertEquals(Role.USER, principal.getRole());
+    }
+
+    @Test
+    void testAnonymousHasNoIdentityOrPermissions() {
+        ResolvedPrincipal principal = principal(true, null, Map.of());
+
+        AuthorizationException e = assertThrows(AuthorizationException.class, principal::getUserId);
+        assertEquals("User not authenticated", e.getMessage());
+        assertNull(principal.findUserId());
+        assertNull(principal.findOrganizationId());
+        assertFalse(principal.hasPermission(Permission.AGENT_READ));
+    }
+
+    @Test
+    void testMissingAndMalformedClaims() {
+        ResolvedPrincipal principal = principal(false, "viewer", Map.of("sub", "not-a-uuid"));
+
+        AuthorizationException e = assertThrows(AuthorizationException.class, principal::getUserId);
+        assertEquals("Invalid user ID format in token: not-a-uuid", e.getMessage());
+        assertThrows(AuthorizationException.class, principal::findUserId);
+
+        e = assertThrows(AuthorizationException.class, principal::getOrganizationId);
+        assertEquals("User has no organization", e.getMessage());
+        assertNull(principal.findOrganizationId());
+    }
+
+    @Test
+    void testUnknownRoleHasNoPermissions() {
+        ResolvedPrincipal principal = principal(false, "superuser", Map.of("sub", UUID.randomUUID().toString()));
+
+        assertEquals("superuser", principal.getRoleName());
+        assertNull(principal.getRole());
+        assertFalse(principal.hasAnyPermission(-1L));
+    }
+
+    @Test
+    void testMasksMatchRolePermissions() {
+        RBACPolicy policy = new RBACPolicy();
+        for (Role role : Role.values()) {
+            for (Permission permission : Permission.values()) {
+                assertEquals(policy.getPermissions(role).contains(permission),
+                        policy.hasPermission(role, permission), role + " " + permission);
+            }
+        }
+        assertEquals(0, policy.permissionMask(null));
+    }
+
+    @Test
+    void testRequiredPermissionsFromMethodOrClass() throws Exception {
+        Method annotated = Endpoints.class.getDeclaredMethod("delete");
+        Method inherited = Endpoints.class.getDeclaredMethod("read");
+
+        assertEquals(RBACPolicy.bit(Permission.AGENT_DELETE) | RBACPolicy.bit(Permission.USER_DELETE),
+                PermissionInterceptor.requiredPermissions(annotated, Endpoints.class));
+        assertEquals(RBACPolicy.bit(Permission.AGENT_READ),
+                PermissionInterceptor.requiredPermissions(inherited, Endpoints.class));
+        assertEquals(0, PermissionInterceptor.requiredPermissions(Object.class.getMethod("toString"), Object.class));
+    }
+
+    @RequiresPermission(Permission.AGENT_READ)
+    static class Endpoints {
+        @RequiresPermission({ Permission.AGENT_DELETE, Permission.USER_DELETE })
+        void delete() {
+        }
+
+        void read() {
+        }
+    }
+}
@@ -4,6 +4,7 @@ import com.platform.domain.Agent;
 import com.platform.domain.Conversation;
 import com.platform.domain.Message;
 import com.platform.domain.User;
+import com.platform.service.dto.RAGConfiguration;
 import io.quarkus.test.junit.QuarkusTest;
 import jakarta.inject.Inject;
 import jakarta.transaction.Transactional;
@@ -68,4 +69,58 @@ public class AgentRuntimeServiceTest {
         assertEquals(agent.id, conversation.agent.id, "Conversation should be linked to agent");
         assertEquals(Conversation.ConversationStatus.ACTIVE, conversation.status, "Conversation should be active");
     }
+
+    private static Agent agentWithConfiguration(String configuration) {
+        Agent agent = new Agent();
+        agent.id = UUID.randomUUID();
+        agent.configuration = configuration;
+        return agent;
+    }
+
+    @Test
+    public void testParseMultiQueryConfiguration() {
+        RAGConfiguration config = runtimeService.parseRAGConfiguration(agentWithConfiguration(
+                "{\"rag\": {\"enabled\": true, \"multiQuery\": {\"enabled\": true, \"historyTurns\": 3, "
+                        + "\"keywordQuery\": false, \"latencyBudgetMs\": 800}}}"));
+
+        assertTrue(config.enabled);
+        assertTrue(config.multiQuery);
+        assertEquals(3, config.historyTurns);
+        assertFalse(config.keywordQuery);
+        assertEquals(800, config.latencyBudgetMs);
+    }
+
+    @Test
+    public void testParseMultiQueryDefaults() {
+        RAGConfiguration withoutSection = runtimeService.parseRAGConfiguration(agentWithConfiguration(
+                "{\"rag\": {\"enabled\": true}}"));
+        assertTrue(withoutSection.enabled);
+        assertFalse(withoutSection.multiQuery);
+
+        RAGConfiguration enabledOnly = runtimeService.parseRAGConfiguration(agentWithConfiguration(
+                "{\"rag\": {\"enabled\": true, \"multiQuery\": {\"enabled\": true}}}"));
+        assertTrue(enabledOnly.multiQuery);
+        assertEquals(2, enabledOnly.historyTurns);
+        assertTrue(enabledOnly.keywordQuery);
+        assertEquals(1500, enabledOnly.latencyBudgetMs);
+
+        // Not an object: ignored
+        RAGConfiguration flag = runtimeService.parseRAGConfiguration(agentWithConfiguration(
+                "{\"rag\": {\"enabled\": true, \"multiQuery\": true}}"));
+        assertTrue(flag.enabled);
+        assertFalse(flag.multiQuery);
+    }
+
+    @Test
+    public void testParseInvalidMultiQueryFallsBackToDisabled() {
+        RAGConfiguration tooManyTurns = runtimeService.parseRAGConfiguration(agentWithConfiguration(
+                "{\"rag\": {\"enabled\": true, \"multiQuery\": {\"enabled\": true, \"historyTurns\": 11}}}"));
+        assertFalse(tooManyTurns.enabled);
+        assertFalse(tooManyTurns.multiQuery);
+
+        RAGConfiguration noBudget = runtimeService.parseRAGConfiguration(agentWithConfiguration(
+                "{\"rag\": {\"enabled\": true, \"multiQuery\": {\"enabled\": true, \"latencyBudgetMs\": 0}}}"));
+        assertFalse(noBudget.enabled);
+        assertFalse(noBudget.multiQuery);
+    }
 }
@@ -0,0 +1,68 @@
+package com.platform.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for API key parsing, HMAC hashing and batched last-use
+ * tracking. Lookups against the database are not exercised here.
+ */
+class ApiKeyServiceTest {
+
+    @Test
+    void testLookupIdOfCurrentFormat() {
+        assertEquals("0123456789abcdef", ApiKeyService.lookupId("aap_0123456789abcdef_c2VjcmV0_with-underscores"));
+    }
+
+    @Test
+    void testLegacyAndMalformedKeysHaveNoLookupId() {
+        // Legacy keys are the prefix followed by base64url, which may contain '_'
+        assertNull(ApiKeyService.lookupId("aap_dGhpcyBpcyBhIGxlZ2FjeSBrZXk_abc"));
+        assertNull(ApiKeyService.lookupId("aap_0123456789ABCDEF_secret"));
+        assertNull(ApiKeyService.lookupId("aap_0123456789abcdef_"));
+        assertNull(ApiKeyService.lookupId("aap_0123456789abcdef"));
+        assertNull(ApiKeyService.lookupId("aap_"));
+    }
+
+    @Test
+    void testHmacIsDeterministicAndKeyed() {
+        String key = "aap_0123456789abcdef_secret";
+
+        String hash = ApiKeyService.hmac("server-secret", key);
+
+        assertEquals(64, hash.length());
+        assertEquals(hash, ApiKeyService.hmac("server-secret", key));
+        assertNotEquals(hash, ApiKeyService.hmac("other-secret", key));
+        assertNotEquals(hash, ApiKeyService.hmac("server-secret", key + "x"));
+    }
+
+    @Test
+    void testHmacMatchesKnownVector() {
+        // RFC 4231 test case 2
+        assertEquals("5bdcc146bf60754e6a042426089575c75a003f089d2739839dec58b964ec3843",
+                ApiKeyService.hmac("Jefe", "what do ya want for nothing?"));
+    }
+
+    @Test
+    void testUsageTrackerKeepsLatestUsePerKey() throws InterruptedException {
+        ApiKeyUsageTracker tracker = new ApiKeyUsageTracker();
+        UUID first = UUID.randomUUID();
+        UUID second = UUID.randomUUID();
+
+        tracker.recordUse(first);
+        LocalDateTime before = LocalDateTime.now();
+        Thread.sleep(5);
+        tracker.recordUse(first);
+        tracker.recordUse(second);
+
+        Map<UUID, LocalDateTime> batch = tracker.drain();
+        assertEquals(2, batch.size());
+        assertTrue(batch.get(first).isAfter(before));
+        assertTrue(tracker.drain().isEmpty());
+    }
+}
@@ -0,0 +1,129 @@
+package com.platform.service;
+
+import com.platform.ai.AgentAIService;
+import com.platform.domain.Agent;
+import com.platform.domain.Organization;
+import com.platform.domain.User;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.test.junit.QuarkusMock;
+import io.quarkus.test.junit.QuarkusTest;
+import io.quarkus.test.junit.QuarkusTestProfile;
+import io.quarkus.test.junit.TestProfile;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Load test for chat turns through {@link AgentRuntimeService#processMessage}
+ * with a stubbed model and the real datasource: turns waiting on the model
+ * must neither hold a database connection nor a worker thread, so concurrent
+ * turns scale past both pools.
+ */
+@QuarkusTest
+@TestProfile(ChatExecutorTest.SmallWorkerPool.class)
+class ChatExecutorTest {
+
+    private static final int TURNS = 64;
+    private static final int WORKER_THREADS = 8;
+    private static final long MODEL_LATENCY_MILLIS = 500;
+
+    @Inject
+    AgentRuntimeService runtimeService;
+
+    @ConfigProperty(name = "quarkus.datasource.jdbc.max-size")
+    int connections;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger peak = new AtomicInteger();
+    private final Set<String> modelThreads = ConcurrentHashMap.newKeySet();
+    private UUID agentId;
+    private UUID userId;
+
+    public static class SmallWorkerPool implements QuarkusTestProfile {
+        @Override
+        public Map<String, String> getConfigOverrides() {
+            return Map.of("quarkus.thread-pool.max-threads", String.valueOf(WORKER_THREADS));
+        }
+    }
+
+    @BeforeEach
+    void setUp() {
+        QuarkusMock.installMockForType((AgentAIService) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[] { AgentAIService.class }, (proxy, method, args) -> {
+                    if (method.getDeclaringClass() == Object.class) {
+                        return method.invoke(this, args);
+                    }
+                    modelThreads.add(Thread.currentThread().getName());
+                    peak.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+                    try {
+                        Thread.sleep(MODEL_LATENCY_MILLIS);
+                        return "reply";
+                    } finally {
+                        inFlight.decrementAndGet();
+                    }
+                }), AgentAIService.class);
+
+        QuarkusTransaction.requiringNew().run(() -> {
+            Organization organization = new Organization();
+            organization.name = "Load test";
+            organization.persist();
+
+            User user = new User();
+            user.email = "chat-load-" + UUID.randomUUID() + "@example.com";
+            user.passwordHash = "hash";
+            user.role = "USER";
+            user.organization = organization;
+            user.persist();
+            userId = user.id;
+
+            Agent agent = new Agent();
+            agent.name = "Load test agent";
+            agent.systemPrompt = "You are a helpful assistant";
+            agent.status = Agent.AgentStatus.ACTIVE;
+            agent.modelName = "mistral-small";
+            agent.organization = organization;
+            agent.owner = user;
+            agent.persist();
+            agentId = agent.id;
+        });
+    }
+
+    @Test
+    void testConcurrentTurnsScalePastConnectionAndWorkerPools() throws Exception {
+        long start = System.nanoTime();
+        List<CompletableFuture<AgentRuntimeService.AgentResponse>> turns = new ArrayList<>();
+        for (int i = 0; i < TURNS; i++) {
+            turns.add(runtimeService.processMessage(agentId, "Hello " + i, null, userId).toCompletableFuture());
+        }
+        CompletableFuture.allOf(turns.toArray(new CompletableFuture[0])).get(60, TimeUnit.SECONDS);
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        for (CompletableFuture<AgentRuntimeService.AgentResponse> turn : turns) {
+            assertEquals("reply", turn.get().content);
+            assertNotNull(turn.get().messageId);
+        }
+        assertTrue(peak.get() > connections, "Peak concurrent model calls " + peak.get()
+                + " did not exceed " + connections + " connections");
+        assertTrue(peak.get() > WORKER_THREADS, "Peak concurrent model calls " + peak.get()
+                + " did not exceed " + WORKER_THREADS + " worker threads");
+        assertTrue(modelThreads.stream().allMatch(name -> name.startsWith("chat-")), modelThreads.toString());
+        // Holding a connection for the whole turn would take at least TURNS / connections model calls
+        long connectionBoundMillis = TURNS / connections * MODEL_LATENCY_MILLIS;
+        assertTrue(elapsedMillis < connectionBoundMillis,
+                "Took " + elapsedMillis + "ms, connection-bound execution takes " + connectionBoundMillis + "ms");
+    }
+}
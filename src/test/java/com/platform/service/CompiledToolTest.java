@@ -0,0 +1,71 @@
+package com.platform.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.platform.domain.Tool;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for compiling tool entities into executable definitions.
+ */
+class CompiledToolTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void testCompileParsesAuthAndParameters() {
+        Tool tool = tool("{\"type\":\"API_KEY\",\"apiKey\":\"secret\"}",
+                "{\"city\":{\"name\":\"city\",\"type\":\"string\",\"required\":true}}");
+
+        CompiledTool compiled = CompiledTool.compile(tool, objectMapper);
+
+        assertEquals(tool.id, compiled.id);
+        assertEquals(3L, compiled.version);
+        assertEquals("https://api.example.com/weather", compiled.uri.toString());
+        assertEquals("Bearer secret", compiled.headers.get("Authorization"));
+        assertEquals("secret", compiled.headers.get("X-API-Key"));
+        assertTrue(compiled.parameters.get("city").required);
+    }
+
+    @Test
+    void testBasicAuthHeader() {
+        CompiledTool compiled = CompiledTool.compile(
+                tool("{\"type\":\"BASIC_AUTH\",\"username\":\"user\",\"password\":\"pass\"}", null), objectMapper);
+
+        assertEquals("Basic dXNlcjpwYXNz", compiled.headers.get("Authorization"));
+        assertTrue(compiled.parameters.isEmpty());
+    }
+
+    @Test
+    void testMalformedConfigIsTreatedAsAbsent() {
+        CompiledTool compiled = CompiledTool.compile(tool("{not json", "[1, 2"), objectMapper);
+
+        assertTrue(compiled.headers.isEmpty());
+        assertTrue(compiled.parameters.isEmpty());
+    }
+
+    @Test
+    void testMethodDependsOnParameters() {
+        CompiledTool compiled = CompiledTool.compile(tool(null, null), objectMapper);
+
+        assertEquals("GET", compiled.methodFor(Map.of()));
+        assertEquals("GET", compiled.methodFor(null));
+        assertEquals("POST", compiled.methodFor(Map.of("city", "Accra")));
+    }
+
+    private static Tool tool(String authConfig, String parameters) {
+        Tool tool = new Tool();
+        tool.id = UUID.randomUUID();
+        tool.version = 3L;
+        tool.name = "weather";
+        tool.type = Tool.ToolType.REST_API;
+        tool.endpoint = "https://api.example.com/weather";
+        tool.authConfig = authConfig;
+        tool.parameters = parameters;
+        return tool;
+    }
+}
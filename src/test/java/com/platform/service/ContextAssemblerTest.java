@@ -0,0 +1,79 @@
+package com.platform.service;
+
+import com.platform.ai.RedisChatMemory;
+import com.platform.ai.TokenEstimator;
+import com.platform.service.dto.ContextConfiguration;
+import com.platform.service.dto.RAGContext;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for token-budgeted context selection.
+ */
+class ContextAssemblerTest {
+
+    @Test
+    void testHistoryIsFilledNewestFirstWithinShare() {
+        List<RedisChatMemory.MemoryEntry> history = List.of(
+                entry("USER", "oldest", 30),
+                entry("ASSISTANT", "middle", 30),
+                entry("USER", "newest", 30));
+
+        ContextAssembler.AssembledContext context = ContextAssembler.select(
+                100, new ContextConfiguration(0.6, 0.4, 10), history, null);
+
+        assertEquals("Assistant: middle\nUser: newest", context.history);
+        assertEquals(60, context.historyTokens);
+    }
+
+    @Test
+    void testUnusedHistoryShareGoesToPassages() {
+        RAGContext rag = new RAGContext();
+        rag.addPassage(passage(words(40)));
+
+        ContextAssembler.AssembledContext withoutHistory = ContextAssembler.select(
+                100, new ContextConfiguration(0.5, 0.3, 10), List.of(), rag);
+
+        assertEquals(1, withoutHistory.ragContext.totalPassages);
+        assertTrue(withoutHistory.ragTokens <= 80);
+    }
+
+    @Test
+    void testPassagesThatDoNotFitAreSkipped() {
+        RAGContext rag = new RAGContext();
+        rag.addPassage(passage(words(200)));
+        rag.addPassage(passage(words(10)));
+
+        ContextAssembler.AssembledContext context = ContextAssembler.select(
+                50, new ContextConfiguration(0.0, 1.0, 10), List.of(), rag);
+
+        assertEquals(1, context.ragContext.totalPassages);
+        assertEquals(words(10), context.ragContext.passages.get(0).content);
+    }
+
+    @Test
+    void testAvailableTokensNeverNegative() {
+        assertEquals(0, ContextAssembler.availableTokens(1000, 2000, "system", "hello"));
+        int promptTokens = TokenEstimator.estimate("system") + TokenEstimator.estimate("hello");
+        assertEquals(1000 - 100 - ContextAssembler.TEMPLATE_OVERHEAD_TOKENS - promptTokens,
+                ContextAssembler.availableTokens(1000, 100, "system", "hello"));
+    }
+
+    private static RedisChatMemory.MemoryEntry entry(String role, String content, int tokens) {
+        RedisChatMemory.MemoryEntry entry = new RedisChatMemory.MemoryEntry(role, content);
+        entry.tokenCount = tokens;
+        return entry;
+    }
+
+    private static RAGContext.RetrievedPassage passage(String content) {
+        return new RAGContext.RetrievedPassage(UUID.randomUUID(), "doc", content, 0, 0.9);
+    }
+
+    private static String words(int count) {
+        return String.join(" ", java.util.Collections.nCopies(count, "word"));
+    }
+}
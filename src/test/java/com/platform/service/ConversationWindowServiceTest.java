@@ -0,0 +1,140 @@
+package com.platform.service;
+
+import com.platform.ai.RedisChatMemory;
+import com.platform.domain.Conversation;
+import com.platform.domain.Message;
+import com.platform.repository.MessageRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.test.junit.QuarkusTest;
+import jakarta.inject.Inject;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Integration tests for the Redis-cached conversation window.
+ */
+@QuarkusTest
+class ConversationWindowServiceTest {
+
+    @Inject
+    ConversationWindowService windowService;
+
+    @Inject
+    MessageRepository messageRepository;
+
+    @Inject
+    RedisChatMemory chatMemory;
+
+    @Inject
+    MeterRegistry meterRegistry;
+
+    private UUID conversationId;
+
+    @BeforeEach
+    void setUp() {
+        conversationId = QuarkusTransaction.requiringNew().call(() -> {
+            Conversation conversation = new Conversation();
+            conversation.status = Conversation.ConversationStatus.ACTIVE;
+            conversation.persist();
+            return conversation.id;
+        });
+        // Saved out of order: the timestamp decides the order
+        LocalDateTime start = LocalDateTime.now().minusMinutes(10);
+        for (int i : new int[] { 3, 0, 4, 1, 2 }) {
+            saveMessage("message " + i, start.plusMinutes(i));
+        }
+    }
+
+    @AfterEach
+    void cleanup() {
+        chatMemory.clearMemory(conversationId);
+    }
+
+    private void saveMessage(String content, LocalDateTime timestamp) {
+        QuarkusTransaction.requiringNew().run(() -> {
+            Message message = new Message();
+            message.conversation = Conversation.findById(conversationId);
+            message.role = Message.MessageRole.USER;
+            message.content = content;
+            message.timestamp = timestamp;
+            message.persist();
+        });
+    }
+
+    private static List<String> contents(List<RedisChatMemory.MemoryEntry> entries) {
+        return entries.stream().map(entry -> entry.content).collect(Collectors.toList());
+    }
+
+    private double requests(String result) {
+        return meterRegistry.get("conversation.window.requests").tag("result", result).counter().count();
+    }
+
+    @Test
+    void testFindRecentReturnsLatestOldestFirst() {
+        List<String> recent = QuarkusTransaction.requiringNew().call(() ->
+                messageRepository.findRecentByConversation(conversationId, 3).stream()
+                        .map(message -> message.content)
+                        .collect(Collectors.toList()));
+
+        assertEquals(List.of("message 2", "message 3", "message 4"), recent);
+    }
+
+    @Test
+    void testMissBackFillsAndHitIsServedFromRedis() {
+        double misses = requests("miss");
+        double hits = requests("hit");
+
+        assertEquals(List.of("message 3", "message 4"), contents(windowService.getRecentMessages(conversationId, 2)));
+        assertEquals(misses + 1, requests("miss"));
+        assertTrue(chatMemory.hasMemory(conversationId));
+
+        // Written behind the cache's back: a hit does not see it
+        saveMessage("unrecorded", LocalDateTime.now());
+
+        assertEquals(List.of("message 2", "message 3", "message 4"),
+                contents(windowService.getRecentMessages(conversationId, 3)));
+        assertEquals(hits + 1, requests("hit"));
+    }
+
+    @Test
+    void testRecordedMessageIsAppendedOnlyAfterCommit() {
+        windowService.getRecentMessages(conversationId);
+
+        QuarkusTransaction.requiringNew().run(() -> {
+            windowService.recordMessage(conversationId, Message.MessageRole.ASSISTANT, "committed");
+            assertFalse(contents(chatMemory.getEntries(conversationId, 10)).contains("committed"));
+        });
+        assertEquals("committed", chatMemory.getEntries(conversationId, 1).get(0).content);
+
+        assertThrows(IllegalStateException.class, () -> QuarkusTransaction.requiringNew().run(() -> {
+            windowService.recordMessage(conversationId, Message.MessageRole.ASSISTANT, "rolled back");
+            throw new IllegalStateException("rollback");
+        }));
+        assertEquals("committed", chatMemory.getEntries(conversationId, 1).get(0).content);
+    }
+
+    @Test
+    void testBackFillIsSkippedWhenAppendedToMeanwhile() {
+        long version = chatMemory.getVersion(conversationId);
+        List<RedisChatMemory.MemoryEntry> stale = List.of(new RedisChatMemory.MemoryEntry("USER", "stale"));
+
+        // Appended while the back-fill read the database; the list is not cached yet
+        chatMemory.appendIfPresent(conversationId, "USER", "concurrent");
+
+        assertFalse(chatMemory.replace(conversationId, stale, version));
+        assertFalse(chatMemory.hasMemory(conversationId));
+
+        // The next miss back-fills with the current version
+        assertEquals(5, windowService.getRecentMessages(conversationId).size());
+        assertTrue(chatMemory.hasMemory(conversationId));
+    }
+}
@@ -0,0 +1,159 @@
+package com.platform.service;
+
+import com.platform.ai.EmbeddingService;
+import com.platform.domain.Document;
+import com.platform.domain.DocumentEmbedding;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.test.junit.QuarkusMock;
+import io.quarkus.test.junit.QuarkusTest;
+import io.quarkus.test.junit.QuarkusTestProfile;
+import io.quarkus.test.junit.TestProfile;
+import jakarta.inject.Inject;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.OptionalInt;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Integration tests for batched document indexing: chunk offsets, progress,
+ * and clean-up after a failed batch.
+ */
+@QuarkusTest
+@TestProfile(DocumentIndexingTest.SmallBatches.class)
+class DocumentIndexingTest {
+
+    /** Five chunks (starting at words 0, 450, 900, 1350 and 1800), three batches */
+    private static final String CONTENT = IntStream.range(0, 2000)
+            .mapToObj(i -> "w" + i)
+            .collect(Collectors.joining(" "));
+
+    @Inject
+    VectorStoreService vectorStoreService;
+
+    @Inject
+    VectorIndexService vectorIndexService;
+
+    private UUID organizationId;
+    private UUID documentId;
+
+    public static class SmallBatches implements QuarkusTestProfile {
+        @Override
+        public Map<String, String> getConfigOverrides() {
+            // One batch at a time, so batches run in chunk order
+            return Map.of(
+                    "vector.indexing.batch-size", "2",
+                    "vector.indexing.concurrency", "1",
+                    "vector.index.hnsw.enabled", "true");
+        }
+    }
+
+    @BeforeEach
+    void setUp() throws InterruptedException {
+        organizationId = SearchTestData.organization("Indexing");
+        documentId = SearchTestData.document(organizationId, "manual.txt");
+
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (!vectorIndexService.isReady() && System.nanoTime() < deadline) {
+            Thread.sleep(50);
+        }
+        assertTrue(vectorIndexService.isReady());
+    }
+
+    private void index() {
+        Document document = QuarkusTransaction.requiringNew().call(() -> Document.findById(documentId));
+        vectorStoreService.indexDocument(document, CONTENT);
+    }
+
+    private List<DocumentEmbedding> storedChunks() {
+        return QuarkusTransaction.requiringNew().call(() ->
+                DocumentEmbedding.list("document.id = ?1 order by chunkIndex", documentId));
+    }
+
+    private Document.DocumentStatus status() {
+        return QuarkusTransaction.requiringNew().call(() -> Document.<Document>findById(documentId).status);
+    }
+
+    private static String firstWord(String chunk) {
+        return chunk.substring(0, chunk.indexOf(' '));
+    }
+
+    @Test
+    void testBatchesCarryTheirChunkIndexOffsets() {
+        StubEmbeddingService embeddings = new StubEmbeddingService();
+        QuarkusMock.installMockForType(embeddings, EmbeddingService.class);
+
+        index();
+
+        assertEquals(List.of(List.of("w0", "w450"), List.of("w900", "w1350"), List.of("w1800")),
+                embeddings.batches.stream()
+                        .map(batch -> batch.stream().map(DocumentIndexingTest::firstWord).toList())
+                        .toList());
+
+        List<DocumentEmbedding> chunks = storedChunks();
+        assertEquals(List.of(0, 1, 2, 3, 4), chunks.stream().map(chunk -> chunk.chunkIndex).toList());
+        assertEquals(List.of("w0", "w450", "w900", "w1350", "w1800"),
+                chunks.stream().map(chunk -> firstWord(chunk.content)).toList());
+        assertEquals(Document.DocumentStatus.INDEXED, status());
+        assertEquals(5, vectorIndexService.search(organizationId, chunks.get(0).embedding, 10).get().size());
+    }
+
+    @Test
+    void testProgressCountsCompletedBatches() throws Exception {
+        CountDownLatch lastBatchStarted = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        StubEmbeddingService embeddings = new StubEmbeddingService() {
+            @Override
+            public List<float[]> embedAll(List<String> texts) {
+                if (firstWord(texts.get(0)).equals("w1800")) {
+                    lastBatchStarted.countDown();
+                    try {
+                        release.await(10, TimeUnit.SECONDS);
+                    } catch (InterruptedException e) {
+                        throw new IllegalStateException(e);
+                    }
+                }
+                return super.embedAll(texts);
+            }
+        };
+        QuarkusMock.installMockForType(embeddings, EmbeddingService.class);
+
+        assertEquals(OptionalInt.empty(), vectorStoreService.getIndexingProgress(documentId));
+        CompletableFuture<Void> indexing = CompletableFuture.runAsync(this::index);
+        assertTrue(lastBatchStarted.await(10, TimeUnit.SECONDS));
+
+        // Two of three batches stored
+        assertEquals(OptionalInt.of(66), vectorStoreService.getIndexingProgress(documentId));
+
+        release.countDown();
+        indexing.get(10, TimeUnit.SECONDS);
+        assertEquals(OptionalInt.empty(), vectorStoreService.getIndexingProgress(documentId));
+        assertEquals(Document.DocumentStatus.INDEXED, status());
+    }
+
+    @Test
+    void testFailedBatchDiscardsTheWholeDocument() {
+        StubEmbeddingService embeddings = new StubEmbeddingService()
+                .failWhen(texts -> firstWord(texts.get(0)).equals("w900"));
+        QuarkusMock.installMockForType(embeddings, EmbeddingService.class);
+
+        assertThrows(RuntimeException.class, this::index);
+
+        // The first batch was stored before the second failed; the third never ran
+        assertEquals(2, embeddings.batches.size());
+        assertEquals(Document.DocumentStatus.FAILED, status());
+        assertTrue(storedChunks().isEmpty());
+        // The organization's index only held this document's vectors
+        assertTrue(vectorIndexService.search(organizationId, StubEmbeddingService.axis(0), 10).get().isEmpty());
+        assertEquals(OptionalInt.empty(), vectorStoreService.getIndexingProgress(documentId));
+    }
+}
@@ -0,0 +1,155 @@
+package com.platform.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the in-memory HNSW index.
+ */
+class HnswIndexTest {
+
+    private static final int DIMENSION = 32;
+
+    @Test
+    void testSearchMatchesBruteForce() {
+        Random random = new Random(42);
+        HnswIndex index = new HnswIndex(16, 100, new Random(7));
+        List<UUID> ids = new ArrayList<>();
+        List<float[]> vectors = new ArrayList<>();
+
+        for (int i = 0; i < 2000; i++) {
+            UUID id = UUID.randomUUID();
+            float[] vector = randomVector(random);
+            ids.add(id);
+            vectors.add(vector);
+            index.add(id, vector);
+        }
+
+        int hits = 0;
+        int queries = 50;
+        int k = 10;
+        for (int q = 0; q < queries; q++) {
+            float[] query = randomVector(random);
+            Set<UUID> expected = bruteForce(query, ids, vectors, k);
+            Set<UUID> actual = index.search(query, k, 64).stream()
+                    .map(neighbor -> neighbor.id)
+                    .collect(Collectors.toSet());
+            actual.retainAll(expected);
+            hits += actual.size();
+        }
+
+        double recall = (double) hits / (queries * k);
+        assertTrue(recall > 0.9, "Recall should be above 0.9 but was " + recall);
+    }
+
+    @Test
+    void testResultsOrderedByDistance() {
+        Random random = new Random(1);
+        HnswIndex index = new HnswIndex(8, 50, new Random(1));
+        for (int i = 0; i < 200; i++) {
+            index.add(UUID.randomUUID(), randomVector(random));
+        }
+
+        List<HnswIndex.Neighbor> results = index.search(randomVector(random), 5, 32);
+
+        assertEquals(5, results.size());
+        for (int i = 1; i < results.size(); i++) {
+            assertTrue(results.get(i - 1).distance <= results.get(i).distance);
+        }
+    }
+
+    @Test
+    void testExactMatchIsNearest() {
+        Random random = new Random(3);
+        HnswIndex index = new HnswIndex(8, 50, new Random(3));
+        UUID target = UUID.randomUUID();
+        float[] targetVector = randomVector(random);
+        index.add(target, targetVector);
+        for (int i = 0; i < 300; i++) {
+            index.add(UUID.randomUUID(), randomVector(random));
+        }
+
+        List<HnswIndex.Neighbor> results = index.search(targetVector, 1, 32);
+
+        assertEquals(target, results.get(0).id);
+        assertEquals(0.0, results.get(0).distance, 1e-5);
+    }
+
+    @Test
+    void testRemovedVectorsAreNotReturned() {
+        Random random = new Random(5);
+        HnswIndex index = new HnswIndex(8, 50, new Random(5));
+        UUID removed = UUID.randomUUID();
+        float[] removedVector = randomVector(random);
+        index.add(removed, removedVector);
+        for (int i = 0; i < 100; i++) {
+            index.add(UUID.randomUUID(), randomVector(random));
+        }
+
+        assertTrue(index.remove(removed));
+        assertFalse(index.remove(removed));
+
+        List<HnswIndex.Neighbor> results = index.search(removedVector, 10, 32);
+        assertTrue(results.stream().noneMatch(neighbor -> neighbor.id.equals(removed)));
+        assertEquals(100, index.size());
+    }
+
+    @Test
+    void testCompactDropsTombstones() {
+        Random random = new Random(9);
+        HnswIndex index = new HnswIndex(8, 50, new Random(9));
+        List<UUID> ids = new ArrayList<>();
+        for (int i = 0; i < 400; i++) {
+            UUID id = UUID.randomUUID();
+            ids.add(id);
+            index.add(id, randomVector(random));
+        }
+        for (int i = 0; i < 150; i++) {
+            index.remove(ids.get(i));
+        }
+
+        assertTrue(index.needsCompaction());
+        HnswIndex compacted = index.compact();
+
+        assertEquals(250, compacted.size());
+        assertFalse(compacted.needsCompaction());
+        assertFalse(compacted.contains(ids.get(0)));
+        assertTrue(compacted.contains(ids.get(399)));
+    }
+
+    @Test
+    void testEmptyIndex() {
+        HnswIndex index = new HnswIndex(16, 100);
+        assertTrue(index.search(new float[DIMENSION], 5, 32).isEmpty());
+        assertEquals(0, index.size());
+    }
+
+    private static float[] randomVector(Random random) {
+        float[] vector = new float[DIMENSION];
+        for (int i = 0; i < DIMENSION; i++) {
+            vector[i] = (float) random.nextGaussian();
+        }
+        return vector;
+    }
+
+    private static Set<UUID> bruteForce(float[] query, List<UUID> ids, List<float[]> vectors, int k) {
+        float[] normalizedQuery = HnswIndex.normalize(query);
+        List<Integer> order = new ArrayList<>();
+        for (int i = 0; i < ids.size(); i++) {
+            order.add(i);
+        }
+        order.sort(Comparator.comparingDouble(
+                i -> HnswIndex.distance(normalizedQuery, HnswIndex.normalize(vectors.get(i)))));
+        return new HashSet<>(order.subList(0, k).stream().map(ids::get).collect(Collectors.toList()));
+    }
+}
@@ -0,0 +1,125 @@
+package com.platform.service;
+
+import com.platform.ai.EmbeddingService;
+import com.platform.repository.DocumentEmbeddingRepository;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.test.junit.QuarkusMock;
+import io.quarkus.test.junit.QuarkusTest;
+import jakarta.inject.Inject;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import static com.platform.service.StubEmbeddingService.axis;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Integration tests for full-text and hybrid document search against the
+ * V13 {@code content_tsv} column.
+ */
+@QuarkusTest
+class HybridSearchIntegrationTest {
+
+    private static final String QUERY = "What does ERR-1042 mean?";
+
+    @Inject
+    VectorStoreService vectorStoreService;
+
+    @Inject
+    DocumentEmbeddingRepository embeddingRepository;
+
+    private UUID organizationId;
+    private UUID otherOrganizationId;
+
+    @BeforeEach
+    void setUp() {
+        StubEmbeddingService embeddings = new StubEmbeddingService().with(QUERY, axis(0));
+        QuarkusMock.installMockForType(embeddings, EmbeddingService.class);
+
+        organizationId = SearchTestData.organization("Hybrid search");
+        otherOrganizationId = SearchTestData.organization("Other");
+
+        UUID manual = SearchTestData.document(organizationId, "manual.txt");
+        SearchTestData.chunks(embeddingRepository, manual, List.of(
+                        "Refunds for annual plans are prorated to the day.",
+                        "Error ERR-1042 is raised when the payment gateway times out.",
+                        "Order SKU/778 ships from the Rotterdam warehouse.",
+                        "Error ERR-1043 means the card was declined."),
+                List.of(axis(0), scaled(axis(0), -1), axis(5), axis(6)));
+
+        UUID otherManual = SearchTestData.document(otherOrganizationId, "other.txt");
+        SearchTestData.chunks(embeddingRepository, otherManual, List.of(
+                        "ERR-1042 in another organization's manual."),
+                List.of(axis(0)));
+    }
+
+    private static float[] scaled(float[] vector, float factor) {
+        for (int i = 0; i < vector.length; i++) {
+            vector[i] *= factor;
+        }
+        return vector;
+    }
+
+    private static List<String> texts(List<VectorStoreService.SearchResult> results) {
+        return results.stream().map(result -> result.chunkText).collect(Collectors.toList());
+    }
+
+    @Test
+    void testLexicalSearchMatchesHyphenatedIdentifier() {
+        List<String> matches = texts(vectorStoreService.lexicalSearch(QUERY, organizationId, 10));
+
+        assertEquals(List.of("Error ERR-1042 is raised when the payment gateway times out."), matches);
+    }
+
+    @Test
+    void testLexicalSearchMatchesPathLikeIdentifier() {
+        List<String> matches = texts(vectorStoreService.lexicalSearch("status of SKU/778", organizationId, 10));
+
+        assertEquals(List.of("Order SKU/778 ships from the Rotterdam warehouse."), matches);
+    }
+
+    @Test
+    void testFindLexicalChunksFiltersByOrganizationAndNormalizesRank() {
+        List<DocumentEmbeddingRepository.ChunkMatch> matches = QuarkusTransaction.requiringNew().call(() ->
+                embeddingRepository.findLexicalChunks(QueryExpander.lexicalQuery(QUERY), otherOrganizationId, 10));
+
+        assertEquals(1, matches.size());
+        assertEquals("ERR-1042 in another organization's manual.", matches.get(0).content);
+        // Returned as a distance of 1 - rank, rank in [0, 1)
+        assertTrue(matches.get(0).distance > 0.0 && matches.get(0).distance <= 1.0);
+    }
+
+    @Test
+    void testLexicalSearchWithoutContentWordsReturnsNothing() {
+        assertTrue(vectorStoreService.lexicalSearch("what is it?", organizationId, 10).isEmpty());
+    }
+
+    @Test
+    void testHybridSearchWeightsDecideTheOrder() {
+        // Above the threshold, the vector ranking has the refund chunk only (the
+        // others are orthogonal or opposite); the lexical one the ERR-1042 chunk only
+        List<String> lexicalFirst = texts(vectorStoreService.hybridSearch(List.of(QUERY), organizationId, 10,
+                0.1, 2.0, 1.0, Duration.ZERO));
+        assertEquals(List.of(
+                "Error ERR-1042 is raised when the payment gateway times out.",
+                "Refunds for annual plans are prorated to the day."), lexicalFirst);
+
+        List<String> vectorFirst = texts(vectorStoreService.hybridSearch(List.of(QUERY), organizationId, 10,
+                0.1, 1.0, 2.0, Duration.ZERO));
+        assertEquals(List.of(
+                "Refunds for annual plans are prorated to the day.",
+                "Error ERR-1042 is raised when the payment gateway times out."), vectorFirst);
+    }
+
+    @Test
+    void testHybridSearchWithoutLexicalWeightIsVectorOnly() {
+        List<String> results = texts(vectorStoreService.hybridSearch(List.of(QUERY), organizationId, 10,
+                0.1, 0.0, 1.0, Duration.ZERO));
+
+        assertEquals(List.of("Refunds for annual plans are prorated to the day."), results);
+    }
+}
@@ -0,0 +1,74 @@
+package com.platform.service;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for streaming JSON field selection.
+ */
+class JsonProjectionTest {
+
+    private static final String DOCUMENT = "{"
+            + "\"status\":\"ok\","
+            + "\"meta\":{\"page\":1,\"total\":3},"
+            + "\"items\":[{\"name\":\"a\",\"price\":1.5},{\"name\":\"b\",\"price\":2},{\"name\":\"c\"}],"
+            + "\"blob\":{\"large\":[1,2,3,4,5]}"
+            + "}";
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void testSelectsNestedFieldsAndIndexes() throws Exception {
+        Map<String, Object> result = project(DOCUMENT, "$.status", "$.meta.total", "$.items[1].name");
+
+        assertEquals("ok", result.get("$.status"));
+        assertEquals(3, result.get("$.meta.total"));
+        assertEquals("b", result.get("$.items[1].name"));
+        assertEquals(3, result.size());
+    }
+
+    @Test
+    void testWildcardsCollectAllMatches() throws Exception {
+        Map<String, Object> result = project(DOCUMENT, "$.items[*].name", "$.items[*].price");
+
+        assertEquals(List.of("a", "b", "c"), result.get("$.items[*].name"));
+        assertEquals(List.of(1.5, 2), result.get("$.items[*].price"));
+    }
+
+    @Test
+    void testSelectsWholeSubtreesAndOmitsMissingFields() throws Exception {
+        Map<String, Object> result = project(DOCUMENT, "$.meta", "$.missing", "$.items[7]");
+
+        assertEquals(Map.of("page", 1, "total", 3), result.get("$.meta"));
+        assertFalse(result.containsKey("$.missing"));
+        assertFalse(result.containsKey("$.items[7]"));
+    }
+
+    @Test
+    void testOverlappingSelectors() throws Exception {
+        Map<String, Object> result = project(DOCUMENT, "$.items[0]", "$.items[0].name");
+
+        assertEquals(Map.of("name", "a", "price", 1.5), result.get("$.items[0]"));
+        assertEquals("a", result.get("$.items[0].name"));
+    }
+
+    @Test
+    void testRejectsMalformedSelectors() {
+        assertThrows(IllegalArgumentException.class, () -> JsonProjection.compile(List.of("items")));
+        assertThrows(IllegalArgumentException.class, () -> JsonProjection.compile(List.of("$.items[0")));
+        assertThrows(IllegalArgumentException.class, () -> JsonProjection.compile(List.of("$.items[x]")));
+        assertThrows(IllegalArgumentException.class, () -> JsonProjection.compile(List.of("$..name")));
+    }
+
+    private Map<String, Object> project(String json, String... selectors) throws Exception {
+        try (JsonParser parser = objectMapper.getFactory().createParser(json)) {
+            return JsonProjection.compile(List.of(selectors)).project(parser, objectMapper);
+        }
+    }
+}
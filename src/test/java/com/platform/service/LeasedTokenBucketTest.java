@@ -0,0 +1,164 @@
+package com.platform.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for leasing rate limit tokens in chunks and answering locally.
+ */
+class LeasedTokenBucketTest {
+
+    private long now;
+    private long shared;
+    private List<Long> leases;
+    private LeasedTokenBucket bucket;
+
+    @BeforeEach
+    void setUp() {
+        now = 0;
+        shared = 10;
+        leases = new ArrayList<>();
+        bucket = new LeasedTokenBucket(TimeUnit.SECONDS.toNanos(1), () -> now);
+    }
+
+    private LeasedTokenBucket.Grant lease(long requested, long returned) {
+        leases.add(requested);
+        shared += returned;
+        long granted = Math.min(requested, shared);
+        shared -= granted;
+        return new LeasedTokenBucket.Grant(granted, shared, granted == 0 ? 500 : 0);
+    }
+
+    @Test
+    void testLeasesOnceThenAnswersLocally() {
+        for (int i = 0; i < 4; i++) {
+            assertTrue(bucket.acquire(4, this::lease).allowed);
+        }
+
+        assertEquals(List.of(4L), leases);
+        assertEquals(6, bucket.remaining());
+    }
+
+    @Test
+    void testOnlyFirstRequestOfALeaseGoesToRedis() {
+        assertTrue(bucket.acquire(3, this::lease).fromRedis);
+        assertFalse(bucket.acquire(3, this::lease).fromRedis);
+        assertFalse(bucket.acquire(3, this::lease).fromRedis);
+        assertTrue(bucket.acquire(3, this::lease).fromRedis);
+    }
+
+    @Test
+    void testNeverAllowsMoreThanSharedBucket() {
+        int allowed = 0;
+        for (int i = 0; i < 25; i++) {
+            if (bucket.acquire(4, this::lease).allowed) {
+                allowed++;
+            }
+        }
+
+        assertEquals(10, allowed);
+    }
+
+    @Test
+    void testRejectsLocallyUntilRetryAfter() {
+        shared = 0;
+
+        RateLimitingService.Decision first = bucket.acquire(4, this::lease);
+        assertFalse(first.allowed);
+        assertEquals(500, first.retryAfterMillis);
+
+        now += TimeUnit.MILLISECONDS.toNanos(200);
+        RateLimitingService.Decision second = bucket.acquire(4, this::lease);
+        assertFalse(second.allowed);
+        assertFalse(second.fromRedis);
+        assertEquals(300, second.retryAfterMillis);
+        assertEquals(1, leases.size());
+
+        shared = 5;
+        now += TimeUnit.MILLISECONDS.toNanos(300);
+        assertTrue(bucket.acquire(4, this::lease).allowed);
+        assertEquals(2, leases.size());
+    }
+
+    @Test
+    void testExpiredLeaseIsReturned() {
+        assertTrue(bucket.acquire(4, this::lease).allowed);
+        now += TimeUnit.SECONDS.toNanos(2);
+
+        assertTrue(bucket.acquire(4, this::lease).allowed);
+
+        // The three unused tokens of the first lease went back to the shared bucket
+        assertEquals(List.of(4L, 4L), leases);
+        assertEquals(5 + 3, bucket.remaining());
+    }
+
+    @Test
+    void testSteadyRequestsSlowerThanLeaseTtlGetFullLimit() {
+        for (long intervalMillis : new long[] { 600, 1500, 2000 }) {
+            shared = 100;
+            bucket = new LeasedTokenBucket(TimeUnit.SECONDS.toNanos(1), () -> now);
+            int allowed = 0;
+            for (int i = 0; i < 150; i++) {
+                if (bucket.acquire(5, this::lease).allowed) {
+                    allowed++;
+                }
+                now += TimeUnit.MILLISECONDS.toNanos(intervalMillis);
+            }
+
+            assertEquals(100, allowed, "one request every " + intervalMillis + "ms");
+        }
+    }
+
+    @Test
+    void testRequestsDuringALeaseWaitForItWithoutHoldingTheLock() throws Exception {
+        CountDownLatch leaseStarted = new CountDownLatch(1);
+        CountDownLatch redisReplies = new CountDownLatch(1);
+        LeasedTokenBucket.Leaser slowLeaser = (requested, returned) -> {
+            leaseStarted.countDown();
+            try {
+                redisReplies.await();
+            } catch (InterruptedException e) {
+                throw new IllegalStateException(e);
+            }
+            return lease(requested, returned);
+        };
+        ExecutorService pool = Executors.newFixedThreadPool(2);
+        try {
+            Future<RateLimitingService.Decision> leasing = pool.submit(() -> bucket.acquire(4, slowLeaser));
+            assertTrue(leaseStarted.await(5, TimeUnit.SECONDS));
+            Future<RateLimitingService.Decision> waiting = pool.submit(() -> bucket.acquire(4, slowLeaser));
+
+            // The monitor is free while Redis is being called
+            assertEquals(-1, bucket.remaining());
+
+            redisReplies.countDown();
+            assertTrue(leasing.get(5, TimeUnit.SECONDS).allowed);
+            assertTrue(waiting.get(5, TimeUnit.SECONDS).allowed);
+        } finally {
+            pool.shutdownNow();
+        }
+
+        assertEquals(List.of(4L), leases);
+    }
+
+    @Test
+    void testLeaseSizeIsShareOfLimit() {
+        RateLimitingService service = new RateLimitingService();
+        service.leaseFraction = 0.05;
+        service.leaseMaxTokens = 50;
+
+        assertEquals(1, service.leaseSize(10));
+        assertEquals(5, service.leaseSize(100));
+        assertEquals(50, service.leaseSize(100_000));
+    }
+}
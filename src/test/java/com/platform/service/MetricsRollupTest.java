@@ -0,0 +1,107 @@
+package com.platform.service;
+
+import com.platform.domain.MetricsRollup;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for rolling metrics up into minute, hour and day buckets and
+ * for latency percentiles. Compaction against the database is not exercised
+ * here.
+ */
+class MetricsRollupTest {
+
+    private static final UUID AGENT = UUID.randomUUID();
+    private static final UUID ORGANIZATION = UUID.randomUUID();
+
+    @Test
+    void testAggregatesIntoEveryGranularity() {
+        MetricsRollupCompactor.Aggregation aggregation = new MetricsRollupCompactor.Aggregation();
+        aggregation.addInteraction(AGENT, ORGANIZATION, LocalDateTime.of(2026, 3, 1, 10, 15, 5), 100, 50, 1, true);
+        aggregation.addInteraction(AGENT, ORGANIZATION, LocalDateTime.of(2026, 3, 1, 10, 15, 50), 300, 70, 0, false);
+        aggregation.addInteraction(AGENT, ORGANIZATION, LocalDateTime.of(2026, 3, 1, 10, 40, 0), 200, 10, 2, true);
+        aggregation.addConversation(AGENT, ORGANIZATION, LocalDateTime.of(2026, 3, 1, 10, 15, 0));
+
+        Map<String, MetricsRollup> rollups = aggregation.rollups().stream()
+                .collect(Collectors.toMap(r -> r.granularity + " " + r.bucketStart, Function.identity()));
+
+        assertEquals(4, rollups.size());
+        MetricsRollup minute = rollups.get("MINUTE 2026-03-01T10:15");
+        assertEquals(2, minute.interactions);
+        assertEquals(1, minute.failures);
+        assertEquals(1, minute.conversations);
+        assertEquals(400, minute.totalResponseTimeMs);
+        assertEquals(120, minute.totalTokens);
+        assertEquals(1, rollups.get("MINUTE 2026-03-01T10:40").interactions);
+
+        MetricsRollup hour = rollups.get("HOUR 2026-03-01T10:00");
+        MetricsRollup day = rollups.get("DAY 2026-03-01T00:00");
+        for (MetricsRollup rollup : new MetricsRollup[] { hour, day }) {
+            assertEquals(3, rollup.interactions);
+            assertEquals(600, rollup.totalResponseTimeMs);
+            assertEquals(3, rollup.totalToolCalls);
+            assertEquals(ORGANIZATION, rollup.organizationId);
+        }
+    }
+
+    @Test
+    void testAddMergesCountsAndHistograms() {
+        MetricsRollupCompactor.Aggregation first = new MetricsRollupCompactor.Aggregation();
+        first.addInteraction(AGENT, ORGANIZATION, LocalDateTime.of(2026, 3, 1, 0, 0), 10, 1, 0, true);
+        MetricsRollupCompactor.Aggregation second = new MetricsRollupCompactor.Aggregation();
+        second.addInteraction(AGENT, ORGANIZATION, LocalDateTime.of(2026, 3, 1, 0, 0), 1000, 1, 0, true);
+
+        MetricsRollup total = new MetricsRollup();
+        total.add(day(first));
+        total.add(day(second));
+
+        assertEquals(2, total.interactions);
+        assertEquals(1010, total.totalResponseTimeMs);
+        assertEquals(2, Arrays.stream(total.latencyHistogram).sum());
+    }
+
+    @Test
+    void testBucketsAreMonotonicAndCoverEveryLatency() {
+        assertEquals(0, LatencyHistogram.bucket(0));
+        assertEquals(0, LatencyHistogram.bucket(1));
+        assertEquals(LatencyHistogram.BUCKETS - 1, LatencyHistogram.bucket(Long.MAX_VALUE));
+        int previous = 0;
+        for (long ms = 1; ms < 100_000; ms += 7) {
+            int bucket = LatencyHistogram.bucket(ms);
+            assertTrue(bucket >= previous);
+            previous = bucket;
+        }
+    }
+
+    @Test
+    void testPercentilesWithinOneBucket() {
+        long[] counts = LatencyHistogram.empty();
+        for (int ms = 1; ms <= 1000; ms++) {
+            LatencyHistogram.record(counts, ms);
+        }
+
+        assertWithin(500, LatencyHistogram.percentile(counts, 50));
+        assertWithin(950, LatencyHistogram.percentile(counts, 95));
+        assertWithin(990, LatencyHistogram.percentile(counts, 99));
+        assertEquals(0, LatencyHistogram.percentile(LatencyHistogram.empty(), 50));
+    }
+
+    private static void assertWithin(long expected, long actual) {
+        assertTrue(actual >= expected && actual <= expected * 1.2, "expected ~" + expected + " but was " + actual);
+    }
+
+    private static MetricsRollup day(MetricsRollupCompactor.Aggregation aggregation) {
+        return aggregation.rollups().stream()
+                .filter(r -> r.granularity == MetricsRollup.Granularity.DAY)
+                .findFirst()
+                .orElseThrow();
+    }
+}
@@ -0,0 +1,80 @@
+package com.platform.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the latency budget of multi-query and hybrid search.
+ */
+class MultiQueryDeadlineTest {
+
+    private static List<VectorStoreService.SearchResult> results(String text) {
+        VectorStoreService.SearchResult result = new VectorStoreService.SearchResult();
+        result.chunkText = text;
+        return List.of(result);
+    }
+
+    private static List<String> texts(List<List<VectorStoreService.SearchResult>> completed) {
+        return completed.stream().map(results -> results.get(0).chunkText).toList();
+    }
+
+    private static long inMillis(long millis) {
+        return System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(millis);
+    }
+
+    @Test
+    void testPrimaryIsAwaitedPastTheDeadline() {
+        CompletableFuture<List<VectorStoreService.SearchResult>> primary = CompletableFuture.supplyAsync(
+                () -> results("primary"), CompletableFuture.delayedExecutor(200, TimeUnit.MILLISECONDS));
+        CompletableFuture<List<VectorStoreService.SearchResult>> secondary =
+                CompletableFuture.completedFuture(results("secondary"));
+
+        // The deadline has passed before the primary completes
+        List<List<VectorStoreService.SearchResult>> completed =
+                VectorStoreService.awaitSearches(List.of(primary, secondary), System.nanoTime());
+
+        assertEquals(List.of("primary", "secondary"), texts(completed));
+    }
+
+    @Test
+    void testLateSecondaryIsDroppedAndCancelled() {
+        CompletableFuture<List<VectorStoreService.SearchResult>> late = new CompletableFuture<>();
+        CompletableFuture<List<VectorStoreService.SearchResult>> inTime = CompletableFuture.supplyAsync(
+                () -> results("in time"), CompletableFuture.delayedExecutor(10, TimeUnit.MILLISECONDS));
+
+        long start = System.nanoTime();
+        List<List<VectorStoreService.SearchResult>> completed = VectorStoreService.awaitSearches(
+                List.of(CompletableFuture.completedFuture(results("primary")), late, inTime), inMillis(100));
+
+        assertEquals(List.of("primary", "in time"), texts(completed));
+        assertTrue(late.isCancelled());
+        assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(5));
+    }
+
+    @Test
+    void testFailedSecondaryIsIgnored() {
+        List<List<VectorStoreService.SearchResult>> completed = VectorStoreService.awaitSearches(List.of(
+                CompletableFuture.completedFuture(results("primary")),
+                CompletableFuture.failedFuture(new IllegalStateException("index unavailable")),
+                CompletableFuture.completedFuture(results("secondary"))), inMillis(100));
+
+        assertEquals(List.of("primary", "secondary"), texts(completed));
+    }
+
+    @Test
+    void testFailedPrimaryIsRethrown() {
+        List<CompletableFuture<List<VectorStoreService.SearchResult>>> searches = List.of(
+                CompletableFuture.failedFuture(new IllegalStateException("database unavailable")),
+                CompletableFuture.completedFuture(results("secondary")));
+
+        CompletionException e = assertThrows(CompletionException.class,
+                () -> VectorStoreService.awaitSearches(searches, inMillis(100)));
+        assertInstanceOf(IllegalStateException.class, e.getCause());
+    }
+}
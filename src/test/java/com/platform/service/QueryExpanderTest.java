@@ -0,0 +1,39 @@
+package com.platform.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for multi-query expansion and full-text query building.
+ */
+class QueryExpanderTest {
+
+    @Test
+    void testQueryExpansion() {
+        assertEquals(List.of("What is the refund policy for annual plans?",
+                "How do I upgrade?\nWhat is the refund policy for annual plans?",
+                "refund policy annual plans"),
+                QueryExpander.expand("What is the refund policy for annual plans?",
+                        List.of("How do I upgrade?"), true));
+
+        // Variants identical to the message are not repeated
+        assertEquals(List.of("invoices"), QueryExpander.expand("invoices", List.of(), true));
+        assertEquals(List.of("What is it?"), QueryExpander.expand("What is it?", null, true));
+    }
+
+    @Test
+    void testKeywordQueryCanBeDisabled() {
+        assertEquals(List.of("What is the refund policy?"),
+                QueryExpander.expand("What is the refund policy?", List.of(), false));
+    }
+
+    @Test
+    void testLexicalQueryKeepsIdentifiers() {
+        assertEquals("status OR err-1042 OR order OR sku/778",
+                QueryExpander.lexicalQuery("What is the status of ERR-1042 for order SKU/778?"));
+        assertEquals("", QueryExpander.lexicalQuery("what is it?"));
+    }
+}
@@ -1,14 +1,22 @@
 package com.platform.service;
 
+import com.platform.ai.EmbeddingService;
 import com.platform.domain.Agent;
 import com.platform.domain.Organization;
+import com.platform.repository.DocumentEmbeddingRepository;
 import com.platform.service.dto.RAGConfiguration;
 import com.platform.service.dto.RAGContext;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.test.junit.QuarkusMock;
 import io.quarkus.test.junit.QuarkusTest;
 import jakarta.inject.Inject;
 import jakarta.transaction.Transactional;
 import org.junit.jupiter.api.Test;
 
+import java.util.List;
+import java.util.UUID;
+
+import static com.platform.service.StubEmbeddingService.atSimilarity;
 import static org.junit.jupiter.api.Assertions.*;
 
 /**
@@ -20,6 +28,12 @@ public class RAGIntegrationTest {
     @Inject
     AgentRuntimeService runtimeService;
 
+    @Inject
+    VectorStoreService vectorStoreService;
+
+    @Inject
+    DocumentEmbeddingRepository embeddingRepository;
+
     @Test
     public void testRAGConfiguration_DefaultDisabled() {
         // Test that RAG is disabled by default
@@ -206,4 +220,61 @@ public class RAGIntegrationTest {
         assertTrue(context.hasContext, "Should have context with high relevance passage");
         assertEquals(1, context.totalPassages, "Should have 1 passage");
     }
+
+    /**
+     * Store chunks at cosine similarity 0.9, 0.75, 0.6 and 0.3 to the query
+     * "refund policy".
+     */
+    private UUID indexKnownVectors() {
+        StubEmbeddingService embeddings = new StubEmbeddingService()
+                .with("refund policy", atSimilarity(1.0));
+        QuarkusMock.installMockForType(embeddings, EmbeddingService.class);
+
+        UUID organizationId = SearchTestData.organization("Known vectors");
+        UUID documentId = SearchTestData.document(organizationId, "Policies.pdf");
+        SearchTestData.chunks(embeddingRepository, documentId,
+                List.of("similarity 0.9", "similarity 0.75", "similarity 0.6", "similarity 0.3"),
+                List.of(atSimilarity(0.9), atSimilarity(0.75), atSimilarity(0.6), atSimilarity(0.3)));
+        return organizationId;
+    }
+
+    @Test
+    public void testSemanticSearch_DistanceCutoffMatchesThreshold() {
+        UUID organizationId = indexKnownVectors();
+
+        List<VectorStoreService.SearchResult> results =
+                vectorStoreService.semanticSearch("refund policy", organizationId, 10, 0.7);
+
+        assertEquals(List.of("similarity 0.9", "similarity 0.75"),
+                results.stream().map(result -> result.chunkText).toList(),
+                "Only chunks with relevance >= 0.7 should be returned, most relevant first");
+        assertTrue(results.stream().allMatch(result -> result.relevanceScore >= 0.7),
+                "No returned chunk should be below the threshold");
+
+        assertEquals(4, vectorStoreService.semanticSearch("refund policy", organizationId, 10, 0.0).size(),
+                "A zero threshold should return every chunk at distance <= 1");
+        assertTrue(vectorStoreService.semanticSearch("refund policy", organizationId, 10, 0.95).isEmpty(),
+                "No chunk should reach a threshold of 0.95");
+    }
+
+    @Test
+    public void testSemanticSearch_RelevanceIsOneMinusDistance() {
+        UUID organizationId = indexKnownVectors();
+        float[] query = atSimilarity(1.0);
+
+        List<DocumentEmbeddingRepository.ChunkMatch> matches = QuarkusTransaction.requiringNew().call(() ->
+                embeddingRepository.findSimilarChunks(query, organizationId, 1.0, 10));
+        List<VectorStoreService.SearchResult> results =
+                vectorStoreService.semanticSearch("refund policy", organizationId, 10, 0.0);
+
+        double[] similarities = { 0.9, 0.75, 0.6, 0.3 };
+        assertEquals(similarities.length, matches.size());
+        assertEquals(similarities.length, results.size());
+        for (int i = 0; i < similarities.length; i++) {
+            assertEquals(1.0 - similarities[i], matches.get(i).distance, 1e-4,
+                    "Cosine distance should be 1 - cosine similarity");
+            assertEquals(similarities[i], results.get(i).relevanceScore, 1e-4,
+                    "Relevance score should be 1 - distance");
+        }
+    }
 }
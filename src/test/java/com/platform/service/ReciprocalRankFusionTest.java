@@ -0,0 +1,53 @@
+package com.platform.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for reciprocal rank fusion.
+ */
+class ReciprocalRankFusionTest {
+
+    @Test
+    void testItemsFoundBySeveralQueriesRankFirst() {
+        List<String> fused = ReciprocalRankFusion.fuse(List.of(
+                List.of("a", "b", "c"),
+                List.of("c", "d", "a"),
+                List.of("e", "c")), 60, 10);
+
+        // c: 1/63 + 1/61 + 1/62, a: 1/61 + 1/63
+        assertEquals(List.of("c", "a", "e", "b", "d"), fused);
+    }
+
+    @Test
+    void testLimitAndDuplicatesWithinAList() {
+        List<String> fused = ReciprocalRankFusion.fuse(List.of(
+                List.of("a", "a", "b"),
+                List.of("b")), 60, 1);
+
+        assertEquals(List.of("b"), fused);
+    }
+
+    @Test
+    void testWeightsShiftTheBalanceBetweenRankings() {
+        List<List<String>> rankings = List.of(
+                List.of("vector-hit", "shared"),
+                List.of("sku-match", "shared"));
+
+        assertEquals(List.of("shared", "vector-hit", "sku-match"),
+                ReciprocalRankFusion.fuse(rankings, List.of(1.0, 1.0), 60, 10));
+        assertEquals(List.of("shared", "sku-match", "vector-hit"),
+                ReciprocalRankFusion.fuse(rankings, List.of(0.2, 3.0), 60, 10));
+        assertThrows(IllegalArgumentException.class,
+                () -> ReciprocalRankFusion.fuse(rankings, List.of(1.0), 60, 10));
+    }
+
+    @Test
+    void testEmptyInput() {
+        assertTrue(ReciprocalRankFusion.fuse(List.<List<String>>of(), 60, 5).isEmpty());
+        assertTrue(ReciprocalRankFusion.fuse(List.of(List.<String>of()), 60, 5).isEmpty());
+    }
+}
@@ -0,0 +1,49 @@
+package com.platform.service;
+
+import com.platform.domain.Document;
+import com.platform.domain.Organization;
+import com.platform.repository.DocumentEmbeddingRepository;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Documents and chunk embeddings written straight to the database for
+ * search tests, bypassing the indexing pipeline.
+ */
+public final class SearchTestData {
+
+    private SearchTestData() {
+    }
+
+    public static UUID organization(String name) {
+        return QuarkusTransaction.requiringNew().call(() -> {
+            Organization organization = new Organization();
+            organization.name = name;
+            organization.persist();
+            return organization.id;
+        });
+    }
+
+    public static UUID document(UUID organizationId, String filename) {
+        return QuarkusTransaction.requiringNew().call(() -> {
+            Document document = new Document();
+            document.filename = filename;
+            document.contentType = "text/plain";
+            document.sizeBytes = 0L;
+            document.status = Document.DocumentStatus.INDEXED;
+            document.organization = Organization.findById(organizationId);
+            document.persist();
+            return document.id;
+        });
+    }
+
+    /**
+     * Store one chunk per text, with chunk indexes from 0.
+     */
+    public static void chunks(DocumentEmbeddingRepository repository, UUID documentId, List<String> texts,
+            List<float[]> embeddings) {
+        QuarkusTransaction.requiringNew().run(() -> repository.insertBatch(documentId, 0, texts, embeddings));
+    }
+}
@@ -0,0 +1,123 @@
+package com.platform.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.quarkus.redis.datasource.RedisDataSource;
+import io.quarkus.redis.datasource.value.ValueCommands;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Proxy;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the session cache, with an in-memory stand-in for Redis
+ * and without pub/sub.
+ */
+class SessionCacheTest {
+
+    private final Map<String, String> redis = new HashMap<>();
+    private final AtomicInteger redisReads = new AtomicInteger();
+    private SimpleMeterRegistry meterRegistry;
+    private SessionCache sessions;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        ValueCommands<String, String> values = (ValueCommands<String, String>) Proxy.newProxyInstance(
+                getClass().getClassLoader(), new Class<?>[] { ValueCommands.class }, (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "setex":
+                            redis.put((String) args[0], (String) args[2]);
+                            return null;
+                        case "get":
+                            redisReads.incrementAndGet();
+                            return redis.get(args[0]);
+                        case "getdel":
+                            return redis.remove(args[0]);
+                        default:
+                            throw new UnsupportedOperationException(method.getName());
+                    }
+                });
+        meterRegistry = new SimpleMeterRegistry();
+        sessions = new SessionCache();
+        sessions.meterRegistry = meterRegistry;
+        sessions.ttl = Duration.ofMinutes(1);
+        sessions.maxEntries = 100;
+        sessions.redisDataSource = (RedisDataSource) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[] { RedisDataSource.class }, (proxy, method, args) -> {
+                    if (method.getName().equals("value")) {
+                        return values;
+                    }
+                    throw new UnsupportedOperationException(method.getName());
+                });
+        sessions.init();
+    }
+
+    @Test
+    void testStoresFingerprintNotToken() {
+        UUID userId = UUID.randomUUID();
+        String token = "header.payload.signature-" + "x".repeat(500);
+
+        sessions.store(userId, token, Duration.ofHours(1));
+
+        String stored = redis.get("session:" + userId);
+        assertEquals(22, stored.length());
+        assertEquals(SessionCache.fingerprint(token), stored);
+        assertTrue(sessions.isValid(userId, token));
+        assertFalse(sessions.isValid(userId, token + "y"));
+    }
+
+    @Test
+    void testCachesLookups() {
+        UUID userId = UUID.randomUUID();
+        sessions.store(userId, "token", Duration.ofHours(1));
+
+        for (int i = 0; i < 5; i++) {
+            assertTrue(sessions.isValid(userId));
+        }
+
+        assertEquals(1, redisReads.get());
+        assertEquals(4.0, meterRegistry.get("cache.gets").tag("cache", "sessions").tag("result", "hit")
+                .functionCounter().count());
+    }
+
+    @Test
+    void testInvalidateTakesEffectImmediately() {
+        UUID userId = UUID.randomUUID();
+        sessions.store(userId, "token", Duration.ofHours(1));
+        assertTrue(sessions.isValid(userId));
+
+        sessions.invalidate(userId);
+
+        assertFalse(sessions.isValid(userId));
+    }
+
+    @Test
+    void testChangeFromAnotherNodeDropsCachedSessionAndRecordsLag() {
+        UUID userId = UUID.randomUUID();
+        sessions.store(userId, "token", Duration.ofHours(1));
+        assertTrue(sessions.isValid(userId));
+
+        // Another node revoked the session 20ms ago
+        redis.remove("session:" + userId);
+        sessions.onChange(userId + ":" + (System.currentTimeMillis() - 20));
+
+        assertFalse(sessions.isValid(userId));
+        assertEquals(1, meterRegistry.get("session.revocation.lag").timer().count());
+        assertTrue(meterRegistry.get("session.revocation.lag").timer().max(TimeUnit.MILLISECONDS) >= 20);
+    }
+
+    @Test
+    void testIgnoresMalformedChange() {
+        sessions.onChange("not-a-user:123");
+
+        assertEquals(0, meterRegistry.get("session.revocation.lag").timer().count());
+    }
+}
@@ -0,0 +1,87 @@
+package com.platform.service;
+
+import com.platform.ai.EmbeddingService;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Predicate;
+
+/**
+ * Embedding service for tests: texts map to fixed vectors instead of calling
+ * the model. Install with
+ * {@code QuarkusMock.installMockForType(stub, EmbeddingService.class)}.
+ */
+public class StubEmbeddingService extends EmbeddingService {
+
+    public static final int DIMENSION = 1024;
+
+    private final Map<String, float[]> vectors = new ConcurrentHashMap<>();
+    private volatile Predicate<List<String>> failWhen = texts -> false;
+
+    /** Texts of every embedAll call, in call order */
+    public final List<List<String>> batches = new CopyOnWriteArrayList<>();
+
+    /**
+     * Unit vector along one axis.
+     */
+    public static float[] axis(int axis) {
+        float[] vector = new float[DIMENSION];
+        vector[axis] = 1.0f;
+        return vector;
+    }
+
+    /**
+     * Unit vector at a given cosine similarity to {@code axis(0)}, in the
+     * plane of axes 0 and 1.
+     */
+    public static float[] atSimilarity(double cosine) {
+        float[] vector = new float[DIMENSION];
+        vector[0] = (float) cosine;
+        vector[1] = (float) Math.sqrt(1.0 - cosine * cosine);
+        return vector;
+    }
+
+    public StubEmbeddingService with(String text, float[] vector) {
+        vectors.put(text, vector);
+        return this;
+    }
+
+    /**
+     * Fail embedAll calls whose texts match.
+     */
+    public StubEmbeddingService failWhen(Predicate<List<String>> condition) {
+        failWhen = condition;
+        return this;
+    }
+
+    @Override
+    public float[] embed(String text) {
+        return vector(text);
+    }
+
+    @Override
+    public List<float[]> embedAll(List<String> texts) {
+        batches.add(List.copyOf(texts));
+        if (failWhen.test(texts)) {
+            throw new RuntimeException("Failed to generate embeddings");
+        }
+        List<float[]> result = new ArrayList<>(texts.size());
+        for (String text : texts) {
+            result.add(vector(text));
+        }
+        return result;
+    }
+
+    @Override
+    public int getDimension() {
+        return DIMENSION;
+    }
+
+    private float[] vector(String text) {
+        // Unknown texts get a stable axis of their own (never axis 0 or 1)
+        return vectors.computeIfAbsent(text, t -> axis(2 + Math.floorMod(t.hashCode(), DIMENSION - 2)));
+    }
+}
@@ -0,0 +1,78 @@
+package com.platform.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.platform.domain.Tool;
+import com.platform.service.dto.ToolExecutionResult;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for tool audit event sampling, buffering and truncation.
+ * The batch writer itself needs a database and is not exercised here.
+ */
+class ToolAuditLogTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private ToolAuditLog auditLog;
+    private CompiledTool tool;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        auditLog = new ToolAuditLog();
+        auditLog.objectMapper = new ObjectMapper();
+        auditLog.meterRegistry = meterRegistry;
+        auditLog.enabled = true;
+        auditLog.sampleRate = 0.0;
+        auditLog.maxPayloadChars = 8;
+        auditLog.bufferSize = 2;
+        auditLog.batchSize = 10;
+        // Long enough that the writer never runs during a test
+        auditLog.flushInterval = Duration.ofHours(1);
+        auditLog.init();
+
+        Tool entity = new Tool();
+        entity.id = UUID.randomUUID();
+        entity.name = "lookup";
+        entity.type = Tool.ToolType.REST_API;
+        entity.endpoint = "https://api.example.com/lookup";
+        tool = CompiledTool.compile(entity, new ObjectMapper());
+    }
+
+    @Test
+    void testSamplesSuccessesButKeepsFailures() {
+        auditLog.record(tool, Map.of(), ToolExecutionResult.success("ok", 5));
+        auditLog.record(tool, Map.of(), ToolExecutionResult.failure("boom", 5));
+
+        assertEquals(1.0, events("sampled-out"));
+        assertEquals(1.0, meterRegistry.get("tool.audit.buffered").gauge().value());
+    }
+
+    @Test
+    void testDropsEventsWhenBufferIsFull() {
+        for (int i = 0; i < 5; i++) {
+            auditLog.record(tool, Map.of(), ToolExecutionResult.failure("boom", 5));
+        }
+
+        assertEquals(2.0, meterRegistry.get("tool.audit.buffered").gauge().value());
+        assertEquals(3.0, events("dropped"));
+    }
+
+    @Test
+    void testTruncatesPayloads() {
+        assertNull(auditLog.truncate(null));
+        assertEquals("short", auditLog.truncate("short"));
+        assertEquals("01234567...[truncated 4 chars]", auditLog.truncate("0123456789ab"));
+    }
+
+    private double events(String result) {
+        return meterRegistry.get("tool.audit.events").tag("result", result).counter().count();
+    }
+}
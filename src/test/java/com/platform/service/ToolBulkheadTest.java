@@ -0,0 +1,175 @@
+package com.platform.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the per-tool adaptive limit and circuit breaker.
+ */
+class ToolBulkheadTest {
+
+    private static final long FAST = Duration.ofMillis(50).toNanos();
+    private static final long SLOW = Duration.ofSeconds(5).toNanos();
+
+    @Test
+    void testRejectsCallsBeyondLimit() {
+        ToolBulkhead bulkhead = new ToolBulkhead(settings(2));
+
+        ToolBulkhead.Permit first = bulkhead.tryAcquire(0);
+        assertTrue(first.isAdmitted());
+        assertTrue(bulkhead.tryAcquire(0).isAdmitted());
+        assertEquals(ToolBulkhead.Rejection.LIMIT, bulkhead.tryAcquire(0).rejection());
+
+        bulkhead.release(first, false, FAST, 0);
+        assertTrue(bulkhead.tryAcquire(0).isAdmitted());
+    }
+
+    @Test
+    void testLimitGrowsUnderLoadAndShrinksOnSlowCalls() {
+        ToolBulkhead bulkhead = new ToolBulkhead(settings(4));
+
+        for (int i = 0; i < 20; i++) {
+            saturate(bulkhead, FAST);
+        }
+        int grown = bulkhead.getLimit();
+        assertTrue(grown > 4, "Limit did not grow: " + grown);
+
+        saturate(bulkhead, SLOW);
+        assertTrue(bulkhead.getLimit() < grown);
+    }
+
+    @Test
+    void testLimitDoesNotGrowWhenIdle() {
+        ToolBulkhead bulkhead = new ToolBulkhead(settings(10));
+
+        for (int i = 0; i < 100; i++) {
+            call(bulkhead, 0, false, FAST);
+        }
+
+        assertEquals(10, bulkhead.getLimit());
+    }
+
+    @Test
+    void testLimitNeverDropsBelowMinimum() {
+        ToolBulkhead bulkhead = new ToolBulkhead(settings(2));
+
+        for (int i = 0; i < 50; i++) {
+            call(bulkhead, 0, false, SLOW);
+        }
+
+        assertEquals(1, bulkhead.getLimit());
+        assertFalse(bulkhead.isOpen());
+    }
+
+    @Test
+    void testCircuitOpensAndRecoversThroughTrialCall() {
+        ToolBulkhead.Settings settings = settings(10);
+        ToolBulkhead bulkhead = new ToolBulkhead(settings);
+        long delay = settings.openDelay.toNanos();
+
+        for (int i = 0; i < settings.windowSize; i++) {
+            call(bulkhead, 0, i % 2 == 0, FAST);
+        }
+        assertTrue(bulkhead.isOpen());
+        assertEquals(ToolBulkhead.Rejection.CIRCUIT_OPEN, bulkhead.tryAcquire(delay - 1).rejection());
+
+        // One trial call after the delay; others are still rejected
+        ToolBulkhead.Permit trial = bulkhead.tryAcquire(delay);
+        assertTrue(trial.isAdmitted());
+        assertEquals(ToolBulkhead.Rejection.CIRCUIT_OPEN, bulkhead.tryAcquire(delay).rejection());
+        bulkhead.release(trial, false, FAST, delay);
+
+        assertFalse(bulkhead.isOpen());
+        assertTrue(bulkhead.tryAcquire(delay).isAdmitted());
+    }
+
+    @Test
+    void testFailedTrialCallReopensCircuit() {
+        ToolBulkhead.Settings settings = settings(10);
+        ToolBulkhead bulkhead = new ToolBulkhead(settings);
+        long delay = settings.openDelay.toNanos();
+
+        for (int i = 0; i < settings.windowSize; i++) {
+            call(bulkhead, 0, true, FAST);
+        }
+        call(bulkhead, delay, true, FAST);
+
+        assertTrue(bulkhead.isOpen());
+        assertEquals(ToolBulkhead.Rejection.CIRCUIT_OPEN, bulkhead.tryAcquire(2 * delay - 1).rejection());
+    }
+
+    @Test
+    void testOnlyTheTrialCallDecidesTheHalfOpenCircuit() {
+        ToolBulkhead.Settings settings = settings(10);
+        ToolBulkhead bulkhead = new ToolBulkhead(settings);
+        long delay = settings.openDelay.toNanos();
+
+        // Admitted before the breaker trips, finishes after the delay
+        ToolBulkhead.Permit late = bulkhead.tryAcquire(0);
+        for (int i = 0; i < settings.windowSize; i++) {
+            call(bulkhead, 0, true, FAST);
+        }
+        assertTrue(bulkhead.isOpen());
+
+        ToolBulkhead.Permit trial = bulkhead.tryAcquire(delay);
+        assertTrue(trial.isAdmitted());
+        bulkhead.release(late, false, FAST, delay);
+        assertTrue(bulkhead.isOpen(), "A call from before the trip closed the breaker");
+        assertEquals(ToolBulkhead.Rejection.CIRCUIT_OPEN, bulkhead.tryAcquire(delay).rejection());
+
+        bulkhead.release(trial, true, FAST, delay);
+        assertTrue(bulkhead.isOpen());
+        assertEquals(ToolBulkhead.Rejection.CIRCUIT_OPEN, bulkhead.tryAcquire(2 * delay - 1).rejection());
+    }
+
+    @Test
+    void testCallsFromBeforeTheTripDoNotCountAfterRecovery() {
+        ToolBulkhead.Settings settings = settings(100);
+        ToolBulkhead bulkhead = new ToolBulkhead(settings);
+        long delay = settings.openDelay.toNanos();
+
+        List<ToolBulkhead.Permit> late = new ArrayList<>();
+        for (int i = 0; i < settings.windowSize; i++) {
+            late.add(bulkhead.tryAcquire(0));
+        }
+        for (int i = 0; i < settings.windowSize; i++) {
+            call(bulkhead, 0, true, FAST);
+        }
+        call(bulkhead, delay, false, FAST);
+        assertFalse(bulkhead.isOpen());
+
+        for (ToolBulkhead.Permit permit : late) {
+            bulkhead.release(permit, true, FAST, delay);
+        }
+
+        assertFalse(bulkhead.isOpen());
+    }
+
+    private static void call(ToolBulkhead bulkhead, long now, boolean failed, long latency) {
+        ToolBulkhead.Permit permit = bulkhead.tryAcquire(now);
+        assertTrue(permit.isAdmitted());
+        bulkhead.release(permit, failed, latency, now);
+    }
+
+    private static void saturate(ToolBulkhead bulkhead, long latency) {
+        List<ToolBulkhead.Permit> acquired = new ArrayList<>();
+        ToolBulkhead.Permit permit;
+        while ((permit = bulkhead.tryAcquire(0)).isAdmitted()) {
+            acquired.add(permit);
+        }
+        for (ToolBulkhead.Permit admitted : acquired) {
+            bulkhead.release(admitted, false, latency, 0);
+        }
+    }
+
+    private static ToolBulkhead.Settings settings(int initialLimit) {
+        ToolBulkhead.Settings settings = new ToolBulkhead.Settings();
+        settings.initialLimit = initialLimit;
+        return settings;
+    }
+}
@@ -0,0 +1,151 @@
+package com.platform.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.platform.domain.Tool;
+import com.platform.service.dto.ToolExecutionResult;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for hedged tool requests.
+ */
+class ToolHedgingTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private ToolHedging hedging;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        hedging = new ToolHedging();
+        hedging.meterRegistry = meterRegistry;
+        hedging.budgetRatio = 1.0;
+        hedging.budgetBurst = 10;
+        hedging.windowSize = 20;
+        hedging.minSamples = 5;
+        hedging.minDelay = Duration.ofMillis(10);
+        hedging.maxThreads = 8;
+        hedging.init();
+    }
+
+    @AfterEach
+    void tearDown() {
+        hedging.shutdown();
+    }
+
+    @Test
+    void testLatencyWindowPercentile() {
+        ToolHedging.LatencyWindow window = new ToolHedging.LatencyWindow(10);
+        assertEquals(-1, window.percentile(95, 1));
+
+        for (long i = 1; i <= 15; i++) {
+            window.record(i * 10);
+        }
+
+        // Only the last ten samples (60..150) are kept
+        assertEquals(150, window.percentile(95, 5));
+        assertEquals(100, window.percentile(50, 5));
+        assertEquals(60, window.percentile(1, 5));
+        assertEquals(-1, window.percentile(50, 11));
+    }
+
+    @Test
+    void testBudgetEarnsFractionalHedges() {
+        ToolHedging.HedgeBudget budget = new ToolHedging.HedgeBudget(0.25, 2);
+        assertFalse(budget.trySpend());
+
+        for (int i = 0; i < 4; i++) {
+            budget.earn();
+        }
+        assertTrue(budget.trySpend());
+        assertFalse(budget.trySpend());
+
+        for (int i = 0; i < 100; i++) {
+            budget.earn();
+        }
+        assertTrue(budget.trySpend());
+        assertTrue(budget.trySpend());
+        assertFalse(budget.trySpend());
+    }
+
+    @Test
+    void testSlowCallIsHedgedAndHedgeWins() {
+        CompiledTool tool = tool();
+        warmUp(tool, 5);
+
+        AtomicInteger attempts = new AtomicInteger();
+        long start = System.nanoTime();
+        ToolExecutionResult result = hedging.execute(tool, () -> {
+            if (attempts.incrementAndGet() == 1) {
+                sleep(2000);
+                return ToolExecutionResult.success("primary", 2000);
+            }
+            return ToolExecutionResult.success("hedge", 5);
+        });
+
+        assertEquals("hedge", result.result);
+        assertEquals(2, attempts.get());
+        assertTrue(Duration.ofNanos(System.nanoTime() - start).toMillis() < 1000);
+        assertEquals(1.0, meterRegistry.get("tool.hedge.calls").tag("outcome", "hedge-won").counter().count());
+    }
+
+    @Test
+    void testNoHedgeWithoutHistoryOrBudget() {
+        CompiledTool tool = tool();
+        AtomicInteger attempts = new AtomicInteger();
+
+        // Without latency history the call runs once, however slow
+        hedging.execute(tool, () -> {
+            attempts.incrementAndGet();
+            sleep(50);
+            return ToolExecutionResult.success("only", 50);
+        });
+        assertEquals(1, attempts.get());
+
+        hedging.budgetRatio = 0;
+        hedging.init();
+        warmUp(tool, 5);
+        attempts.set(0);
+        ToolExecutionResult result = hedging.execute(tool, () -> {
+            attempts.incrementAndGet();
+            sleep(100);
+            return ToolExecutionResult.success("primary", 100);
+        });
+
+        assertEquals("primary", result.result);
+        assertEquals(1, attempts.get());
+        assertEquals(1.0, meterRegistry.get("tool.hedge.calls").tag("outcome", "budget-exhausted").counter().count());
+    }
+
+    private void warmUp(CompiledTool tool, int calls) {
+        for (int i = 0; i < calls; i++) {
+            hedging.execute(tool, () -> ToolExecutionResult.success("fast", 1));
+        }
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static CompiledTool tool() {
+        Tool tool = new Tool();
+        tool.id = UUID.randomUUID();
+        tool.name = "quotes";
+        tool.type = Tool.ToolType.REST_API;
+        tool.endpoint = "https://api.example.com/quotes";
+        tool.executionPolicy = "{\"idempotent\":true,\"hedge\":{\"enabled\":true,\"percentile\":90}}";
+        return CompiledTool.compile(tool, new ObjectMapper());
+    }
+}
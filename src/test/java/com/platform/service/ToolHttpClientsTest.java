@@ -0,0 +1,136 @@
+package com.platform.service;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the shared tool HTTP client and per-host limits against a
+ * local server.
+ */
+class ToolHttpClientsTest {
+
+    private final CountDownLatch release = new CountDownLatch(1);
+    private final CountDownLatch slowStarted = new CountDownLatch(1);
+    private HttpServer server;
+    private SimpleMeterRegistry meterRegistry;
+    private ToolHttpClients clients;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.createContext("/fast", exchange -> respond(exchange, "fast"));
+        server.createContext("/slow", exchange -> {
+            slowStarted.countDown();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            respond(exchange, "slow");
+        });
+        server.start();
+
+        meterRegistry = new SimpleMeterRegistry();
+        clients = new ToolHttpClients();
+        clients.meterRegistry = meterRegistry;
+        clients.version = HttpClient.Version.HTTP_1_1;
+        clients.http1Hosts = Optional.empty();
+        clients.connectTimeout = Duration.ofSeconds(2);
+        clients.maxRequestsPerHost = 1;
+        clients.queueTimeout = Duration.ofMillis(100);
+        clients.maxThreads = 4;
+        clients.maxHosts = 1;
+        clients.hostIdleTimeout = Duration.ofMinutes(1);
+        clients.init();
+    }
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        server.stop(0);
+        clients.shutdown();
+    }
+
+    @Test
+    void testSendsAndRecordsPerHostMetrics() throws Exception {
+        HttpResponse<String> response = clients.send(request("/fast"), HttpResponse.BodyHandlers.ofString());
+
+        assertEquals(200, response.statusCode());
+        assertEquals("fast", response.body());
+        assertEquals(1.0, meterRegistry.get("tool.http.requests")
+                .tag("host", host()).tag("version", "HTTP_1_1").counter().count());
+        assertEquals(0.0, meterRegistry.get("tool.http.in-flight").tag("host", host()).gauge().value());
+    }
+
+    @Test
+    void testRequestsBeyondTheHostLimitTimeOutInTheQueue() throws Exception {
+        CompletableFuture<String> slow = CompletableFuture.supplyAsync(() -> {
+            try {
+                return clients.send(request("/slow"), HttpResponse.BodyHandlers.ofString()).body();
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        assertTrue(slowStarted.await(5, TimeUnit.SECONDS));
+
+        IOException e = assertThrows(IOException.class,
+                () -> clients.send(request("/fast"), HttpResponse.BodyHandlers.ofString()));
+        assertTrue(e.getMessage().contains("Timed out waiting"));
+
+        release.countDown();
+        assertEquals("slow", slow.get(5, TimeUnit.SECONDS));
+        assertEquals("fast", clients.send(request("/fast"), HttpResponse.BodyHandlers.ofString()).body());
+    }
+
+    @Test
+    void testEvictedHostsDropTheirMeters() throws Exception {
+        String otherHost = "http://localhost:" + server.getAddress().getPort();
+        clients.send(request("/fast"), HttpResponse.BodyHandlers.ofString());
+        clients.send(HttpRequest.newBuilder(URI.create(otherHost + "/fast")).GET().build(),
+                HttpResponse.BodyHandlers.ofString());
+
+        clients.hosts.cleanUp();
+
+        assertEquals(1, clients.hosts.estimatedSize());
+        assertEquals(1, meterRegistry.find("tool.http.in-flight").gauges().size());
+        assertEquals(1, meterRegistry.find("tool.http.requests").counters().size());
+    }
+
+    private String host() {
+        return "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    private HttpRequest request(String path) {
+        return HttpRequest.newBuilder(URI.create(host() + path)).GET().build();
+    }
+
+    private static void respond(HttpExchange exchange, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.sendResponseHeaders(200, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+}
@@ -0,0 +1,154 @@
+package com.platform.service;
+
+import com.platform.exception.ValidationException;
+import com.platform.service.dto.ToolExecutionResult;
+import com.platform.service.dto.ToolPlan;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for dependency-aware tool plan execution.
+ */
+class ToolPlanRunTest {
+
+    private final Map<String, CompletableFuture<ToolExecutionResult>> calls = new LinkedHashMap<>();
+    private final Map<String, Map<String, Object>> params = new LinkedHashMap<>();
+    private final List<ToolExecutionOrchestrator.ToolStepResult> results = new ArrayList<>();
+    private boolean completed;
+
+    @Test
+    void testIndependentStepsStartTogetherAndDependentsWait() {
+        ToolPlan plan = new ToolPlan(List.of(step("a"), step("b"), step("c", "a", "b")));
+
+        start(plan, 8);
+        assertEquals(List.of("a", "b"), List.copyOf(calls.keySet()));
+
+        succeed("a", "A");
+        assertFalse(calls.containsKey("c"));
+        succeed("b", "B");
+        assertTrue(calls.containsKey("c"));
+        succeed("c", "C");
+
+        assertEquals(List.of("a", "b", "c"), stepIds());
+        assertTrue(completed);
+    }
+
+    @Test
+    void testInputsResolveFromUpstreamResults() {
+        ToolPlan.ToolStep lookup = step("lookup");
+        ToolPlan.ToolStep weather = step("weather");
+        weather.params.put("units", "metric");
+        weather.inputs.put("city", "lookup.address.city");
+        weather.inputs.put("raw", "lookup");
+
+        start(new ToolPlan(List.of(lookup, weather)), 8);
+        Map<String, Object> lookupResult = Map.of("address", Map.of("city", "Accra"));
+        succeed("lookup", lookupResult);
+
+        Map<String, Object> weatherParams = params.get("weather");
+        assertEquals("Accra", weatherParams.get("city"));
+        assertEquals(lookupResult, weatherParams.get("raw"));
+        assertEquals("metric", weatherParams.get("units"));
+        assertEquals("agent-context", weatherParams.get("session"));
+    }
+
+    @Test
+    void testCriticalPathStartsFirstWhenSlotsAreLimited() {
+        // long1 -> long2 -> long3 is the critical path; short is a single step
+        ToolPlan plan = new ToolPlan(List.of(step("short"), step("long1"), step("long2", "long1"),
+                step("long3", "long2")));
+
+        ToolPlanRun run = start(plan, 1);
+        assertEquals(3, run.rank("long1"));
+        assertEquals(1, run.rank("short"));
+        assertEquals(List.of("long1"), List.copyOf(calls.keySet()));
+
+        succeed("long1", null);
+        assertEquals("long2", lastCall());
+    }
+
+    @Test
+    void testExpectedLatencyWeightsCriticalPath() {
+        ToolPlan.ToolStep slow = step("slow");
+        slow.expectedLatencyMs = 5000L;
+        ToolPlan.ToolStep fast1 = step("fast1");
+        ToolPlan.ToolStep fast2 = step("fast2", "fast1");
+
+        start(new ToolPlan(List.of(fast1, fast2, slow)), 1);
+
+        assertEquals(List.of("slow"), List.copyOf(calls.keySet()));
+    }
+
+    @Test
+    void testDependentsOfFailedStepAreSkipped() {
+        ToolPlan plan = new ToolPlan(List.of(step("a"), step("b", "a"), step("c", "b"), step("d")));
+
+        start(plan, 8);
+        calls.get("a").complete(ToolExecutionResult.failure("boom", 1));
+        succeed("d", "D");
+
+        assertEquals(ToolExecutionOrchestrator.StepStatus.FAILED, result("a").status);
+        assertEquals(ToolExecutionOrchestrator.StepStatus.SKIPPED, result("b").status);
+        assertEquals(ToolExecutionOrchestrator.StepStatus.SKIPPED, result("c").status);
+        assertEquals(ToolExecutionOrchestrator.StepStatus.SUCCEEDED, result("d").status);
+        assertFalse(calls.containsKey("b"));
+        assertTrue(completed);
+    }
+
+    @Test
+    void testInvalidPlansAreRejected() {
+        assertThrows(ValidationException.class, () -> start(new ToolPlan(List.of(step("a", "b"), step("b", "a"))), 8));
+        assertThrows(ValidationException.class, () -> start(new ToolPlan(List.of(step("a", "missing"))), 8));
+        assertThrows(ValidationException.class, () -> start(new ToolPlan(List.of(step("a"), step("a"))), 8));
+    }
+
+    @Test
+    void testEmptyPlanCompletesImmediately() {
+        start(new ToolPlan(), 8);
+
+        assertTrue(completed);
+        assertTrue(results.isEmpty());
+    }
+
+    private ToolPlanRun start(ToolPlan plan, int maxParallelism) {
+        ToolPlanRun run = new ToolPlanRun(plan, Map.of("session", "agent-context"), maxParallelism,
+                (step, stepParams) -> {
+                    CompletableFuture<ToolExecutionResult> future = new CompletableFuture<>();
+                    calls.put(step.id, future);
+                    params.put(step.id, stepParams);
+                    return future;
+                });
+        run.start(results::add, () -> completed = true);
+        return run;
+    }
+
+    private void succeed(String stepId, Object value) {
+        calls.get(stepId).complete(ToolExecutionResult.success(value, 1));
+    }
+
+    private String lastCall() {
+        List<String> ids = List.copyOf(calls.keySet());
+        return ids.get(ids.size() - 1);
+    }
+
+    private List<String> stepIds() {
+        return results.stream().map(result -> result.stepId).toList();
+    }
+
+    private ToolExecutionOrchestrator.ToolStepResult result(String stepId) {
+        return results.stream().filter(result -> result.stepId.equals(stepId)).findFirst().orElseThrow();
+    }
+
+    private static ToolPlan.ToolStep step(String id, String... dependsOn) {
+        ToolPlan.ToolStep step = new ToolPlan.ToolStep(id, "tool-" + id);
+        step.dependsOn.addAll(List.of(dependsOn));
+        return step;
+    }
+}
@@ -0,0 +1,161 @@
+package com.platform.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.platform.domain.Tool;
+import com.platform.service.dto.ToolExecutionResult;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the tool response cache.
+ */
+class ToolResponseCacheTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private ToolResponseCache cache;
+
+    @BeforeEach
+    void setUp() {
+        cache = new ToolResponseCache();
+        cache.objectMapper = objectMapper;
+        cache.meterRegistry = new SimpleMeterRegistry();
+        cache.maxBytes = 1024 * 1024;
+        cache.init();
+    }
+
+    @Test
+    void testKeyIgnoresParameterOrder() {
+        CompiledTool tool = tool(1, 60, 1024);
+        Map<String, Object> first = new LinkedHashMap<>();
+        first.put("base", "USD");
+        first.put("options", Map.of("a", 1, "b", 2));
+        first.put("quote", "GHS");
+        Map<String, Object> second = new LinkedHashMap<>();
+        second.put("quote", "GHS");
+        second.put("options", new LinkedHashMap<>(Map.of("b", 2, "a", 1)));
+        second.put("base", "USD");
+
+        assertEquals(ToolResponseCache.key(tool, first), ToolResponseCache.key(tool, second));
+        assertNotEquals(ToolResponseCache.key(tool, first), ToolResponseCache.key(tool, Map.of("base", "EUR")));
+        assertEquals(ToolResponseCache.key(tool, null), ToolResponseCache.key(tool, Map.of()));
+    }
+
+    @Test
+    void testKeyChangesWithToolVersion() {
+        UUID id = UUID.randomUUID();
+        assertNotEquals(ToolResponseCache.key(tool(id, 1, 60, 1024), Map.of()),
+                ToolResponseCache.key(tool(id, 2, 60, 1024), Map.of()));
+    }
+
+    @Test
+    void testSuccessfulResultsAreServedFromCache() {
+        CompiledTool tool = tool(1, 60, 1024);
+        AtomicInteger calls = new AtomicInteger();
+
+        for (int i = 0; i < 3; i++) {
+            ToolExecutionResult result = cache.execute(tool, Map.of("base", "USD"), () -> {
+                calls.incrementAndGet();
+                return ToolExecutionResult.success(Map.of("rate", 12.5), 40);
+            });
+            assertEquals(Map.of("rate", 12.5), result.result);
+        }
+
+        assertEquals(1, calls.get());
+    }
+
+    @Test
+    void testFailuresAndOversizedResultsAreNotCached() {
+        CompiledTool tool = tool(1, 60, 16);
+        AtomicInteger calls = new AtomicInteger();
+
+        cache.execute(tool, Map.of(), () -> {
+            calls.incrementAndGet();
+            return ToolExecutionResult.failure("unavailable", 5);
+        });
+        cache.execute(tool, Map.of(), () -> {
+            calls.incrementAndGet();
+            return ToolExecutionResult.success("a response well over sixteen bytes", 5);
+        });
+        cache.execute(tool, Map.of(), () -> {
+            calls.incrementAndGet();
+            return ToolExecutionResult.success("small", 5);
+        });
+        cache.execute(tool, Map.of(), () -> {
+            calls.incrementAndGet();
+            return ToolExecutionResult.success("small", 5);
+        });
+
+        assertEquals(3, calls.get());
+    }
+
+    @Test
+    void testConcurrentIdenticalCallsShareOneRequest() throws Exception {
+        CompiledTool tool = tool(1, 60, 1024);
+        AtomicInteger calls = new AtomicInteger();
+        CountDownLatch leaderStarted = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        CompletableFuture<ToolExecutionResult> leader = CompletableFuture.supplyAsync(() ->
+                cache.execute(tool, Map.of("sku", "A-1"), () -> {
+                    calls.incrementAndGet();
+                    leaderStarted.countDown();
+                    await(release);
+                    return ToolExecutionResult.success("product", 100);
+                }));
+        assertTrue(leaderStarted.await(5, TimeUnit.SECONDS));
+
+        List<CompletableFuture<ToolExecutionResult>> followers = List.of(
+                CompletableFuture.supplyAsync(() -> cache.execute(tool, Map.of("sku", "A-1"), () -> {
+                    calls.incrementAndGet();
+                    return ToolExecutionResult.success("product", 100);
+                })),
+                CompletableFuture.supplyAsync(() -> cache.execute(tool, Map.of("sku", "A-1"), () -> {
+                    calls.incrementAndGet();
+                    return ToolExecutionResult.success("product", 100);
+                })));
+        Thread.sleep(50);
+        release.countDown();
+
+        assertEquals("product", leader.get(5, TimeUnit.SECONDS).result);
+        for (CompletableFuture<ToolExecutionResult> follower : followers) {
+            assertEquals("product", follower.get(5, TimeUnit.SECONDS).result);
+        }
+        assertEquals(1, calls.get());
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private CompiledTool tool(long version, long ttlSeconds, int maxEntryBytes) {
+        return tool(UUID.randomUUID(), version, ttlSeconds, maxEntryBytes);
+    }
+
+    private CompiledTool tool(UUID id, long version, long ttlSeconds, int maxEntryBytes) {
+        Tool tool = new Tool();
+        tool.id = id;
+        tool.version = version;
+        tool.name = "rates";
+        tool.type = Tool.ToolType.REST_API;
+        tool.endpoint = "https://api.example.com/rates";
+        tool.executionPolicy = "{\"idempotent\":true,\"cache\":{\"enabled\":true,\"ttlSeconds\":" + ttlSeconds
+                + ",\"maxEntryBytes\":" + maxEntryBytes + "}}";
+        return CompiledTool.compile(tool, objectMapper);
+    }
+}
@@ -0,0 +1,79 @@
+package com.platform.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.platform.domain.Tool;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for capped, projected reading of tool responses.
+ */
+class ToolResponseReaderTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private ToolResponseReader reader;
+
+    @BeforeEach
+    void setUp() {
+        reader = new ToolResponseReader();
+        reader.objectMapper = objectMapper;
+        reader.defaultMaxBytes = 1024;
+    }
+
+    @Test
+    void testReadsJsonAndText() throws Exception {
+        CompiledTool tool = tool(null);
+
+        assertEquals(Map.of("rate", 12.5), reader.read(tool, body("{\"rate\":12.5}"), "application/json", -1));
+        assertEquals("plain answer", reader.read(tool, body("plain answer"), "text/plain", -1));
+        assertEquals(List.of(1, 2), reader.read(tool, body("[1,2]"), null, -1));
+        assertNull(reader.read(tool, body(""), "application/json", -1));
+    }
+
+    @Test
+    void testBodiesOverTheCapAreRejected() {
+        CompiledTool tool = tool("{\"response\":{\"maxBytes\":16}}");
+        String large = "{\"values\":\"" + "x".repeat(64) + "\"}";
+
+        assertThrows(ToolResponseReader.ResponseTooLargeException.class,
+                () -> reader.read(tool, body(large), "application/json", -1));
+        assertThrows(ToolResponseReader.ResponseTooLargeException.class,
+                () -> reader.read(tool, body("{}"), "application/json", 4096));
+        assertThrows(ToolResponseReader.ResponseTooLargeException.class,
+                () -> reader.read(tool(null), body("y".repeat(2048)), "text/plain", -1));
+    }
+
+    @Test
+    void testProjectsJsonResponses() throws Exception {
+        CompiledTool tool = tool("{\"response\":{\"fields\":[\"$.data[*].id\"]}}");
+
+        Object result = reader.read(tool,
+                body("{\"data\":[{\"id\":1,\"body\":\"...\"},{\"id\":2,\"body\":\"...\"}],\"paging\":{}}"),
+                "application/json; charset=utf-8", -1);
+
+        assertEquals(Map.of("$.data[*].id", List.of(1, 2)), result);
+    }
+
+    private static InputStream body(String text) {
+        return new ByteArrayInputStream(text.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private CompiledTool tool(String executionPolicy) {
+        Tool tool = new Tool();
+        tool.id = UUID.randomUUID();
+        tool.name = "search";
+        tool.type = Tool.ToolType.REST_API;
+        tool.endpoint = "https://api.example.com/search";
+        tool.executionPolicy = executionPolicy;
+        return CompiledTool.compile(tool, objectMapper);
+    }
+}
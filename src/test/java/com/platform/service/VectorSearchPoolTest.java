@@ -0,0 +1,76 @@
+package com.platform.service;
+
+import io.quarkus.arc.Arc;
+import io.quarkus.arc.InjectableContext;
+import io.quarkus.arc.ManagedContext;
+import io.quarkus.test.junit.QuarkusTest;
+import io.quarkus.test.junit.QuarkusTestProfile;
+import io.quarkus.test.junit.TestProfile;
+import jakarta.enterprise.context.control.ActivateRequestContext;
+import jakarta.inject.Inject;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for sub-query searches overflowing the search pool onto the calling
+ * thread: the caller's request context must survive them.
+ */
+@QuarkusTest
+@TestProfile(VectorSearchPoolTest.OneSearchThread.class)
+class VectorSearchPoolTest {
+
+    @Inject
+    VectorStoreService vectorStoreService;
+
+    public static class OneSearchThread implements QuarkusTestProfile {
+        @Override
+        public Map<String, String> getConfigOverrides() {
+            return Map.of(
+                    "vector.search.max-threads", "1",
+                    "vector.search.queue-capacity", "1");
+        }
+    }
+
+    @Test
+    @ActivateRequestContext
+    void testSearchRunInlineKeepsCallersRequestContext() throws Exception {
+        ManagedContext requestContext = Arc.container().requestContext();
+        InjectableContext.ContextState callerState = requestContext.getState();
+
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch running = new CountDownLatch(1);
+        CompletableFuture<Boolean> busy = vectorStoreService.searchAsync(() -> {
+            running.countDown();
+            try {
+                return release.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        assertTrue(running.await(5, TimeUnit.SECONDS));
+        CompletableFuture<Boolean> queued = vectorStoreService.searchAsync(() -> true);
+
+        // Thread busy and queue full: this one runs on the calling thread
+        Thread caller = Thread.currentThread();
+        CompletableFuture<Boolean> inline = vectorStoreService.searchAsync(
+                () -> Thread.currentThread() == caller && requestContext.isActive());
+        assertTrue(inline.isDone());
+        assertTrue(inline.get());
+
+        assertTrue(requestContext.isActive(), "Caller's request context was deactivated");
+        assertSame(callerState, requestContext.getState(), "Caller's request context state was replaced");
+
+        release.countDown();
+        assertTrue(busy.get(5, TimeUnit.SECONDS));
+        assertTrue(queued.get(5, TimeUnit.SECONDS));
+        // Pool threads still get a context of their own
+        assertTrue(vectorStoreService.searchAsync(() -> Arc.container().requestContext().isActive())
+                .get(5, TimeUnit.SECONDS));
+    }
+}
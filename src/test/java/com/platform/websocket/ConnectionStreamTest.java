@@ -0,0 +1,134 @@
+package com.platform.websocket;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.smallrye.mutiny.Multi;
+import io.smallrye.mutiny.Uni;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for per-connection frame buffering and overflow handling.
+ */
+class ConnectionStreamTest {
+
+    private ScheduledExecutorService scheduler;
+    private SimpleMeterRegistry registry;
+    private List<String> sent;
+    private List<CompletableFuture<Void>> sends;
+
+    @BeforeEach
+    void setUp() {
+        scheduler = Executors.newSingleThreadScheduledExecutor();
+        registry = new SimpleMeterRegistry();
+        sent = new ArrayList<>();
+        sends = new ArrayList<>();
+    }
+
+    @AfterEach
+    void tearDown() {
+        scheduler.shutdownNow();
+    }
+
+    @Test
+    void testTokensAreCoalescedIntoFrames() {
+        ConnectionStream stream = newStream(10, 4, ConnectionStream.OverflowPolicy.PAUSE, true);
+
+        stream.stream(Multi.createFrom().items("Hello", " wor", "ld", "!")).await().atMost(Duration.ofSeconds(5));
+
+        // Tokens are never split; a frame is flushed once it reaches the size budget
+        assertEquals(List.of("Hello world", "!"), sent);
+    }
+
+    @Test
+    void testPartialFrameIsFlushedAfterDelay() {
+        ConnectionStream stream = newStream(1000, 4, ConnectionStream.OverflowPolicy.PAUSE, true);
+
+        stream.stream(Multi.createFrom().items("a", "b")).await().atMost(Duration.ofSeconds(5));
+
+        assertEquals(List.of("ab"), sent);
+    }
+
+    @Test
+    void testPauseStopsRequestingWhenBufferIsFull() {
+        ConnectionStream stream = newStream(1, 2, ConnectionStream.OverflowPolicy.PAUSE, false);
+        AtomicLong requested = new AtomicLong();
+        Multi<String> tokens = Multi.createFrom().range(0, 100)
+                .map(String::valueOf)
+                .onRequest().invoke(requested::addAndGet);
+
+        CompletableFuture<Void> done = stream.stream(tokens).subscribeAsCompletionStage().toCompletableFuture();
+
+        // One send in flight, two frames buffered, then upstream is paused
+        assertEquals(1, sends.size());
+        assertTrue(requested.get() <= 4, "Requested " + requested.get());
+        assertFalse(done.isDone());
+
+        completeSendsUntil(done);
+        assertEquals(100, sent.size());
+    }
+
+    @Test
+    void testDropDiscardsFramesWhenBufferIsFull() {
+        ConnectionStream stream = newStream(1, 2, ConnectionStream.OverflowPolicy.DROP, false);
+
+        CompletableFuture<Void> done = stream.stream(Multi.createFrom().items("a", "b", "c", "d", "e"))
+                .subscribeAsCompletionStage().toCompletableFuture();
+        completeSendsUntil(done);
+
+        assertEquals(List.of("a", "b", "c"), sent);
+        assertEquals(2.0, registry.counter("dropped").count());
+    }
+
+    @Test
+    void testCoalesceMergesIntoLastBufferedFrame() {
+        ConnectionStream stream = newStream(1, 2, ConnectionStream.OverflowPolicy.COALESCE, false);
+
+        CompletableFuture<Void> done = stream.stream(Multi.createFrom().items("a", "b", "c", "d", "e"))
+                .subscribeAsCompletionStage().toCompletableFuture();
+        completeSendsUntil(done);
+
+        assertEquals(List.of("a", "b", "cde"), sent);
+        assertEquals(2.0, registry.counter("coalesced").count());
+    }
+
+    private ConnectionStream newStream(int maxFrameChars, int maxBufferedFrames,
+            ConnectionStream.OverflowPolicy policy, boolean autoComplete) {
+        Counter dropped = registry.counter("dropped");
+        Counter coalesced = registry.counter("coalesced");
+        return new ConnectionStream("test", frame -> {
+            synchronized (sent) {
+                sent.add(frame);
+                CompletableFuture<Void> send = new CompletableFuture<>();
+                sends.add(send);
+                if (autoComplete) {
+                    send.complete(null);
+                }
+                return Uni.createFrom().completionStage(send);
+            }
+        }, scheduler, maxFrameChars, 20, maxBufferedFrames, 1, policy, dropped, coalesced);
+    }
+
+    private void completeSendsUntil(CompletableFuture<Void> done) {
+        for (int i = 0; i < 1000 && !done.isDone(); i++) {
+            List<CompletableFuture<Void>> open;
+            synchronized (sent) {
+                open = sends.stream().filter(send -> !send.isDone()).collect(Collectors.toList());
+            }
+            open.forEach(send -> send.complete(null));
+        }
+        assertTrue(done.isDone());
+    }
+}
@@ -0,0 +1,111 @@
+package com.platform.websocket;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.quarkus.websockets.next.WebSocketConnection;
+import io.smallrye.mutiny.Multi;
+import io.smallrye.mutiny.Uni;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Proxy;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the per-connection stream registry.
+ */
+class ResponseStreamerTest {
+
+    private SimpleMeterRegistry registry;
+    private ResponseStreamer streamer;
+    private AtomicBoolean closed;
+    private List<String> sent;
+    private WebSocketConnection connection;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        streamer = new ResponseStreamer();
+        streamer.meterRegistry = registry;
+        streamer.maxFrameChars = 256;
+        streamer.maxFrameDelay = Duration.ofMillis(10);
+        streamer.maxBufferedFrames = 64;
+        streamer.maxInFlight = 4;
+        streamer.overflowPolicy = ConnectionStream.OverflowPolicy.PAUSE;
+        streamer.init();
+
+        closed = new AtomicBoolean();
+        sent = new CopyOnWriteArrayList<>();
+        connection = connection("connection-1");
+    }
+
+    @AfterEach
+    void tearDown() {
+        streamer.shutdown();
+    }
+
+    /**
+     * A connection that records sent frames and reports {@link #closed}.
+     */
+    private WebSocketConnection connection(String id) {
+        return (WebSocketConnection) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[] { WebSocketConnection.class }, (proxy, method, args) -> switch (method.getName()) {
+                    case "id" -> id;
+                    case "isClosed" -> closed.get();
+                    case "isOpen" -> !closed.get();
+                    case "toString" -> id;
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    case "equals" -> proxy == args[0];
+                    case "sendText" -> {
+                        sent.add((String) args[0]);
+                        yield Uni.createFrom().voidItem();
+                    }
+                    default -> throw new UnsupportedOperationException(method.getName());
+                });
+    }
+
+    private double connections() {
+        return registry.get("websocket.stream.connections").gauge().value();
+    }
+
+    @Test
+    void testStreamIsRemovedOnClose() {
+        streamer.stream(connection, Multi.createFrom().items("Hello", " world"))
+                .await().atMost(Duration.ofSeconds(5));
+
+        assertEquals(List.of("Hello world"), sent);
+        assertEquals(1, connections());
+
+        closed.set(true);
+        streamer.close("connection-1");
+        assertEquals(0, connections());
+    }
+
+    @Test
+    void testResponseAfterCloseDoesNotRecreateStream() {
+        streamer.stream(connection, Multi.createFrom().items("first")).await().atMost(Duration.ofSeconds(5));
+        closed.set(true);
+        streamer.close("connection-1");
+
+        // A response finishing after the connection closed
+        streamer.stream(connection, Multi.createFrom().items("late")).await().atMost(Duration.ofSeconds(5));
+
+        assertEquals(List.of("first"), sent);
+        assertEquals(0, connections());
+    }
+
+    @Test
+    void testClosedConnectionGetsNoStream() {
+        closed.set(true);
+
+        streamer.stream(connection, Multi.createFrom().items("never sent")).await().atMost(Duration.ofSeconds(5));
+
+        assertTrue(sent.isEmpty());
+        assertEquals(0, connections());
+    }
+}